@@ -0,0 +1,88 @@
+package org.whisperdog.audio;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.whisperdog.benchmark.SyntheticAudio;
+import org.whisperdog.benchmark.Throughput;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The conversion {@link SystemAudioCapture} runs on every loopback callback: one second
+ * of device audio delivered in 10ms buffers, downmixed and resampled to 16kHz mono.
+ * Megabytes count device input, so float and int16 formats compare on the same footing
+ * as the audio callback sees them.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class LoopbackConverterBenchmark {
+
+    private static final int CALLBACK_MILLIS = 10;
+
+    @Param({"48000", "44100"})
+    public int deviceSampleRate;
+
+    @Param({"2"})
+    public int deviceChannels;
+
+    private LoopbackConverter converter;
+    private float[] floatSecond;
+    private short[] shortSecond;
+    private float[] floatCallback;
+    private short[] shortCallback;
+    private int callbackFrames;
+    private double floatMegabytesPerOp;
+    private double shortMegabytesPerOp;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        callbackFrames = deviceSampleRate * CALLBACK_MILLIS / 1000;
+        converter = new LoopbackConverter(deviceSampleRate, deviceChannels, 16000, 8.0f);
+        converter.reserve(callbackFrames);
+        floatSecond = SyntheticAudio.speechFloats(deviceSampleRate, deviceChannels, deviceSampleRate, 1);
+        shortSecond = SyntheticAudio.speechShorts(deviceSampleRate, deviceChannels, deviceSampleRate, 1);
+        floatCallback = new float[callbackFrames * deviceChannels];
+        shortCallback = new short[callbackFrames * deviceChannels];
+        floatMegabytesPerOp = Throughput.toMegabytes((long) floatSecond.length * Float.BYTES);
+        shortMegabytesPerOp = Throughput.toMegabytes((long) shortSecond.length * Short.BYTES);
+    }
+
+    @Benchmark
+    public int convertFloat(Throughput throughput) {
+        throughput.megabytes += floatMegabytesPerOp;
+        int bytes = 0;
+        int samplesPerCallback = floatCallback.length;
+        for (int offset = 0; offset + samplesPerCallback <= floatSecond.length; offset += samplesPerCallback) {
+            // XT-Audio hands the callback its own array, so copy as the capture would receive it
+            System.arraycopy(floatSecond, offset, floatCallback, 0, samplesPerCallback);
+            bytes += converter.convert(floatCallback, callbackFrames);
+        }
+        return bytes;
+    }
+
+    @Benchmark
+    public int convertInt16(Throughput throughput) {
+        throughput.megabytes += shortMegabytesPerOp;
+        int bytes = 0;
+        int samplesPerCallback = shortCallback.length;
+        for (int offset = 0; offset + samplesPerCallback <= shortSecond.length; offset += samplesPerCallback) {
+            System.arraycopy(shortSecond, offset, shortCallback, 0, samplesPerCallback);
+            bytes += converter.convert(shortCallback, callbackFrames);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,98 @@
+package org.whisperdog.audio;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.whisperdog.benchmark.SyntheticAudio;
+import org.whisperdog.benchmark.Throughput;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Source attribution for a dual-source recording: building the activity timeline from
+ * both track files and labelling the transcript against it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SourceActivityTrackerBenchmark {
+
+    private static final int WORDS_PER_MINUTE = 150;
+
+    @Param({"10"})
+    public int minutes;
+
+    private final SourceActivityTracker tracker = new SourceActivityTracker();
+    private File micTrack;
+    private File systemTrack;
+    private List<SourceActivityTracker.ActivitySegment> timeline;
+    private String transcript;
+    private List<SourceActivityTracker.TimestampedWord> words;
+    private double trackMegabytesPerOp;
+    private double transcriptMegabytesPerOp;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // Different seeds put the two tracks on alternating turns with some overlap
+        micTrack = SyntheticAudio.speechWav("mic", 20000, 1, minutes * 60, 1);
+        systemTrack = SyntheticAudio.speechWav("system", 16000, 1, minutes * 60, 2);
+        timeline = tracker.trackActivity(micTrack, systemTrack);
+
+        int wordCount = minutes * WORDS_PER_MINUTE;
+        long msPerWord = 60_000L / WORDS_PER_MINUTE;
+        StringBuilder text = new StringBuilder();
+        words = new ArrayList<>(wordCount);
+        for (int i = 0; i < wordCount; i++) {
+            String word = "word" + (i % 97);
+            text.append(word).append(' ');
+            words.add(new SourceActivityTracker.TimestampedWord(word, i * msPerWord, (i + 1) * msPerWord - 50));
+        }
+        transcript = text.toString().trim();
+
+        trackMegabytesPerOp = Throughput.toMegabytes(micTrack.length() + systemTrack.length());
+        transcriptMegabytesPerOp = Throughput.toMegabytes(transcript.length());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        micTrack.delete();
+        systemTrack.delete();
+    }
+
+    @Benchmark
+    public List<SourceActivityTracker.ActivitySegment> trackActivity(Throughput throughput) {
+        throughput.megabytes += trackMegabytesPerOp;
+        return tracker.trackActivity(micTrack, systemTrack);
+    }
+
+    /** Proportional labelling; megabytes count transcript characters */
+    @Benchmark
+    public String labelTranscript(Throughput throughput) {
+        throughput.megabytes += transcriptMegabytesPerOp;
+        return tracker.labelTranscript(transcript, timeline);
+    }
+
+    /** Word-timestamp labelling; megabytes count transcript characters */
+    @Benchmark
+    public String labelTranscriptWithTimestamps(Throughput throughput) {
+        throughput.megabytes += transcriptMegabytesPerOp;
+        return tracker.labelTranscriptWithTimestamps(words, timeline);
+    }
+}
@@ -0,0 +1,89 @@
+package org.whisperdog.benchmark;
+
+import org.whisperdog.recording.IncrementalWavWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Deterministic speech-like PCM for the benchmarks: 1.7s bursts of noise at speech level
+ * followed by 0.8s of room tone, so silence detection and source attribution have real
+ * work to do. The same seed always produces the same audio.
+ */
+public final class SyntheticAudio {
+
+    private static final int CYCLE_TENTHS = 25;
+    private static final int TALK_TENTHS = 17;
+    private static final double SPEECH_LEVEL = 0.1;
+    private static final double ROOM_LEVEL = 0.001;
+
+    private SyntheticAudio() {
+    }
+
+    /**
+     * Writes a 16-bit PCM WAV file of speech-like audio to the temp directory, one second
+     * at a time so multi-hour recordings never sit in memory.
+     *
+     * @param seed Also shifts the talk cycle, so tracks with different seeds take turns
+     * @return The file, deleted on exit
+     */
+    public static File speechWav(String prefix, int sampleRate, int channels, int seconds, long seed)
+            throws IOException {
+        File file = File.createTempFile("whisperdog_bench_" + prefix + "_", ".wav");
+        file.deleteOnExit();
+        Random random = new Random(seed);
+        byte[] second = new byte[sampleRate * channels * 2];
+        try (IncrementalWavWriter writer = new IncrementalWavWriter(file, sampleRate, 16, channels)) {
+            for (int s = 0; s < seconds; s++) {
+                long firstFrame = (long) s * sampleRate;
+                for (int frame = 0, i = 0; frame < sampleRate; frame++) {
+                    double level = level(firstFrame + frame, sampleRate, seed);
+                    for (int ch = 0; ch < channels; ch++, i += 2) {
+                        short sample = toShort(random.nextGaussian() * level);
+                        second[i] = (byte) sample;
+                        second[i + 1] = (byte) (sample >> 8);
+                    }
+                }
+                writer.write(second, 0, second.length);
+            }
+        }
+        return file;
+    }
+
+    /**
+     * @return Interleaved float samples in -1.0..1.0, as delivered by a loopback device
+     */
+    public static float[] speechFloats(int sampleRate, int channels, int frames, long seed) {
+        Random random = new Random(seed);
+        float[] samples = new float[frames * channels];
+        for (int frame = 0, i = 0; frame < frames; frame++) {
+            double level = level(frame, sampleRate, seed);
+            for (int ch = 0; ch < channels; ch++) {
+                samples[i++] = (float) Math.max(-1.0, Math.min(1.0, random.nextGaussian() * level));
+            }
+        }
+        return samples;
+    }
+
+    /**
+     * @return Interleaved 16-bit samples
+     */
+    public static short[] speechShorts(int sampleRate, int channels, int frames, long seed) {
+        float[] floats = speechFloats(sampleRate, channels, frames, seed);
+        short[] samples = new short[floats.length];
+        for (int i = 0; i < floats.length; i++) {
+            samples[i] = toShort(floats[i]);
+        }
+        return samples;
+    }
+
+    private static double level(long frame, int sampleRate, long seed) {
+        long tenths = frame * 10 / sampleRate + seed * 12;
+        return tenths % CYCLE_TENTHS < TALK_TENTHS ? SPEECH_LEVEL : ROOM_LEVEL;
+    }
+
+    private static short toShort(double sample) {
+        return (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, Math.round(sample * 32767)));
+    }
+}
@@ -0,0 +1,28 @@
+package org.whisperdog.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Counts the audio a benchmark processes. Taken as a {@code @Benchmark} parameter, it adds
+ * a "megabytes" row to the results, reported in MB/s next to the usual ops/s.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class Throughput {
+
+    /** Megabytes (10^6 bytes) of PCM processed in the current iteration */
+    public double megabytes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        megabytes = 0;
+    }
+
+    public static double toMegabytes(long bytes) {
+        return bytes / 1_000_000.0;
+    }
+}
@@ -0,0 +1,79 @@
+package org.whisperdog.recording;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.whisperdog.benchmark.SyntheticAudio;
+import org.whisperdog.benchmark.Throughput;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing one minute of capture through {@link IncrementalWavWriter} in capture-sized
+ * buffers, header upkeep included, the way both recorders write their tracks.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IncrementalWavWriterBenchmark {
+
+    private static final int SAMPLE_RATE = 16000;
+    private static final int SECONDS = 60;
+
+    /** Size of each write, as delivered by the capture line or loopback writer thread */
+    @Param({"20", "100", "250"})
+    public int bufferMillis;
+
+    /** 0 rewrites the header after every write, as the writer used to */
+    @Param({"0", "1000"})
+    public int headerUpdateMs;
+
+    private byte[] buffer;
+    private File output;
+    private double megabytesPerOp;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        short[] samples = SyntheticAudio.speechShorts(SAMPLE_RATE, 1, SAMPLE_RATE * bufferMillis / 1000, 1);
+        buffer = new byte[samples.length * 2];
+        for (int i = 0; i < samples.length; i++) {
+            buffer[2 * i] = (byte) samples[i];
+            buffer[2 * i + 1] = (byte) (samples[i] >> 8);
+        }
+        output = File.createTempFile("whisperdog_bench_writer_", ".wav");
+        output.deleteOnExit();
+        megabytesPerOp = Throughput.toMegabytes((long) SAMPLE_RATE * 2 * SECONDS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        output.delete();
+    }
+
+    @Benchmark
+    public long writeOneMinute(Throughput throughput) throws IOException {
+        throughput.megabytes += megabytesPerOp;
+        int writes = SECONDS * 1000 / bufferMillis;
+        try (IncrementalWavWriter writer = new IncrementalWavWriter(output, SAMPLE_RATE, 16, 1, headerUpdateMs)) {
+            for (int i = 0; i < writes; i++) {
+                writer.write(buffer, 0, buffer.length);
+            }
+            return writer.getBytesWritten();
+        }
+    }
+}
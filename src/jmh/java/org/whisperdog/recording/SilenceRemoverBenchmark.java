@@ -0,0 +1,75 @@
+package org.whisperdog.recording;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.whisperdog.benchmark.SyntheticAudio;
+import org.whisperdog.benchmark.Throughput;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Silence detection and splicing over a mic recording, as run before every upload.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SilenceRemoverBenchmark {
+
+    private static final float THRESHOLD = 0.01f;
+    private static final int MIN_SILENCE_MS = 500;
+
+    @Param({"10"})
+    public int minutes;
+
+    @Param({"16000"})
+    public int sampleRate;
+
+    private File recording;
+    private SilenceRemover.SilenceDetection detection;
+    private double megabytesPerOp;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        recording = SyntheticAudio.speechWav("silence", sampleRate, 1, minutes * 60, 1);
+        detection = SilenceRemover.detectSilence(recording, THRESHOLD, MIN_SILENCE_MS);
+        megabytesPerOp = Throughput.toMegabytes(recording.length());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        recording.delete();
+    }
+
+    @Benchmark
+    public SilenceRemover.SilenceDetection detect(Throughput throughput) {
+        throughput.megabytes += megabytesPerOp;
+        return SilenceRemover.detectSilence(recording, THRESHOLD, MIN_SILENCE_MS);
+    }
+
+    @Benchmark
+    public long splice(Throughput throughput) {
+        throughput.megabytes += megabytesPerOp;
+        File spliced = SilenceRemover.removeSilence(detection, false, 0);
+        long length = spliced.length();
+        if (!spliced.equals(recording)) {
+            spliced.delete();
+        }
+        return length;
+    }
+}
@@ -0,0 +1,65 @@
+package org.whisperdog.recording;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.whisperdog.benchmark.SyntheticAudio;
+import org.whisperdog.benchmark.Throughput;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splitting a long recording into chunk files for upload, including the search for
+ * silent cut points.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WavChunkerBenchmark {
+
+    @Param({"10"})
+    public int minutes;
+
+    @Param({"300"})
+    public int chunkSeconds;
+
+    private File recording;
+    private double megabytesPerOp;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        recording = SyntheticAudio.speechWav("chunker", 16000, 1, minutes * 60, 1);
+        megabytesPerOp = Throughput.toMegabytes(recording.length());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        recording.delete();
+    }
+
+    @Benchmark
+    public int splitWavFile(Throughput throughput) {
+        throughput.megabytes += megabytesPerOp;
+        WavChunker.ChunkResult result = WavChunker.splitWavFile(recording, chunkSeconds);
+        WavChunker.cleanupChunks(result.chunks);
+        if (!result.success) {
+            throw new IllegalStateException(result.errorMessage);
+        }
+        return result.totalChunks;
+    }
+}
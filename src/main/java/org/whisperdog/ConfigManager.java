@@ -327,6 +327,32 @@ public class ConfigManager {
         saveConfig();
     }
 
+    /**
+     * Whether mic-only recordings are transcribed segment by segment while recording,
+     * so only the last segment is left when recording stops.
+     */
+    public boolean isLiveTranscriptionEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("liveTranscriptionEnabled", "false"));
+    }
+
+    public void setLiveTranscriptionEnabled(boolean enabled) {
+        properties.setProperty("liveTranscriptionEnabled", String.valueOf(enabled));
+        saveConfig();
+    }
+
+    /**
+     * Whether recordings for OpenAI are also encoded to FLAC parts under the upload limit
+     * while they run, so the upload can start as soon as recording stops.
+     */
+    public boolean isEncodeWhileRecordingEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("encodeWhileRecording", "false"));
+    }
+
+    public void setEncodeWhileRecordingEnabled(boolean enabled) {
+        properties.setProperty("encodeWhileRecording", String.valueOf(enabled));
+        saveConfig();
+    }
+
     public boolean isKeepCompressedFile() {
         return Boolean.parseBoolean(properties.getProperty("keepCompressedFile", "false"));
     }
@@ -382,6 +408,25 @@ public class ConfigManager {
         saveConfig();
     }
 
+    // Per-source gain when mixing mic and system audio (1.0 = unchanged)
+    public float getMicMixGain() {
+        return Float.parseFloat(properties.getProperty("micMixGain", "1.0"));
+    }
+
+    public void setMicMixGain(float gain) {
+        properties.setProperty("micMixGain", String.valueOf(gain));
+        saveConfig();
+    }
+
+    public float getSystemMixGain() {
+        return Float.parseFloat(properties.getProperty("systemMixGain", "1.0"));
+    }
+
+    public void setSystemMixGain(float gain) {
+        properties.setProperty("systemMixGain", String.valueOf(gain));
+        saveConfig();
+    }
+
     // openwebUIApiKey
     public String getOpenWebUIApiKey() {
         return properties.getProperty("openWebUIApiKey", "");
@@ -840,6 +885,49 @@ public class ConfigManager {
         saveConfig();
     }
 
+    /**
+     * Gets how many chunks of a large file are transcribed at the same time.
+     * Cloud APIs handle several concurrent uploads well; a local Faster-Whisper
+     * server usually runs one inference at a time unless it has spare GPU capacity.
+     *
+     * @param server The Whisper server name (e.g., "OpenAI", "Faster-Whisper")
+     * @return Number of in-flight chunks (default: 3 for OpenAI, 1 otherwise; range: 1-8)
+     */
+    public int getChunkConcurrency(String server) {
+        String defaultValue = "OpenAI".equals(server) ? "3" : "1";
+        int concurrency;
+        try {
+            concurrency = Integer.parseInt(properties.getProperty(chunkConcurrencyKey(server), defaultValue));
+        } catch (NumberFormatException e) {
+            concurrency = Integer.parseInt(defaultValue);
+        }
+        return Math.max(1, Math.min(8, concurrency));
+    }
+
+    /**
+     * Sets how many chunks are transcribed at the same time for a server.
+     *
+     * @param server The Whisper server name
+     * @param concurrency Number of in-flight chunks (will be clamped to 1-8)
+     */
+    public void setChunkConcurrency(String server, int concurrency) {
+        properties.setProperty(chunkConcurrencyKey(server), String.valueOf(Math.max(1, Math.min(8, concurrency))));
+        saveConfig();
+    }
+
+    private static String chunkConcurrencyKey(String server) {
+        switch (server) {
+            case "OpenAI":
+                return "openAIChunkConcurrency";
+            case "Faster-Whisper":
+                return "fasterWhisperChunkConcurrency";
+            case "Open WebUI":
+                return "openWebUIChunkConcurrency";
+            default:
+                return "chunkConcurrency";
+        }
+    }
+
     // ========== Recording Warning Settings ==========
 
     /**
@@ -1007,4 +1095,72 @@ public class ConfigManager {
         properties.setProperty("retainChannelFilesEnabled", String.valueOf(enabled));
         saveConfig();
     }
-}
\ No newline at end of file
+
+    /**
+     * Checks if chunk files should be written to the temp directory for large-file transcription.
+     * When disabled, WAV files are uploaded as byte ranges of the source file (virtual chunks)
+     * and no chunk files are created. When enabled, chunk files are kept after a failed
+     * transcription for manual recovery.
+     *
+     * @return true if chunk files are written and kept (default: false)
+     */
+    public boolean isKeepChunkFilesEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("keepChunkFilesEnabled", "false"));
+    }
+
+    /**
+     * Sets whether chunk files are written and kept for recovery.
+     *
+     * @param enabled true to write chunk files
+     */
+    public void setKeepChunkFilesEnabled(boolean enabled) {
+        properties.setProperty("keepChunkFilesEnabled", String.valueOf(enabled));
+        saveConfig();
+    }
+
+    /**
+     * Checks if transcripts are cached on disk by audio content, so that transcribing the
+     * same audio again with the same server, model and language skips the upload.
+     *
+     * @return true if the transcription cache is used (default: true)
+     */
+    public boolean isTranscriptionCacheEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("transcriptionCacheEnabled", "true"));
+    }
+
+    /**
+     * Sets whether the transcription cache is used.
+     *
+     * @param enabled true to look up and store transcripts in the cache
+     */
+    public void setTranscriptionCacheEnabled(boolean enabled) {
+        properties.setProperty("transcriptionCacheEnabled", String.valueOf(enabled));
+        saveConfig();
+    }
+
+    /**
+     * Gets the disk space the transcription cache may use; least recently used
+     * transcripts are evicted beyond it.
+     *
+     * @return Size limit in MB (default: 64; range: 1-4096)
+     */
+    public int getTranscriptionCacheMaxMb() {
+        int maxMb;
+        try {
+            maxMb = Integer.parseInt(properties.getProperty("transcriptionCacheMaxMb", "64"));
+        } catch (NumberFormatException e) {
+            maxMb = 64;
+        }
+        return Math.max(1, Math.min(4096, maxMb));
+    }
+
+    /**
+     * Sets the disk space the transcription cache may use.
+     *
+     * @param maxMb Size limit in MB (clamped to 1-4096)
+     */
+    public void setTranscriptionCacheMaxMb(int maxMb) {
+        properties.setProperty("transcriptionCacheMaxMb", String.valueOf(Math.max(1, Math.min(4096, maxMb))));
+        saveConfig();
+    }
+}
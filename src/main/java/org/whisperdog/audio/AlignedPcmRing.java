@@ -0,0 +1,174 @@
+package org.whisperdog.audio;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-producer/single-consumer PCM ring that remembers where audio was dropped.
+ * <p>
+ * When the ring is full, {@link #offer} drops the buffer and records the gap at the
+ * position in the stream where it happened. {@link #drain} hands the audio to a sink with
+ * that much silence inserted at the same position, so the stream keeps its timing: audio
+ * after a drop is not moved earlier, and the silence is not moved later. Gap markers travel
+ * through a second small {@link SpscByteRing}; the producer publishes a marker before any
+ * audio that follows the gap, so the consumer always sees it in time. Like the ring itself,
+ * neither side blocks or allocates.
+ */
+public final class AlignedPcmRing {
+
+    /**
+     * Receives the drained stream.
+     */
+    public interface Sink {
+        void write(byte[] pcm, int offset, int length) throws IOException;
+    }
+
+    private static final int MARKER_BYTES = 16;
+    private static final int MAX_PENDING_MARKERS = 256;
+
+    private final SpscByteRing data;
+    private final SpscByteRing gaps = new SpscByteRing(MARKER_BYTES * MAX_PENDING_MARKERS);
+
+    /** Bytes lost to overruns so far; written by the producer only. */
+    private final AtomicLong droppedBytes = new AtomicLong();
+
+    // Producer state
+    private final byte[] producerMarker = new byte[MARKER_BYTES];
+    private long acceptedBytes;
+    private long pendingGap;
+
+    // Consumer state
+    private final byte[] consumerMarker = new byte[MARKER_BYTES];
+    private long consumedBytes;
+    private long gapPosition;
+    private long gapLength = -1;
+    private long silenceWritten;
+
+    /**
+     * @param capacity Size of the audio ring in bytes; rounded up to a power of two
+     */
+    public AlignedPcmRing(int capacity) {
+        this.data = new SpscByteRing(capacity);
+    }
+
+    /**
+     * Appends audio, or records it as a gap if it does not fit. Producer thread only.
+     *
+     * @return false if the audio was dropped (overrun)
+     */
+    public boolean offer(byte[] source, int offset, int length) {
+        if (pendingGap > 0) {
+            putLong(producerMarker, 0, acceptedBytes);
+            putLong(producerMarker, 8, pendingGap);
+            if (!gaps.offer(producerMarker, 0, MARKER_BYTES)) {
+                return drop(length);  // Audio must not overtake its gap
+            }
+            pendingGap = 0;
+        }
+        if (!data.offer(source, offset, length)) {
+            return drop(length);
+        }
+        acceptedBytes += length;
+        return true;
+    }
+
+    private boolean drop(int length) {
+        pendingGap += length;
+        droppedBytes.addAndGet(length);
+        return false;
+    }
+
+    /**
+     * Moves everything buffered to the sink, inserting silence where audio was dropped.
+     * Consumer thread only.
+     *
+     * @param batch Scratch buffer; its contents are overwritten
+     * @return Bytes passed to the sink, silence included
+     */
+    public long drain(byte[] batch, Sink sink) throws IOException {
+        long written = 0;
+        while (true) {
+            // Read the audio fill level before the markers: a marker is published before
+            // any audio after its gap, so every gap within this level is visible below
+            int available = data.size();
+            if (gapLength < 0 && gaps.size() >= MARKER_BYTES) {
+                gaps.poll(consumerMarker, 0, MARKER_BYTES);
+                gapPosition = getLong(consumerMarker, 0);
+                gapLength = getLong(consumerMarker, 8);
+            }
+            if (gapLength >= 0 && consumedBytes == gapPosition) {
+                written += writeSilence(gapLength, batch, sink);
+                gapLength = -1;
+                continue;
+            }
+
+            long limit = gapLength >= 0 ? Math.min(available, gapPosition - consumedBytes) : available;
+            int length = limit > 0 ? data.poll(batch, 0, (int) Math.min(batch.length, limit)) : 0;
+            if (length == 0) {
+                return written;
+            }
+            sink.write(batch, 0, length);
+            consumedBytes += length;
+            written += length;
+        }
+    }
+
+    /**
+     * Drains the ring once the producer has stopped. Audio dropped at the very end has no
+     * audio after it to publish its gap, so it is appended as silence here.
+     *
+     * @return Bytes passed to the sink, silence included
+     */
+    public long finish(byte[] batch, Sink sink) throws IOException {
+        long written = drain(batch, sink);
+        long missing = droppedBytes.get() - silenceWritten;
+        if (missing > 0) {
+            written += writeSilence(missing, batch, sink);
+        }
+        return written;
+    }
+
+    private long writeSilence(long length, byte[] batch, Sink sink) throws IOException {
+        Arrays.fill(batch, (byte) 0);
+        for (long remaining = length; remaining > 0; ) {
+            int chunk = (int) Math.min(remaining, batch.length);
+            sink.write(batch, 0, chunk);
+            remaining -= chunk;
+        }
+        silenceWritten += length;
+        return length;
+    }
+
+    /**
+     * @return Bytes dropped because the ring was full
+     */
+    public long getDroppedBytes() {
+        return droppedBytes.get();
+    }
+
+    public int capacity() {
+        return data.capacity();
+    }
+
+    /**
+     * @return Highest fill level seen so far, in bytes
+     */
+    public long getHighWaterMark() {
+        return data.getHighWaterMark();
+    }
+
+    private static void putLong(byte[] target, int offset, long value) {
+        for (int i = 0; i < 8; i++) {
+            target[offset + i] = (byte) (value >>> (8 * i));
+        }
+    }
+
+    private static long getLong(byte[] source, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value |= (source[offset + i] & 0xFFL) << (8 * i);
+        }
+        return value;
+    }
+}
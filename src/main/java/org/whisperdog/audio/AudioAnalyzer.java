@@ -16,17 +16,7 @@ public class AudioAnalyzer {
      */
     public double calculateRMS(byte[] audioData) {
         if (audioData == null || audioData.length < 2) return 0;
-
-        long sum = 0;
-        int sampleCount = audioData.length / 2;
-
-        for (int i = 0; i < audioData.length - 1; i += 2) {
-            int sample = (audioData[i + 1] << 8) | (audioData[i] & 0xFF);
-            sum += (long) sample * sample;
-        }
-
-        double rms = Math.sqrt((double) sum / sampleCount);
-        return rms / 32768.0;
+        return PcmLevels.rms(audioData, 0, audioData.length, false);
     }
 
     /**
@@ -37,14 +27,7 @@ public class AudioAnalyzer {
      */
     public double calculatePeak(byte[] audioData) {
         if (audioData == null || audioData.length < 2) return 0;
-
-        int maxSample = 0;
-        for (int i = 0; i < audioData.length - 1; i += 2) {
-            int sample = Math.abs((audioData[i + 1] << 8) | (audioData[i] & 0xFF));
-            if (sample > maxSample) maxSample = sample;
-        }
-
-        return maxSample / 32768.0;
+        return PcmLevels.peak(audioData, 0, audioData.length, false);
     }
 
     /**
@@ -102,10 +85,7 @@ public class AudioAnalyzer {
         boolean[] isSilent = new boolean[windowCount];
         int silentWindows = 0;
         for (int w = 0; w < windowCount; w++) {
-            int offset = w * bytesPerWindow;
-            byte[] window = new byte[bytesPerWindow];
-            System.arraycopy(audioData, offset, window, 0, bytesPerWindow);
-            double windowRMS = calculateRMS(window);
+            double windowRMS = PcmLevels.rms(audioData, w * bytesPerWindow, bytesPerWindow, false);
             isSilent[w] = windowRMS < silenceThreshold;
             if (isSilent[w]) silentWindows++;
         }
@@ -3,17 +3,28 @@ package org.whisperdog.audio;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.whisperdog.ConfigManager;
+import org.whisperdog.recording.AudioFrameListener;
 import org.whisperdog.recording.AudioRecorder;
+import org.whisperdog.recording.UploadPartEncoder;
+import org.whisperdog.tasks.TaskScheduler;
+import org.whisperdog.tasks.TaskType;
 
+import javax.sound.sampled.AudioFormat;
 import java.io.File;
+import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Manages dual-source audio capture: microphone + system audio (WASAPI loopback).
  * Coordinates synchronized start/stop and provides access to both audio tracks.
+ * When both sources run from the start, they are also mixed and their source activity
+ * tracked while recording, so the merged track and attribution timeline are ready as soon
+ * as capture stops. Optionally the mix is also encoded into upload parts on the way.
  */
 public class AudioCaptureManager {
     private static final Logger logger = LogManager.getLogger(AudioCaptureManager.class);
@@ -27,15 +38,26 @@ public class AudioCaptureManager {
     // Output files
     private File micTrackFile;
     private File systemTrackFile;
+    private File mergedTrackFile;
+
+    // Live mix of both tracks (null if system audio is off or mixing failed)
+    private TrackMixer liveMixer;
+    private volatile boolean liveMixFailed;
+
+    // Upload parts of the live mix (null unless enabled and the mix is whole)
+    private boolean encodeForUpload;
+    private UploadPartEncoder liveUploadEncoder;
+    private UploadPartEncoder uploadEncoder;
+
+    // Source attribution tracked while recording; null when only the mic is captured
+    private volatile SourceActivityTracker.LiveTimeline liveTimeline;
+    private List<SourceActivityTracker.ActivitySegment> activityTimeline;
 
     // State tracking
     private final AtomicBoolean capturing = new AtomicBoolean(false);
     private final AtomicBoolean systemAudioEnabled = new AtomicBoolean(false);
     private final AtomicLong captureStartTimestamp = new AtomicLong(0);
 
-    // Thread for mic recording (AudioRecorder.start() blocks)
-    private Thread micRecordingThread;
-
     // Preferred loopback device name (partial match)
     private String preferredLoopbackDevice;
 
@@ -51,6 +73,13 @@ public class AudioCaptureManager {
         this.preferredLoopbackDevice = deviceName;
     }
 
+    /**
+     * Also encode the live mix into upload parts while recording. Set before {@link #startCapture}.
+     */
+    public void setEncodeForUpload(boolean enabled) {
+        this.encodeForUpload = enabled;
+    }
+
     /**
      * Check if system audio capture is available on this platform.
      */
@@ -82,6 +111,9 @@ public class AudioCaptureManager {
         // Initialize system audio if requested and available
         systemAudioEnabled.set(false);
         systemTrackFile = null;
+        mergedTrackFile = null;
+        uploadEncoder = null;
+        activityTimeline = null;
         if (enableSystemAudio && isSystemAudioAvailable()) {
             systemCapture = new SystemAudioCapture();
             boolean initialized = (preferredLoopbackDevice != null && !preferredLoopbackDevice.isEmpty())
@@ -90,6 +122,8 @@ public class AudioCaptureManager {
             if (initialized) {
                 systemAudioEnabled.set(true);
                 logger.info("System audio capture initialized");
+                startLiveMix(timeStamp);
+                startActivityTracking();
             } else {
                 logger.warn("Failed to initialize system audio capture, continuing with mic only");
                 systemCapture = null;
@@ -110,18 +144,26 @@ public class AudioCaptureManager {
                 systemAudioEnabled.set(false);
                 systemCapture.dispose();
                 systemCapture = null;
+                discardLiveMix();
+                liveTimeline = null;
             }
         }
 
-        // Start mic recording in separate thread (AudioRecorder.start() blocks)
-        micRecordingThread = new Thread(() -> {
-            try {
-                micRecorder.start();
-            } catch (Exception e) {
-                logger.error("Mic recording error: {}", e.getMessage(), e);
-            }
-        }, "MicRecordingThread");
-        micRecordingThread.start();
+        // Start mic recording on a recording thread (AudioRecorder.start() blocks)
+        AudioRecorder recorder = micRecorder;
+        try {
+            TaskScheduler.getInstance().execute(TaskType.RECORDING, "Mic recording", () -> {
+                try {
+                    recorder.start();
+                } catch (Exception e) {
+                    logger.error("Mic recording error: {}", e.getMessage(), e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.error("Could not start mic recording: {}", e.getMessage());
+            stopCapture();
+            throw e;
+        }
 
         logger.info("Capture started - mic: {}, system: {}",
             micTrackFile.getName(),
@@ -175,6 +217,9 @@ public class AudioCaptureManager {
             }
         }
 
+        finishLiveMix();
+        finishActivityTracking();
+
         logger.info("Capture stopped - duration: {}ms", durationMs);
         return micTrackFile;
     }
@@ -224,7 +269,9 @@ public class AudioCaptureManager {
                 return false;
             }
         } else {
-            // Disable system audio mid-recording
+            // Disable system audio mid-recording; the mix would contain the discarded audio
+            discardLiveMix();
+            liveTimeline = null;
             if (systemCapture != null) {
                 File partialFile = systemCapture.stop();
                 systemCapture.dispose();
@@ -282,6 +329,185 @@ public class AudioCaptureManager {
         return systemTrackFile;
     }
 
+    /**
+     * Get the mic and system tracks mixed while recording.
+     * Only valid after stopCapture() is called; null if there was no live mix or it failed,
+     * in which case the tracks can be merged with {@link TrackMixer#mergeTracks}.
+     */
+    public File getMergedTrackFile() {
+        return mergedTrackFile;
+    }
+
+    /**
+     * Get the upload parts encoded from the live mix while recording.
+     * Only valid after stopCapture() is called; null if encoding was not enabled or the live
+     * mix is not available. The caller is responsible for {@link UploadPartEncoder#discard()}.
+     */
+    public UploadPartEncoder getUploadEncoder() {
+        return uploadEncoder;
+    }
+
+    /**
+     * Get the source activity timeline built while recording.
+     * Only valid after stopCapture() is called; null if system audio was not captured for
+     * the whole recording, in which case use {@link SourceActivityTracker#trackActivity}.
+     */
+    public List<SourceActivityTracker.ActivitySegment> getActivityTimeline() {
+        return activityTimeline;
+    }
+
+    /**
+     * Get the source of the latest captured audio, for a live "who is speaking" indicator.
+     * @return SILENCE when no system audio is being tracked
+     */
+    public SourceActivityTracker.Source getCurrentSource() {
+        SourceActivityTracker.LiveTimeline timeline = liveTimeline;
+        return timeline != null ? timeline.getCurrentSource() : SourceActivityTracker.Source.SILENCE;
+    }
+
+    /**
+     * Feeds both capture writers into a {@link TrackMixer}. Must run before either starts.
+     */
+    private void startLiveMix(String timeStamp) {
+        File outputFile = new File(ConfigManager.getTempDirectory(), "whisperdog_merged_" + timeStamp + ".wav");
+        try {
+            liveMixer = new TrackMixer(outputFile,
+                configManager.getMicMixGain(), configManager.getSystemMixGain(), true);
+        } catch (IOException e) {
+            logger.warn("Cannot mix tracks while recording, merging after stop instead: {}", e.getMessage());
+            return;
+        }
+        liveMixFailed = false;
+
+        TrackMixer mixer = liveMixer;
+        if (encodeForUpload) {
+            liveUploadEncoder = new UploadPartEncoder(outputFile, TrackMixer.OUTPUT_SAMPLE_RATE, 1,
+                configManager.getSilenceThreshold());
+            mixer.addOutputListener(liveUploadEncoder);
+        }
+        AudioFormat micFormat = configManager.getAudioFormat();
+        micRecorder.addFrameListener(mixListener(mixer, TrackMixer.Source.MIC,
+            (int) micFormat.getSampleRate(), micFormat.getChannels()));
+        systemCapture.addFrameListener(mixListener(mixer, TrackMixer.Source.SYSTEM,
+            TrackMixer.OUTPUT_SAMPLE_RATE, 1));
+    }
+
+    private AudioFrameListener mixListener(TrackMixer mixer, TrackMixer.Source source, int sampleRate, int channels) {
+        return (pcm, offset, length, frameOffset) -> {
+            if (liveMixFailed) {
+                return;
+            }
+            try {
+                mixer.write(source, pcm, offset, length, sampleRate, channels);
+            } catch (IOException e) {
+                liveMixFailed = true;
+                logger.warn("Live track mixing failed, merging after stop instead: {}", e.getMessage());
+            }
+        };
+    }
+
+    /**
+     * Feeds both capture writers into a live activity timeline. Must run before either starts.
+     */
+    private void startActivityTracking() {
+        AudioFormat micFormat = configManager.getAudioFormat();
+        SourceActivityTracker.LiveTimeline timeline = new SourceActivityTracker().startLiveTimeline(
+            (int) micFormat.getSampleRate(), micFormat.getChannels(), TrackMixer.OUTPUT_SAMPLE_RATE, 1);
+        liveTimeline = timeline;
+        // Listeners stay registered after a discard; they stop feeding once the field is cleared
+        micRecorder.addFrameListener((pcm, offset, length, frameOffset) -> {
+            if (liveTimeline == timeline) {
+                timeline.addMicAudio(pcm, offset, length);
+            }
+        });
+        systemCapture.addFrameListener((pcm, offset, length, frameOffset) -> {
+            if (liveTimeline == timeline) {
+                timeline.addSystemAudio(pcm, offset, length);
+            }
+        });
+    }
+
+    /**
+     * Builds the activity timeline once both writers are done; keeps it only if it is whole.
+     */
+    private void finishActivityTracking() {
+        SourceActivityTracker.LiveTimeline timeline = liveTimeline;
+        liveTimeline = null;
+        if (timeline != null && systemTrackFile != null && awaitMicRecording()) {
+            activityTimeline = timeline.finish();
+        }
+    }
+
+    /**
+     * Completes the live mix once both writers are done; keeps it only if it is whole.
+     */
+    private void finishLiveMix() {
+        TrackMixer mixer = liveMixer;
+        liveMixer = null;
+        if (mixer == null) {
+            return;
+        }
+        boolean complete = awaitMicRecording() && systemTrackFile != null;
+        try {
+            mixer.close();
+        } catch (IOException e) {
+            liveMixFailed = true;
+            logger.warn("Failed to finalize live track mix: {}", e.getMessage());
+        }
+        UploadPartEncoder encoder = liveUploadEncoder;
+        liveUploadEncoder = null;
+        if (complete && !liveMixFailed) {
+            mergedTrackFile = mixer.getOutputFile();
+            uploadEncoder = encoder;
+            logger.info("Tracks mixed while recording: {}", mergedTrackFile.getName());
+        } else {
+            deleteQuietly(mixer.getOutputFile());
+            if (encoder != null) {
+                encoder.discard();
+            }
+        }
+    }
+
+    private void discardLiveMix() {
+        TrackMixer mixer = liveMixer;
+        liveMixer = null;
+        if (mixer == null) {
+            return;
+        }
+        liveMixFailed = true;  // Listeners stay registered; make them no-ops
+        if (liveUploadEncoder != null) {
+            liveUploadEncoder.discard();
+            liveUploadEncoder = null;
+        }
+        try {
+            mixer.close();
+        } catch (IOException e) {
+            logger.debug("Failed to close discarded track mix: {}", e.getMessage());
+        }
+        deleteQuietly(mixer.getOutputFile());
+    }
+
+    private boolean awaitMicRecording() {
+        if (micRecorder == null) {
+            return false;
+        }
+        try {
+            if (micRecorder.awaitFinished(5000)) {
+                return true;
+            }
+            logger.warn("Mic recording did not finish in time");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    private static void deleteQuietly(File file) {
+        if (file != null && file.exists() && !file.delete()) {
+            logger.debug("Could not delete temp file: {}", file.getName());
+        }
+    }
+
     /**
      * Clean up temporary audio files.
      */
@@ -299,6 +525,16 @@ public class AudioCaptureManager {
                 }
                 systemTrackFile = null;
             }
+            if (mergedTrackFile != null && mergedTrackFile.exists()) {
+                if (mergedTrackFile.delete()) {
+                    logger.debug("Deleted temp merged file: {}", mergedTrackFile.getName());
+                }
+                mergedTrackFile = null;
+            }
+            if (uploadEncoder != null) {
+                uploadEncoder.discard();
+                uploadEncoder = null;
+            }
         } catch (Exception e) {
             logger.warn("Error cleaning up temp files: {}", e.getMessage());
         }
@@ -303,87 +303,6 @@ public class FFmpegUtil {
         return -1;
     }
 
-    /**
-     * Merge two audio tracks (mic + system) into a single WAV file.
-     * Uses ffmpeg amix filter to combine both sources.
-     * Output is 16kHz mono 16-bit PCM (standard for transcription).
-     *
-     * @param micTrack Microphone audio file
-     * @param systemTrack System audio file
-     * @return Merged audio file, or null if merge fails
-     */
-    public static File mergeAudioTracks(File micTrack, File systemTrack) {
-        try {
-            // Caller responsible for cleanup (files match whisperdog_* pattern)
-            File outputFile = ConfigManager.createTempFile("whisperdog_merged_", ".wav");
-
-            logger.info("Merging audio tracks: {} + {} -> {}",
-                micTrack.getName(), systemTrack.getName(), outputFile.getName());
-
-            // Requires ffmpeg 4.4+ for normalize=0 (preserves original levels)
-            ProcessBuilder pb = new ProcessBuilder(
-                "ffmpeg", "-y",
-                "-i", micTrack.getAbsolutePath(),
-                "-i", systemTrack.getAbsolutePath(),
-                "-filter_complex", "[0:a][1:a]amix=inputs=2:duration=longest:normalize=0",
-                "-acodec", "pcm_s16le",
-                "-ar", "16000",
-                "-ac", "1",
-                outputFile.getAbsolutePath()
-            );
-            pb.redirectErrorStream(true);
-
-            Process process = pb.start();
-
-            // Consume output in daemon thread to prevent blocking on waitFor
-            Thread outputDrain = new Thread(() -> {
-                try (BufferedReader reader = new BufferedReader(
-                        new InputStreamReader(process.getInputStream()))) {
-                    while (reader.readLine() != null) {
-                        // Consume
-                    }
-                } catch (Exception e) {
-                    // Process destroyed or stream closed
-                }
-            });
-            outputDrain.setDaemon(true);
-            outputDrain.start();
-
-            boolean finished = process.waitFor(120, java.util.concurrent.TimeUnit.SECONDS);
-
-            if (!finished) {
-                logger.error("FFmpeg merge timed out after 120s, killing process");
-                process.destroyForcibly();
-                if (outputFile.exists()) {
-                    outputFile.delete();
-                }
-                return null;
-            }
-
-            int exitCode = process.exitValue();
-
-            if (exitCode != 0) {
-                logger.error("FFmpeg merge failed with exit code: {} (requires ffmpeg 4.4+)", exitCode);
-                if (outputFile.exists()) {
-                    outputFile.delete();
-                }
-                return null;
-            }
-
-            if (!outputFile.exists() || outputFile.length() == 0) {
-                logger.error("Merge produced empty or missing file");
-                return null;
-            }
-
-            logger.info("Successfully merged audio tracks: {} bytes", outputFile.length());
-            return outputFile;
-
-        } catch (Exception e) {
-            logger.error("Failed to merge audio tracks: {}", e.getMessage(), e);
-            return null;
-        }
-    }
-
     /**
      * Get supported video extensions as a formatted string for display.
      * @return String like "MP4, MOV, MKV, AVI, WEBM"
@@ -0,0 +1,480 @@
+package org.whisperdog.audio;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Streaming FLAC encoder for 16-bit PCM, pure Java.
+ * <p>
+ * Frames are written to the output as soon as a block of {@link #BLOCK_SIZE} samples is
+ * complete, so the encoder can sit directly in front of an HTTP body. Because the stream
+ * is never rewound, STREAMINFO leaves the total sample count, frame sizes and MD5 as
+ * "unknown", which the format allows.
+ * <p>
+ * Each channel is coded independently with the best of the constant, verbatim and fixed
+ * polynomial (order 0-4) subframes, using partitioned Rice coding for the residual.
+ * Speech typically ends up at 50-60% of the PCM size.
+ */
+public final class FlacEncoder {
+
+    public static final int BLOCK_SIZE = 4096;
+
+    private static final int BITS_PER_SAMPLE = 16;
+    private static final int MAX_FIXED_ORDER = 4;
+    private static final int MAX_PARTITION_ORDER = 8;
+    private static final int MAX_RICE_PARAMETER = 30;
+
+    private final OutputStream out;
+    private final int sampleRate;
+    private final int channels;
+    private final int[][] block;
+    private final int[] residual = new int[BLOCK_SIZE];
+    private final long[] partitionSums = new long[1 << MAX_PARTITION_ORDER];
+    private final long[] mergedSums = new long[1 << MAX_PARTITION_ORDER];
+    private final int[] riceParameters = new int[1 << MAX_PARTITION_ORDER];
+    private int partitionOrder;
+    private boolean wideParameters;
+    private final BitWriter frame = new BitWriter();
+    private int blockFill;
+    private long frameNumber;
+    private byte pendingLowByte;
+    private boolean hasPendingByte;
+    private int pendingChannel;
+    private boolean finished;
+
+    /**
+     * Writes the stream header.
+     *
+     * @param out Receives the FLAC stream; it is flushed by {@link #finish()} but never closed
+     * @param sampleRate Sample rate in Hz
+     * @param channels Channel count, 1-8
+     */
+    public FlacEncoder(OutputStream out, int sampleRate, int channels) throws IOException {
+        if (sampleRate <= 0 || sampleRate >= (1 << 20)) {
+            throw new IllegalArgumentException("Unsupported sample rate: " + sampleRate);
+        }
+        if (channels < 1 || channels > 8) {
+            throw new IllegalArgumentException("FLAC supports 1-8 channels, got " + channels);
+        }
+        this.out = out;
+        this.sampleRate = sampleRate;
+        this.channels = channels;
+        this.block = new int[channels][BLOCK_SIZE];
+        writeStreamHeader();
+    }
+
+    /**
+     * Encodes interleaved 16-bit little-endian PCM. Buffers may split samples and frames
+     * anywhere.
+     */
+    public void write(byte[] pcm, int offset, int length) throws IOException {
+        if (finished) {
+            throw new IOException("Encoder already finished");
+        }
+        int end = offset + length;
+        int i = offset;
+        if (hasPendingByte && i < end) {
+            addSample((short) ((pendingLowByte & 0xFF) | (pcm[i++] << 8)));
+            hasPendingByte = false;
+        }
+        for (; i + 1 < end; i += 2) {
+            addSample((short) ((pcm[i] & 0xFF) | (pcm[i + 1] << 8)));
+        }
+        if (i < end) {
+            pendingLowByte = pcm[i];
+            hasPendingByte = true;
+        }
+    }
+
+    /**
+     * Encodes the final, possibly shorter block and flushes the output.
+     * A trailing partial frame (fewer samples than channels) is dropped.
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        if (blockFill > 0) {
+            encodeBlock(blockFill);
+        }
+        out.flush();
+    }
+
+    private void addSample(short sample) throws IOException {
+        block[pendingChannel][blockFill] = sample;
+        if (++pendingChannel == channels) {
+            pendingChannel = 0;
+            if (++blockFill == BLOCK_SIZE) {
+                encodeBlock(BLOCK_SIZE);
+            }
+        }
+    }
+
+    private void writeStreamHeader() throws IOException {
+        BitWriter header = new BitWriter();
+        header.writeBits(0x664C6143, 32);   // "fLaC"
+        header.writeBits(1, 1);             // Last metadata block
+        header.writeBits(0, 7);             // STREAMINFO
+        header.writeBits(34, 24);           // Block length
+        header.writeBits(BLOCK_SIZE, 16);   // Minimum block size (the last block may be shorter)
+        header.writeBits(BLOCK_SIZE, 16);   // Maximum block size
+        header.writeBits(0, 24);            // Minimum frame size: unknown
+        header.writeBits(0, 24);            // Maximum frame size: unknown
+        header.writeBits(sampleRate, 20);
+        header.writeBits(channels - 1, 3);
+        header.writeBits(BITS_PER_SAMPLE - 1, 5);
+        header.writeBits(0, 4);             // Total samples (36 bits): unknown
+        header.writeBits(0, 32);
+        for (int i = 0; i < 4; i++) {
+            header.writeBits(0, 32);        // MD5: not computed
+        }
+        out.write(header.buffer, 0, header.length());
+    }
+
+    private void encodeBlock(int blockSize) throws IOException {
+        frame.reset();
+        writeFrameHeader(blockSize);
+        for (int ch = 0; ch < channels; ch++) {
+            writeSubframe(block[ch], blockSize);
+        }
+        frame.alignToByte();
+        int crc16 = Crc.crc16(frame.buffer, frame.length());
+        frame.writeBits(crc16, 16);
+        out.write(frame.buffer, 0, frame.length());
+        frameNumber++;
+        blockFill = 0;
+    }
+
+    private void writeFrameHeader(int blockSize) {
+        frame.writeBits(0x3FFE, 14);        // Sync code
+        frame.writeBits(0, 1);              // Reserved
+        frame.writeBits(0, 1);              // Fixed block size stream
+        frame.writeBits(blockSize == BLOCK_SIZE ? 0b1100 : 0b0111, 4);
+        frame.writeBits(sampleRateCode(sampleRate), 4);
+        frame.writeBits(channels - 1, 4);   // Independent channels
+        frame.writeBits(0b100, 3);          // 16 bits per sample
+        frame.writeBits(0, 1);              // Reserved
+        writeUtf8(frameNumber);
+        if (blockSize != BLOCK_SIZE) {
+            frame.writeBits(blockSize - 1, 16);
+        }
+        frame.writeBits(Crc.crc8(frame.buffer, frame.length()), 8);
+    }
+
+    private void writeUtf8(long value) {
+        if (value < 0x80) {
+            frame.writeBits((int) value, 8);
+            return;
+        }
+        int continuationBytes = value < 0x800 ? 1 : value < 0x10000 ? 2 : value < 0x200000 ? 3
+            : value < 0x4000000 ? 4 : 5;
+        int leadMarker = (0xFF00 >> (continuationBytes + 1)) & 0xFF;
+        frame.writeBits(leadMarker | (int) (value >>> (6 * continuationBytes)), 8);
+        for (int i = continuationBytes - 1; i >= 0; i--) {
+            frame.writeBits(0x80 | (int) ((value >>> (6 * i)) & 0x3F), 8);
+        }
+    }
+
+    private static int sampleRateCode(int rate) {
+        switch (rate) {
+            case 88200: return 0b0001;
+            case 176400: return 0b0010;
+            case 192000: return 0b0011;
+            case 8000: return 0b0100;
+            case 16000: return 0b0101;
+            case 22050: return 0b0110;
+            case 24000: return 0b0111;
+            case 32000: return 0b1000;
+            case 44100: return 0b1001;
+            case 48000: return 0b1010;
+            case 96000: return 0b1011;
+            default: return 0b0000;  // Taken from STREAMINFO
+        }
+    }
+
+    private void writeSubframe(int[] samples, int blockSize) {
+        if (isConstant(samples, blockSize)) {
+            frame.writeBits(0, 1);
+            frame.writeBits(0b000000, 6);
+            frame.writeBits(0, 1);
+            frame.writeBits(samples[0], BITS_PER_SAMPLE);
+            return;
+        }
+
+        int order = bestFixedOrder(samples, blockSize);
+        computeResidual(samples, blockSize, order);
+        long riceBits = planResidual(blockSize, order);
+        long fixedBits = 8 + (long) order * BITS_PER_SAMPLE + riceBits;
+        long verbatimBits = 8 + (long) blockSize * BITS_PER_SAMPLE;
+
+        if (fixedBits >= verbatimBits) {
+            frame.writeBits(0, 1);
+            frame.writeBits(0b000001, 6);
+            frame.writeBits(0, 1);
+            for (int i = 0; i < blockSize; i++) {
+                frame.writeBits(samples[i], BITS_PER_SAMPLE);
+            }
+            return;
+        }
+
+        frame.writeBits(0, 1);
+        frame.writeBits(0b001000 | order, 6);
+        frame.writeBits(0, 1);
+        for (int i = 0; i < order; i++) {
+            frame.writeBits(samples[i], BITS_PER_SAMPLE);
+        }
+        writeResidual(blockSize, order);
+    }
+
+    private static boolean isConstant(int[] samples, int blockSize) {
+        int first = samples[0];
+        for (int i = 1; i < blockSize; i++) {
+            if (samples[i] != first) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Picks the fixed predictor order with the smallest total absolute residual.
+     */
+    private static int bestFixedOrder(int[] x, int blockSize) {
+        int maxOrder = Math.min(MAX_FIXED_ORDER, blockSize - 1);
+        long[] sums = new long[MAX_FIXED_ORDER + 1];
+        for (int i = MAX_FIXED_ORDER; i < blockSize; i++) {
+            int e0 = x[i];
+            int e1 = e0 - x[i - 1];
+            int e2 = e1 - (x[i - 1] - x[i - 2]);
+            int e3 = e2 - (x[i - 1] - 2 * x[i - 2] + x[i - 3]);
+            int e4 = e3 - (x[i - 1] - 3 * x[i - 2] + 3 * x[i - 3] - x[i - 4]);
+            sums[0] += Math.abs(e0);
+            sums[1] += Math.abs(e1);
+            sums[2] += Math.abs(e2);
+            sums[3] += Math.abs(e3);
+            sums[4] += Math.abs(e4);
+        }
+        int best = 0;
+        for (int order = 1; order <= maxOrder; order++) {
+            if (sums[order] < sums[best]) {
+                best = order;
+            }
+        }
+        return best;
+    }
+
+    private void computeResidual(int[] x, int blockSize, int order) {
+        for (int i = order; i < blockSize; i++) {
+            int prediction;
+            switch (order) {
+                case 0: prediction = 0; break;
+                case 1: prediction = x[i - 1]; break;
+                case 2: prediction = 2 * x[i - 1] - x[i - 2]; break;
+                case 3: prediction = 3 * x[i - 1] - 3 * x[i - 2] + x[i - 3]; break;
+                default: prediction = 4 * x[i - 1] - 6 * x[i - 2] + 4 * x[i - 3] - x[i - 4]; break;
+            }
+            residual[i - order] = x[i] - prediction;
+        }
+    }
+
+    /**
+     * Chooses the partition order and Rice parameters for the residual.
+     *
+     * @return Estimated size of the residual section in bits
+     */
+    private long planResidual(int blockSize, int predictorOrder) {
+        int maxOrder = 0;
+        while (maxOrder < MAX_PARTITION_ORDER
+                && (blockSize & ((1 << (maxOrder + 1)) - 1)) == 0
+                && (blockSize >> (maxOrder + 1)) > predictorOrder) {
+            maxOrder++;
+        }
+
+        // Folded sums at the finest order, merged pairwise for coarser orders
+        int partitions = 1 << maxOrder;
+        int partitionSize = blockSize >> maxOrder;
+        for (int p = 0, i = 0; p < partitions; p++) {
+            int count = p == 0 ? partitionSize - predictorOrder : partitionSize;
+            long sum = 0;
+            for (int end = i + count; i < end; i++) {
+                sum += fold(residual[i]);
+            }
+            partitionSums[p] = sum;
+        }
+
+        long bestBits = Long.MAX_VALUE;
+        int bestOrder = 0;
+        long[] sums = mergedSums;
+        System.arraycopy(partitionSums, 0, sums, 0, partitions);
+        for (int order = maxOrder; order >= 0; order--) {
+            int count = 1 << order;
+            int size = blockSize >> order;
+            long bits = 6;  // Coding method and partition order
+            for (int p = 0; p < count; p++) {
+                int samples = p == 0 ? size - predictorOrder : size;
+                bits += 5 + riceBits(sums[p], samples, bestParameter(sums[p], samples));
+            }
+            if (bits < bestBits) {
+                bestBits = bits;
+                bestOrder = order;
+            }
+            if (order > 0) {
+                for (int p = 0; p < count / 2; p++) {
+                    sums[p] = sums[2 * p] + sums[2 * p + 1];
+                }
+            }
+        }
+
+        // Parameters for the chosen order, from sums over its partitions
+        int count = 1 << bestOrder;
+        int size = blockSize >> bestOrder;
+        wideParameters = false;
+        for (int p = 0, i = 0; p < count; p++) {
+            int samples = p == 0 ? size - predictorOrder : size;
+            long sum = 0;
+            for (int end = i + samples; i < end; i++) {
+                sum += fold(residual[i]);
+            }
+            riceParameters[p] = bestParameter(sum, samples);
+            wideParameters |= riceParameters[p] > 14;
+        }
+        partitionOrder = bestOrder;
+        return bestBits;
+    }
+
+    private void writeResidual(int blockSize, int predictorOrder) {
+        frame.writeBits(wideParameters ? 0b01 : 0b00, 2);
+        frame.writeBits(partitionOrder, 4);
+        int count = 1 << partitionOrder;
+        int size = blockSize >> partitionOrder;
+        int parameterBits = wideParameters ? 5 : 4;
+        for (int p = 0, i = 0; p < count; p++) {
+            int samples = p == 0 ? size - predictorOrder : size;
+            int k = riceParameters[p];
+            frame.writeBits(k, parameterBits);
+            for (int end = i + samples; i < end; i++) {
+                long u = fold(residual[i]);
+                frame.writeUnary(u >>> k);
+                if (k > 0) {
+                    frame.writeBits((int) (u & ((1L << k) - 1)), k);
+                }
+            }
+        }
+    }
+
+    private static long fold(int value) {
+        return value >= 0 ? 2L * value : -2L * value - 1;
+    }
+
+    private static int bestParameter(long sum, int samples) {
+        if (samples <= 0 || sum <= samples) {
+            return 0;
+        }
+        int k = 63 - Long.numberOfLeadingZeros(sum / samples);
+        return Math.min(k, MAX_RICE_PARAMETER);
+    }
+
+    private static long riceBits(long sum, int samples, int k) {
+        // Unary quotients (approximated from the sum), stop bits and k low bits per sample
+        return (sum >> k) + (long) samples * (k + 1);
+    }
+
+    /**
+     * MSB-first bit packer over a reusable, growable byte array.
+     */
+    private static final class BitWriter {
+        byte[] buffer = new byte[BLOCK_SIZE * 2 + 64];
+        private int bytes;
+        private long accumulator;
+        private int accumulatedBits;
+
+        void reset() {
+            bytes = 0;
+            accumulator = 0;
+            accumulatedBits = 0;
+        }
+
+        /** Writes the low {@code count} bits of {@code value}, count 0-32 */
+        void writeBits(int value, int count) {
+            if (count == 0) {
+                return;
+            }
+            accumulator = (accumulator << count) | (value & (0xFFFFFFFFL >>> (32 - count)));
+            accumulatedBits += count;
+            while (accumulatedBits >= 8) {
+                accumulatedBits -= 8;
+                put((byte) (accumulator >>> accumulatedBits));
+            }
+        }
+
+        /** Writes {@code zeros} zero bits followed by a one bit */
+        void writeUnary(long zeros) {
+            while (zeros >= 32) {
+                writeBits(0, 32);
+                zeros -= 32;
+            }
+            writeBits(1, (int) zeros + 1);
+        }
+
+        void alignToByte() {
+            if (accumulatedBits > 0) {
+                writeBits(0, 8 - accumulatedBits);
+            }
+        }
+
+        /** Number of complete bytes written */
+        int length() {
+            return bytes;
+        }
+
+        private void put(byte b) {
+            if (bytes == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            buffer[bytes++] = b;
+        }
+    }
+
+    /**
+     * Checksums used by FLAC frames: CRC-8 (poly 0x07) over the header and CRC-16
+     * (poly 0x8005) over the whole frame, both MSB-first with zero initial value.
+     */
+    static final class Crc {
+        private static final int[] CRC8 = new int[256];
+        private static final int[] CRC16 = new int[256];
+
+        static {
+            for (int i = 0; i < 256; i++) {
+                int crc8 = i;
+                int crc16 = i << 8;
+                for (int bit = 0; bit < 8; bit++) {
+                    crc8 = (crc8 & 0x80) != 0 ? (crc8 << 1) ^ 0x07 : crc8 << 1;
+                    crc16 = (crc16 & 0x8000) != 0 ? (crc16 << 1) ^ 0x8005 : crc16 << 1;
+                }
+                CRC8[i] = crc8 & 0xFF;
+                CRC16[i] = crc16 & 0xFFFF;
+            }
+        }
+
+        private Crc() {
+        }
+
+        static int crc8(byte[] data, int length) {
+            int crc = 0;
+            for (int i = 0; i < length; i++) {
+                crc = CRC8[(crc ^ data[i]) & 0xFF];
+            }
+            return crc;
+        }
+
+        static int crc16(byte[] data, int length) {
+            int crc = 0;
+            for (int i = 0; i < length; i++) {
+                crc = ((crc << 8) ^ CRC16[((crc >>> 8) ^ data[i]) & 0xFF]) & 0xFFFF;
+            }
+            return crc;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package org.whisperdog.audio;
+
+/**
+ * Converts loopback device buffers to mono PCM16 at the capture rate for
+ * {@link SystemAudioCapture}: downmix, gain, resample. Kept apart from the XT-Audio
+ * callback so the conversion can be measured without a device.
+ * <p>
+ * Allocates nothing once the buffers have reached the device buffer size. Not thread-safe;
+ * owned by the audio callback.
+ */
+final class LoopbackConverter {
+
+    private final PolyphaseResampler resampler;
+    private final int inputChannels;
+    private final float floatGain;
+    private float[] monoBuffer = new float[0];
+    private byte[] output = new byte[0];
+
+    /**
+     * @param inputRate Device sample rate in Hz
+     * @param inputChannels Device channel count
+     * @param outputRate Sample rate of the converted PCM
+     * @param floatGain Gain applied to float samples, which loopback devices deliver quietly
+     */
+    LoopbackConverter(int inputRate, int inputChannels, int outputRate, float floatGain) {
+        this.resampler = new PolyphaseResampler(inputRate, outputRate);
+        this.inputChannels = inputChannels;
+        this.floatGain = floatGain;
+    }
+
+    /**
+     * Sizes every buffer for callbacks of up to {@code frames} frames.
+     */
+    void reserve(int frames) {
+        resampler.reserve(frames);
+        monoBuffer(frames);
+        outputBuffer(frames);
+    }
+
+    /**
+     * Downmixes float samples to mono with the float gain and resamples them into
+     * {@link #output()}.
+     *
+     * @return Number of PCM bytes in the output buffer
+     */
+    int convert(float[] input, int frames) {
+        float[] mono = monoBuffer(frames);
+        float scale = floatGain / inputChannels;
+        for (int frame = 0, i = 0; frame < frames; frame++) {
+            float sum = 0;
+            for (int ch = 0; ch < inputChannels; ch++) {
+                sum += input[i++];
+            }
+            mono[frame] = sum * scale;
+        }
+        return resample(mono, frames);
+    }
+
+    /**
+     * Downmixes int16 samples to mono and resamples them into {@link #output()}.
+     *
+     * @return Number of PCM bytes in the output buffer
+     */
+    int convert(short[] input, int frames) {
+        float[] mono = monoBuffer(frames);
+        float scale = 1.0f / (32768.0f * inputChannels);
+        for (int frame = 0, i = 0; frame < frames; frame++) {
+            int sum = 0;
+            for (int ch = 0; ch < inputChannels; ch++) {
+                sum += input[i++];
+            }
+            mono[frame] = sum * scale;
+        }
+        return resample(mono, frames);
+    }
+
+    /**
+     * @return Buffer holding the PCM of the last conversion; reused by the next one
+     */
+    byte[] output() {
+        return output;
+    }
+
+    private int resample(float[] mono, int frames) {
+        return resampler.process(mono, frames, outputBuffer(frames), 0);
+    }
+
+    private float[] monoBuffer(int frames) {
+        if (monoBuffer.length < frames) {
+            monoBuffer = new float[frames];
+        }
+        return monoBuffer;
+    }
+
+    private byte[] outputBuffer(int frames) {
+        int capacity = resampler.maxOutputSamples(frames) * 2;
+        if (output.length < capacity) {
+            // Grows only while the device buffer size settles
+            output = new byte[capacity];
+        }
+        return output;
+    }
+}
@@ -0,0 +1,223 @@
+package org.whisperdog.audio;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+
+/**
+ * Level kernels for 16-bit PCM, shared by every RMS and peak measurement in the app so
+ * that meters, silence detection and source attribution agree on the same numbers.
+ * <p>
+ * RMS is taken over all samples of a window (every channel of every frame) and
+ * normalized to 0.0-1.0 by 32768. Byte windows are read through a 16-bit array view,
+ * one load per sample instead of two byte reads and a shift, and the loops keep four
+ * independent integer accumulators so the JIT can unroll and pipeline them.
+ * Squares are exact in 32 bits and summed in 64 bits, so no precision is lost on
+ * long windows.
+ */
+public final class PcmLevels {
+
+    private static final VarHandle LITTLE_ENDIAN_SHORTS =
+        MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle BIG_ENDIAN_SHORTS =
+        MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.BIG_ENDIAN);
+
+    private static final double FULL_SCALE = 32768.0;
+
+    private PcmLevels() {
+    }
+
+    /**
+     * @return RMS of the 16-bit samples in {@code pcm[offset, offset + length)}, 0.0-1.0
+     */
+    public static double rms(byte[] pcm, int offset, int length, boolean bigEndian) {
+        return rms(sumOfSquares(pcm, offset, length, bigEndian), length / 2);
+    }
+
+    /**
+     * @return RMS of {@code samples[offset, offset + length)}, 0.0-1.0
+     */
+    public static double rms(short[] samples, int offset, int length) {
+        return rms(sumOfSquares(samples, offset, length), length);
+    }
+
+    /**
+     * @return RMS of the samples between the buffer's position and limit, 0.0-1.0
+     */
+    public static double rms(ShortBuffer samples) {
+        return rms(sumOfSquares(samples), samples.remaining());
+    }
+
+    /**
+     * Normalized RMS from a sum of squares accumulated over several calls, e.g. for
+     * windows that span capture buffers.
+     */
+    public static double rms(long sumOfSquares, long samples) {
+        return samples > 0 ? Math.sqrt((double) sumOfSquares / samples) / FULL_SCALE : 0.0;
+    }
+
+    /**
+     * @return Largest absolute sample value in the window, normalized to 0.0-1.0
+     */
+    public static double peak(byte[] pcm, int offset, int length, boolean bigEndian) {
+        return maxAbs(pcm, offset, length, bigEndian) / FULL_SCALE;
+    }
+
+    /**
+     * @return Largest absolute sample value in the window, normalized to 0.0-1.0
+     */
+    public static double peak(short[] samples, int offset, int length) {
+        return maxAbs(samples, offset, length) / FULL_SCALE;
+    }
+
+    /**
+     * Sum of squared 16-bit samples; a trailing odd byte is ignored.
+     */
+    public static long sumOfSquares(byte[] pcm, int offset, int length, boolean bigEndian) {
+        return bigEndian
+            ? sumOfSquaresBigEndian(pcm, offset, length)
+            : sumOfSquaresLittleEndian(pcm, offset, length);
+    }
+
+    public static long sumOfSquares(short[] samples, int offset, int length) {
+        long s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int end = offset + length;
+        int i = offset;
+        for (; i + 4 <= end; i += 4) {
+            int a = samples[i];
+            int b = samples[i + 1];
+            int c = samples[i + 2];
+            int d = samples[i + 3];
+            s0 += a * a;
+            s1 += b * b;
+            s2 += c * c;
+            s3 += d * d;
+        }
+        for (; i < end; i++) {
+            int a = samples[i];
+            s0 += a * a;
+        }
+        return s0 + s1 + s2 + s3;
+    }
+
+    /**
+     * Sum of squares between the buffer's position and limit; the position is not moved,
+     * so mapped file windows are read in place.
+     */
+    public static long sumOfSquares(ShortBuffer samples) {
+        long s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int end = samples.limit();
+        int i = samples.position();
+        for (; i + 4 <= end; i += 4) {
+            int a = samples.get(i);
+            int b = samples.get(i + 1);
+            int c = samples.get(i + 2);
+            int d = samples.get(i + 3);
+            s0 += a * a;
+            s1 += b * b;
+            s2 += c * c;
+            s3 += d * d;
+        }
+        for (; i < end; i++) {
+            int a = samples.get(i);
+            s0 += a * a;
+        }
+        return s0 + s1 + s2 + s3;
+    }
+
+    /**
+     * @return Largest absolute 16-bit sample value, 0-32768
+     */
+    public static int maxAbs(byte[] pcm, int offset, int length, boolean bigEndian) {
+        return bigEndian
+            ? maxAbsBigEndian(pcm, offset, length)
+            : maxAbsLittleEndian(pcm, offset, length);
+    }
+
+    public static int maxAbs(short[] samples, int offset, int length) {
+        int m0 = 0, m1 = 0;
+        int end = offset + length;
+        int i = offset;
+        for (; i + 2 <= end; i += 2) {
+            m0 = Math.max(m0, Math.abs(samples[i]));
+            m1 = Math.max(m1, Math.abs(samples[i + 1]));
+        }
+        if (i < end) {
+            m0 = Math.max(m0, Math.abs(samples[i]));
+        }
+        return Math.max(m0, m1);
+    }
+
+    // Each byte order has its own loop so the view handle is a constant the JIT can fold
+
+    private static long sumOfSquaresLittleEndian(byte[] pcm, int offset, int length) {
+        long s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int end = offset + (length & ~1);
+        int i = offset;
+        for (; i + 8 <= end; i += 8) {
+            int a = (short) LITTLE_ENDIAN_SHORTS.get(pcm, i);
+            int b = (short) LITTLE_ENDIAN_SHORTS.get(pcm, i + 2);
+            int c = (short) LITTLE_ENDIAN_SHORTS.get(pcm, i + 4);
+            int d = (short) LITTLE_ENDIAN_SHORTS.get(pcm, i + 6);
+            s0 += a * a;
+            s1 += b * b;
+            s2 += c * c;
+            s3 += d * d;
+        }
+        for (; i < end; i += 2) {
+            int a = (short) LITTLE_ENDIAN_SHORTS.get(pcm, i);
+            s0 += a * a;
+        }
+        return s0 + s1 + s2 + s3;
+    }
+
+    private static long sumOfSquaresBigEndian(byte[] pcm, int offset, int length) {
+        long s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int end = offset + (length & ~1);
+        int i = offset;
+        for (; i + 8 <= end; i += 8) {
+            int a = (short) BIG_ENDIAN_SHORTS.get(pcm, i);
+            int b = (short) BIG_ENDIAN_SHORTS.get(pcm, i + 2);
+            int c = (short) BIG_ENDIAN_SHORTS.get(pcm, i + 4);
+            int d = (short) BIG_ENDIAN_SHORTS.get(pcm, i + 6);
+            s0 += a * a;
+            s1 += b * b;
+            s2 += c * c;
+            s3 += d * d;
+        }
+        for (; i < end; i += 2) {
+            int a = (short) BIG_ENDIAN_SHORTS.get(pcm, i);
+            s0 += a * a;
+        }
+        return s0 + s1 + s2 + s3;
+    }
+
+    private static int maxAbsLittleEndian(byte[] pcm, int offset, int length) {
+        int m0 = 0, m1 = 0;
+        int end = offset + (length & ~1);
+        int i = offset;
+        for (; i + 4 <= end; i += 4) {
+            m0 = Math.max(m0, Math.abs((short) LITTLE_ENDIAN_SHORTS.get(pcm, i)));
+            m1 = Math.max(m1, Math.abs((short) LITTLE_ENDIAN_SHORTS.get(pcm, i + 2)));
+        }
+        if (i < end) {
+            m0 = Math.max(m0, Math.abs((short) LITTLE_ENDIAN_SHORTS.get(pcm, i)));
+        }
+        return Math.max(m0, m1);
+    }
+
+    private static int maxAbsBigEndian(byte[] pcm, int offset, int length) {
+        int m0 = 0, m1 = 0;
+        int end = offset + (length & ~1);
+        int i = offset;
+        for (; i + 4 <= end; i += 4) {
+            m0 = Math.max(m0, Math.abs((short) BIG_ENDIAN_SHORTS.get(pcm, i)));
+            m1 = Math.max(m1, Math.abs((short) BIG_ENDIAN_SHORTS.get(pcm, i + 2)));
+        }
+        if (i < end) {
+            m0 = Math.max(m0, Math.abs((short) BIG_ENDIAN_SHORTS.get(pcm, i)));
+        }
+        return Math.max(m0, m1);
+    }
+}
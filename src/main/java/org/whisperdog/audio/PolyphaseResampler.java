@@ -0,0 +1,233 @@
+package org.whisperdog.audio;
+
+import java.util.Arrays;
+
+/**
+ * Streaming polyphase windowed-sinc resampler from mono float samples to float or
+ * 16-bit PCM.
+ * <p>
+ * The rate ratio is reduced to {@code L/M}; each output sample is the dot product of the
+ * surrounding input with one of {@code L} precomputed filter phases. The prototype is a
+ * Kaiser-windowed sinc low-pass below the lower of the two Nyquist frequencies, so
+ * content above 8kHz in 44.1/48kHz loopback audio is removed instead of folding back
+ * into the speech band as it does with plain interpolation.
+ * <p>
+ * The read position is exact rational arithmetic, and the input tail needed by the next
+ * filter window is carried over, so splitting the input into buffers of any size gives
+ * the same output as one call. The output lags the input by half a filter length
+ * (about 1ms). Buffers grow only while the input size settles; no allocation happens
+ * per call after that.
+ * <p>
+ * Not thread-safe: use one instance per stream.
+ */
+public final class PolyphaseResampler {
+
+    /** Filter half-length in samples of the lower rate; sets the transition band width. */
+    private static final int ZERO_CROSSINGS = 16;
+    /** Cutoff as a fraction of the lower Nyquist frequency. */
+    private static final double ROLLOFF = 0.92;
+    /** Kaiser window shape, about 80dB stopband attenuation. */
+    private static final double KAISER_BETA = 8.0;
+    /** Phases are quantized beyond this (only for unusual rate pairs) to bound the table size. */
+    private static final int MAX_PHASES = 1024;
+
+    private final int inputRate;
+    private final int outputRate;
+    private final int interpolation;
+    private final int integerStep;
+    private final int remainderStep;
+    private final int phases;
+    private final int taps;
+    private final float[] table;
+
+    private float[] history;
+    private int filled;
+    /** Buffer index of the first sample of the next output's filter window. */
+    private int start;
+    /** Fractional read position, in 1/interpolation input samples. */
+    private int phase;
+    private float[] scratch = new float[0];
+
+    public PolyphaseResampler(int inputRate, int outputRate) {
+        if (inputRate <= 0 || outputRate <= 0) {
+            throw new IllegalArgumentException("Invalid rates: " + inputRate + " -> " + outputRate);
+        }
+        this.inputRate = inputRate;
+        this.outputRate = outputRate;
+
+        int divisor = gcd(inputRate, outputRate);
+        this.interpolation = outputRate / divisor;
+        int decimation = inputRate / divisor;
+        this.integerStep = decimation / interpolation;
+        this.remainderStep = decimation % interpolation;
+        this.phases = Math.min(interpolation, MAX_PHASES);
+
+        if (inputRate == outputRate) {
+            this.taps = 1;
+            this.table = new float[] {1.0f};
+        } else {
+            int half = (int) Math.ceil(ZERO_CROSSINGS * Math.max(1.0, (double) inputRate / outputRate));
+            this.taps = 2 * half;
+            this.table = designTable(phases, taps, half,
+                0.5 * ROLLOFF * Math.min(1.0, (double) outputRate / inputRate));
+        }
+        this.history = new float[taps * 2];
+        reset();
+    }
+
+    /**
+     * @return Upper bound for the number of output samples produced from {@code frames} input frames
+     */
+    public int maxOutputSamples(int frames) {
+        return (int) ((long) frames * outputRate / inputRate) + 2;
+    }
+
+    /**
+     * Sizes the internal buffers for inputs of up to {@code frames}, so that even the
+     * first calls do not allocate (e.g. on a real-time audio callback).
+     */
+    public void reserve(int frames) {
+        if (history.length < taps + frames) {
+            history = Arrays.copyOf(history, taps + frames);
+        }
+        if (scratch.length < maxOutputSamples(frames)) {
+            scratch = new float[maxOutputSamples(frames)];
+        }
+    }
+
+    /**
+     * Resamples the next {@code frames} mono samples and appends them as little-endian
+     * 16-bit PCM to {@code out}. Samples are clamped to [-1, 1].
+     *
+     * @param out Must hold {@code 2 * maxOutputSamples(frames)} bytes from {@code outOffset}
+     * @return Number of bytes written
+     */
+    public int process(float[] input, int frames, byte[] out, int outOffset) {
+        int capacity = maxOutputSamples(frames);
+        if (scratch.length < capacity) {
+            scratch = new float[capacity];  // Grows only while the buffer size settles
+        }
+        int samples = process(input, frames, scratch, 0);
+
+        int o = outOffset;
+        for (int i = 0; i < samples; i++) {
+            int pcm = Math.round(scratch[i] * 32768.0f);
+            if (pcm > Short.MAX_VALUE) {
+                pcm = Short.MAX_VALUE;
+            } else if (pcm < Short.MIN_VALUE) {
+                pcm = Short.MIN_VALUE;
+            }
+            out[o++] = (byte) pcm;
+            out[o++] = (byte) (pcm >> 8);
+        }
+        return o - outOffset;
+    }
+
+    /**
+     * Resamples the next {@code frames} mono samples and appends them to {@code out}.
+     *
+     * @param out Must hold {@code maxOutputSamples(frames)} samples from {@code outOffset}
+     * @return Number of samples written
+     */
+    public int process(float[] input, int frames, float[] out, int outOffset) {
+        if (frames <= 0) {
+            return 0;
+        }
+        if (history.length < filled + frames) {
+            float[] grown = new float[filled + frames];  // Grows only while the buffer size settles
+            System.arraycopy(history, 0, grown, 0, filled);
+            history = grown;
+        }
+        System.arraycopy(input, 0, history, filled, frames);
+        filled += frames;
+
+        float[] samples = history;
+        float[] coefficients = table;
+        int o = outOffset;
+        while (start + taps <= filled) {
+            int base = (int) ((long) phase * phases / interpolation) * taps;
+            float sum = 0;
+            for (int i = 0; i < taps; i++) {
+                sum += coefficients[base + i] * samples[start + i];
+            }
+            out[o++] = sum;
+
+            start += integerStep;
+            phase += remainderStep;
+            if (phase >= interpolation) {
+                phase -= interpolation;
+                start++;
+            }
+        }
+
+        // Keep only what later windows still need
+        int consumed = Math.min(start, filled);
+        System.arraycopy(history, consumed, history, 0, filled - consumed);
+        filled -= consumed;
+        start -= consumed;
+        return o - outOffset;
+    }
+
+    /**
+     * Forgets the stream state, e.g. before a new recording.
+     */
+    public void reset() {
+        // Leading zeros center the first filter window on the first input sample
+        filled = taps / 2 - (taps > 1 ? 1 : 0);
+        Arrays.fill(history, 0, filled, 0.0f);
+        start = 0;
+        phase = 0;
+    }
+
+    /**
+     * Builds one row of {@code taps} coefficients per phase; row {@code p} interpolates
+     * at {@code p / phases} of an input sample past the window center. Each row is
+     * normalized to unity DC gain.
+     *
+     * @param cutoff Cutoff frequency in cycles per input sample
+     */
+    private static float[] designTable(int phases, int taps, int half, double cutoff) {
+        float[] table = new float[phases * taps];
+        double besselBeta = besselI0(KAISER_BETA);
+        for (int p = 0; p < phases; p++) {
+            double offset = (double) p / phases;
+            double sum = 0;
+            for (int i = 0; i < taps; i++) {
+                double t = i - (half - 1) - offset;
+                double x = 2.0 * cutoff * t;
+                double sinc = x == 0 ? 1.0 : Math.sin(Math.PI * x) / (Math.PI * x);
+                double r = t / half;
+                double kaiser = Math.abs(r) >= 1.0 ? 0.0
+                    : besselI0(KAISER_BETA * Math.sqrt(1.0 - r * r)) / besselBeta;
+                double value = 2.0 * cutoff * sinc * kaiser;
+                table[p * taps + i] = (float) value;
+                sum += value;
+            }
+            for (int i = 0; i < taps; i++) {
+                table[p * taps + i] /= (float) sum;
+            }
+        }
+        return table;
+    }
+
+    /** Zeroth-order modified Bessel function of the first kind, by its power series. */
+    private static double besselI0(double x) {
+        double sum = 1.0;
+        double term = 1.0;
+        double quarterSquare = x * x / 4.0;
+        for (int k = 1; k < 50 && term > sum * 1e-12; k++) {
+            term *= quarterSquare / ((double) k * k);
+            sum += term;
+        }
+        return sum;
+    }
+
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
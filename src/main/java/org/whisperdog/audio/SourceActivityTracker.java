@@ -2,14 +2,12 @@ package org.whisperdog.audio;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.whisperdog.recording.PcmSource;
 
-import javax.sound.sampled.AudioFormat;
-import javax.sound.sampled.AudioInputStream;
-import javax.sound.sampled.AudioSystem;
 import java.io.File;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -121,70 +119,195 @@ public class SourceActivityTracker {
             double[] micRms = readRmsValues(micTrack);
             double[] systemRms = systemTrack != null ? readRmsValues(systemTrack) : null;
 
-            // Determine the longer track's length
-            int maxSamples = micRms.length;
-            if (systemRms != null && systemRms.length > maxSamples) {
-                maxSamples = systemRms.length;
-            }
+            timeline = buildTimeline(micRms, systemRms);
+        } catch (Exception e) {
+            logger.error("Failed to track activity: {}", e.getMessage(), e);
+            // Return single segment covering entire duration as fallback
+            timeline.add(new ActivitySegment(0, Long.MAX_VALUE, Source.USER));
+        }
 
-            // Build timeline by analyzing each sample interval
-            Source currentSource = Source.SILENCE;
-            long segmentStartMs = 0;
-
-            for (int i = 0; i < maxSamples; i++) {
-                long timeMs = (long) i * sampleIntervalMs;
-
-                // Get RMS values for this interval
-                double micLevel = i < micRms.length ? micRms[i] : 0.0;
-                double sysLevel = systemRms != null && i < systemRms.length ? systemRms[i] : 0.0;
-
-                // Check activity in each track
-                boolean micActive = micLevel >= activityThreshold;
-                boolean systemActive = sysLevel >= activityThreshold;
-
-                // Determine source for this interval
-                Source source;
-                if (micActive && systemActive) {
-                    // Both above threshold - use dominance ratio to determine true source
-                    source = determineSourceByDominance(micLevel, sysLevel);
-                } else if (micActive) {
-                    source = Source.USER;
-                } else if (systemActive) {
-                    source = Source.SYSTEM;
-                } else {
-                    source = Source.SILENCE;
-                }
+        return timeline;
+    }
+
+    /**
+     * Start an incremental timeline that is fed with PCM while recording, so the segments
+     * are ready as soon as capture stops instead of re-reading both tracks from disk.
+     * Both tracks must be 16-bit little-endian PCM, as delivered to an
+     * {@link org.whisperdog.recording.AudioFrameListener}.
+     *
+     * @param micSampleRate Microphone sample rate in Hz
+     * @param micChannels Microphone channel count
+     * @param systemSampleRate System audio sample rate in Hz
+     * @param systemChannels System audio channel count
+     */
+    public LiveTimeline startLiveTimeline(int micSampleRate, int micChannels,
+            int systemSampleRate, int systemChannels) {
+        return new LiveTimeline(micSampleRate, micChannels, systemSampleRate, systemChannels);
+    }
+
+    /**
+     * Activity timeline built while recording. Each track keeps one float RMS level per
+     * sample interval (4 bytes per 100ms, about 140KB per track for an hour), which is
+     * turned into segments by the same rules as {@link #trackActivity}.
+     * <p>
+     * Each track may be fed from its own capture thread; the current source can be polled
+     * from any thread.
+     */
+    public final class LiveTimeline {
+        private final IntervalLevels mic;
+        private final IntervalLevels system;
+
+        private LiveTimeline(int micSampleRate, int micChannels, int systemSampleRate, int systemChannels) {
+            this.mic = new IntervalLevels(micSampleRate * micChannels * sampleIntervalMs / 1000);
+            this.system = new IntervalLevels(systemSampleRate * systemChannels * sampleIntervalMs / 1000);
+        }
 
-                // Check for source change
-                if (source != currentSource) {
-                    // Close previous segment if not at start
-                    if (i > 0) {
-                        timeline.add(new ActivitySegment(segmentStartMs, timeMs, currentSource));
-                    }
-                    // Start new segment
-                    currentSource = source;
-                    segmentStartMs = timeMs;
+        public void addMicAudio(byte[] pcm, int offset, int length) {
+            mic.add(pcm, offset, length);
+        }
+
+        public void addSystemAudio(byte[] pcm, int offset, int length) {
+            system.add(pcm, offset, length);
+        }
+
+        /**
+         * @return Source of the most recent complete interval of each track, for a live
+         *         "who is speaking" indicator
+         */
+        public Source getCurrentSource() {
+            return classify(mic.latest(), system.latest());
+        }
+
+        /**
+         * Close the trailing partial intervals and build the timeline.
+         * Call once both tracks have received their last frames.
+         */
+        public List<ActivitySegment> finish() {
+            return buildTimeline(mic.finish(), system.finish());
+        }
+    }
+
+    /**
+     * Accumulates the sum of squares of one track, split at interval boundaries that may
+     * fall anywhere inside a capture buffer.
+     */
+    private static final class IntervalLevels {
+        private final int samplesPerInterval;
+        private float[] levels = new float[600];  // One minute at 100ms, grown by doubling
+        private int count;
+        private long sumOfSquares;
+        private int samples;
+
+        IntervalLevels(int samplesPerInterval) {
+            this.samplesPerInterval = Math.max(1, samplesPerInterval);
+        }
+
+        synchronized void add(byte[] pcm, int offset, int length) {
+            int end = offset + (length & ~1);
+            while (offset < end) {
+                int bytes = Math.min((samplesPerInterval - samples) * 2, end - offset);
+                sumOfSquares += PcmLevels.sumOfSquares(pcm, offset, bytes, false);
+                samples += bytes / 2;
+                offset += bytes;
+                if (samples == samplesPerInterval) {
+                    closeInterval();
                 }
             }
+        }
+
+        synchronized double latest() {
+            return count > 0 ? levels[count - 1] : 0.0;
+        }
+
+        synchronized double[] finish() {
+            if (samples > 0) {
+                closeInterval();
+            }
+            double[] result = new double[count];
+            for (int i = 0; i < count; i++) {
+                result[i] = levels[i];
+            }
+            return result;
+        }
+
+        private void closeInterval() {
+            if (count == levels.length) {
+                levels = Arrays.copyOf(levels, count * 2);
+            }
+            levels[count++] = (float) PcmLevels.rms(sumOfSquares, samples);
+            sumOfSquares = 0;
+            samples = 0;
+        }
+    }
 
-            // Close final segment
-            long endMs = (long) maxSamples * sampleIntervalMs;
-            timeline.add(new ActivitySegment(segmentStartMs, endMs, currentSource));
+    /**
+     * Turn per-interval RMS levels into merged activity segments.
+     * @param systemRms System audio levels, may be null for a mic-only timeline
+     */
+    private List<ActivitySegment> buildTimeline(double[] micRms, double[] systemRms) {
+        List<ActivitySegment> timeline = new ArrayList<>();
 
-            // Merge very short segments (debounce)
-            timeline = mergeShortSegments(timeline, sampleIntervalMs * 2);
+        // Determine the longer track's length
+        int maxSamples = micRms.length;
+        if (systemRms != null && systemRms.length > maxSamples) {
+            maxSamples = systemRms.length;
+        }
 
-            logger.info("Generated activity timeline with {} segments", timeline.size());
+        // Build timeline by analyzing each sample interval
+        Source currentSource = Source.SILENCE;
+        long segmentStartMs = 0;
 
-        } catch (Exception e) {
-            logger.error("Failed to track activity: {}", e.getMessage(), e);
-            // Return single segment covering entire duration as fallback
-            timeline.add(new ActivitySegment(0, Long.MAX_VALUE, Source.USER));
+        for (int i = 0; i < maxSamples; i++) {
+            long timeMs = (long) i * sampleIntervalMs;
+
+            // Get RMS values for this interval
+            double micLevel = i < micRms.length ? micRms[i] : 0.0;
+            double sysLevel = systemRms != null && i < systemRms.length ? systemRms[i] : 0.0;
+            Source source = classify(micLevel, sysLevel);
+
+            // Check for source change
+            if (source != currentSource) {
+                // Close previous segment if not at start
+                if (i > 0) {
+                    timeline.add(new ActivitySegment(segmentStartMs, timeMs, currentSource));
+                }
+                // Start new segment
+                currentSource = source;
+                segmentStartMs = timeMs;
+            }
         }
 
+        // Close final segment
+        long endMs = (long) maxSamples * sampleIntervalMs;
+        timeline.add(new ActivitySegment(segmentStartMs, endMs, currentSource));
+
+        // Merge very short segments (debounce)
+        timeline = mergeShortSegments(timeline, sampleIntervalMs * 2);
+
+        logger.info("Generated activity timeline with {} segments", timeline.size());
         return timeline;
     }
 
+    /**
+     * Determine the source of one interval from the RMS level of each track.
+     */
+    private Source classify(double micLevel, double sysLevel) {
+        // Check activity in each track
+        boolean micActive = micLevel >= activityThreshold;
+        boolean systemActive = sysLevel >= activityThreshold;
+
+        if (micActive && systemActive) {
+            // Both above threshold - use dominance ratio to determine true source
+            return determineSourceByDominance(micLevel, sysLevel);
+        } else if (micActive) {
+            return Source.USER;
+        } else if (systemActive) {
+            return Source.SYSTEM;
+        } else {
+            return Source.SILENCE;
+        }
+    }
+
     /**
      * Determine source when both mic and system are above activity threshold.
      * Uses dominance ratio to attribute to single source when one is clearly louder.
@@ -214,85 +337,31 @@ public class SourceActivityTracker {
 
     /**
      * Read WAV file and compute RMS values at sample intervals.
+     * Levels are measured on the mapped file through {@link PcmSource}, without copying.
      * @return Array of RMS values, one per interval
      */
-    private double[] readRmsValues(File wavFile) throws Exception {
-        try (AudioInputStream ais = AudioSystem.getAudioInputStream(wavFile)) {
-            AudioFormat format = ais.getFormat();
-            int sampleRate = (int) format.getSampleRate();
-            int channels = format.getChannels();
-            int bytesPerSample = format.getSampleSizeInBits() / 8;
-            int frameSize = format.getFrameSize();
+    private double[] readRmsValues(File wavFile) throws IOException {
+        try (PcmSource source = PcmSource.open(wavFile)) {
+            if (!source.is16BitPcm()) {
+                throw new IOException("Not a 16-bit PCM WAV: " + wavFile.getName());
+            }
 
             // Calculate samples per interval
-            int samplesPerInterval = (sampleRate * sampleIntervalMs) / 1000;
-            int bytesPerInterval = samplesPerInterval * frameSize;
+            int samplesPerInterval = Math.max(1, (source.getSampleRate() * sampleIntervalMs) / 1000);
 
-            // Estimate total intervals
-            long totalFrames = ais.getFrameLength();
+            long totalFrames = source.getFrameCount();
             int totalIntervals = (int) Math.ceil((double) totalFrames / samplesPerInterval);
             double[] rmsValues = new double[totalIntervals];
 
-            byte[] buffer = new byte[bytesPerInterval];
-            int intervalIndex = 0;
-
-            while (true) {
-                int bytesRead = ais.read(buffer);
-                if (bytesRead <= 0) break;
-
-                // Calculate RMS for this interval
-                double rms = calculateRms(buffer, bytesRead, bytesPerSample, channels, format.isBigEndian());
-                if (intervalIndex < rmsValues.length) {
-                    rmsValues[intervalIndex] = rms;
-                }
-                intervalIndex++;
+            for (int i = 0; i < totalIntervals; i++) {
+                long frame = (long) i * samplesPerInterval;
+                int frames = (int) Math.min(samplesPerInterval, totalFrames - frame);
+                rmsValues[i] = PcmLevels.rms(source.samples(frame, frames));
             }
-
             return rmsValues;
         }
     }
 
-    /**
-     * Calculate RMS (Root Mean Square) of audio samples.
-     * Returns normalized value between 0.0 and 1.0.
-     */
-    private double calculateRms(byte[] buffer, int bytesRead, int bytesPerSample,
-            int channels, boolean bigEndian) {
-
-        int frameSize = bytesPerSample * channels;
-        int samplesRead = bytesRead / frameSize;
-        if (samplesRead == 0) return 0.0;
-
-        // Wrap only the bytes we'll actually read to prevent underflow
-        int bytesToProcess = samplesRead * frameSize;
-        double sumSquares = 0.0;
-        ByteBuffer bb = ByteBuffer.wrap(buffer, 0, bytesToProcess);
-        bb.order(bigEndian ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
-
-        for (int i = 0; i < samplesRead; i++) {
-            double sample = 0.0;
-
-            // Read and average all channels
-            for (int ch = 0; ch < channels; ch++) {
-                if (bytesPerSample == 2) {
-                    // 16-bit samples
-                    sample += bb.getShort() / 32768.0;
-                } else if (bytesPerSample == 1) {
-                    // 8-bit samples (unsigned)
-                    sample += ((bb.get() & 0xFF) - 128) / 128.0;
-                } else if (bytesPerSample == 4) {
-                    // 32-bit samples (assume int)
-                    sample += bb.getInt() / 2147483648.0;
-                }
-            }
-            sample /= channels;
-
-            sumSquares += sample * sample;
-        }
-
-        return Math.sqrt(sumSquares / samplesRead);
-    }
-
     /**
      * Merge segments shorter than the minimum duration with adjacent segments.
      * Helps reduce noise from brief fluctuations.
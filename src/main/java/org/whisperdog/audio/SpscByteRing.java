@@ -0,0 +1,102 @@
+package org.whisperdog.audio;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free single-producer/single-consumer byte ring.
+ * <p>
+ * One thread calls {@link #offer}, one other thread calls {@link #poll}. Positions are
+ * ever-increasing byte counters; each side publishes its own counter with a release store
+ * and reads the other side's with an acquire load, so neither side ever blocks or
+ * allocates. Meant for handing audio from a real-time callback to a writer thread.
+ */
+public final class SpscByteRing {
+
+    private final byte[] buffer;
+    private final int mask;
+
+    /** Bytes consumed so far; written by the consumer only. */
+    private final AtomicLong head = new AtomicLong();
+    /** Bytes produced so far; written by the producer only. */
+    private final AtomicLong tail = new AtomicLong();
+
+    /** Highest fill level seen by the producer, in bytes. */
+    private volatile long highWaterMark;
+
+    /**
+     * @param capacity Size in bytes; rounded up to a power of two
+     */
+    public SpscByteRing(int capacity) {
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Invalid ring capacity: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.buffer = new byte[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Appends {@code length} bytes, or nothing if they do not fit. Producer thread only.
+     *
+     * @return false if the ring is too full (overrun)
+     */
+    public boolean offer(byte[] source, int offset, int length) {
+        long position = tail.get();
+        long fill = position - head.get();
+        if (buffer.length - fill < length) {
+            return false;
+        }
+
+        int index = (int) (position & mask);
+        int first = Math.min(length, buffer.length - index);
+        System.arraycopy(source, offset, buffer, index, first);
+        System.arraycopy(source, offset + first, buffer, 0, length - first);
+        tail.lazySet(position + length);
+
+        if (fill + length > highWaterMark) {
+            highWaterMark = fill + length;
+        }
+        return true;
+    }
+
+    /**
+     * Removes up to {@code maxLength} bytes. Consumer thread only.
+     *
+     * @return Number of bytes copied into {@code target}, 0 if the ring is empty
+     */
+    public int poll(byte[] target, int offset, int maxLength) {
+        long position = head.get();
+        int length = (int) Math.min(tail.get() - position, maxLength);
+        if (length <= 0) {
+            return 0;
+        }
+
+        int index = (int) (position & mask);
+        int first = Math.min(length, buffer.length - index);
+        System.arraycopy(buffer, index, target, offset, first);
+        System.arraycopy(buffer, 0, target, offset + first, length - first);
+        head.lazySet(position + length);
+        return length;
+    }
+
+    /**
+     * @return Bytes currently buffered (a snapshot when read by a third thread)
+     */
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    public int capacity() {
+        return buffer.length;
+    }
+
+    /**
+     * @return Highest fill level seen so far, in bytes
+     */
+    public long getHighWaterMark() {
+        return highWaterMark;
+    }
+}
@@ -5,16 +5,18 @@ import xt.audio.*;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.EnumSet;
+import java.util.List;
 
 import org.whisperdog.ConfigManager;
+import org.whisperdog.recording.AudioFrameListener;
 import org.whisperdog.recording.IncrementalWavWriter;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Captures system audio (loopback) using WASAPI via XT-Audio library.
@@ -29,6 +31,11 @@ public class SystemAudioCapture {
     private static final int TARGET_CHANNELS = 1;
     private static final float LOOPBACK_GAIN = 8.0f; // Amplify loopback signal
 
+    // Disk writes happen on a writer thread, never on the audio callback
+    private static final int RING_CAPACITY_BYTES = 1 << 19;  // ~16s of 16kHz mono PCM16
+    private static final int WRITE_BATCH_BYTES = 1 << 16;
+    private static final long WRITER_INTERVAL_NANOS = 250_000_000L;
+
     // Shared platform reference — XtAudio only allows one platform at a time
     private static volatile XtPlatform activePlatform;
 
@@ -45,10 +52,15 @@ public class SystemAudioCapture {
     private String loopbackDeviceId;
     private String loopbackDeviceName;
     private IncrementalWavWriter writer;
+    private AlignedPcmRing ring;
+    private Thread writerThread;
+    private volatile boolean writerRunning;
+    private long writerBytes;  // Track length so far, silence included; writer thread only
     private volatile File outputFile;
     private volatile IOException writerError;
     private final AtomicBoolean writerFailed = new AtomicBoolean(false);
     private final AtomicBoolean capturing = new AtomicBoolean(false);
+    private final List<AudioFrameListener> listeners = new CopyOnWriteArrayList<>();
 
     // Format info for conversion
     private int deviceSampleRate;
@@ -322,6 +334,10 @@ public class SystemAudioCapture {
         logger.info("Using format: {}Hz, {} channels, {}",
             deviceSampleRate, deviceChannels, mix.sample);
 
+        // Size the conversion buffers for the largest expected callback (100ms)
+        converter = new LoopbackConverter(deviceSampleRate, deviceChannels, TARGET_SAMPLE_RATE, LOOPBACK_GAIN);
+        converter.reserve(deviceSampleRate / 10);
+
         writerError = null;
         writerFailed.set(false);
         outputFile = createOutputFile();
@@ -340,6 +356,9 @@ public class SystemAudioCapture {
             throw new IOException("Failed to initialize incremental system audio writer", e);
         }
 
+        ring = new AlignedPcmRing(RING_CAPACITY_BYTES);
+        overrunBuffers.set(0);
+        startWriterThread();
         capturing.set(true);
 
         Structs.XtBufferSize bufferSize = device.getBufferSize(format);
@@ -380,6 +399,7 @@ public class SystemAudioCapture {
                 }
                 device = null;
             }
+            stopWriterThread();
             closeWriterQuietly();
             throw e;
         }
@@ -391,9 +411,14 @@ public class SystemAudioCapture {
     private final AtomicLong totalBufferCalls = new AtomicLong(0);
     private final AtomicLong nonSilentBuffers = new AtomicLong(0);
     private volatile float peakSample = 0;
+    private final AtomicLong overrunBuffers = new AtomicLong(0);
+
+    // Conversion state, touched only by the audio callback; preallocated in start()
+    private LoopbackConverter converter;
 
     /**
-     * Callback for audio buffer processing.
+     * Callback for audio buffer processing. Allocates nothing once the buffers have
+     * reached the device buffer size.
      */
     private int onBuffer(XtStream stream, Structs.XtBuffer buffer, Object user) {
         if (!capturing.get() || buffer.frames == 0 || writerFailed.get()) {
@@ -404,7 +429,7 @@ public class SystemAudioCapture {
             XtSafeBuffer safe = XtSafeBuffer.get(stream);
             safe.lock(buffer);
 
-            byte[] converted;
+            int convertedBytes;
             try {
                 Object input = safe.getInput();
                 if (input instanceof float[]) {
@@ -423,13 +448,13 @@ public class SystemAudioCapture {
                     if (bufferPeak > 0.0001f) nonSilentBuffers.incrementAndGet();
                     if (bufferPeak > peakSample) peakSample = bufferPeak;
 
-                    converted = convertFloatToInt16(samples, availableFrames, deviceChannels);
+                    convertedBytes = converter.convert(samples, availableFrames);
                 } else if (input instanceof short[]) {
                     short[] samples = (short[]) input;
                     // Bounds check: limit frames to available samples
                     int availableFrames = Math.min(buffer.frames, samples.length / deviceChannels);
                     totalBufferCalls.incrementAndGet();
-                    converted = convertInt16(samples, availableFrames, deviceChannels);
+                    convertedBytes = converter.convert(samples, availableFrames);
                 } else {
                     return 0;
                 }
@@ -437,17 +462,10 @@ public class SystemAudioCapture {
                 safe.unlock(buffer);
             }
 
-            IncrementalWavWriter activeWriter = writer;
-            if (activeWriter == null) {
-                return 0;
-            }
-
-            try {
-                activeWriter.write(converted, 0, converted.length);
-            } catch (IOException e) {
-                writerError = e;
-                writerFailed.set(true);
-                logger.error("System audio disk write failed. Recording will continue without system track updates: {}", e.getMessage(), e);
+            AlignedPcmRing activeRing = ring;
+            if (activeRing != null && convertedBytes > 0 && !activeRing.offer(converter.output(), 0, convertedBytes)) {
+                // Writer fell behind; the ring records where, and the writer fills in silence there
+                overrunBuffers.incrementAndGet();
             }
         } catch (Exception e) {
             logger.error("Error processing audio buffer: {}", e.getMessage());
@@ -462,11 +480,136 @@ public class SystemAudioCapture {
     public String getDiagnostics() {
         long total = totalBufferCalls.get();
         long nonSilent = nonSilentBuffers.get();
-        return String.format("Device: %s | Buffers: %d total, %d non-silent (%.1f%%), peak: %.6f",
+        return String.format("Device: %s | Buffers: %d total, %d non-silent (%.1f%%), peak: %.6f"
+                + " | Ring: %d overruns, %dms dropped, high water %.1f%%",
             loopbackDeviceName != null ? loopbackDeviceName : "unknown",
             total, nonSilent,
             total > 0 ? (nonSilent * 100.0 / total) : 0,
-            peakSample);
+            peakSample,
+            getOverrunCount(), getDroppedMillis(), getRingHighWaterPercent());
+    }
+
+    /**
+     * @return Callbacks whose audio was dropped because the write ring was full
+     */
+    public long getOverrunCount() {
+        return overrunBuffers.get();
+    }
+
+    /**
+     * @return Duration of the dropped audio (written to the track as silence)
+     */
+    public long getDroppedMillis() {
+        AlignedPcmRing activeRing = ring;
+        long dropped = activeRing != null ? activeRing.getDroppedBytes() : 0;
+        return dropped * 1000 / (TARGET_SAMPLE_RATE * TARGET_CHANNELS * 2L);
+    }
+
+    /**
+     * @return Highest fill level of the write ring, in percent of its capacity
+     */
+    public double getRingHighWaterPercent() {
+        AlignedPcmRing activeRing = ring;
+        return activeRing != null ? activeRing.getHighWaterMark() * 100.0 / activeRing.capacity() : 0;
+    }
+
+    /**
+     * Registers a listener for the 16kHz mono track as it is written, including the
+     * silence that replaces dropped audio. Register before {@link #start()} to see it all.
+     */
+    public void addFrameListener(AudioFrameListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeFrameListener(AudioFrameListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void startWriterThread() {
+        writerRunning = true;
+        writerThread = new Thread(this::drainRing, "SystemAudioWriter");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Lets the writer thread drain what is left in the ring and waits for it.
+     */
+    private void stopWriterThread() {
+        Thread activeThread = writerThread;
+        writerThread = null;
+        if (activeThread == null) {
+            return;
+        }
+        writerRunning = false;
+        LockSupport.unpark(activeThread);
+        try {
+            activeThread.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (activeThread.isAlive()) {
+            logger.warn("System audio writer did not finish in time");
+        }
+    }
+
+    /**
+     * Writer thread: moves audio from the ring to disk in batches. Audio lost to overruns is
+     * replaced by silence at the point where it was lost, so the system track stays aligned
+     * with the mic track.
+     */
+    private void drainRing() {
+        AlignedPcmRing activeRing = ring;
+        IncrementalWavWriter activeWriter = writer;
+        byte[] batch = new byte[WRITE_BATCH_BYTES];
+        writerBytes = 0;
+        AlignedPcmRing.Sink sink = (pcm, offset, length) -> {
+            activeWriter.write(pcm, offset, length);
+            notifyListeners(activeWriter, pcm, length, writerBytes);
+            writerBytes += length;
+        };
+
+        try {
+            while (true) {
+                // Read the flag first, so the last drain sees everything produced before stop
+                boolean running = writerRunning;
+                if (!running) {
+                    activeRing.finish(batch, sink);
+                    break;
+                }
+                activeRing.drain(batch, sink);
+                LockSupport.parkNanos(WRITER_INTERVAL_NANOS);
+            }
+        } catch (IOException e) {
+            writerError = e;
+            writerFailed.set(true);
+            logger.error("System audio disk write failed. Recording will continue without system track updates: {}", e.getMessage(), e);
+        }
+
+        long totalFrames = writerBytes / (2L * TARGET_CHANNELS);
+        for (AudioFrameListener listener : listeners) {
+            try {
+                listener.onEnd(totalFrames);
+            } catch (RuntimeException e) {
+                logger.error("System audio frame listener failed", e);
+            }
+        }
+    }
+
+    private void notifyListeners(IncrementalWavWriter activeWriter, byte[] pcm, int length, long byteOffset)
+            throws IOException {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        activeWriter.flush();  // Listeners may read the frames back from the file
+        long frameOffset = byteOffset / (2L * TARGET_CHANNELS);
+        for (AudioFrameListener listener : listeners) {
+            try {
+                listener.onFrames(pcm, 0, length, frameOffset);
+            } catch (RuntimeException e) {
+                logger.error("System audio frame listener failed", e);
+            }
+        }
     }
 
     public boolean hasWriteError() {
@@ -504,97 +647,13 @@ public class SystemAudioCapture {
         }
     }
 
-    /**
-     * Convert float samples to 16-bit PCM mono at target sample rate.
-     * Uses linear interpolation for smoother resampling (reduces aliasing vs nearest-neighbor).
-     */
-    private byte[] convertFloatToInt16(float[] input, int frames, int inputChannels) {
-        // Calculate output size with resampling
-        int outputSamples = (int) ((long) frames * TARGET_SAMPLE_RATE / deviceSampleRate);
-        ByteBuffer outBuf = ByteBuffer.allocate(outputSamples * 2).order(ByteOrder.LITTLE_ENDIAN);
-
-        for (int i = 0; i < outputSamples; i++) {
-            // Linear interpolation resampling
-            double srcPos = (double) i * deviceSampleRate / TARGET_SAMPLE_RATE;
-            int srcFrame0 = (int) srcPos;
-            int srcFrame1 = srcFrame0 + 1;
-            double frac = srcPos - srcFrame0;
-
-            // Clamp to valid range
-            if (srcFrame0 >= frames) srcFrame0 = frames - 1;
-            if (srcFrame1 >= frames) srcFrame1 = frames - 1;
-
-            // Mix down to mono with linear interpolation between frames
-            float sample0 = 0, sample1 = 0;
-            for (int ch = 0; ch < inputChannels; ch++) {
-                int idx0 = srcFrame0 * inputChannels + ch;
-                int idx1 = srcFrame1 * inputChannels + ch;
-                if (idx0 < input.length) sample0 += input[idx0];
-                if (idx1 < input.length) sample1 += input[idx1];
-            }
-            sample0 /= inputChannels;
-            sample1 /= inputChannels;
-
-            // Interpolate and apply gain
-            float sample = (float) (sample0 + (sample1 - sample0) * frac);
-            sample *= LOOPBACK_GAIN;
-
-            // Clamp and convert to 16-bit
-            sample = Math.max(-1.0f, Math.min(1.0f, sample));
-            outBuf.putShort((short) (sample * 32767));
-        }
-
-        return outBuf.array();
-    }
-
-    /**
-     * Convert int16 samples to mono at target sample rate.
-     * Uses linear interpolation for smoother resampling.
-     */
-    private byte[] convertInt16(short[] input, int frames, int inputChannels) {
-        // Calculate output size with resampling
-        int outputSamples = (int) ((long) frames * TARGET_SAMPLE_RATE / deviceSampleRate);
-        ByteBuffer outBuf = ByteBuffer.allocate(outputSamples * 2).order(ByteOrder.LITTLE_ENDIAN);
-
-        for (int i = 0; i < outputSamples; i++) {
-            // Linear interpolation resampling
-            double srcPos = (double) i * deviceSampleRate / TARGET_SAMPLE_RATE;
-            int srcFrame0 = (int) srcPos;
-            int srcFrame1 = srcFrame0 + 1;
-            double frac = srcPos - srcFrame0;
-
-            // Clamp to valid range
-            if (srcFrame0 >= frames) srcFrame0 = frames - 1;
-            if (srcFrame1 >= frames) srcFrame1 = frames - 1;
-
-            // Mix down to mono with linear interpolation between frames
-            int sample0 = 0, sample1 = 0;
-            for (int ch = 0; ch < inputChannels; ch++) {
-                int idx0 = srcFrame0 * inputChannels + ch;
-                int idx1 = srcFrame1 * inputChannels + ch;
-                if (idx0 < input.length) sample0 += input[idx0];
-                if (idx1 < input.length) sample1 += input[idx1];
-            }
-            sample0 /= inputChannels;
-            sample1 /= inputChannels;
-
-            // Interpolate
-            int sample = (int) Math.round(sample0 + (sample1 - sample0) * frac);
-
-            // Clamp
-            sample = Math.max(-32768, Math.min(32767, sample));
-            outBuf.putShort((short) sample);
-        }
-
-        return outBuf.array();
-    }
-
     /**
      * Stop capturing and return the captured audio.
      * @return Captured WAV file, or null if no file is available
      */
     public File stop() {
         if (!capturing.get()) {
+            stopWriterThread();
             if (writer != null) {
                 closeWriterQuietly();
             }
@@ -603,8 +662,8 @@ public class SystemAudioCapture {
 
         capturing.set(false);
 
-        // Brief delay to allow any in-flight callbacks to complete writing to writer.
-        // The callback checks capturing.get() first, so after this delay no new writes will occur.
+        // Brief delay to allow any in-flight callbacks to finish handing audio to the ring.
+        // The callback checks capturing.get() first, so after this delay nothing new is produced.
         try {
             Thread.sleep(50);
         } catch (InterruptedException e) {
@@ -651,6 +710,7 @@ public class SystemAudioCapture {
             logger.error("Unexpected error during stop(): {}", t.getMessage(), t);
         }
 
+        stopWriterThread();
         closeWriterQuietly();
 
         if (writerError != null) {
@@ -0,0 +1,325 @@
+package org.whisperdog.audio;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.whisperdog.ConfigManager;
+import org.whisperdog.recording.AudioFrameListener;
+import org.whisperdog.recording.IncrementalWavWriter;
+import org.whisperdog.recording.WavHeader;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Mixes the mic and system tracks into one 16kHz mono PCM16 WAV, in process.
+ * <p>
+ * Each source is downmixed, scaled by its gain and resampled to 16kHz, then buffered
+ * until the other source has delivered the same stretch of time; matching samples are
+ * summed and written. Sums above {@link #KNEE} are compressed smoothly towards full
+ * scale instead of clipping. When one source ends, the rest of the other is written
+ * alone (the longer track sets the length, like ffmpeg's {@code amix=duration=longest}).
+ * <p>
+ * Offline, {@link #mergeTracks} streams two finished WAV files through the mixer. Live,
+ * the capture threads push their frames while recording; a source that falls more than
+ * {@link #MAX_LIVE_LAG_SECONDS} behind (e.g. system audio switched off) is treated as
+ * silent, so the mix keeps pace with the recording and is ready when it stops.
+ * Registered {@link AudioFrameListener}s see the mixed output as it is written.
+ */
+public class TrackMixer implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(TrackMixer.class);
+
+    public static final int OUTPUT_SAMPLE_RATE = 16000;
+
+    /** Level above which the sum is soft-limited. */
+    private static final float KNEE = 0.8f;
+
+    private static final int MAX_LIVE_LAG_SECONDS = 5;
+
+    /** Window read per source per step when mixing files. */
+    private static final int FILE_WINDOW_MS = 100;
+
+    public enum Source { MIC, SYSTEM }
+
+    private final IncrementalWavWriter writer;
+    private final Input mic;
+    private final Input system;
+    private final int maxLagSamples;
+    private final List<AudioFrameListener> listeners = new CopyOnWriteArrayList<>();
+    private byte[] output = new byte[0];
+    private long mixedSamples;
+    private long limitedSamples;
+    private boolean closed;
+
+    /**
+     * @param live True to keep pace with a running recording: a source lagging behind by
+     *             more than {@link #MAX_LIVE_LAG_SECONDS} is mixed as silence
+     */
+    public TrackMixer(File outputFile, float micGain, float systemGain, boolean live) throws IOException {
+        this.writer = new IncrementalWavWriter(outputFile, OUTPUT_SAMPLE_RATE, 16, 1);
+        this.mic = new Input(micGain);
+        this.system = new Input(systemGain);
+        this.maxLagSamples = live ? MAX_LIVE_LAG_SECONDS * OUTPUT_SAMPLE_RATE : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Mixes two finished WAV files (16-bit PCM, any rate and channel count).
+     *
+     * @return Merged 16kHz mono WAV in the temp directory, or null if mixing failed
+     */
+    public static File mergeTracks(File micTrack, File systemTrack, float micGain, float systemGain) {
+        File outputFile = null;
+        try {
+            // Caller responsible for cleanup (files match whisperdog_* pattern)
+            outputFile = ConfigManager.createTempFile("whisperdog_merged_", ".wav");
+            logger.info("Merging audio tracks: {} + {} -> {}",
+                micTrack.getName(), systemTrack.getName(), outputFile.getName());
+            long start = System.currentTimeMillis();
+
+            try (TrackMixer mixer = new TrackMixer(outputFile, micGain, systemGain, false);
+                 FileChannel micChannel = FileChannel.open(micTrack.toPath(), StandardOpenOption.READ);
+                 FileChannel systemChannel = FileChannel.open(systemTrack.toPath(), StandardOpenOption.READ)) {
+                TrackReader micReader = new TrackReader(micChannel);
+                TrackReader systemReader = new TrackReader(systemChannel);
+                // Alternate equal stretches of time so little is buffered
+                while (!micReader.isDone() || !systemReader.isDone()) {
+                    micReader.readInto(mixer, Source.MIC);
+                    systemReader.readInto(mixer, Source.SYSTEM);
+                }
+            }
+
+            logger.info("Merged audio tracks in {}ms: {} bytes",
+                System.currentTimeMillis() - start, outputFile.length());
+            return outputFile;
+        } catch (IOException e) {
+            logger.error("Failed to merge audio tracks: {}", e.getMessage(), e);
+            if (outputFile != null && outputFile.exists() && !outputFile.delete()) {
+                logger.debug("Could not delete partial merge file: {}", outputFile.getName());
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Subscribes to the mixed 16kHz mono output. Register before the first write to see
+     * the mix from its start.
+     */
+    public void addOutputListener(AudioFrameListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Adds little-endian 16-bit PCM of one source and writes whatever can be mixed.
+     */
+    public synchronized void write(Source source, byte[] pcm, int offset, int length,
+                                   int sampleRate, int channels) throws IOException {
+        if (closed) {
+            throw new IOException("Mixer is already closed");
+        }
+        Input input = source == Source.MIC ? mic : system;
+        input.append(pcm, offset, length, sampleRate, channels);
+        mixAvailable(false);
+    }
+
+    /**
+     * Writes the remainder of the longer source and finalizes the WAV file.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            mixAvailable(true);
+        } finally {
+            writer.close();
+            for (AudioFrameListener listener : listeners) {
+                try {
+                    listener.onEnd(mixedSamples);
+                } catch (RuntimeException e) {
+                    logger.error("Mix output listener failed", e);
+                }
+            }
+        }
+        if (limitedSamples > 0) {
+            logger.info("Mixer limited {} of {} samples ({}%)", limitedSamples, mixedSamples,
+                String.format("%.2f", limitedSamples * 100.0 / Math.max(1, mixedSamples)));
+        }
+    }
+
+    public File getOutputFile() {
+        return writer.getFile();
+    }
+
+    private void mixAvailable(boolean flush) throws IOException {
+        int both = Math.min(mic.available(), system.available());
+        if (both > 0) {
+            mix(both, true, true);
+        }
+        Input ahead = mic.available() > 0 ? mic : system;
+        int alone = flush ? ahead.available() : ahead.available() - maxLagSamples;
+        if (alone > 0) {
+            mix(alone, ahead == mic, ahead == system);
+        }
+    }
+
+    private void mix(int samples, boolean useMic, boolean useSystem) throws IOException {
+        if (output.length < samples * 2) {
+            output = new byte[samples * 2];
+        }
+        float[] micSamples = mic.fifo;
+        float[] systemSamples = system.fifo;
+        int micStart = mic.start;
+        int systemStart = system.start;
+
+        for (int i = 0, o = 0; i < samples; i++) {
+            float sum = 0;
+            if (useMic) {
+                sum += micSamples[micStart + i];
+            }
+            if (useSystem) {
+                sum += systemSamples[systemStart + i];
+            }
+            float magnitude = Math.abs(sum);
+            if (magnitude > KNEE) {
+                // Smooth approach to full scale instead of a hard clip
+                float over = (magnitude - KNEE) / (1.0f - KNEE);
+                sum = Math.copySign(KNEE + (1.0f - KNEE) * (float) Math.tanh(over), sum);
+                limitedSamples++;
+            }
+            int pcm = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, Math.round(sum * 32767.0f)));
+            output[o++] = (byte) pcm;
+            output[o++] = (byte) (pcm >> 8);
+        }
+
+        if (useMic) {
+            mic.consume(samples);
+        }
+        if (useSystem) {
+            system.consume(samples);
+        }
+        writer.write(output, 0, samples * 2);
+        if (!listeners.isEmpty()) {
+            writer.flush();  // Listeners may read the frames back from the file
+        }
+        for (AudioFrameListener listener : listeners) {
+            try {
+                listener.onFrames(output, 0, samples * 2, mixedSamples);
+            } catch (RuntimeException e) {
+                logger.error("Mix output listener failed", e);
+            }
+        }
+        mixedSamples += samples;
+    }
+
+    /**
+     * One source: converts incoming PCM to gain-scaled 16kHz mono and buffers it until mixed.
+     */
+    private static final class Input {
+        final float gain;
+        PolyphaseResampler resampler;
+        int sampleRate;
+        float[] mono = new float[0];
+        float[] fifo = new float[OUTPUT_SAMPLE_RATE];
+        int start;
+        int end;
+
+        Input(float gain) {
+            this.gain = gain;
+        }
+
+        int available() {
+            return end - start;
+        }
+
+        void consume(int samples) {
+            start += samples;
+            if (start == end) {
+                start = 0;
+                end = 0;
+            }
+        }
+
+        void append(byte[] pcm, int offset, int length, int rate, int channels) {
+            if (resampler == null || rate != sampleRate) {
+                resampler = new PolyphaseResampler(rate, OUTPUT_SAMPLE_RATE);
+                sampleRate = rate;
+            }
+            int frames = length / (2 * channels);
+            if (frames == 0) {
+                return;
+            }
+            if (mono.length < frames) {
+                mono = new float[frames];
+            }
+            float scale = gain / (32768.0f * channels);
+            for (int frame = 0, i = offset; frame < frames; frame++) {
+                int sum = 0;
+                for (int ch = 0; ch < channels; ch++, i += 2) {
+                    sum += (short) ((pcm[i] & 0xFF) | (pcm[i + 1] << 8));
+                }
+                mono[frame] = sum * scale;
+            }
+
+            int needed = resampler.maxOutputSamples(frames);
+            if (fifo.length - end < needed) {
+                // Compact first; grow only if the backlog itself does not fit
+                int backlog = available();
+                float[] target = fifo.length - backlog < needed ? new float[(backlog + needed) * 2] : fifo;
+                System.arraycopy(fifo, start, target, 0, backlog);
+                fifo = target;
+                start = 0;
+                end = backlog;
+            }
+            end += resampler.process(mono, frames, fifo, end);
+        }
+    }
+
+    /**
+     * Reads one WAV file in windows of {@link #FILE_WINDOW_MS}.
+     */
+    private static final class TrackReader {
+        private final FileChannel channel;
+        private final WavHeader header;
+        private final ByteBuffer window;
+        private long position;
+        private final long end;
+
+        TrackReader(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.header = WavHeader.read(channel);
+            if (!header.isPcm() || header.bitsPerSample != 16) {
+                throw new IOException("Mixer needs 16-bit PCM input, got " + header.bitsPerSample + "-bit");
+            }
+            int windowFrames = Math.max(1, header.sampleRate * FILE_WINDOW_MS / 1000);
+            this.window = ByteBuffer.allocate(windowFrames * header.getFrameSize());
+            this.position = header.dataOffset;
+            this.end = header.dataOffset + header.dataLength;
+        }
+
+        boolean isDone() {
+            return position >= end;
+        }
+
+        void readInto(TrackMixer mixer, Source source) throws IOException {
+            if (isDone()) {
+                return;
+            }
+            window.clear();
+            window.limit((int) Math.min(window.capacity(), end - position));
+            while (window.hasRemaining()) {
+                if (channel.read(window, position + window.position()) < 0) {
+                    throw new IOException("Unexpected end of " + source + " track");
+                }
+            }
+            position += window.limit();
+            mixer.write(source, window.array(), 0, window.limit(), header.sampleRate, header.channels);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package org.whisperdog.audio;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.whisperdog.ConfigManager;
+import org.whisperdog.recording.IncrementalWavWriter;
+import org.whisperdog.recording.WavHeader;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Converts 16-bit PCM WAV files of any rate and channel count to 16kHz mono, in process,
+ * either to a new WAV file or streamed into any {@link PcmSink}.
+ * Whisper resamples everything to 16kHz anyway, so converting imported files first keeps
+ * uploads small without depending on ffmpeg.
+ */
+public final class WavResampler {
+
+    private static final Logger logger = LogManager.getLogger(WavResampler.class);
+
+    public static final int TARGET_SAMPLE_RATE = 16000;
+
+    private static final int WINDOW_MS = 100;
+
+    private WavResampler() {
+    }
+
+    /**
+     * @return true if the file is 16-bit PCM that is not already 16kHz mono
+     */
+    public static boolean needsConversion(File wavFile) {
+        try {
+            WavHeader header = WavHeader.read(wavFile);
+            return header.isPcm() && header.bitsPerSample == 16
+                && (header.sampleRate != TARGET_SAMPLE_RATE || header.channels != 1);
+        } catch (IOException e) {
+            return false;  // Not a WAV we can read; leave it to the transcription service
+        }
+    }
+
+    /**
+     * Writes a 16kHz mono copy of a 16-bit PCM WAV file to the temp directory.
+     *
+     * @return The converted file (caller responsible for cleanup), or null if conversion failed
+     */
+    public static File toTranscriptionFormat(File wavFile) {
+        File outputFile = null;
+        try {
+            outputFile = ConfigManager.createTempFile("whisperdog_converted_", ".wav");
+            long start = System.currentTimeMillis();
+            convert(wavFile, outputFile);
+            logger.info("Resampled {} to 16kHz mono in {}ms: {} -> {} bytes", wavFile.getName(),
+                System.currentTimeMillis() - start, wavFile.length(), outputFile.length());
+            return outputFile;
+        } catch (IOException e) {
+            logger.error("Failed to resample {}: {}", wavFile.getName(), e.getMessage(), e);
+            if (outputFile != null && outputFile.exists() && !outputFile.delete()) {
+                logger.debug("Could not delete partial conversion: {}", outputFile.getName());
+            }
+            return null;
+        }
+    }
+
+    static void convert(File input, File output) throws IOException {
+        try (FileChannel channel = FileChannel.open(input.toPath(), StandardOpenOption.READ);
+             IncrementalWavWriter writer = new IncrementalWavWriter(output, TARGET_SAMPLE_RATE, 16, 1)) {
+            WavHeader header = WavHeader.read(channel);
+            convert(channel, header, header.dataOffset, header.dataLength, writer::write);
+        }
+    }
+
+    /**
+     * Receives converted PCM; the buffer is reused once the call returns.
+     */
+    public interface PcmSink {
+        void write(byte[] pcm, int offset, int length) throws IOException;
+    }
+
+    /**
+     * Streams a byte range of a 16-bit PCM WAV as 16kHz mono PCM16 (little-endian), one
+     * 100ms window at a time, without reading the range into memory.
+     *
+     * @param channel Open channel of the WAV file
+     * @param header Parsed header of the file
+     * @param offset Absolute file offset of the first PCM byte
+     * @param length Number of PCM bytes (whole frames)
+     * @param sink Receives the converted PCM
+     */
+    public static void convert(FileChannel channel, WavHeader header, long offset, long length, PcmSink sink)
+            throws IOException {
+        if (!header.isPcm() || header.bitsPerSample != 16) {
+            throw new IOException("Only 16-bit PCM can be resampled, got " + header.bitsPerSample + "-bit");
+        }
+        int channels = header.channels;
+        int windowFrames = Math.max(1, header.sampleRate * WINDOW_MS / 1000);
+        ByteBuffer window = ByteBuffer.allocate(windowFrames * header.getFrameSize());
+        PolyphaseResampler resampler = new PolyphaseResampler(header.sampleRate, TARGET_SAMPLE_RATE);
+        float[] mono = new float[windowFrames];
+        byte[] out = new byte[resampler.maxOutputSamples(windowFrames) * 2];
+        float scale = 1.0f / (32768.0f * channels);
+
+        long position = offset;
+        long end = offset + length;
+        while (position < end) {
+            window.clear();
+            window.limit((int) Math.min(window.capacity(), end - position));
+            while (window.hasRemaining()) {
+                if (channel.read(window, position + window.position()) < 0) {
+                    throw new IOException("Unexpected end of WAV data at byte " + (position + window.position()));
+                }
+            }
+            position += window.limit();
+
+            byte[] pcm = window.array();
+            int frames = window.limit() / header.getFrameSize();
+            for (int frame = 0, i = 0; frame < frames; frame++) {
+                int sum = 0;
+                for (int ch = 0; ch < channels; ch++, i += 2) {
+                    sum += (short) ((pcm[i] & 0xFF) | (pcm[i + 1] << 8));
+                }
+                mono[frame] = sum * scale;
+            }
+            int bytes = resampler.process(mono, frames, out, 0);
+            if (bytes > 0) {
+                sink.write(out, 0, bytes);
+            }
+        }
+    }
+}
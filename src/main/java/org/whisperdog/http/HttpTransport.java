@@ -0,0 +1,192 @@
+package org.whisperdog.http;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.ssl.SSLContextBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.net.ssl.SSLContext;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pooled HTTP connections shared by every transcription and post-processing client.
+ * <p>
+ * Clients used to build a new {@link CloseableHttpClient} per request, so every upload paid
+ * a fresh TCP and TLS handshake. The transport keeps connections alive between requests
+ * (up to {@link #MAX_KEEP_ALIVE_MS}, or less if the server says so), so chunked
+ * transcription and post-processing pipelines reuse warm connections. Each host gets up
+ * to {@link #MAX_CONNECTIONS_PER_ROUTE} connections, enough for the highest chunk
+ * concurrency plus live transcription and post-processing.
+ * <p>
+ * Open WebUI servers are often self-hosted with self-signed certificates, so those clients
+ * use {@link #trustAllClient()}: a second pool whose SSL context is built once instead of
+ * per request. Clients must close each response (after reading it) to return its
+ * connection to the pool, and must not close the clients themselves.
+ */
+public final class HttpTransport implements Closeable {
+
+    private static final Logger logger = LogManager.getLogger(HttpTransport.class);
+
+    /** Parallel chunk uploads (at most 8) plus live transcription and post-processing. */
+    public static final int MAX_CONNECTIONS_PER_ROUTE = 10;
+    public static final int MAX_CONNECTIONS_TOTAL = 20;
+
+    /** Upper bound on how long an idle connection is kept when the server sends no Keep-Alive header. */
+    public static final long MAX_KEEP_ALIVE_MS = 60_000;
+
+    /** Pooled connections idle for longer are checked before reuse, in case the server dropped them. */
+    private static final int VALIDATE_AFTER_INACTIVITY_MS = 2_000;
+    private static final long IDLE_EVICTION_MS = 30_000;
+
+    private static final ConnectionKeepAliveStrategy KEEP_ALIVE = (response, context) -> {
+        long serverLimit = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+        return serverLimit > 0 ? Math.min(serverLimit, MAX_KEEP_ALIVE_MS) : MAX_KEEP_ALIVE_MS;
+    };
+
+    private static volatile HttpTransport instance;
+
+    /**
+     * Connect, pool-wait and read timeouts for a request.
+     */
+    public static final class Timeouts {
+        /** Hosted APIs: bounded read, long enough for a 25 MB upload to be processed. */
+        public static final Timeouts DEFAULT = new Timeouts(30_000, 30_000, 600_000);
+        /** Self-hosted servers may run a long file on CPU without sending a byte; no read timeout. */
+        public static final Timeouts SELF_HOSTED = new Timeouts(30_000, 30_000, 0);
+        /** Small metadata requests such as model lists. */
+        public static final Timeouts QUICK = new Timeouts(10_000, 10_000, 30_000);
+
+        public final int connectMs;
+        public final int poolWaitMs;
+        /** Longest wait for data once connected; 0 waits indefinitely. */
+        public final int readMs;
+
+        public Timeouts(int connectMs, int poolWaitMs, int readMs) {
+            if (connectMs < 0 || poolWaitMs < 0 || readMs < 0) {
+                throw new IllegalArgumentException("Timeouts must be >= 0");
+            }
+            this.connectMs = connectMs;
+            this.poolWaitMs = poolWaitMs;
+            this.readMs = readMs;
+        }
+
+        public RequestConfig toRequestConfig() {
+            return RequestConfig.custom()
+                .setConnectTimeout(connectMs)
+                .setConnectionRequestTimeout(poolWaitMs)
+                .setSocketTimeout(readMs)
+                .build();
+        }
+    }
+
+    private final Timeouts defaultTimeouts;
+    private final CloseableHttpClient client;
+    private CloseableHttpClient trustAllClient;
+    private boolean closed;
+
+    /**
+     * @param defaultTimeouts Applied to requests that do not set their own {@link RequestConfig}
+     */
+    public HttpTransport(Timeouts defaultTimeouts) {
+        this.defaultTimeouts = defaultTimeouts;
+        this.client = buildClient(SSLConnectionSocketFactory.getSocketFactory());
+    }
+
+    /**
+     * @return The transport shared by the whole application
+     */
+    public static HttpTransport getInstance() {
+        HttpTransport shared = instance;
+        if (shared == null) {
+            synchronized (HttpTransport.class) {
+                shared = instance;
+                if (shared == null) {
+                    shared = new HttpTransport(Timeouts.DEFAULT);
+                    instance = shared;
+                }
+            }
+        }
+        return shared;
+    }
+
+    public Timeouts getDefaultTimeouts() {
+        return defaultTimeouts;
+    }
+
+    /**
+     * @return Pooled client with standard certificate validation
+     */
+    public CloseableHttpClient client() {
+        return client;
+    }
+
+    /**
+     * @return Pooled client that accepts any certificate and host name, for self-hosted servers
+     * @throws IOException if the SSL context cannot be created
+     */
+    public synchronized CloseableHttpClient trustAllClient() throws IOException {
+        if (closed) {
+            throw new IOException("HTTP transport is closed");
+        }
+        if (trustAllClient == null) {
+            try {
+                SSLContext sslContext = SSLContextBuilder.create()
+                    .loadTrustMaterial(null, (chain, authType) -> true)
+                    .build();
+                trustAllClient = buildClient(new SSLConnectionSocketFactory(sslContext, NoopHostnameVerifier.INSTANCE));
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+        }
+        return trustAllClient;
+    }
+
+    /**
+     * Closes all pooled connections. Only for transports that are not the shared instance.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        client.close();
+        if (trustAllClient != null) {
+            trustAllClient.close();
+        }
+    }
+
+    private CloseableHttpClient buildClient(SSLConnectionSocketFactory tls) {
+        Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
+            .register("http", PlainConnectionSocketFactory.getSocketFactory())
+            .register("https", tls)
+            .build();
+        PoolingHttpClientConnectionManager connections = new PoolingHttpClientConnectionManager(registry);
+        connections.setDefaultMaxPerRoute(MAX_CONNECTIONS_PER_ROUTE);
+        connections.setMaxTotal(MAX_CONNECTIONS_TOTAL);
+        connections.setValidateAfterInactivity(VALIDATE_AFTER_INACTIVITY_MS);
+        logger.debug("Created HTTP connection pool ({} per host, {} total)",
+            MAX_CONNECTIONS_PER_ROUTE, MAX_CONNECTIONS_TOTAL);
+
+        return HttpClients.custom()
+            .setConnectionManager(connections)
+            .setDefaultRequestConfig(defaultTimeouts.toRequestConfig())
+            .setKeepAliveStrategy(KEEP_ALIVE)
+            .evictExpiredConnections()
+            .evictIdleConnections(IDLE_EVICTION_MS, TimeUnit.MILLISECONDS)
+            .build();
+    }
+}
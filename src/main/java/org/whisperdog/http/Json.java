@@ -0,0 +1,68 @@
+package org.whisperdog.http;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Shared Jackson instances for request and response bodies.
+ * <p>
+ * An {@link ObjectMapper} is expensive to create (it builds its serializer and deserializer
+ * caches on first use) but thread-safe once configured, so the whole application shares
+ * one. Typed readers are created once per class and reused. Responses are read straight
+ * from the entity stream, never copied into a String first.
+ */
+public final class Json {
+
+    /** Shared mapper; must not be reconfigured after class initialization. */
+    public static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final ObjectReader TREE_READER = MAPPER.reader();
+
+    private static final ClassValue<ObjectReader> READERS = new ClassValue<>() {
+        @Override
+        protected ObjectReader computeValue(Class<?> type) {
+            return MAPPER.readerFor(type);
+        }
+    };
+
+    private Json() {
+    }
+
+    /**
+     * Starts a streaming parse of the body; closing the parser closes the stream.
+     */
+    public static JsonParser parser(InputStream body) throws IOException {
+        return MAPPER.getFactory().createParser(body);
+    }
+
+    public static JsonNode readTree(InputStream body) throws IOException {
+        return TREE_READER.readTree(body);
+    }
+
+    public static JsonNode readTree(String body) throws IOException {
+        return TREE_READER.readTree(body);
+    }
+
+    public static <T> T read(InputStream body, Class<T> type) throws IOException {
+        return READERS.get(type).readValue(body);
+    }
+
+    /**
+     * Extracts {@code error.message} from an API error body.
+     *
+     * @return The message, or null if the body is not JSON or has no message
+     */
+    public static String errorMessage(String body) {
+        try {
+            JsonNode message = readTree(body).path("error").path("message");
+            return message.isValueNode() ? message.asText() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -11,51 +11,36 @@ import org.apache.http.client.methods.HttpGet;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.entity.ContentType;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.conn.ssl.NoopHostnameVerifier;
-import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
-import org.apache.http.ssl.SSLContextBuilder;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.whisperdog.ConfigManager;
 import org.whisperdog.Notificationmanager;
 import org.whisperdog.ToastNotification;
+import org.whisperdog.http.HttpTransport;
+import org.whisperdog.http.Json;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import javax.net.ssl.SSLContext;
 
 /**
  * OpenWebUIClient processes text requests, fetches available models and transcribes audio files
  * using the OpenWebUI API. The API base URL is obtained from the ConfigManager.
  *
- * This class now ignores certificate validation.
+ * This class ignores certificate validation (see {@link HttpTransport#trustAllClient()}).
  */
 public class OpenWebUIProcessClient {
     private static final Logger logger = LogManager.getLogger(OpenWebUIProcessClient.class);
 
     private final ConfigManager configManager;
+    private final HttpTransport transport;
 
     public OpenWebUIProcessClient(ConfigManager configManager) {
-        this.configManager = configManager;
+        this(configManager, HttpTransport.getInstance());
     }
 
-    /**
-     * Creates an HttpClient which ignores SSL certificate validation.
-     *
-     * @return a CloseableHttpClient instance with an all-trusting SSLContext.
-     * @throws IOException if an error occurs while creating the SSL context.
-     */
-    private CloseableHttpClient createHttpClient() throws IOException {
-        try {
-            SSLContext sslContext = SSLContextBuilder.create()
-                    .loadTrustMaterial(null, (chain, authType) -> true)
-                    .build();
-            SSLConnectionSocketFactory csf = new SSLConnectionSocketFactory(sslContext, NoopHostnameVerifier.INSTANCE);
-            return HttpClients.custom().setSSLSocketFactory(csf).build();
-        } catch (Exception e) {
-            throw new IOException(e);
-        }
+    public OpenWebUIProcessClient(ConfigManager configManager, HttpTransport transport) {
+        this.configManager = configManager;
+        this.transport = transport;
     }
 
     /**
@@ -74,67 +59,64 @@ public class OpenWebUIProcessClient {
      * @throws IOException if an error occurs during the API call.
      */
     public String processText(String systemPrompt, String userPrompt, String model) throws IOException {
-        try (CloseableHttpClient httpClient = createHttpClient()) {
-            String baseUrl = configManager.getOpenWebUIServerUrl().trim();
-            if (!baseUrl.toLowerCase().startsWith("http://") && !baseUrl.toLowerCase().startsWith("https://")) {
-                baseUrl = "https://" + baseUrl;
+        CloseableHttpClient httpClient = transport.trustAllClient();
+        String baseUrl = configManager.getOpenWebUIServerUrl().trim();
+        if (!baseUrl.toLowerCase().startsWith("http://") && !baseUrl.toLowerCase().startsWith("https://")) {
+            baseUrl = "https://" + baseUrl;
+        }
+        if (baseUrl.endsWith("/")) {
+            baseUrl = baseUrl.substring(0, baseUrl.length() - 1);
+        }
+        String url = baseUrl + "/api/chat/completions";
+        HttpPost httpPost = new HttpPost(url);
+
+        httpPost.setHeader("Authorization", "Bearer " + configManager.getProperty("openWebUIApiKey"));
+        httpPost.setHeader("Content-Type", "application/json");
+        httpPost.setConfig(HttpTransport.Timeouts.SELF_HOSTED.toRequestConfig());
+
+        ObjectMapper mapper = Json.MAPPER;
+        ObjectNode payload = mapper.createObjectNode();
+        payload.put("model", model);
+
+        // Build messages array.
+        ArrayNode messages = mapper.createArrayNode();
+
+        ObjectNode systemMessage = mapper.createObjectNode();
+        systemMessage.put("role", "system");
+        systemMessage.put("content", systemPrompt);
+        messages.add(systemMessage);
+
+        ObjectNode userMessage = mapper.createObjectNode();
+        userMessage.put("role", "user");
+        userMessage.put("content", userPrompt);
+        messages.add(userMessage);
+
+        payload.set("messages", messages);
+
+        // Add "params" block.
+        ObjectNode paramsNode = mapper.createObjectNode();
+        paramsNode.put("system", systemPrompt);
+        payload.set("params", paramsNode);
+
+        StringEntity entity = new StringEntity(payload.toString(), ContentType.APPLICATION_JSON);
+        httpPost.setEntity(entity);
+
+        try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
+            int statusCode = response.getStatusLine().getStatusCode();
+            HttpEntity responseEntity = response.getEntity();
+            if (statusCode != 200) {
+                throw errorResponse(responseEntity);
             }
-            if (baseUrl.endsWith("/")) {
-                baseUrl = baseUrl.substring(0, baseUrl.length() - 1);
+            JsonNode jsonResponse = Json.readTree(responseEntity.getContent());
+            JsonNode choices = jsonResponse.path("choices");
+            if (choices.isArray() && choices.size() > 0) {
+                JsonNode messageNode = choices.get(0).path("message");
+                return messageNode.path("content").asText();
             }
-            String url = baseUrl + "/api/chat/completions";
-            HttpPost httpPost = new HttpPost(url);
-
-            httpPost.setHeader("Authorization", "Bearer " + configManager.getProperty("openWebUIApiKey"));
-            httpPost.setHeader("Content-Type", "application/json");
-
-            ObjectMapper mapper = new ObjectMapper();
-            ObjectNode payload = mapper.createObjectNode();
-            payload.put("model", model);
-
-            // Build messages array.
-            ArrayNode messages = mapper.createArrayNode();
-
-            ObjectNode systemMessage = mapper.createObjectNode();
-            systemMessage.put("role", "system");
-            systemMessage.put("content", systemPrompt);
-            messages.add(systemMessage);
-
-            ObjectNode userMessage = mapper.createObjectNode();
-            userMessage.put("role", "user");
-            userMessage.put("content", userPrompt);
-            messages.add(userMessage);
-
-            payload.set("messages", messages);
-
-            // Add "params" block.
-            ObjectNode paramsNode = mapper.createObjectNode();
-            paramsNode.put("system", systemPrompt);
-            payload.set("params", paramsNode);
-
-            StringEntity entity = new StringEntity(payload.toString(), ContentType.APPLICATION_JSON);
-            httpPost.setEntity(entity);
-
-            try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
-                int statusCode = response.getStatusLine().getStatusCode();
-                HttpEntity responseEntity = response.getEntity();
-                String responseString = new String(responseEntity.getContent().readAllBytes(), StandardCharsets.UTF_8);
-                if (statusCode != 200) {
-                    JsonNode errorNode = mapper.readTree(responseString);
-                    String errorMessage = errorNode.path("error").path("message").asText();
-                    throw new IOException("Error from OpenWebUI API: " + errorMessage);
-                }
-                JsonNode jsonResponse = mapper.readTree(responseString);
-                JsonNode choices = jsonResponse.path("choices");
-                if (choices.isArray() && choices.size() > 0) {
-                    JsonNode messageNode = choices.get(0).path("message");
-                    return messageNode.path("content").asText();
-                }
-            } catch (IOException e) {
-                Notificationmanager.getInstance().showNotification(ToastNotification.Type.ERROR, "Error processing text: " + e.getMessage());
-                logger.error("Error processing text: ", e);
+        } catch (IOException e) {
+            Notificationmanager.getInstance().showNotification(ToastNotification.Type.ERROR, "Error processing text: " + e.getMessage());
+            logger.error("Error processing text: ", e);
 
-            }
         }
         return "";
     }
@@ -146,32 +128,33 @@ public class OpenWebUIProcessClient {
      * @throws IOException if an error occurs during the API call.
      */
     public OpenWebUIModelsResponse fetchModels() throws IOException {
-        try (CloseableHttpClient httpClient = createHttpClient()) {
-
-            String baseUrl = configManager.getOpenWebUIServerUrl().trim();
-            if (!baseUrl.toLowerCase().startsWith("http://") && !baseUrl.toLowerCase().startsWith("https://")) {
-                baseUrl = "https://" + baseUrl;
-            }
-            if (baseUrl.endsWith("/")) {
-                baseUrl = baseUrl.substring(0, baseUrl.length() - 1);
-            }
-            String url = baseUrl + "/api/models";
-            HttpGet httpGet = new HttpGet(url);
-            httpGet.setHeader("Authorization", "Bearer " + configManager.getProperty("openWebUIApiKey"));
-            httpGet.setHeader("Content-Type", "application/json");
-
-            try (CloseableHttpResponse response = httpClient.execute(httpGet)) {
-                int statusCode = response.getStatusLine().getStatusCode();
-                HttpEntity responseEntity = response.getEntity();
-                String responseString = new String(responseEntity.getContent().readAllBytes(), StandardCharsets.UTF_8);
-                ObjectMapper mapper = new ObjectMapper();
-                if (statusCode != 200) {
-                    JsonNode errorNode = mapper.readTree(responseString);
-                    String errorMessage = errorNode.path("error").path("message").asText();
-                    throw new IOException("Error from OpenWebUI API: " + errorMessage);
-                }
-                return mapper.readValue(responseString, OpenWebUIModelsResponse.class);
+        CloseableHttpClient httpClient = transport.trustAllClient();
+        String baseUrl = configManager.getOpenWebUIServerUrl().trim();
+        if (!baseUrl.toLowerCase().startsWith("http://") && !baseUrl.toLowerCase().startsWith("https://")) {
+            baseUrl = "https://" + baseUrl;
+        }
+        if (baseUrl.endsWith("/")) {
+            baseUrl = baseUrl.substring(0, baseUrl.length() - 1);
+        }
+        String url = baseUrl + "/api/models";
+        HttpGet httpGet = new HttpGet(url);
+        httpGet.setConfig(HttpTransport.Timeouts.QUICK.toRequestConfig());
+        httpGet.setHeader("Authorization", "Bearer " + configManager.getProperty("openWebUIApiKey"));
+        httpGet.setHeader("Content-Type", "application/json");
+
+        try (CloseableHttpResponse response = httpClient.execute(httpGet)) {
+            int statusCode = response.getStatusLine().getStatusCode();
+            HttpEntity responseEntity = response.getEntity();
+            if (statusCode != 200) {
+                throw errorResponse(responseEntity);
             }
+            return Json.read(responseEntity.getContent(), OpenWebUIModelsResponse.class);
         }
     }
+
+    private static IOException errorResponse(HttpEntity responseEntity) throws IOException {
+        String responseString = new String(responseEntity.getContent().readAllBytes(), StandardCharsets.UTF_8);
+        String errorMessage = Json.errorMessage(responseString);
+        return new IOException("Error from OpenWebUI API: " + (errorMessage != null ? errorMessage : responseString));
+    }
 }
\ No newline at end of file
@@ -4,9 +4,6 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.whisperdog.ConsoleLogger;
 
-import javax.sound.sampled.AudioFormat;
-import javax.sound.sampled.AudioInputStream;
-import javax.sound.sampled.AudioSystem;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.InputStreamReader;
@@ -253,15 +250,10 @@ public class AudioFileAnalyzer {
      * Calculates exact duration for WAV files from header.
      */
     private static Float estimateWavDuration(File file) {
-        try {
-            AudioInputStream audioStream = AudioSystem.getAudioInputStream(file);
-            AudioFormat format = audioStream.getFormat();
-            long frames = audioStream.getFrameLength();
-            float frameRate = format.getFrameRate();
-            audioStream.close();
-
-            if (frames > 0 && frameRate > 0) {
-                return frames / frameRate;
+        try (PcmSource source = PcmSource.open(file)) {
+            // Header only; the data is never mapped for a duration
+            if (source.getFrameCount() > 0 && source.getSampleRate() > 0) {
+                return source.getDurationSeconds();
             }
         } catch (Exception e) {
             logger.debug("Could not read WAV duration from header", e);
@@ -0,0 +1,30 @@
+package org.whisperdog.recording;
+
+/**
+ * Receives captured PCM frames from {@link AudioRecorder} or
+ * {@link org.whisperdog.audio.SystemAudioCapture}, or the live mix of both from
+ * {@link org.whisperdog.audio.TrackMixer}, without copying.
+ * <p>
+ * Callbacks run on the capture's writer thread, after the frames have been written to
+ * the WAV file, so any byte range reported here can already be read back from the file.
+ * The buffer is pooled and refilled once the callback returns: read it, but do not keep
+ * a reference to it or modify it. Slow listeners delay the writer, not the capture.
+ */
+public interface AudioFrameListener {
+
+    /**
+     * @param pcm Pooled buffer holding PCM in the WAV file's byte order (little-endian)
+     * @param offset Offset of the first byte in {@code pcm}
+     * @param length Number of bytes, always whole frames
+     * @param frameOffset Position of the first frame within the recording
+     */
+    void onFrames(byte[] pcm, int offset, int length, long frameOffset);
+
+    /**
+     * Called once after the last frames, when the WAV file is complete.
+     *
+     * @param totalFrames Number of frames in the recording
+     */
+    default void onEnd(long totalFrames) {
+    }
+}
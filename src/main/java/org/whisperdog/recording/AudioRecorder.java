@@ -9,18 +9,58 @@ import org.whisperdog.ToastNotification;
 import javax.sound.sampled.*;
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Records the selected microphone to a WAV file.
+ * <p>
+ * {@link #start()} runs the capture loop on the calling thread: it reads the line into
+ * blocks of a {@link PcmBlockRing}, and a writer thread appends them to an
+ * {@link IncrementalWavWriter}. The WAV header is brought up to date every second, and
+ * {@link IncrementalWavWriter#repairHeader} restores the rest if the application dies
+ * mid-recording. Registered {@link AudioFrameListener}s see every block on the writer
+ * thread, without copies.
+ */
 public class AudioRecorder {
     private static final Logger logger = LogManager.getLogger(AudioRecorder.class);
+
+    /** Audio per capture block. */
+    private static final int BLOCK_MS = 100;
+
+    /** Blocks in the ring, i.e. how far the writer may fall behind (5 seconds). */
+    private static final int RING_BLOCKS = 50;
+
     private final File wavFile;
     private final ConfigManager configManager;
-    private TargetDataLine line;
+    private final List<AudioFrameListener> listeners = new CopyOnWriteArrayList<>();
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private volatile TargetDataLine line;
+    private volatile boolean recording;
+    private volatile boolean stopRequested;
 
     public AudioRecorder(File wavFile, ConfigManager configManager) {
         this.wavFile = wavFile;
         this.configManager = configManager;
     }
 
+    /**
+     * Subscribes to the captured frames. Register before {@link #start()} to see the
+     * recording from its first frame.
+     */
+    public void addFrameListener(AudioFrameListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeFrameListener(AudioFrameListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Records until {@link #stop()} is called. Blocks the calling thread.
+     */
     public void start() {
         try {
             AudioFormat format = configManager.getAudioFormat();
@@ -36,27 +76,162 @@ public class AudioRecorder {
                 return;
             }
 
-            line = (TargetDataLine) mixer.getLine(info);
-            line.open(format);
-            line.start();
+            TargetDataLine openedLine = (TargetDataLine) mixer.getLine(info);
+            openedLine.open(format);
+            recording = true;
+            line = openedLine;
+            if (stopRequested) {
+                // Stopped while the line was opening
+                stop();
+                return;
+            }
+            openedLine.start();
 
-            AudioInputStream ais = new AudioInputStream(line);
-            AudioSystem.write(ais, AudioFileFormat.Type.WAVE, wavFile);
+            capture(openedLine, format);
         } catch (LineUnavailableException | IOException ex) {
             logger.error("An error occurred during recording", ex);
+        } catch (InterruptedException ex) {
+            logger.warn("Recording interrupted");
+            Thread.currentThread().interrupt();
+        } finally {
+            recording = false;
+            finished.countDown();
+        }
+    }
+
+    /**
+     * Reads the line into ring blocks until the recording is stopped, then waits for the
+     * writer thread to finish the file.
+     */
+    private void capture(TargetDataLine source, AudioFormat format) throws IOException, InterruptedException {
+        int frameSize = format.getFrameSize();
+        int sampleBytes = format.getSampleSizeInBits() / 8;
+        boolean swapBytes = format.isBigEndian() && sampleBytes > 1;
+        int blockFrames = Math.max(1, (int) (format.getFrameRate() * BLOCK_MS / 1000));
+
+        PcmBlockRing ring = new PcmBlockRing(RING_BLOCKS, blockFrames * frameSize);
+        IncrementalWavWriter writer = new IncrementalWavWriter(wavFile, (int) format.getSampleRate(),
+            format.getSampleSizeInBits(), format.getChannels());
+        Thread writerThread = new Thread(() -> drain(ring, writer, frameSize), "MicWriterThread");
+        writerThread.start();
+
+        long frames = 0;
+        try {
+            while (true) {
+                PcmBlockRing.Block block = ring.acquire();
+                int read = source.read(block.data, 0, block.data.length);
+                read -= read % frameSize;
+                if (read <= 0) {
+                    ring.release(block);
+                    if (!recording || !source.isOpen()) {
+                        break;
+                    }
+                    continue;
+                }
+                if (swapBytes) {
+                    // WAV is little-endian
+                    swapSampleBytes(block.data, read, sampleBytes);
+                }
+                block.length = read;
+                block.frameOffset = frames;
+                frames += read / frameSize;
+                ring.publish(block);
+            }
+        } finally {
+            ring.publishEnd();
+            writerThread.join();
+        }
+
+        if (ring.getStalls() > 0) {
+            logger.warn("Mic writer fell behind {} times; capture waited for free blocks", ring.getStalls());
+        }
+        logger.info("Recorded {} frames to {}", frames, wavFile.getName());
+    }
+
+    /**
+     * Writer thread: appends blocks to the WAV file and passes them on to the listeners.
+     */
+    private void drain(PcmBlockRing ring, IncrementalWavWriter writer, int frameSize) {
+        long frames = 0;
+        boolean writeFailed = false;
+        try (writer) {
+            PcmBlockRing.Block block;
+            while ((block = ring.take()) != null) {
+                try {
+                    if (writeFailed) {
+                        continue;  // Listeners must only see frames that are in the file
+                    }
+                    writer.write(block.data, 0, block.length);
+                    if (!listeners.isEmpty()) {
+                        writer.flush();  // Listeners may read the frames back from the file
+                    }
+                    for (AudioFrameListener listener : listeners) {
+                        notifyListener(listener, block);
+                    }
+                    frames = block.frameOffset + block.length / frameSize;
+                } catch (IOException e) {
+                    logger.error("Failed to write recording, further audio is discarded", e);
+                    writeFailed = true;
+                } finally {
+                    ring.release(block);
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Failed to finalize recording", e);
+        } catch (InterruptedException e) {
+            logger.warn("Mic writer interrupted");
+            Thread.currentThread().interrupt();
+        }
+
+        for (AudioFrameListener listener : listeners) {
+            try {
+                listener.onEnd(frames);
+            } catch (RuntimeException e) {
+                logger.error("Audio frame listener failed", e);
+            }
+        }
+    }
+
+    private static void notifyListener(AudioFrameListener listener, PcmBlockRing.Block block) {
+        try {
+            listener.onFrames(block.data, 0, block.length, block.frameOffset);
+        } catch (RuntimeException e) {
+            logger.error("Audio frame listener failed", e);
+        }
+    }
+
+    private static void swapSampleBytes(byte[] data, int length, int sampleBytes) {
+        for (int i = 0; i + sampleBytes <= length; i += sampleBytes) {
+            for (int lo = i, hi = i + sampleBytes - 1; lo < hi; lo++, hi--) {
+                byte b = data[lo];
+                data[lo] = data[hi];
+                data[hi] = b;
+            }
         }
     }
 
     public void stop() {
-        if (line != null) {
+        stopRequested = true;
+        TargetDataLine activeLine = line;
+        if (activeLine != null) {
             logger.info("Stopping Line.");
-            line.stop();
-            line.close();
+            recording = false;
+            activeLine.stop();
+            activeLine.close();
             line = null;
             logger.info("Line closed.");
         }
     }
 
+    /**
+     * Waits until {@link #start()} has returned, i.e. the WAV file is complete after {@link #stop()}.
+     *
+     * @return true if the recording finished within the timeout
+     */
+    public boolean awaitFinished(long timeoutMs) throws InterruptedException {
+        return finished.await(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
     private Mixer.Info getMixerInfoByName(String name) {
         Mixer.Info[] mixers = AudioSystem.getMixerInfo();
         for (Mixer.Info mixer : mixers) {
@@ -70,4 +245,4 @@ public class AudioRecorder {
     public File getOutputFile() {
         return wavFile;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,117 @@
+package org.whisperdog.recording;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plans where to cut a long recording into chunks. Instead of cutting at fixed offsets,
+ * each cut is placed in the middle of the silent gap closest to the target chunk length,
+ * searched within a tolerance window around it. A cut in silence does not split a word,
+ * so the chunk after it needs no overlap.
+ * <p>
+ * Positions are abstract frames: sample frames for WAV files, milliseconds for FFmpeg input.
+ */
+public final class ChunkBoundaryPlanner {
+
+    /** RMS level below which a 100ms window counts as silent (about -40dB). */
+    public static final float DEFAULT_SILENCE_THRESHOLD = 0.01f;
+
+    /** Shortest gap that is accepted as a cut point. */
+    public static final int MIN_GAP_MS = 300;
+
+    /** Upper bound for the search window on either side of the target cut. */
+    public static final int MAX_TOLERANCE_SECONDS = 30;
+
+    /**
+     * Supplies silent gaps within a frame range.
+     */
+    public interface GapFinder {
+        List<SilenceRemover.SilenceRegion> findGaps(long fromFrame, long toFrame) throws IOException;
+    }
+
+    /**
+     * A planned chunk, without overlap.
+     */
+    public static final class Span {
+        public final long startFrame;
+        public final long endFrame;
+        /** True if the chunk starts at the beginning of the file or at a cut in silence. */
+        public final boolean cleanStart;
+
+        Span(long startFrame, long endFrame, boolean cleanStart) {
+            this.startFrame = startFrame;
+            this.endFrame = endFrame;
+            this.cleanStart = cleanStart;
+        }
+    }
+
+    private ChunkBoundaryPlanner() {
+    }
+
+    /**
+     * Search window on either side of a target cut: 10% of the chunk length, at most
+     * {@link #MAX_TOLERANCE_SECONDS}. Chunks therefore stay within 10% of the target size.
+     */
+    public static long toleranceFrames(long targetFrames, float framesPerSecond) {
+        return Math.min(targetFrames / 10, (long) (MAX_TOLERANCE_SECONDS * framesPerSecond));
+    }
+
+    /**
+     * Splits {@code totalFrames} into spans of roughly {@code targetFrames}.
+     * A cut without a silent gap in reach falls back to the target position and is
+     * reported through {@link Span#cleanStart} of the following span.
+     *
+     * @param gaps Source of silent gaps, or null to cut at fixed offsets
+     */
+    public static List<Span> plan(long totalFrames, long targetFrames, long toleranceFrames, GapFinder gaps)
+            throws IOException {
+        if (targetFrames <= 0) {
+            throw new IllegalArgumentException("Chunk length must be positive: " + targetFrames);
+        }
+        List<Span> spans = new ArrayList<>();
+        long start = 0;
+        boolean cleanStart = true;
+
+        // The last chunk may run into the tolerance rather than leaving a tiny remainder
+        while (totalFrames - start > targetFrames + toleranceFrames) {
+            long target = start + targetFrames;
+            long cut = target;
+            boolean clean = false;
+
+            if (gaps != null && toleranceFrames > 0) {
+                long bestDistance = Long.MAX_VALUE;
+                for (SilenceRemover.SilenceRegion gap : gaps.findGaps(target - toleranceFrames, target + toleranceFrames)) {
+                    long middle = gap.startFrame + gap.getDurationFrames() / 2;
+                    long distance = Math.abs(middle - target);
+                    if (middle > start && distance <= toleranceFrames && distance < bestDistance) {
+                        bestDistance = distance;
+                        cut = middle;
+                        clean = true;
+                    }
+                }
+            }
+
+            spans.add(new Span(start, cut, cleanStart));
+            start = cut;
+            cleanStart = clean;
+        }
+        if (totalFrames > start) {
+            spans.add(new Span(start, totalFrames, cleanStart));
+        }
+        return spans;
+    }
+
+    /**
+     * @return Number of spans that start at a cut in silence (excluding the first span)
+     */
+    public static int countCleanCuts(List<Span> spans) {
+        int count = 0;
+        for (int i = 1; i < spans.size(); i++) {
+            if (spans.get(i).cleanStart) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,100 @@
+package org.whisperdog.recording;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.whisperdog.ConfigManager;
+import org.whisperdog.ConsoleLogger;
+import org.whisperdog.recording.clients.TranscriptionClient;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+/**
+ * Transcribes single {@link WavChunk}s with the configured server, retrying failed attempts.
+ * Safe to use from several threads at once.
+ * <p>
+ * Attempts are asynchronous {@link TranscriptionClient} calls and retries are scheduled
+ * after a delay, so no caller thread waits for an upload or sleeps between attempts.
+ */
+class ChunkTranscriber {
+
+    private static final Logger logger = LogManager.getLogger(ChunkTranscriber.class);
+
+    // Retry configuration
+    static final int MAX_RETRIES = 3;
+    private static final int RETRY_DELAY_MS = 2000;
+
+    private final TranscriptionClient client;
+    private final BooleanSupplier cancelled;
+    private final Set<CompletableFuture<TranscriptionResult>> inFlight = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param cancelled Checked before each attempt; retries stop once it returns true
+     */
+    ChunkTranscriber(ConfigManager configManager, BooleanSupplier cancelled) {
+        this(TranscriptionClient.forServer(configManager.getWhisperServer(), configManager), cancelled);
+    }
+
+    ChunkTranscriber(TranscriptionClient client, BooleanSupplier cancelled) {
+        this.client = client;
+        this.cancelled = cancelled;
+    }
+
+    /**
+     * Transcribes a single chunk with retry logic. Word timestamps are included where the
+     * server supports them, for stitching.
+     *
+     * @param chunkNum 1-based number used in log messages
+     * @return Completes with the transcript, or with null if all attempts failed or the
+     *         operation was cancelled; never completes exceptionally
+     */
+    CompletableFuture<TranscriptionResult> transcribeWithRetries(WavChunk chunk, int chunkNum) {
+        return attempt(chunk, chunkNum, 1);
+    }
+
+    /**
+     * Aborts the uploads in flight. Call after the {@code cancelled} condition has become
+     * true, so that no further attempts start.
+     */
+    void abort() {
+        for (CompletableFuture<TranscriptionResult> call : inFlight) {
+            call.cancel(true);
+        }
+    }
+
+    private CompletableFuture<TranscriptionResult> attempt(WavChunk chunk, int chunkNum, int attempt) {
+        if (cancelled.getAsBoolean()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<TranscriptionResult> call = client.transcribeAsync(chunk);
+        inFlight.add(call);
+        if (cancelled.getAsBoolean()) {
+            call.cancel(true);  // abort() may have run before the call was registered
+        }
+
+        return call.handle((result, error) -> {
+            inFlight.remove(call);
+            if (error == null) {
+                return CompletableFuture.completedFuture(result);
+            }
+            if (call.isCancelled() || cancelled.getAsBoolean()) {
+                return CompletableFuture.<TranscriptionResult>completedFuture(null);
+            }
+            logger.error("Error transcribing chunk " + chunkNum + " (attempt " + attempt + ")", error);
+            ConsoleLogger.getInstance().logError(String.format("  Chunk %d attempt %d failed: %s",
+                chunkNum, attempt, error.getMessage()));
+            if (attempt >= MAX_RETRIES) {
+                return CompletableFuture.<TranscriptionResult>completedFuture(null);  // All retries failed
+            }
+            // Wait before retry, longer after each failure
+            Executor delay = CompletableFuture.delayedExecutor((long) RETRY_DELAY_MS * attempt, TimeUnit.MILLISECONDS);
+            return CompletableFuture.supplyAsync(() -> attempt + 1, delay)
+                .thenCompose(next -> attempt(chunk, chunkNum, next));
+        }).thenCompose(Function.identity());
+    }
+}
@@ -4,18 +4,22 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.whisperdog.ConfigManager;
 import org.whisperdog.ConsoleLogger;
-import org.whisperdog.recording.clients.FasterWhisperTranscribeClient;
-import org.whisperdog.recording.clients.OpenAITranscribeClient;
-import org.whisperdog.recording.clients.OpenWebUITranscribeClient;
 
 import javax.swing.*;
 import java.io.File;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * SwingWorker for transcribing large audio files that have been split into chunks.
- * Shows progress and merges results from all chunks into a single transcript.
+ * Up to {@link ConfigManager#getChunkConcurrency} chunks are transcribed at a time as
+ * asynchronous calls, each with its own retries. Shows progress and merges results from
+ * all chunks, in chunk order, into a single transcript; words repeated in the chunk
+ * overlaps are removed by {@link TranscriptStitcher}.
  */
 public class ChunkedTranscriptionWorker extends SwingWorker<String, ChunkedTranscriptionWorker.Progress> {
 
@@ -67,172 +71,146 @@ public class ChunkedTranscriptionWorker extends SwingWorker<String, ChunkedTrans
         void onCancelled();
     }
 
-    private final List<File> chunks;
+    private final List<WavChunk> chunks;
     private final ConfigManager configManager;
-    private final OpenAITranscribeClient openAIClient;
-    private final FasterWhisperTranscribeClient fasterWhisperClient;
-    private final OpenWebUITranscribeClient openWebUIClient;
+    private final ChunkTranscriber transcriber;
     private final Callback callback;
     private final AtomicBoolean cancelled = new AtomicBoolean(false);
 
-    // Retry configuration
-    private static final int MAX_RETRIES = 3;
-    private static final int RETRY_DELAY_MS = 2000;
-
     /**
      * Creates a new chunked transcription worker.
+     * Chunks may be files ({@link WavChunk#ofFile}) or virtual byte ranges of a source WAV,
+     * which are uploaded without writing temp files.
      *
-     * @param chunks List of audio chunk files to transcribe
+     * @param chunks List of audio chunks to transcribe
      * @param configManager Configuration manager for settings
      * @param callback Callback for progress and completion updates
      */
-    public ChunkedTranscriptionWorker(List<File> chunks, ConfigManager configManager, Callback callback) {
+    public ChunkedTranscriptionWorker(List<WavChunk> chunks, ConfigManager configManager, Callback callback) {
         this.chunks = chunks;
         this.configManager = configManager;
         this.callback = callback;
-
-        this.openAIClient = new OpenAITranscribeClient(configManager);
-        this.fasterWhisperClient = new FasterWhisperTranscribeClient(configManager);
-        this.openWebUIClient = new OpenWebUITranscribeClient(configManager);
+        this.transcriber = new ChunkTranscriber(configManager, cancelled::get);
     }
 
     /**
-     * Cancels the transcription operation.
+     * Cancels the transcription operation, aborting the uploads in flight.
      */
     public void cancelTranscription() {
         cancelled.set(true);
+        transcriber.abort();
         cancel(false);
     }
 
     @Override
     protected String doInBackground() throws Exception {
         ConsoleLogger console = ConsoleLogger.getInstance();
-        StringBuilder fullTranscript = new StringBuilder();
         int totalChunks = chunks.size();
+        String server = configManager.getWhisperServer();
+        int concurrency = Math.min(configManager.getChunkConcurrency(server), Math.max(1, totalChunks));
 
         console.separator();
         console.log("Starting chunked transcription of " + totalChunks + " chunks");
-        console.log("Using transcription server: " + configManager.getWhisperServer());
+        console.log("Using transcription server: " + server);
+        if (concurrency > 1) {
+            console.log("Transcribing up to " + concurrency + " chunks in parallel");
+        }
 
         long startTime = System.currentTimeMillis();
 
-        for (int i = 0; i < chunks.size(); i++) {
-            if (cancelled.get() || isCancelled()) {
-                console.log("Transcription cancelled by user");
-                publish(new Progress(i, totalChunks, "Cancelled", false));
-                return null;
-            }
-
-            File chunk = chunks.get(i);
-            int chunkNum = i + 1;
-
-            publish(new Progress(i, totalChunks,
-                String.format("Transcribing chunk %d of %d...", chunkNum, totalChunks), false));
+        // Chunks finish in any order; results are stored by index and joined in order below.
+        // The queue hands each finished index, and its transcript, over to this thread.
+        TranscriptionResult[] transcripts = new TranscriptionResult[totalChunks];
+        BlockingQueue<Integer> finished = new LinkedBlockingQueue<>();
+        boolean allFinished = false;
 
-            console.log(String.format("Processing chunk %d/%d: %s (%.2f MB)",
-                chunkNum, totalChunks, chunk.getName(), chunk.length() / (1024.0 * 1024.0)));
-
-            // Transcribe chunk with retries
-            String chunkTranscript = transcribeWithRetries(chunk, chunkNum);
-
-            if (chunkTranscript == null) {
-                // Check if cancelled during transcription
-                if (cancelled.get()) {
+        try {
+            publish(new Progress(0, totalChunks,
+                String.format("Transcribing chunk 1 of %d...", totalChunks), false));
+
+            int started = 0;
+            int completed = 0;
+            while (completed < totalChunks) {
+                while (started < totalChunks && started - completed < concurrency && !cancelled.get()) {
+                    startChunk(started++, transcripts, finished);
+                }
+                if (cancelled.get() || isCancelled()) {
+                    console.log("Transcription cancelled by user");
+                    publish(new Progress(completed, totalChunks, "Cancelled", false));
                     return null;
                 }
 
-                // Failed after retries - decide whether to continue or fail
-                console.logError(String.format("Failed to transcribe chunk %d after %d retries",
-                    chunkNum, MAX_RETRIES));
-
-                // Continue with other chunks, mark this one as failed
-                console.log("Continuing with remaining chunks...");
-                fullTranscript.append("[TRANSCRIPTION FAILED FOR CHUNK ")
-                    .append(chunkNum)
-                    .append("] ");
-            } else if (!chunkTranscript.trim().isEmpty()) {
-                // Successfully transcribed
-                if (fullTranscript.length() > 0) {
-                    fullTranscript.append(" ");  // Space between chunks
+                Integer index = finished.poll(200, TimeUnit.MILLISECONDS);
+                if (index == null) {
+                    continue;
                 }
-                fullTranscript.append(chunkTranscript.trim());
+                completed++;
 
-                console.log(String.format("  Chunk %d transcribed: %d characters",
-                    chunkNum, chunkTranscript.length()));
+                // Update progress
+                setProgress((completed * 100) / totalChunks);
+                if (completed < totalChunks) {
+                    publish(new Progress(completed, totalChunks,
+                        String.format("Transcribed %d of %d chunks...", completed, totalChunks), false));
+                }
+            }
+            allFinished = true;
+        } finally {
+            if (!allFinished) {
+                transcriber.abort();  // Cancelled or interrupted
             }
+        }
 
-            // Update progress
-            setProgress((chunkNum * 100) / totalChunks);
+        if (cancelled.get()) {
+            return null;
         }
 
+        TranscriptStitcher stitcher = new TranscriptStitcher();
+        for (int i = 0; i < totalChunks; i++) {
+            TranscriptionResult chunkTranscript = transcripts[i];
+            if (chunkTranscript == null) {
+                // Failed after retries - mark this one as failed
+                stitcher.appendRaw("[TRANSCRIPTION FAILED FOR CHUNK " + (i + 1) + "] ");
+            } else {
+                WavChunk chunk = chunks.get(i);
+                stitcher.append(chunkTranscript, chunk.getLeadingOverlapMs(), chunk.getDurationMs());
+            }
+        }
+        String fullTranscript = stitcher.getTranscript();
+
         long elapsedTime = System.currentTimeMillis() - startTime;
         console.logSuccess(String.format("Chunked transcription complete (%d chunks in %.1f seconds)",
             totalChunks, elapsedTime / 1000.0));
         console.log(String.format("Total transcript length: %d characters", fullTranscript.length()));
 
-        return fullTranscript.toString();
+        return fullTranscript;
     }
 
     /**
-     * Transcribes a single chunk with retry logic.
+     * Starts transcribing one chunk. When it is done, its transcript (null if it failed or was
+     * cancelled) is stored and its index is put on {@code finished}.
      */
-    private String transcribeWithRetries(File chunk, int chunkNum) {
+    private void startChunk(int index, TranscriptionResult[] transcripts, BlockingQueue<Integer> finished) {
         ConsoleLogger console = ConsoleLogger.getInstance();
+        WavChunk chunk = chunks.get(index);
+        int chunkNum = index + 1;
 
-        for (int attempt = 1; attempt <= MAX_RETRIES; attempt++) {
-            if (cancelled.get()) {
-                return null;
-            }
-
-            try {
-                String result = transcribeChunk(chunk);
-                if (result != null) {
-                    return result;
-                }
-
-                // Null result but no exception - might be empty response
-                console.log(String.format("  Chunk %d attempt %d: empty response, retrying...",
-                    chunkNum, attempt));
+        console.log(String.format("Processing chunk %d/%d: %s (%.2f MB)",
+            chunkNum, chunks.size(), chunk.getName(), chunk.getLength() / (1024.0 * 1024.0)));
 
-            } catch (Exception e) {
-                logger.error("Error transcribing chunk " + chunkNum + " (attempt " + attempt + ")", e);
-                console.logError(String.format("  Chunk %d attempt %d failed: %s",
-                    chunkNum, attempt, e.getMessage()));
-            }
-
-            if (attempt < MAX_RETRIES) {
-                // Wait before retry
-                try {
-                    Thread.sleep(RETRY_DELAY_MS * attempt);  // Exponential backoff
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    return null;
+        // Transcribe chunk with retries
+        transcriber.transcribeWithRetries(chunk, chunkNum).thenAccept(chunkTranscript -> {
+            if (chunkTranscript == null) {
+                if (!cancelled.get()) {
+                    console.logError(String.format("Failed to transcribe chunk %d after %d retries",
+                        chunkNum, ChunkTranscriber.MAX_RETRIES));
                 }
+            } else if (!chunkTranscript.getText().trim().isEmpty()) {
+                console.log(String.format("  Chunk %d transcribed: %d characters",
+                    chunkNum, chunkTranscript.getText().length()));
             }
-        }
-
-        return null;  // All retries failed
-    }
-
-    /**
-     * Transcribes a single chunk using the configured transcription service.
-     */
-    private String transcribeChunk(File chunk) throws Exception {
-        String server = configManager.getWhisperServer();
-
-        switch (server) {
-            case "OpenAI":
-                return openAIClient.transcribe(chunk);
-
-            case "Faster-Whisper":
-                return fasterWhisperClient.transcribe(chunk);
-
-            case "Open WebUI":
-                return openWebUIClient.transcribeAudio(chunk);
-
-            default:
-                throw new IllegalStateException("Unknown Whisper server: " + server);
-        }
+            transcripts[index] = chunkTranscript;
+            finished.add(index);
+        });
     }
 
     @Override
@@ -285,9 +263,10 @@ public class ChunkedTranscriptionWorker extends SwingWorker<String, ChunkedTrans
 
     /**
      * Cleans up temporary chunk files. Only called on success or user cancellation (ISS_00012).
+     * Virtual chunks have no files of their own; their source recording is left alone.
      */
     private void cleanupChunks() {
-        for (File chunk : chunks) {
+        for (File chunk : getChunkFiles()) {
             try {
                 if (chunk.exists()) {
                     if (chunk.delete()) {
@@ -307,8 +286,16 @@ public class ChunkedTranscriptionWorker extends SwingWorker<String, ChunkedTrans
      */
     private void logPreservedChunks() {
         ConsoleLogger console = ConsoleLogger.getInstance();
+        for (WavChunk chunk : chunks) {
+            if (chunk.isVirtual() && chunk.getSource().exists()) {
+                String msg = "Source audio preserved for recovery: " + chunk.getSource().getAbsolutePath();
+                logger.warn(msg);
+                console.log(msg);
+                break;
+            }
+        }
         int count = 0;
-        for (File chunk : chunks) {
+        for (File chunk : getChunkFiles()) {
             if (chunk.exists()) {
                 String msg = String.format(java.util.Locale.US,
                     "Audio file preserved for recovery: %s (%.2f MB)",
@@ -325,6 +312,16 @@ public class ChunkedTranscriptionWorker extends SwingWorker<String, ChunkedTrans
         }
     }
 
+    private List<File> getChunkFiles() {
+        List<File> files = new ArrayList<>();
+        for (WavChunk chunk : chunks) {
+            if (chunk.getFile() != null) {
+                files.add(chunk.getFile());
+            }
+        }
+        return files;
+    }
+
     /**
      * Formats file size in human-readable form.
      */
@@ -10,11 +10,15 @@ import java.io.File;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Splits audio files into chunks using FFmpeg.
  * Supports all audio formats that FFmpeg can handle (MP3, M4A, OGG, FLAC, etc.).
+ * Cuts are placed in silent gaps reported by FFmpeg's silencedetect filter where possible.
  */
 public class FfmpegChunker {
 
@@ -23,9 +27,15 @@ public class FfmpegChunker {
     // Default chunk duration: 20 minutes (safe for 25MB limit with most formats)
     public static final int DEFAULT_CHUNK_DURATION_SECONDS = 20 * 60;
 
-    // Overlap between chunks to avoid mid-word splits (2 seconds)
+    // Overlap added when no silent gap was found near a cut, to avoid losing a split word (2 seconds)
     public static final int CHUNK_OVERLAP_SECONDS = 2;
 
+    // Matches ChunkBoundaryPlanner.DEFAULT_SILENCE_THRESHOLD (0.01 RMS)
+    private static final String SILENCE_NOISE_LEVEL = "-40dB";
+
+    private static final Pattern SILENCE_START = Pattern.compile("silence_start:\\s*(-?[0-9.]+)");
+    private static final Pattern SILENCE_END = Pattern.compile("silence_end:\\s*(-?[0-9.]+)");
+
     // FFmpeg process timeout (5 minutes per chunk should be plenty)
     private static final int FFMPEG_TIMEOUT_SECONDS = 300;
 
@@ -34,25 +44,29 @@ public class FfmpegChunker {
      */
     public static class ChunkResult {
         public final List<File> chunks;
+        /** Per chunk: milliseconds repeated from the end of the previous chunk (0 after a clean cut). */
+        public final List<Long> leadingOverlapsMs;
         public final int totalChunks;
         public final float totalDurationSeconds;
         public final boolean success;
         public final String errorMessage;
 
-        private ChunkResult(List<File> chunks, float totalDurationSeconds, String errorMessage) {
+        private ChunkResult(List<File> chunks, List<Long> leadingOverlapsMs, float totalDurationSeconds,
+                            String errorMessage) {
             this.chunks = chunks != null ? chunks : new ArrayList<>();
+            this.leadingOverlapsMs = leadingOverlapsMs != null ? leadingOverlapsMs : new ArrayList<>();
             this.totalChunks = this.chunks.size();
             this.totalDurationSeconds = totalDurationSeconds;
             this.success = errorMessage == null;
             this.errorMessage = errorMessage;
         }
 
-        public static ChunkResult success(List<File> chunks, float totalDurationSeconds) {
-            return new ChunkResult(chunks, totalDurationSeconds, null);
+        public static ChunkResult success(List<File> chunks, List<Long> leadingOverlapsMs, float totalDurationSeconds) {
+            return new ChunkResult(chunks, leadingOverlapsMs, totalDurationSeconds, null);
         }
 
         public static ChunkResult failure(String errorMessage) {
-            return new ChunkResult(null, 0, errorMessage);
+            return new ChunkResult(null, null, 0, errorMessage);
         }
     }
 
@@ -117,11 +131,19 @@ public class FfmpegChunker {
             console.log(String.format("Total duration: %.1f seconds (%.1f minutes)",
                 totalDuration, totalDuration / 60.0));
 
-            // Calculate number of chunks
-            int numChunks = (int) Math.ceil(totalDuration / chunkDurationSeconds);
-            console.log(String.format("Will create %d chunks of ~%d seconds each", numChunks, chunkDurationSeconds));
+            // Cut in the silent gap nearest each target offset (positions in milliseconds)
+            long totalMs = (long) (totalDuration * 1000);
+            long targetMs = chunkDurationSeconds * 1000L;
+            List<SilenceRemover.SilenceRegion> gaps = detectSilenceGaps(audioFile);
+            List<ChunkBoundaryPlanner.Span> spans = ChunkBoundaryPlanner.plan(totalMs, targetMs,
+                ChunkBoundaryPlanner.toleranceFrames(targetMs, 1000),
+                gaps == null ? null : (from, to) -> gaps);
+            int numChunks = spans.size();
+            console.log(String.format("Will create %d chunks of ~%d seconds each (%d of %d cuts in silence)",
+                numChunks, chunkDurationSeconds, ChunkBoundaryPlanner.countCleanCuts(spans), numChunks - 1));
 
             List<File> chunks = new ArrayList<>();
+            List<Long> overlaps = new ArrayList<>();
 
             for (int i = 0; i < numChunks; i++) {
                 if (cancelled) {
@@ -133,14 +155,13 @@ public class FfmpegChunker {
                     return ChunkResult.failure("Chunking cancelled by user");
                 }
 
-                // Calculate start time with overlap (except for first chunk)
-                int startTime = i * chunkDurationSeconds;
-                if (i > 0) {
-                    startTime = Math.max(0, startTime - CHUNK_OVERLAP_SECONDS);
-                }
-
-                // Calculate duration for this chunk
-                int duration = chunkDurationSeconds + (i > 0 ? CHUNK_OVERLAP_SECONDS : 0);
+                // Cuts outside silence may split a word - repeat the end of the previous chunk
+                ChunkBoundaryPlanner.Span span = spans.get(i);
+                long startMs = span.cleanStart ? span.startFrame
+                    : Math.max(0, span.startFrame - CHUNK_OVERLAP_SECONDS * 1000L);
+                long durationMs = span.endFrame - startMs;
+                String startTime = formatSeconds(startMs);
+                String duration = formatSeconds(durationMs);
 
                 // Create chunk file (cleanup handled by ChunkedTranscriptionWorker.cleanupChunks())
                 String baseName = audioFile.getName().replaceFirst("\\.[^.]+$", "");
@@ -148,15 +169,15 @@ public class FfmpegChunker {
                     String.format("chunk_%02d_%s_", i + 1, baseName), ".wav"
                 );
 
-                console.log(String.format("Creating chunk %d/%d (start: %ds, duration: %ds)...",
+                console.log(String.format("Creating chunk %d/%d (start: %ss, duration: %ss)...",
                     i + 1, numChunks, startTime, duration));
 
                 // FFmpeg command to extract chunk and convert to WAV
                 ProcessBuilder pb = new ProcessBuilder(
                     "ffmpeg", "-y",
                     "-i", audioFile.getAbsolutePath(),
-                    "-ss", String.valueOf(startTime),
-                    "-t", String.valueOf(duration),
+                    "-ss", startTime,
+                    "-t", duration,
                     "-acodec", "pcm_s16le",  // 16-bit PCM
                     "-ar", "16000",           // 16kHz sample rate (good for speech)
                     "-ac", "1",               // Mono
@@ -191,6 +212,7 @@ public class FfmpegChunker {
                 }
 
                 chunks.add(chunkFile);
+                overlaps.add(span.startFrame - startMs);
                 console.log(String.format("  Created chunk %d/%d: %.2f MB",
                     i + 1, numChunks, chunkFile.length() / (1024.0 * 1024.0)));
 
@@ -200,7 +222,7 @@ public class FfmpegChunker {
             }
 
             console.logSuccess(String.format("Successfully split into %d chunks", chunks.size()));
-            return ChunkResult.success(chunks, totalDuration);
+            return ChunkResult.success(chunks, overlaps, totalDuration);
 
         } catch (Exception e) {
             logger.error("Error during FFmpeg chunking", e);
@@ -222,6 +244,64 @@ public class FfmpegChunker {
         return splitAudioFile(audioFile, DEFAULT_CHUNK_DURATION_SECONDS, null);
     }
 
+    /**
+     * Finds silent gaps with FFmpeg's silencedetect filter, in one decoding pass.
+     *
+     * @param file The audio file
+     * @return Gaps of at least {@link ChunkBoundaryPlanner#MIN_GAP_MS}, in milliseconds,
+     *         or null if detection failed (chunks are then cut at fixed offsets)
+     */
+    static List<SilenceRemover.SilenceRegion> detectSilenceGaps(File file) {
+        try {
+            ProcessBuilder pb = new ProcessBuilder(
+                "ffmpeg", "-hide_banner", "-nostats",
+                "-i", file.getAbsolutePath(),
+                "-af", String.format(Locale.US, "silencedetect=noise=%s:d=%.3f",
+                    SILENCE_NOISE_LEVEL, ChunkBoundaryPlanner.MIN_GAP_MS / 1000.0),
+                "-f", "null", "-"
+            );
+            pb.redirectErrorStream(true);
+            Process process = pb.start();
+
+            List<SilenceRemover.SilenceRegion> gaps = new ArrayList<>();
+            long gapStartMs = -1;
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    Matcher start = SILENCE_START.matcher(line);
+                    Matcher end = SILENCE_END.matcher(line);
+                    if (start.find()) {
+                        gapStartMs = Math.max(0, (long) (Double.parseDouble(start.group(1)) * 1000));
+                    } else if (end.find() && gapStartMs >= 0) {
+                        gaps.add(new SilenceRemover.SilenceRegion(gapStartMs,
+                            (long) (Double.parseDouble(end.group(1)) * 1000)));
+                        gapStartMs = -1;
+                    }
+                }
+            }
+
+            if (!process.waitFor(FFMPEG_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                logger.warn("Silence detection timed out for {}", file.getName());
+                return null;
+            }
+            if (process.exitValue() != 0) {
+                logger.warn("Silence detection failed for {} (exit code {})", file.getName(), process.exitValue());
+                return null;
+            }
+            logger.debug("Found {} silent gaps in {}", gaps.size(), file.getName());
+            return gaps;
+        } catch (Exception e) {
+            logger.warn("Could not detect silence with FFmpeg", e);
+            return null;
+        }
+    }
+
+    private static String formatSeconds(long ms) {
+        return String.format(Locale.US, "%.3f", ms / 1000.0);
+    }
+
     /**
      * Gets the duration of an audio file using ffprobe.
      *
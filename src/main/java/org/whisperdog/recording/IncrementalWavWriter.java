@@ -2,30 +2,55 @@ package org.whisperdog.recording;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.Objects;
 
 /**
  * Writes PCM audio to a WAV file incrementally and keeps the header sizes updated.
+ * <p>
+ * Data is collected in a write buffer and written with positional channel writes, so small
+ * writes cost neither a system call nor a seek. The header sizes are rewritten once
+ * {@code headerUpdateMs} of audio has been written or that much time has passed, and on
+ * {@link #close()}, rather than after every write. If the process dies in between, the
+ * file holds at most one interval more than its header declares; {@link #repairHeader(File)}
+ * fixes that from the file length without reading the audio.
  */
 public class IncrementalWavWriter implements AutoCloseable {
 
+    /** Default header update interval; also bounds the audio held in the write buffer. */
+    public static final int DEFAULT_HEADER_UPDATE_MS = 1000;
+
     private static final int WAV_HEADER_SIZE = 44;
     private static final long MAX_WAV_DATA_SIZE = 0xFFFFFFFFL;
+    private static final int BUFFER_SIZE = 64 * 1024;
 
     private final File outputFile;
-    private final RandomAccessFile wavFile;
-    private final int sampleRate;
-    private final int bitsPerSample;
-    private final int channels;
-    private final int byteRate;
-    private final short blockAlign;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final ByteBuffer sizeField = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+    private final long headerUpdateBytes;
+    private final long headerUpdateNanos;
 
     private long bytesWritten;
+    private long bytesOnDisk;
+    private long headerDataSize;
+    private long lastHeaderUpdate;
     private boolean closed;
 
     public IncrementalWavWriter(File outputFile, int sampleRate, int bitsPerSample, int channels)
             throws IOException {
+        this(outputFile, sampleRate, bitsPerSample, channels, DEFAULT_HEADER_UPDATE_MS);
+    }
+
+    /**
+     * @param headerUpdateMs Audio duration (and wall-clock time) between header updates;
+     *                       0 updates the header, and writes the data through, on every write
+     */
+    public IncrementalWavWriter(File outputFile, int sampleRate, int bitsPerSample, int channels,
+                                int headerUpdateMs) throws IOException {
         this.outputFile = Objects.requireNonNull(outputFile, "outputFile");
         if (sampleRate <= 0) {
             throw new IllegalArgumentException("sampleRate must be > 0");
@@ -36,26 +61,28 @@ public class IncrementalWavWriter implements AutoCloseable {
         if (channels <= 0) {
             throw new IllegalArgumentException("channels must be > 0");
         }
+        if (headerUpdateMs < 0) {
+            throw new IllegalArgumentException("headerUpdateMs must be >= 0");
+        }
 
-        this.sampleRate = sampleRate;
-        this.bitsPerSample = bitsPerSample;
-        this.channels = channels;
-        this.byteRate = sampleRate * channels * (bitsPerSample / 8);
-        this.blockAlign = (short) (channels * (bitsPerSample / 8));
+        long byteRate = (long) sampleRate * channels * (bitsPerSample / 8);
+        this.headerUpdateBytes = byteRate * headerUpdateMs / 1000;
+        this.headerUpdateNanos = headerUpdateMs * 1_000_000L;
 
         File parent = outputFile.getParentFile();
         if (parent != null && !parent.exists() && !parent.mkdirs() && !parent.exists()) {
             throw new IOException("Failed to create parent directory: " + parent);
         }
 
-        this.wavFile = new RandomAccessFile(outputFile, "rw");
+        this.channel = FileChannel.open(outputFile.toPath(), StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
         try {
-            this.wavFile.setLength(0);
-            writeHeader();
+            writeFully(ByteBuffer.wrap(WavHeader.createHeader(sampleRate, bitsPerSample, channels, 0)), 0);
         } catch (IOException e) {
-            this.wavFile.close();
+            this.channel.close();
             throw e;
         }
+        this.lastHeaderUpdate = System.nanoTime();
     }
 
     public synchronized void write(byte[] pcmData, int offset, int length) throws IOException {
@@ -77,11 +104,31 @@ public class IncrementalWavWriter implements AutoCloseable {
             throw new IOException("WAV data exceeds 4GB limit");
         }
 
-        wavFile.seek(WAV_HEADER_SIZE + bytesWritten);
-        wavFile.write(pcmData, offset, length);
+        if (length > buffer.remaining()) {
+            flushBuffer();
+        }
+        if (length >= buffer.capacity()) {
+            writeFully(ByteBuffer.wrap(pcmData, offset, length), WAV_HEADER_SIZE + bytesOnDisk);
+            bytesOnDisk += length;
+        } else {
+            buffer.put(pcmData, offset, length);
+        }
         bytesWritten = newSize;
-        updateHeaderSizes();
-        wavFile.seek(WAV_HEADER_SIZE + bytesWritten);
+
+        if (bytesWritten - headerDataSize >= headerUpdateBytes
+                || System.nanoTime() - lastHeaderUpdate >= headerUpdateNanos) {
+            flushBuffer();
+            updateHeaderSizes();
+        }
+    }
+
+    /**
+     * Writes buffered data to the file, so other readers of the file see everything written
+     * so far. The header is left to the next update.
+     */
+    public synchronized void flush() throws IOException {
+        ensureOpen();
+        flushBuffer();
     }
 
     @Override
@@ -91,12 +138,13 @@ public class IncrementalWavWriter implements AutoCloseable {
         }
         IOException closeError = null;
         try {
+            flushBuffer();
             updateHeaderSizes();
         } catch (IOException e) {
             closeError = e;
         }
         try {
-            wavFile.close();
+            channel.close();
         } catch (IOException e) {
             if (closeError == null) {
                 closeError = e;
@@ -116,50 +164,72 @@ public class IncrementalWavWriter implements AutoCloseable {
         return bytesWritten;
     }
 
-    private void writeHeader() throws IOException {
-        wavFile.seek(0);
-        writeAscii("RIFF");
-        writeIntLE(36); // placeholder, updated as data is appended
-        writeAscii("WAVE");
-
-        writeAscii("fmt ");
-        writeIntLE(16);
-        writeShortLE((short) 1); // PCM
-        writeShortLE((short) channels);
-        writeIntLE(sampleRate);
-        writeIntLE(byteRate);
-        writeShortLE(blockAlign);
-        writeShortLE((short) bitsPerSample);
-
-        writeAscii("data");
-        writeIntLE(0); // placeholder, updated as data is appended
-    }
-
-    private void updateHeaderSizes() throws IOException {
-        long dataSize = bytesWritten;
-        long chunkSize = 36 + dataSize;
+    /**
+     * Makes the header of a WAV file left behind by an interrupted writer match its length.
+     * Only the two size fields are read and rewritten, so this takes the same time for any
+     * file size. Files not in this writer's canonical layout are left alone.
+     *
+     * @return true if the header was stale and has been fixed
+     */
+    public static boolean repairHeader(File wavFile) throws IOException {
+        try (FileChannel file = FileChannel.open(wavFile.toPath(), StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            WavHeader header = WavHeader.read(file);
+            if (header.dataOffset != WAV_HEADER_SIZE) {
+                return false;
+            }
+            long available = Math.min(file.size() - WAV_HEADER_SIZE, MAX_WAV_DATA_SIZE);
+            long dataSize = available - available % header.getFrameSize();
 
-        wavFile.seek(4);
-        writeIntLE((int) chunkSize);
-        wavFile.seek(40);
-        writeIntLE((int) dataSize);
+            ByteBuffer declared = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            file.read(declared, 40);
+            if (declared.position() == 4 && Integer.toUnsignedLong(declared.getInt(0)) == dataSize) {
+                return false;
+            }
+            ByteBuffer field = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            field.putInt(0, (int) Math.min(MAX_WAV_DATA_SIZE, 36 + dataSize));
+            file.write(field, 4);
+            field.clear();
+            field.putInt(0, (int) dataSize);
+            file.write(field, 40);
+            return true;
+        }
     }
 
-    private void ensureOpen() throws IOException {
-        if (closed) {
-            throw new IOException("Writer is already closed");
+    private void flushBuffer() throws IOException {
+        if (buffer.position() == 0) {
+            return;
         }
+        buffer.flip();
+        int length = buffer.remaining();
+        writeFully(buffer, WAV_HEADER_SIZE + bytesOnDisk);
+        buffer.clear();
+        bytesOnDisk += length;
     }
 
-    private void writeAscii(String value) throws IOException {
-        wavFile.writeBytes(value);
+    private void updateHeaderSizes() throws IOException {
+        long dataSize = bytesOnDisk;
+        writeSizeField(4, 36 + dataSize);
+        writeSizeField(40, dataSize);
+        headerDataSize = dataSize;
+        lastHeaderUpdate = System.nanoTime();
     }
 
-    private void writeIntLE(int value) throws IOException {
-        wavFile.writeInt(Integer.reverseBytes(value));
+    private void writeSizeField(long position, long value) throws IOException {
+        sizeField.clear();
+        sizeField.putInt(0, (int) value);
+        writeFully(sizeField, position);
     }
 
-    private void writeShortLE(short value) throws IOException {
-        wavFile.writeShort(Short.reverseBytes(value));
+    private void writeFully(ByteBuffer data, long position) throws IOException {
+        while (data.hasRemaining()) {
+            position += channel.write(data, position);
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Writer is already closed");
+        }
     }
 }
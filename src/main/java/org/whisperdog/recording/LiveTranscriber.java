@@ -0,0 +1,264 @@
+package org.whisperdog.recording;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.whisperdog.ConfigManager;
+import org.whisperdog.ConsoleLogger;
+import org.whisperdog.audio.PcmLevels;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Transcribes a microphone recording while it is still in progress.
+ * <p>
+ * Subscribes to the frames captured by {@link AudioRecorder}, feeds their RMS levels to a
+ * {@link SpeechSegmenter} and sends every finished speech segment to the configured server
+ * as a virtual {@link WavChunk} over the recording file, which already holds the frames.
+ * When the recording stops, {@link #finish()} only has to transcribe the last segment and
+ * stitch the transcripts together.
+ */
+public class LiveTranscriber {
+
+    private static final Logger logger = LogManager.getLogger(LiveTranscriber.class);
+
+    private static final int WINDOW_MS = 100;
+
+    /** Pause length at which a long enough segment is cut. */
+    private static final int PAUSE_MS = 700;
+
+    /** Segments shorter than this are extended to the next pause, to give Whisper context. */
+    private static final int MIN_SEGMENT_SECONDS = 20;
+
+    private static final int MAX_SEGMENT_SECONDS = 300;
+
+    /** How long {@link #finish()} waits for the recorder to finalize the WAV file. */
+    private static final int RECORDER_FINISH_TIMEOUT_MS = 10000;
+
+    private final AudioRecorder recorder;
+    private final File wavFile;
+    private final ConfigManager configManager;
+    private final ChunkTranscriber transcriber;
+    private final AudioFrameListener frameListener = new AudioFrameListener() {
+        @Override
+        public void onFrames(byte[] pcm, int offset, int length, long frameOffset) {
+            accept(pcm, offset, length, frameOffset);
+        }
+
+        @Override
+        public void onEnd(long totalFrames) {
+            end(totalFrames);
+        }
+    };
+
+    // Written on the recorder's writer thread; read by finish() once the recorder is done
+    private final List<WavChunk> segments = new ArrayList<>();
+    private final List<CompletableFuture<TranscriptionResult>> results = new ArrayList<>();
+    private WavHeader header;
+    private SpeechSegmenter segmenter;
+    private int channels;
+    private long windowFrames;
+    private long windowStart;
+    private long windowEnd;
+    private long windowSquares;
+    private long windowSamples;
+
+    private volatile boolean cancelled;
+    private volatile boolean failed;
+
+    public LiveTranscriber(AudioRecorder recorder, ConfigManager configManager) {
+        this.recorder = recorder;
+        this.wavFile = recorder.getOutputFile();
+        this.configManager = configManager;
+        this.transcriber = new ChunkTranscriber(configManager, () -> cancelled);
+    }
+
+    /**
+     * Subscribes to the recorder. Call before the recorder thread is started.
+     */
+    public void start() {
+        recorder.addFrameListener(frameListener);
+        logger.info("Live transcription started for {}", wavFile.getName());
+    }
+
+    /**
+     * Completes the live transcription after the recorder has been stopped: waits for the
+     * last segment and all segment transcripts and stitches them.
+     *
+     * @return The full transcript, or null if live transcription did not cover the whole
+     *         recording and the file has to be transcribed as usual
+     */
+    public String finish() throws InterruptedException {
+        ConsoleLogger console = ConsoleLogger.getInstance();
+        try {
+            if (!recorder.awaitFinished(RECORDER_FINISH_TIMEOUT_MS)) {
+                logger.warn("Recording did not finish in time, discarding live transcription");
+                cancel();
+                return null;
+            }
+            if (failed || cancelled || segments.isEmpty()) {
+                cancel();
+                return null;
+            }
+
+            console.log(String.format("Waiting for live transcription (%d segments)...", segments.size()));
+            TranscriptStitcher stitcher = new TranscriptStitcher();
+            for (int i = 0; i < results.size(); i++) {
+                TranscriptionResult result = results.get(i).get();
+                if (result == null) {
+                    console.logError(String.format("Live transcription of segment %d failed", i + 1));
+                    cancel();
+                    return null;
+                }
+                WavChunk segment = segments.get(i);
+                stitcher.append(result, segment.getLeadingOverlapMs(), segment.getDurationMs());
+            }
+            return stitcher.getTranscript();
+        } catch (ExecutionException e) {
+            logger.error("Live transcription failed", e.getCause());
+            cancel();
+            return null;
+        } catch (InterruptedException e) {
+            cancel();
+            throw e;
+        } finally {
+            recorder.removeFrameListener(frameListener);
+        }
+    }
+
+    /**
+     * @return Duration and silence ratio of the recording, or null if it could not be analysed.
+     *         Complete only after {@link #finish()}.
+     */
+    public SilenceRemover.SilenceAnalysisResult getAnalysis() {
+        return segmenter != null && !failed ? segmenter.getAnalysis() : null;
+    }
+
+    /**
+     * Stops following the recording and abandons pending segment transcriptions.
+     */
+    public void cancel() {
+        cancelled = true;
+        recorder.removeFrameListener(frameListener);
+        transcriber.abort();
+    }
+
+    /**
+     * Accumulates the squared samples of the current 100ms window and passes each complete
+     * window on to the segmenter. Reads the pooled buffer in place.
+     */
+    private void accept(byte[] pcm, int offset, int length, long frameOffset) {
+        if (cancelled || failed) {
+            return;
+        }
+        if (segmenter == null && !open()) {
+            return;
+        }
+
+        if (frameOffset != windowEnd) {
+            // Joined mid-recording: windows start at the first frame seen
+            windowStart = frameOffset;
+            windowEnd = frameOffset;
+            windowSquares = 0;
+            windowSamples = 0;
+        }
+        int frameSize = header.getFrameSize();
+        int end = offset + length - length % frameSize;
+        for (int i = offset; i < end; ) {
+            // Measure up to the end of the current window in one kernel call
+            int frames = (int) Math.min(windowFrames - (windowEnd - windowStart), (end - i) / frameSize);
+            int bytes = frames * frameSize;
+            windowSquares += PcmLevels.sumOfSquares(pcm, i, bytes, false);
+            windowSamples += (long) frames * channels;
+            windowEnd += frames;
+            i += bytes;
+            if (windowEnd - windowStart == windowFrames) {
+                completeWindow();
+            }
+        }
+    }
+
+    private void completeWindow() {
+        float rms = (float) PcmLevels.rms(windowSquares, windowSamples);
+        segmenter.accept(rms, windowStart, windowEnd);
+        windowStart = windowEnd;
+        windowSquares = 0;
+        windowSamples = 0;
+    }
+
+    /**
+     * Recording complete: closes the last partial window and the last segment.
+     */
+    private void end(long totalFrames) {
+        if (cancelled || failed || segmenter == null) {
+            return;
+        }
+        if (windowEnd > windowStart) {
+            completeWindow();
+        }
+        segmenter.finish(Math.max(totalFrames, windowEnd));
+    }
+
+    /**
+     * Reads the format of the recording on the first frames.
+     *
+     * @return false if the recording cannot be transcribed live
+     */
+    private boolean open() {
+        WavHeader parsed;
+        try {
+            parsed = WavHeader.read(wavFile);
+        } catch (IOException e) {
+            logger.warn("Live transcription stopped: {}", e.getMessage());
+            failed = true;
+            return false;
+        }
+        if (!parsed.isPcm() || parsed.bitsPerSample != 16) {
+            logger.warn("Live transcription needs 16-bit PCM, got {}-bit", parsed.bitsPerSample);
+            failed = true;
+            return false;
+        }
+
+        header = parsed;
+        channels = parsed.channels;
+        windowFrames = Math.max(1, parsed.sampleRate * WINDOW_MS / 1000);
+
+        // Keep segments well below the upload limit so they never need compression
+        long bytesPerSecond = (long) parsed.sampleRate * parsed.blockAlign;
+        int maxSegmentMs = (int) Math.min(MAX_SEGMENT_SECONDS * 1000L,
+            AudioFileAnalyzer.API_SIZE_LIMIT * 8 / 10 * 1000 / bytesPerSecond);
+        int longSilenceMs = Math.max(PAUSE_MS, configManager.getMinSilenceDuration());
+        segmenter = new SpeechSegmenter(parsed.sampleRate, configManager.getSilenceThreshold(),
+            PAUSE_MS, longSilenceMs, MIN_SEGMENT_SECONDS * 1000, maxSegmentMs, this::submitSegment);
+        return true;
+    }
+
+    private void submitSegment(long startFrame, long endFrame, long leadingOverlapMs) {
+        if (cancelled) {
+            return;
+        }
+        int frameSize = header.getFrameSize();
+        int number = segments.size() + 1;
+        WavChunk segment = WavChunk.ofRange(wavFile, header,
+            header.dataOffset + startFrame * frameSize, (endFrame - startFrame) * frameSize,
+            String.format("live_%03d_%s", number, wavFile.getName()), leadingOverlapMs);
+        segments.add(segment);
+        // Segments are transcribed one at a time, in order
+        CompletableFuture<TranscriptionResult> previous = results.isEmpty()
+            ? CompletableFuture.completedFuture(null)
+            : results.get(results.size() - 1);
+        results.add(previous
+            .thenCompose(ignored -> transcriber.transcribeWithRetries(segment, number))
+            .thenApply(result -> {
+                if (result != null) {
+                    ConsoleLogger.getInstance().log(String.format("Live transcription: segment %d (%.1fs) done",
+                        number, segment.getDurationMs() / 1000.0));
+                }
+                return result;
+            }));
+    }
+}
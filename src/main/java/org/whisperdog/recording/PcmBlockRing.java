@@ -0,0 +1,94 @@
+package org.whisperdog.recording;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Fixed ring of PCM blocks passed from a capture thread to a consumer thread.
+ * <p>
+ * All blocks are allocated up front. The capture thread acquires a free block, fills it
+ * and publishes it; the consumer takes blocks in capture order and releases each one
+ * back to the ring after use. If the consumer falls behind until every block is in use,
+ * the capture thread waits in {@link #acquire()} and the audio line's own buffer has to
+ * absorb the delay; these waits are counted so the ring can be sized.
+ */
+final class PcmBlockRing {
+
+    /** A pooled buffer with the number of valid bytes and its position in the stream. */
+    static final class Block {
+        final byte[] data;
+        int length;
+        long frameOffset;
+
+        private Block(int capacity) {
+            this.data = new byte[capacity];
+        }
+    }
+
+    private static final Block END = new Block(0);
+
+    private final BlockingQueue<Block> free;
+    private final BlockingQueue<Block> filled;
+    private long stalls;
+
+    PcmBlockRing(int blockCount, int blockBytes) {
+        if (blockCount <= 0 || blockBytes <= 0) {
+            throw new IllegalArgumentException("Invalid ring size: " + blockCount + " x " + blockBytes);
+        }
+        this.free = new ArrayBlockingQueue<>(blockCount);
+        this.filled = new ArrayBlockingQueue<>(blockCount + 1);  // Room for the end marker
+        for (int i = 0; i < blockCount; i++) {
+            free.add(new Block(blockBytes));
+        }
+    }
+
+    /**
+     * Takes a free block for filling, waiting for the consumer if none is left.
+     * Capture thread only.
+     */
+    Block acquire() throws InterruptedException {
+        Block block = free.poll();
+        if (block == null) {
+            stalls++;
+            block = free.take();
+        }
+        block.length = 0;
+        return block;
+    }
+
+    /**
+     * Hands a filled block to the consumer. Capture thread only.
+     */
+    void publish(Block block) {
+        filled.add(block);
+    }
+
+    /**
+     * Marks the end of the stream; {@link #take()} returns null once all blocks are consumed.
+     */
+    void publishEnd() {
+        filled.add(END);
+    }
+
+    /**
+     * @return The next filled block, or null at the end of the stream. Consumer thread only.
+     */
+    Block take() throws InterruptedException {
+        Block block = filled.take();
+        return block == END ? null : block;
+    }
+
+    /**
+     * Returns a consumed block to the ring.
+     */
+    void release(Block block) {
+        free.add(block);
+    }
+
+    /**
+     * @return How often the capture thread had to wait for a free block
+     */
+    long getStalls() {
+        return stalls;
+    }
+}
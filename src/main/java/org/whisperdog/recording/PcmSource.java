@@ -0,0 +1,207 @@
+package org.whisperdog.recording;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read access to the PCM data of a WAV file through a memory mapping.
+ * <p>
+ * Opening parses only the header, so frame counts and durations cost a few small reads.
+ * The data chunk is mapped on first access, in segments of {@link #SEGMENT_BYTES}, so files
+ * beyond the 2GB limit of a single mapping (up to the 4GB WAV limit) are supported. Windows
+ * returned by {@link #bytes} and {@link #samples} are little-endian views into the mapping:
+ * no data is copied, and the page cache is shared between every source open on the file.
+ * <p>
+ * Windows are only valid until {@link #close()}, which releases the mapping right away
+ * (where the JDK allows it) so that the file can be deleted or moved on Windows.
+ * Not thread-safe.
+ */
+public final class PcmSource implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(PcmSource.class);
+
+    /** Largest window that can be requested at once. */
+    public static final int MAX_WINDOW_BYTES = 16 * 1024 * 1024;
+
+    private static final long SEGMENT_BYTES = 1L << 30;
+
+    private static final MethodHandle UNMAP = findUnmapper();
+
+    private final File file;
+    private final FileChannel channel;
+    private final WavHeader header;
+    private final long segmentBytes;
+    private final MappedByteBuffer[] segments;
+    private boolean closed;
+
+    private PcmSource(File file, FileChannel channel, WavHeader header) {
+        this.file = file;
+        this.channel = channel;
+        this.header = header;
+        // Segments start on frame boundaries and overlap by one window, so no window spans two
+        this.segmentBytes = SEGMENT_BYTES - SEGMENT_BYTES % header.getFrameSize();
+        this.segments = new MappedByteBuffer[(int) ((header.dataLength + segmentBytes - 1) / segmentBytes)];
+    }
+
+    /**
+     * Opens a WAV file and parses its header; nothing is mapped yet.
+     *
+     * @throws IOException if the file is not a readable RIFF/WAVE file
+     */
+    public static PcmSource open(File wavFile) throws IOException {
+        FileChannel channel = FileChannel.open(wavFile.toPath(), StandardOpenOption.READ);
+        try {
+            return new PcmSource(wavFile, channel, WavHeader.read(channel));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public WavHeader getHeader() {
+        return header;
+    }
+
+    public int getSampleRate() {
+        return header.sampleRate;
+    }
+
+    public int getChannels() {
+        return header.channels;
+    }
+
+    public int getFrameSize() {
+        return header.getFrameSize();
+    }
+
+    public long getFrameCount() {
+        return header.getTotalFrames();
+    }
+
+    public float getDurationSeconds() {
+        return header.getDurationSeconds();
+    }
+
+    /**
+     * @return true if the data is 16-bit PCM, the only layout {@link #samples} can view
+     */
+    public boolean is16BitPcm() {
+        return header.isPcm() && header.bitsPerSample == 16;
+    }
+
+    /**
+     * Returns a read-only little-endian view of {@code frames} frames, positioned at 0.
+     *
+     * @throws IndexOutOfBoundsException if the range is outside the data
+     * @throws IllegalArgumentException if the window exceeds {@link #MAX_WINDOW_BYTES}
+     */
+    public ByteBuffer bytes(long fromFrame, int frames) throws IOException {
+        ensureOpen();
+        if (fromFrame < 0 || frames < 0 || fromFrame + frames > getFrameCount()) {
+            throw new IndexOutOfBoundsException("Frames " + fromFrame + "+" + frames
+                + " outside of " + getFrameCount());
+        }
+        long length = (long) frames * header.getFrameSize();
+        if (length > MAX_WINDOW_BYTES) {
+            throw new IllegalArgumentException("Window of " + length + " bytes exceeds " + MAX_WINDOW_BYTES);
+        }
+        if (length == 0) {
+            return ByteBuffer.allocate(0).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        long position = fromFrame * header.getFrameSize();
+        int index = (int) (position / segmentBytes);
+        return segment(index).slice((int) (position - index * segmentBytes), (int) length)
+            .order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Returns the interleaved samples of {@code frames} frames as a read-only view,
+     * {@code frames * channels} long.
+     *
+     * @throws IllegalStateException if the data is not 16-bit PCM
+     */
+    public ShortBuffer samples(long fromFrame, int frames) throws IOException {
+        if (!is16BitPcm()) {
+            throw new IllegalStateException("Not 16-bit PCM: " + file.getName());
+        }
+        return bytes(fromFrame, frames).asShortBuffer();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (int i = 0; i < segments.length; i++) {
+            if (segments[i] != null) {
+                unmap(segments[i]);
+                segments[i] = null;
+            }
+        }
+        channel.close();
+    }
+
+    private MappedByteBuffer segment(int index) throws IOException {
+        MappedByteBuffer segment = segments[index];
+        if (segment == null) {
+            long start = index * segmentBytes;
+            long size = Math.min(header.dataLength - start, segmentBytes + MAX_WINDOW_BYTES);
+            segment = channel.map(FileChannel.MapMode.READ_ONLY, header.dataOffset + start, size);
+            segments[index] = segment;
+        }
+        return segment;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("PCM source is already closed: " + file.getName());
+        }
+    }
+
+    /**
+     * Releases a mapping without waiting for the buffer to be garbage collected.
+     * Falls back to the collector if the JDK does not expose the cleaner.
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        if (UNMAP == null) {
+            return;
+        }
+        try {
+            UNMAP.invokeExact((ByteBuffer) buffer);
+        } catch (Throwable e) {
+            logger.debug("Could not release mapping: {}", e.getMessage());
+        }
+    }
+
+    private static MethodHandle findUnmapper() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return MethodHandles.lookup()
+                .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                .bindTo(field.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.debug("Mappings are released by the garbage collector: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -5,6 +5,7 @@ import org.apache.logging.log4j.Logger;
 import org.whisperdog.ConfigManager;
 
 import java.io.File;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -14,7 +15,8 @@ import java.util.regex.Pattern;
 /**
  * Scans the WhisperDog temp directory for recoverable audio files
  * from failed transcriptions. Groups files into sessions by timestamp
- * and selects the best candidate for retry.
+ * and selects the best candidate for retry. WAV headers left stale by a crash
+ * mid-recording are repaired on the way.
  */
 public class PreservedRecordingScanner {
     private static final Logger logger = LogManager.getLogger(PreservedRecordingScanner.class);
@@ -62,7 +64,8 @@ public class PreservedRecordingScanner {
 
     /**
      * Scan temp directory and return recoverable sessions.
-     * Thread-safe. No side effects. May be called from any thread.
+     * Thread-safe. May be called from any thread. The only side effect is repairing
+     * stale WAV headers of the returned files (see {@link IncrementalWavWriter#repairHeader}).
      *
      * @param isRecording true if a recording is currently in progress
      * @return list of recoverable sessions, empty if none found. Never null.
@@ -152,6 +155,7 @@ public class PreservedRecordingScanner {
             }
 
             if (selected != null) {
+                repairHeaders(sessionFiles);
                 sessions.add(new RecoverableSession(ts, selected, sessionFiles, label));
             }
         }
@@ -165,4 +169,20 @@ public class PreservedRecordingScanner {
         logger.info("Recovery scan found {} session(s) in {}", sessions.size(), tempDir.getAbsolutePath());
         return sessions;
     }
+
+    /**
+     * Makes the header sizes match the file length, in constant time per file, so that
+     * recordings interrupted between two header updates are recovered in full.
+     */
+    private static void repairHeaders(List<File> files) {
+        for (File file : files) {
+            try {
+                if (IncrementalWavWriter.repairHeader(file)) {
+                    logger.info("Repaired WAV header of preserved recording: {}", file.getName());
+                }
+            } catch (IOException e) {
+                logger.warn("Could not repair WAV header of {}: {}", file.getName(), e.getMessage());
+            }
+        }
+    }
 }
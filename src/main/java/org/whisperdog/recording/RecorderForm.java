@@ -21,6 +21,8 @@ import org.whisperdog.recording.AudioFileAnalyzer.LargeFileOption;
 import org.whisperdog.audio.FFmpegUtil;
 import org.whisperdog.audio.SystemAudioCapture;
 import org.whisperdog.audio.AudioCaptureManager;
+import org.whisperdog.audio.TrackMixer;
+import org.whisperdog.audio.WavResampler;
 import org.whisperdog.audio.AudioDeviceInfo;
 import org.whisperdog.audio.SourceActivityTracker;
 import org.whisperdog.recording.WavChunker;
@@ -29,7 +31,10 @@ import org.whisperdog.recording.FfmpegCompressor;
 import org.whisperdog.recording.LargeFileOptionsDialog;
 import org.whisperdog.recording.LargeRecordingWarningDialog;
 import org.whisperdog.recording.ChunkedTranscriptionWorker;
+import org.whisperdog.tasks.TaskScheduler;
+import org.whisperdog.tasks.TaskType;
 
+import javax.sound.sampled.AudioFormat;
 import javax.sound.sampled.AudioInputStream;
 import javax.sound.sampled.AudioSystem;
 import javax.sound.sampled.Clip;
@@ -46,12 +51,14 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 
 public class RecorderForm extends javax.swing.JPanel {
@@ -114,6 +121,8 @@ public class RecorderForm extends javax.swing.JPanel {
         statusIndicatorPanel.repaint();
     }
     private AudioRecorder recorder;
+    private LiveTranscriber liveTranscriber;  // Transcribes mic-only recordings while they run, if enabled
+    private UploadPartEncoder uploadEncoder;  // Upload parts of a mic-only recording, if enabled
     private final JTextArea transcriptionTextArea;
     private final JPanel statusIndicatorPanel;  // Status circles instead of large logo
     private JButton copyButton;
@@ -950,6 +959,16 @@ public class RecorderForm extends javax.swing.JPanel {
                 return;
             }
             console.logSuccess("Successfully converted OGG to WAV");
+        } else if (fileName.endsWith(".wav") && WavResampler.needsConversion(file)) {
+            // Whisper works at 16kHz mono; converting first keeps the upload small
+            console.log("Resampling WAV to 16kHz mono...");
+            updateProgressPanelStage("Resampling audio...");
+            File resampled = WavResampler.toTranscriptionFormat(file);
+            if (resampled != null) {
+                fileToTranscribe = resampled;
+            } else {
+                console.log("Resampling failed, using original file");
+            }
         } else if (fileName.endsWith(".flac")) {
             console.log("FLAC file detected - using directly (no conversion needed)");
         }
@@ -962,7 +981,10 @@ public class RecorderForm extends javax.swing.JPanel {
         updateProgressPanelStage("Transcribing with " + configManager.getWhisperServer() + "...");
         Notificationmanager.getInstance().showNotification(ToastNotification.Type.INFO,
                 "Transcribing audio file...");
-        new AudioTranscriptionWorker(fileToTranscribe).execute();
+        AudioTranscriptionWorker worker = new AudioTranscriptionWorker(fileToTranscribe);
+        if (!runInBackground(TaskType.TRANSCRIPTION, "Transcribe " + fileToTranscribe.getName(), worker)) {
+            worker.releaseAfterRejection();
+        }
     }
 
     /**
@@ -977,16 +999,25 @@ public class RecorderForm extends javax.swing.JPanel {
         recordButton.setText("Splitting file...");
 
         // Run chunking in background to not block UI
-        new SwingWorker<java.util.List<File>, Void>() {
+        runInBackground(TaskType.AUDIO_PROCESSING, "Split " + file.getName(), new SwingWorker<java.util.List<WavChunk>, Void>() {
             @Override
-            protected java.util.List<File> doInBackground() {
+            protected java.util.List<WavChunk> doInBackground() {
                 // Choose chunking method based on format
                 if (analysis.canSplitNatively && "wav".equals(analysis.format)) {
+                    if (!configManager.isKeepChunkFilesEnabled()) {
+                        // Upload byte ranges of the source WAV directly, no temp files
+                        try {
+                            console.log("Using native WAV chunking (virtual chunks, no temp files)");
+                            return WavChunker.createVirtualChunksBySize(file, AudioFileAnalyzer.TARGET_CHUNK_SIZE);
+                        } catch (IOException e) {
+                            logger.warn("Virtual chunking failed, falling back to chunk files", e);
+                        }
+                    }
                     console.log("Using native WAV chunking (no FFmpeg needed)");
                     WavChunker.ChunkResult result = WavChunker.splitWavFileBySize(
                         file, AudioFileAnalyzer.TARGET_CHUNK_SIZE);
                     if (result.success) {
-                        return result.chunks;
+                        return toChunks(result.chunks, result.leadingOverlapsMs);
                     } else {
                         console.logError("WAV chunking failed: " + result.errorMessage);
                         return null;
@@ -996,7 +1027,7 @@ public class RecorderForm extends javax.swing.JPanel {
                     FfmpegChunker.ChunkResult result = FfmpegChunker.splitBySize(
                         file, AudioFileAnalyzer.TARGET_CHUNK_SIZE);
                     if (result.success) {
-                        return result.chunks;
+                        return toChunks(result.chunks, result.leadingOverlapsMs);
                     } else {
                         console.logError("FFmpeg chunking failed: " + result.errorMessage);
                         return null;
@@ -1010,7 +1041,7 @@ public class RecorderForm extends javax.swing.JPanel {
             @Override
             protected void done() {
                 try {
-                    java.util.List<File> chunks = get();
+                    java.util.List<WavChunk> chunks = get();
                     if (chunks == null || chunks.isEmpty()) {
                         Notificationmanager.getInstance().showNotification(ToastNotification.Type.ERROR,
                             "Failed to split file. Check logs for details.");
@@ -1027,13 +1058,23 @@ public class RecorderForm extends javax.swing.JPanel {
                     resetUIAfterTranscription();
                 }
             }
-        }.execute();
+        });
+    }
+
+    private static java.util.List<WavChunk> toChunks(java.util.List<File> chunkFiles,
+                                                     java.util.List<Long> leadingOverlapsMs) {
+        java.util.List<WavChunk> chunks = new ArrayList<>();
+        for (int i = 0; i < chunkFiles.size(); i++) {
+            long overlapMs = i < leadingOverlapsMs.size() ? leadingOverlapsMs.get(i) : -1;
+            chunks.add(WavChunk.ofFile(chunkFiles.get(i), overlapMs));
+        }
+        return chunks;
     }
 
     /**
-     * Starts transcription of chunked audio files.
+     * Starts transcription of chunked audio.
      */
-    private void startChunkedTranscription(java.util.List<File> chunks) {
+    private void startChunkedTranscription(java.util.List<WavChunk> chunks) {
         ConsoleLogger console = ConsoleLogger.getInstance();
 
         console.log("Starting transcription of " + chunks.size() + " chunks...");
@@ -1084,7 +1125,7 @@ public class RecorderForm extends javax.swing.JPanel {
             }
         );
 
-        worker.execute();
+        runInBackground(TaskType.TRANSCRIPTION, "Chunked transcription of " + chunks.size() + " chunks", worker);
     }
 
     /**
@@ -1098,7 +1139,7 @@ public class RecorderForm extends javax.swing.JPanel {
         console.log("Compressing file before transcription...");
         recordButton.setText("Compressing...");
 
-        new SwingWorker<FfmpegCompressor.CompressionResult, Void>() {
+        runInBackground(TaskType.AUDIO_PROCESSING, "Compress " + file.getName(), new SwingWorker<FfmpegCompressor.CompressionResult, Void>() {
             @Override
             protected FfmpegCompressor.CompressionResult doInBackground() {
                 return FfmpegCompressor.compress(file);
@@ -1133,7 +1174,7 @@ public class RecorderForm extends javax.swing.JPanel {
                     resetUIAfterTranscription();
                 }
             }
-        }.execute();
+        });
     }
 
     /**
@@ -1149,7 +1190,7 @@ public class RecorderForm extends javax.swing.JPanel {
         // Note: We don't change the global setting, just use the local client directly
         recordButton.setText("Transcribing (local)...");
 
-        new SwingWorker<String, Void>() {
+        runInBackground(TaskType.TRANSCRIPTION, "Transcribe " + file.getName(), new SwingWorker<String, Void>() {
             @Override
             protected String doInBackground() {
                 try {
@@ -1190,7 +1231,7 @@ public class RecorderForm extends javax.swing.JPanel {
                 resetUIAfterTranscription();
                 updateTrayMenu();
             }
-        }.execute();
+        });
     }
 
     /**
@@ -1208,7 +1249,7 @@ public class RecorderForm extends javax.swing.JPanel {
                 Pipeline pipeline = configManager.getPipelineByUuid(selectedItem.uuid);
                 if (pipeline != null) {
                     setProgressStage(IndeterminateProgressBar.Stage.POST_PROCESSING);  // Switch to orange
-                    new PostProcessingWorker(transcript, pipeline).execute();
+                    runInBackground(TaskType.POST_PROCESSING, pipeline.title, new PostProcessingWorker(transcript, pipeline));
                     return;  // PostProcessingWorker will handle clipboard
                 }
             }
@@ -1305,6 +1346,13 @@ public class RecorderForm extends javax.swing.JPanel {
                         javax.sound.sampled.AudioFileFormat.Type.WAVE, wavFile);
                 audioStream.close();
                 logger.info("Successfully converted OGG to WAV using AudioSystem");
+                if (WavResampler.needsConversion(wavFile)) {
+                    File resampled = WavResampler.toTranscriptionFormat(wavFile);
+                    if (resampled != null) {
+                        wavFile.delete();
+                        return resampled;
+                    }
+                }
                 return wavFile;
             } catch (Exception e) {
                 logger.error("Failed to convert OGG using AudioSystem. OGG codec may not be installed.", e);
@@ -1479,6 +1527,9 @@ public class RecorderForm extends javax.swing.JPanel {
             recordingStartTime = System.currentTimeMillis();
 
             boolean useSystemAudio = systemAudioToggle.isSelected() && SystemAudioCapture.isAvailable();
+            // Only OpenAI has an upload size limit worth encoding for
+            boolean encodeForUpload = configManager.isEncodeWhileRecordingEnabled()
+                && "OpenAI".equals(configManager.getWhisperServer());
 
             if (useSystemAudio) {
                 // Use AudioCaptureManager for dual-source recording
@@ -1487,8 +1538,11 @@ public class RecorderForm extends javax.swing.JPanel {
                 if (preferredDevice != null && !preferredDevice.isEmpty()) {
                     audioCaptureManager.setPreferredLoopbackDevice(preferredDevice);
                 }
+                audioCaptureManager.setEncodeForUpload(encodeForUpload);
                 audioCaptureManager.startCapture(true);
                 recorder = null;
+                liveTranscriber = null;
+                uploadEncoder = null;
                 logger.info("Recording started with system audio capture");
             } else {
                 // Standard mic-only recording
@@ -1496,7 +1550,21 @@ public class RecorderForm extends javax.swing.JPanel {
                 String timeStamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
                 File audioFile = new File(ConfigManager.getTempDirectory(), "whisperdog_mic_" + timeStamp + ".wav");
                 recorder = new AudioRecorder(audioFile, configManager);
-                new Thread(recorder::start).start();
+                liveTranscriber = null;
+                if (configManager.isLiveTranscriptionEnabled()) {
+                    // Subscribes to the recorder, so it has to exist before capture starts
+                    liveTranscriber = new LiveTranscriber(recorder, configManager);
+                    liveTranscriber.start();
+                }
+                uploadEncoder = null;
+                if (encodeForUpload && liveTranscriber == null && !configManager.isSilenceRemovalEnabled()) {
+                    // Silence removal would replace the recording before upload, so only encode without it
+                    AudioFormat format = configManager.getAudioFormat();
+                    uploadEncoder = new UploadPartEncoder(audioFile, (int) format.getSampleRate(),
+                        format.getChannels(), configManager.getSilenceThreshold());
+                    recorder.addFrameListener(uploadEncoder);
+                }
+                TaskScheduler.getInstance().execute(TaskType.RECORDING, "Mic recording", recorder::start);
                 logger.info("Recording started: " + audioFile.getPath());
             }
             recordButton.setText("Stop Recording");
@@ -1605,10 +1673,16 @@ public class RecorderForm extends javax.swing.JPanel {
             // Dual-source recording - stop via AudioCaptureManager
             File micFile = audioCaptureManager.stopCapture();
             File sysFile = audioCaptureManager.getSystemTrackFile();
+            File mergedFile = audioCaptureManager.getMergedTrackFile();
+            List<SourceActivityTracker.ActivitySegment> activityTimeline = audioCaptureManager.getActivityTimeline();
+            UploadPartEncoder mixUploadEncoder = audioCaptureManager.getUploadEncoder();
             logger.info("Recording stopped (dual-source)");
             if (!cancelledRecording && micFile != null) {
-                activeTranscriptionWorker = new RecorderForm.AudioTranscriptionWorker(micFile, sysFile);
-                activeTranscriptionWorker.execute();
+                startTranscription(new RecorderForm.AudioTranscriptionWorker(micFile, new RecordingExtras()
+                    .systemTrack(sysFile)
+                    .mergedTrack(mergedFile)
+                    .activityTimeline(activityTimeline)
+                    .uploadEncoder(mixUploadEncoder)));
             } else {
                 logger.info("Recording cancelled");
                 audioCaptureManager.cleanupTempFiles();
@@ -1620,13 +1694,24 @@ public class RecorderForm extends javax.swing.JPanel {
             recorder.stop();
             logger.info("Recording stopped");
             if (!cancelledRecording) {
-                activeTranscriptionWorker = new RecorderForm.AudioTranscriptionWorker(recorder.getOutputFile());
-                activeTranscriptionWorker.execute();
+                startTranscription(new RecorderForm.AudioTranscriptionWorker(recorder.getOutputFile(),
+                    new RecordingExtras()
+                        .micRecorder(recorder)
+                        .liveTranscriber(liveTranscriber)
+                        .uploadEncoder(uploadEncoder)));
             } else {
                 logger.info("Recording cancelled");
+                if (liveTranscriber != null) {
+                    liveTranscriber.cancel();
+                }
+                if (uploadEncoder != null) {
+                    uploadEncoder.discard();
+                }
                 setProcessingState(false);
                 updateTrayMenu();
             }
+            liveTranscriber = null;
+            uploadEncoder = null;
         }
     }
 
@@ -1638,13 +1723,46 @@ public class RecorderForm extends javax.swing.JPanel {
 
         recordButton.setText("Cancel");
         recordButton.setEnabled(true);
-        activeTranscriptionWorker = new RecorderForm.AudioTranscriptionWorker(audioFile);
-        activeTranscriptionWorker.execute();
+        startTranscription(new RecorderForm.AudioTranscriptionWorker(audioFile));
+    }
+
+    /**
+     * Makes the worker the active transcription and starts it.
+     */
+    private void startTranscription(AudioTranscriptionWorker worker) {
+        activeTranscriptionWorker = worker;
+        if (!runInBackground(TaskType.TRANSCRIPTION, "Transcribe " + worker.audioFile.getName(), worker)) {
+            activeTranscriptionWorker = null;
+            worker.releaseAfterRejection();
+        }
+    }
+
+    /**
+     * Runs a worker on the shared {@link TaskScheduler} instead of the default
+     * {@code SwingWorker} pool. If the queue of its type is full, the user is told and the
+     * form is reset, since the worker's {@code done()} will never run to do it.
+     *
+     * @return false if the worker was rejected
+     */
+    private boolean runInBackground(TaskType type, String name, SwingWorker<?, ?> worker) {
+        try {
+            TaskScheduler.getInstance().execute(type, name, worker);
+            return true;
+        } catch (RejectedExecutionException e) {
+            logger.error("{} task '{}' rejected", type.getLabel(), name, e);
+            Notificationmanager.getInstance().showNotification(ToastNotification.Type.ERROR,
+                    "Too many " + type.getLabel().toLowerCase() + " tasks are waiting. Try again later.");
+            if (type != TaskType.UI) {
+                resetUIAfterTranscription();
+                updateTrayMenu();
+            }
+            return false;
+        }
     }
 
     public void playFinishSound() {
         if (configManager.isFinishSoundEnabled()) {
-            new Thread(() -> {
+            TaskScheduler.getInstance().execute(TaskType.UI, "Finish sound", () -> {
                 try {
                     InputStream audioSrc = getClass().getResourceAsStream("/stop.wav");
                     InputStream bufferedIn = new BufferedInputStream(audioSrc);
@@ -1655,7 +1773,7 @@ public class RecorderForm extends javax.swing.JPanel {
                 } catch (Exception e) {
                     logger.error(e);
                 }
-            }).start();
+            });
         }
     }
 
@@ -1709,7 +1827,7 @@ public class RecorderForm extends javax.swing.JPanel {
                 recordButton.setText("Stop Recording");
             }
         };
-        worker.execute();
+        runInBackground(TaskType.UI, "Record button delay", worker);
     }
 
     private void updateUIForRecordingStop() {
@@ -1973,21 +2091,86 @@ public class RecorderForm extends javax.swing.JPanel {
         throw new Exception("Transcription failed after max retries");
     }
 
+    /**
+     * Optional inputs of an {@link AudioTranscriptionWorker}, collected while recording.
+     * Anything not set is null: a mic-only recording, or a dropped file, has none of them.
+     */
+    private static final class RecordingExtras {
+        private AudioRecorder micRecorder;
+        private File systemTrackFile;
+        private LiveTranscriber liveTranscriber;
+        private File mergedTrackFile;
+        private List<SourceActivityTracker.ActivitySegment> activityTimeline;
+        private UploadPartEncoder uploadEncoder;
+
+        /** The recorder that is still finishing the mic file; the worker waits for it. */
+        RecordingExtras micRecorder(AudioRecorder recorder) {
+            this.micRecorder = recorder;
+            return this;
+        }
+
+        /** The system audio track of a dual-source recording. */
+        RecordingExtras systemTrack(File file) {
+            this.systemTrackFile = file;
+            return this;
+        }
+
+        /** Transcription that ran while recording; only its last segment is pending. */
+        RecordingExtras liveTranscriber(LiveTranscriber transcriber) {
+            this.liveTranscriber = transcriber;
+            return this;
+        }
+
+        /** Mic and system audio mixed while recording. */
+        RecordingExtras mergedTrack(File file) {
+            this.mergedTrackFile = file;
+            return this;
+        }
+
+        /** Source activity tracked while recording. */
+        RecordingExtras activityTimeline(List<SourceActivityTracker.ActivitySegment> timeline) {
+            this.activityTimeline = timeline;
+            return this;
+        }
+
+        /** Upload parts encoded while recording. */
+        RecordingExtras uploadEncoder(UploadPartEncoder encoder) {
+            this.uploadEncoder = encoder;
+            return this;
+        }
+    }
+
     private class AudioTranscriptionWorker extends SwingWorker<String, Void> {
+        /** How long the worker waits for a stopped recorder to finalize the mic file. */
+        private static final int RECORDER_FINISH_TIMEOUT_MS = 10000;
+
         private final File audioFile;
+        private final AudioRecorder micRecorder;  // null unless the recorder may still be writing audioFile
         private final File systemTrackFile;  // null for mic-only recordings
+        private final LiveTranscriber liveTranscriber;  // null unless transcribed while recording
+        private final File mergedTrackFile;  // mic + system mixed while recording, may be null
+        private final List<SourceActivityTracker.ActivitySegment> activityTimeline;  // tracked while recording, may be null
+        private final UploadPartEncoder uploadEncoder;  // upload parts encoded while recording, may be null
         private volatile boolean cancelledByUser = false;  // Track if user cancelled via warning dialog
         private volatile File transcribedFile = null;  // The actual file that was transcribed (may be merged)
         private volatile long recordingDurationMs = 0;  // Duration of the recording
         private volatile boolean isDualSource = false;  // Whether this was a dual-source recording
 
         public AudioTranscriptionWorker(File audioFile) {
-            this(audioFile, null);
+            this(audioFile, new RecordingExtras());
         }
 
-        public AudioTranscriptionWorker(File audioFile, File systemTrackFile) {
+        /**
+         * @param extras What the recording produced besides the mic file
+         */
+        public AudioTranscriptionWorker(File audioFile, RecordingExtras extras) {
             this.audioFile = audioFile;
-            this.systemTrackFile = systemTrackFile;
+            this.micRecorder = extras.micRecorder;
+            this.systemTrackFile = extras.systemTrackFile;
+            this.liveTranscriber = extras.liveTranscriber;
+            this.mergedTrackFile = extras.mergedTrackFile;
+            this.activityTimeline = extras.activityTimeline;
+            this.uploadEncoder = extras.uploadEncoder;
         }
 
         @Override
@@ -2003,6 +2186,19 @@ public class RecorderForm extends javax.swing.JPanel {
                 logger.info("AudioTranscriptionWorker started on thread: {}", workerThreadName);
                 logger.info("Audio file to analyze: {}", audioFile.getAbsolutePath());
 
+                // stop() only closes the line; the writer may still be draining buffered audio
+                awaitRecorder();
+
+                // Live transcription already covered the recording; only its last segment is pending
+                String liveTranscript = null;
+                if (liveTranscriber != null) {
+                    console.log("Finishing live transcription...");
+                    liveTranscript = liveTranscriber.finish();
+                    if (liveTranscript == null) {
+                        console.log("Live transcription incomplete, transcribing the full recording");
+                    }
+                }
+
                 // Pre-flight validation
                 if (!audioFile.exists()) {
                     String msg = "Audio file does not exist: " + audioFile.getAbsolutePath();
@@ -2023,11 +2219,17 @@ public class RecorderForm extends javax.swing.JPanel {
                 console.separator();
                 console.log("Analyzing audio...");
 
-                SilenceRemover.SilenceAnalysisResult analysis = SilenceRemover.analyzeForSilence(
-                    audioFile,
-                    configManager.getSilenceThreshold(),
-                    configManager.getMinSilenceDuration()
-                );
+                // Single decode of the mic track: the regions are reused by silence removal below.
+                // A live transcription has analysed the track while recording.
+                SilenceRemover.SilenceDetection micDetection = liveTranscript != null ? null
+                    : SilenceRemover.detectSilence(
+                        audioFile,
+                        configManager.getSilenceThreshold(),
+                        configManager.getMinSilenceDuration()
+                    );
+                SilenceRemover.SilenceAnalysisResult analysis = liveTranscript != null
+                    ? liveTranscriber.getAnalysis()
+                    : micDetection != null ? micDetection.analysis : null;
 
                 // Large recording warning (only when silence removal is enabled)
                 if (configManager.isSilenceRemovalEnabled() && analysis != null && analysis.exceedsWarningThreshold) {
@@ -2128,8 +2330,12 @@ public class RecorderForm extends javax.swing.JPanel {
                 if (systemTrackHasContent) {
                     // Dual-source recording: merge mic + system tracks
                     // Only merge if system track has actual content (> 0.5s)
-                    console.log("Merging mic + system audio tracks...");
-                    File mergedFile = FFmpegUtil.mergeAudioTracks(audioFile, validatedSystemTrack);
+                    File mergedFile = mergedTrackFile;
+                    if (mergedFile == null || !mergedFile.exists()) {
+                        console.log("Merging mic + system audio tracks...");
+                        mergedFile = TrackMixer.mergeTracks(audioFile, validatedSystemTrack,
+                            configManager.getMicMixGain(), configManager.getSystemMixGain());
+                    }
                     if (mergedFile != null) {
                         fileToTranscribe = mergedFile;
                         console.log("Audio tracks merged successfully");
@@ -2137,15 +2343,23 @@ public class RecorderForm extends javax.swing.JPanel {
                         console.log("Track merge failed, using mic track only");
                     }
                     // Skip silence removal for dual-source (breaks timeline alignment)
-                } else if (configManager.isSilenceRemovalEnabled()) {
-                    // Mic-only: apply silence removal as usual
-                    fileToTranscribe = SilenceRemover.removeSilence(
-                        audioFile,
-                        configManager.getSilenceThreshold(),
-                        configManager.getMinSilenceDuration(),
-                        configManager.isKeepCompressedFile(),
-                        configManager.getMinRecordingDurationForSilenceRemoval()
-                    );
+                } else if (liveTranscript == null && configManager.isSilenceRemovalEnabled()) {
+                    // Mic-only: apply silence removal as usual (live segments already skip silence)
+                    if (micDetection != null) {
+                        fileToTranscribe = SilenceRemover.removeSilence(
+                            micDetection,
+                            configManager.isKeepCompressedFile(),
+                            configManager.getMinRecordingDurationForSilenceRemoval()
+                        );
+                    } else {
+                        fileToTranscribe = SilenceRemover.removeSilence(
+                            audioFile,
+                            configManager.getSilenceThreshold(),
+                            configManager.getMinSilenceDuration(),
+                            configManager.isKeepCompressedFile(),
+                            configManager.getMinRecordingDurationForSilenceRemoval()
+                        );
+                    }
                 }
 
                 // Capture file for retention (before transcription, in case of failure)
@@ -2156,6 +2370,11 @@ public class RecorderForm extends javax.swing.JPanel {
                     this.recordingDurationMs = System.currentTimeMillis() - recordingStartTime;
                 }
 
+                if (liveTranscript != null) {
+                    console.log("Using transcript from live transcription");
+                    return liveTranscript;
+                }
+
                 String server = configManager.getWhisperServer();
                 console.separator();
                 console.log("Starting transcription using " + server);
@@ -2166,7 +2385,23 @@ public class RecorderForm extends javax.swing.JPanel {
                 // Word timestamps for accurate source attribution (OpenAI only, dual-source recordings)
                 List<SourceActivityTracker.TimestampedWord> wordTimestamps = null;
 
-                if (server.equals("OpenAI")) {
+                // Parts encoded while recording replace the compression step, if they cover this file
+                List<UploadPartEncoder.Part> uploadParts = server.equals("OpenAI") && uploadEncoder != null
+                    && fileToTranscribe.equals(uploadEncoder.getSourceFile())
+                    ? uploadEncoder.getParts() : null;
+
+                if (uploadParts != null) {
+                    logger.info("Transcribing {} upload parts encoded while recording", uploadParts.size());
+                    console.log(String.format("Uploading %d part(s) encoded while recording", uploadParts.size()));
+                    TranscriptionResult partsResult = transcribeUploadParts(uploadParts, systemTrackHasContent, console);
+                    if (partsResult != null) {
+                        result = partsResult.getText();
+                        if (partsResult.hasWordTimestamps()) {
+                            wordTimestamps = partsResult.getWords();
+                            console.log(String.format("Received %d word timestamps", wordTimestamps.size()));
+                        }
+                    }
+                } else if (server.equals("OpenAI")) {
                     logger.info("Transcribing audio using OpenAI");
                     // Use word timestamps for dual-source recordings for accurate attribution
                     if (systemTrackHasContent) {
@@ -2204,8 +2439,10 @@ public class RecorderForm extends javax.swing.JPanel {
                     try {
                         console.log("Applying source attribution...");
                         SourceActivityTracker tracker = new SourceActivityTracker();
-                        List<SourceActivityTracker.ActivitySegment> timeline =
-                            tracker.trackActivity(audioFile, systemTrackFile);
+                        // Prefer the timeline tracked while recording; re-reading both tracks is the fallback
+                        List<SourceActivityTracker.ActivitySegment> timeline = activityTimeline != null
+                            ? activityTimeline
+                            : tracker.trackActivity(audioFile, systemTrackFile);
 
                         // Only label if both sources have activity — single source is implied
                         boolean hasUserActivity = timeline.stream()
@@ -2242,9 +2479,58 @@ public class RecorderForm extends javax.swing.JPanel {
             }
         }
 
+        /**
+         * Transcribes the upload parts in order and joins them into one result.
+         * Word timestamps are shifted by each part's start, so they refer to the whole recording.
+         *
+         * @return The joined result, or null if the user cancelled a part
+         */
+        private TranscriptionResult transcribeUploadParts(List<UploadPartEncoder.Part> parts, boolean withTimestamps,
+                                                          ConsoleLogger console) throws Exception {
+            StringBuilder text = new StringBuilder();
+            List<SourceActivityTracker.TimestampedWord> words = withTimestamps ? new ArrayList<>() : null;
+            for (int i = 0; i < parts.size(); i++) {
+                UploadPartEncoder.Part part = parts.get(i);
+                if (parts.size() > 1) {
+                    console.log(String.format("Transcribing part %d/%d...", i + 1, parts.size()));
+                }
+                String partText;
+                if (withTimestamps) {
+                    TranscriptionResult partResult = transcribeWithTimestampsAndRetry(part.file, console);
+                    if (partResult == null) {
+                        return null;
+                    }
+                    partText = partResult.getText();
+                    if (partResult.hasWordTimestamps()) {
+                        for (SourceActivityTracker.TimestampedWord word : partResult.getWords()) {
+                            words.add(new SourceActivityTracker.TimestampedWord(word.text,
+                                word.startMs + part.startMs, word.endMs + part.startMs));
+                        }
+                    }
+                } else {
+                    partText = transcribeWithRetry(part.file, console);
+                    if (partText == null) {
+                        return null;
+                    }
+                }
+                if (!partText.isBlank()) {
+                    if (text.length() > 0) {
+                        text.append(' ');
+                    }
+                    text.append(partText.trim());
+                }
+            }
+            return words != null && !words.isEmpty()
+                ? new TranscriptionResult(text.toString(), words)
+                : new TranscriptionResult(text.toString());
+        }
+
         @Override
         protected void done() {
             activeTranscriptionWorker = null;
+            if (uploadEncoder != null) {
+                uploadEncoder.discard();  // Temporary; the WAV is what gets retained or preserved
+            }
             if (isCancelled()) {
                 return;  // User cancelled — UI already reset by toggleRecording()
             }
@@ -2310,6 +2596,9 @@ public class RecorderForm extends javax.swing.JPanel {
                     if (transcribedFile != null && !transcribedFile.equals(audioFile)) {
                         cleanupTempAudioFile(transcribedFile);
                     }
+                    if (mergedTrackFile != null && !mergedTrackFile.equals(transcribedFile)) {
+                        cleanupTempAudioFile(mergedTrackFile);
+                    }
                     // Also clean up compressed MP3 if OpenAITranscribeClient created one
                     File compressedMp3 = whisperClient.getLastCompressedFile();
                     if (compressedMp3 != null) {
@@ -2332,7 +2621,7 @@ public class RecorderForm extends javax.swing.JPanel {
                             // Switch progress bar to post-processing stage (orange)
                             setProgressStage(IndeterminateProgressBar.Stage.POST_PROCESSING);
                             // Run post-processing in separate worker to avoid blocking UI
-                            new PostProcessingWorker(transcript, pipeline).execute();
+                            runInBackground(TaskType.POST_PROCESSING, pipeline.title, new PostProcessingWorker(transcript, pipeline));
                         } else {
                             logger.error("Pipeline not found for UUID: " + selectedItem.uuid);
                             console.logError("Pipeline not found: " + selectedItem.uuid);
@@ -2358,6 +2647,37 @@ public class RecorderForm extends javax.swing.JPanel {
             }
         }
 
+        /**
+         * Waits until the recorder has written the last audio and the final header. If it does
+         * not finish in time, the header is fixed up from the file length, so the audio written
+         * so far can still be read.
+         */
+        private void awaitRecorder() throws InterruptedException {
+            if (micRecorder == null || micRecorder.awaitFinished(RECORDER_FINISH_TIMEOUT_MS)) {
+                return;
+            }
+            logger.warn("Recording did not finish in time, transcribing the audio written so far");
+            try {
+                IncrementalWavWriter.repairHeader(audioFile);
+            } catch (IOException e) {
+                logger.warn("Could not repair WAV header of {}: {}", audioFile.getName(), e.getMessage());
+            }
+        }
+
+        /**
+         * Releases what the recording left behind when the worker could not be scheduled.
+         * The audio files are kept and logged for recovery, as after a failed transcription.
+         */
+        void releaseAfterRejection() {
+            if (liveTranscriber != null) {
+                liveTranscriber.cancel();
+            }
+            if (uploadEncoder != null) {
+                uploadEncoder.discard();
+            }
+            logPreservedFiles(audioFile, systemTrackFile, mergedTrackFile, null);
+        }
+
         /**
          * Clean up a temp audio file if it's in the system temp directory.
          * Only deletes files with whisperdog prefix to avoid deleting user files.
@@ -2569,7 +2889,7 @@ public class RecorderForm extends javax.swing.JPanel {
         ConsoleLogger.getInstance().log("Manual pipeline run: " + pipeline.title);
 
         // Run pipeline in worker
-        new ManualPipelineWorker(transcript, pipeline).execute();
+        runInBackground(TaskType.POST_PROCESSING, pipeline.title, new ManualPipelineWorker(transcript, pipeline));
     }
 
     /**
@@ -1,20 +1,23 @@
 package org.whisperdog.recording;
 
 import org.whisperdog.ConsoleLogger;
+import org.whisperdog.audio.PcmLevels;
 
-import javax.sound.sampled.AudioFileFormat;
-import javax.sound.sampled.AudioFormat;
-import javax.sound.sampled.AudioInputStream;
-import javax.sound.sampled.AudioSystem;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Removes silence from audio recordings to reduce file size and transcription costs.
  * Uses RMS (Root Mean Square) amplitude analysis to detect silent regions.
+ * <p>
+ * Audio is read in fixed 100ms windows through a {@link PcmSource}: levels are measured on
+ * the mapped file in place, and candidate silence is tracked as a frame range rather than
+ * copied, so peak heap use is one fade length regardless of recording length.
+ * Only 16-bit PCM WAV files are processed; anything else is passed through unchanged.
  */
 public class SilenceRemover {
 
@@ -63,22 +66,48 @@ public class SilenceRemover {
     /**
      * Represents a silent region in the audio.
      */
-    private static class SilenceRegion {
-        long startFrame;
-        long endFrame;
+    public static class SilenceRegion {
+        public final long startFrame;
+        public final long endFrame;
 
         SilenceRegion(long startFrame, long endFrame) {
             this.startFrame = startFrame;
             this.endFrame = endFrame;
         }
 
-        long getDurationFrames() {
+        public long getDurationFrames() {
             return endFrame - startFrame;
         }
     }
 
+    /**
+     * Silence metrics together with the detected regions from a single decode of a file.
+     * Pass it to {@link #removeSilence(SilenceDetection, boolean, int)} to splice without
+     * running detection again.
+     */
+    public static class SilenceDetection {
+        public final File audioFile;
+        public final SilenceAnalysisResult analysis;
+        public final List<SilenceRegion> regions;
+        public final float silenceThresholdRMS;
+        public final int minSilenceDurationMs;
+        private final ScanResult scan;
+
+        private SilenceDetection(File audioFile, SilenceAnalysisResult analysis, ScanResult scan,
+                                 float silenceThresholdRMS, int minSilenceDurationMs) {
+            this.audioFile = audioFile;
+            this.analysis = analysis;
+            this.regions = Collections.unmodifiableList(scan.regions);
+            this.silenceThresholdRMS = silenceThresholdRMS;
+            this.minSilenceDurationMs = minSilenceDurationMs;
+            this.scan = scan;
+        }
+    }
+
     /**
      * Removes silence from an audio file.
+     * Detection and splicing happen in a single streaming pass: non-silent windows are written
+     * straight to the output WAV through {@link IncrementalWavWriter}.
      *
      * @param originalFile The original audio file
      * @param silenceThresholdRMS RMS threshold for silence detection (0.0-1.0, typically 0.01 = -40dB)
@@ -90,38 +119,45 @@ public class SilenceRemover {
     public static File removeSilence(File originalFile, float silenceThresholdRMS,
                                      int minSilenceDurationMs, boolean keepCompressed,
                                      int minRecordingDurationSec) {
+        return removeSilence(originalFile, null, silenceThresholdRMS, minSilenceDurationMs,
+            keepCompressed, minRecordingDurationSec);
+    }
+
+    /**
+     * Removes silence using regions from an earlier {@link #detectSilence} call.
+     * The file is only copied; no RMS analysis is repeated.
+     *
+     * @param detection Result of {@link #detectSilence} for the file to process
+     * @param keepCompressed Whether to keep the compressed file after transcription
+     * @param minRecordingDurationSec Minimum recording duration (seconds) to apply silence removal
+     * @return The compressed audio file, or original if no silence detected
+     */
+    public static File removeSilence(SilenceDetection detection, boolean keepCompressed,
+                                     int minRecordingDurationSec) {
+        return removeSilence(detection.audioFile, detection, detection.silenceThresholdRMS,
+            detection.minSilenceDurationMs, keepCompressed, minRecordingDurationSec);
+    }
+
+    private static File removeSilence(File originalFile, SilenceDetection detection,
+                                      float silenceThresholdRMS, int minSilenceDurationMs,
+                                      boolean keepCompressed, int minRecordingDurationSec) {
         ConsoleLogger console = ConsoleLogger.getInstance();
         long startTime = System.currentTimeMillis();
+        File compressedFile = null;
 
-        try {
+        try (PcmSource source = PcmSource.open(originalFile)) {
             console.log("Analyzing audio for silence...");
 
-            // Read audio file
-            AudioInputStream audioStream = AudioSystem.getAudioInputStream(originalFile);
-            AudioFormat format = audioStream.getFormat();
-
             // Validate format
-            if (format.getEncoding() != AudioFormat.Encoding.PCM_SIGNED) {
-                console.log("Audio format not supported for silence removal (not PCM), skipping");
-                audioStream.close();
+            if (!source.is16BitPcm()) {
+                console.log("Audio format not supported for silence removal (not 16-bit PCM), skipping");
                 return originalFile;
             }
 
-            // Read all audio data into memory
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            byte[] buffer = new byte[4096];
-            int bytesRead;
-            while ((bytesRead = audioStream.read(buffer)) != -1) {
-                baos.write(buffer, 0, bytesRead);
-            }
-            audioStream.close();
-
-            byte[] audioData = baos.toByteArray();
-
-            // Calculate original duration
-            float sampleRate = format.getSampleRate();
-            int frameSize = format.getFrameSize();
-            long totalFrames = audioData.length / frameSize;
+            // Calculate original duration from the header (no decode needed)
+            float sampleRate = source.getSampleRate();
+            int frameSize = source.getFrameSize();
+            long totalFrames = source.getFrameCount();
             float originalDurationSec = totalFrames / sampleRate;
 
             console.log(String.format("Original duration: %.1fs (%d frames)",
@@ -145,20 +181,43 @@ public class SilenceRemover {
             console.log(String.format("Silence threshold: %.3f RMS | Min duration: %dms",
                 silenceThresholdRMS, minSilenceDurationMs));
 
-            // Detect silence regions (with diagnostic logging)
-            List<SilenceRegion> silences = detectSilence(audioData, format,
-                silenceThresholdRMS, minSilenceDurationMs, console);
+            // Known to have no silence: nothing to write
+            if (detection != null && detection.scan.regions.isEmpty()) {
+                logRmsDiagnostics(console, detection.scan, silenceThresholdRMS);
+                console.log("No significant silence detected");
+                return originalFile;
+            }
 
+            // Detect silence (unless already known) and write non-silent audio in one pass
+            String baseName = originalFile.getName().replaceFirst("\\.[^.]+$", "");
+            compressedFile = new File(originalFile.getParent(), baseName + "_nosilence.wav");
+
+            ScanResult scan;
+            long compressedBytes;
+            try (IncrementalWavWriter writer = new IncrementalWavWriter(compressedFile,
+                    source.getSampleRate(), 16, source.getChannels())) {
+                StreamingSplicer splicer = new StreamingSplicer(writer, source);
+                if (detection != null) {
+                    scan = detection.scan;
+                    spliceRegions(source, scan.regions, splicer);
+                } else {
+                    scan = scanForSilence(source, silenceThresholdRMS, minSilenceDurationMs, splicer);
+                }
+                splicer.finish();
+                compressedBytes = writer.getBytesWritten();
+            }
+
+            logRmsDiagnostics(console, scan, silenceThresholdRMS);
+
+            List<SilenceRegion> silences = scan.regions;
             if (silences.isEmpty()) {
                 console.log("No significant silence detected");
+                deleteQuietly(compressedFile);
                 return originalFile;
             }
 
             // Calculate statistics
-            long totalSilenceFrames = silences.stream()
-                .mapToLong(SilenceRegion::getDurationFrames)
-                .sum();
-            float totalSilenceSec = totalSilenceFrames / sampleRate;
+            float totalSilenceSec = scan.getSilenceFrames() / sampleRate;
             float reductionPercent = (totalSilenceSec / originalDurationSec) * 100;
 
             console.log(String.format("Detected %d silence region(s) (total: %.1fs)",
@@ -175,9 +234,7 @@ public class SilenceRemover {
                 console.log("  Processing anyway to preserve any speech content");
             }
 
-            // Create compressed audio by removing silence
-            byte[] compressedData = spliceAudio(audioData, format, silences);
-            long compressedFrames = compressedData.length / frameSize;
+            long compressedFrames = compressedBytes / frameSize;
             float compressedDurationSec = compressedFrames / sampleRate;
 
             console.log(String.format("Compressed duration: %.1fs (%d frames)",
@@ -190,22 +247,10 @@ public class SilenceRemover {
                     String.format("%.2fs", compressedDurationSec) +
                     "), skipping silence removal");
                 console.log("Using original audio file");
+                deleteQuietly(compressedFile);
                 return originalFile;
             }
 
-            // Write compressed audio to file
-            String compressedFileName = originalFile.getName().replace(".wav", "_nosilence.wav");
-            File compressedFile = new File(originalFile.getParent(), compressedFileName);
-
-            AudioInputStream compressedStream = new AudioInputStream(
-                new ByteArrayInputStream(compressedData),
-                format,
-                compressedFrames
-            );
-
-            AudioSystem.write(compressedStream, AudioFileFormat.Type.WAVE, compressedFile);
-            compressedStream.close();
-
             long elapsedTime = System.currentTimeMillis() - startTime;
             console.logSuccess("Silence removed: " + compressedFile.getName());
             console.log(String.format("Silence removal took %dms", elapsedTime));
@@ -223,6 +268,7 @@ public class SilenceRemover {
             logger.error("Error removing silence from audio", e);
             console.logError("Silence removal failed: " + e.getMessage());
             console.log("Using original audio file");
+            deleteQuietly(compressedFile);
             return originalFile;
         }
     }
@@ -238,49 +284,43 @@ public class SilenceRemover {
      */
     public static SilenceAnalysisResult analyzeForSilence(File audioFile, float silenceThresholdRMS,
                                                            int minSilenceDurationMs) {
-        try {
-            // Read audio file
-            AudioInputStream audioStream = AudioSystem.getAudioInputStream(audioFile);
-            AudioFormat format = audioStream.getFormat();
+        SilenceDetection detection = detectSilence(audioFile, silenceThresholdRMS, minSilenceDurationMs);
+        return detection != null ? detection.analysis : null;
+    }
 
+    /**
+     * Analyzes an audio file for silence and keeps the detected regions, so that a following
+     * {@link #removeSilence(SilenceDetection, boolean, int)} does not need to decode it again.
+     *
+     * @param audioFile The audio file to analyze
+     * @param silenceThresholdRMS RMS threshold for silence detection
+     * @param minSilenceDurationMs Minimum duration to consider as silence
+     * @return Metrics and silence regions, or null if analysis fails
+     */
+    public static SilenceDetection detectSilence(File audioFile, float silenceThresholdRMS,
+                                                 int minSilenceDurationMs) {
+        try (PcmSource source = PcmSource.open(audioFile)) {
             // Validate format
-            if (format.getEncoding() != AudioFormat.Encoding.PCM_SIGNED) {
-                audioStream.close();
+            if (!source.is16BitPcm()) {
                 return null;  // Can't analyze non-PCM audio
             }
 
-            // Read all audio data into memory
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            byte[] buffer = new byte[4096];
-            int bytesRead;
-            while ((bytesRead = audioStream.read(buffer)) != -1) {
-                baos.write(buffer, 0, bytesRead);
+            float sampleRate = source.getSampleRate();
+            long headerFrames = source.getFrameCount();
+            if (headerFrames / sampleRate < 1.0f) {
+                // Too short, no silence analysis
+                ScanResult empty = new ScanResult();
+                empty.totalFrames = headerFrames;
+                return new SilenceDetection(audioFile, new SilenceAnalysisResult(headerFrames / sampleRate, 0.0f),
+                    empty, silenceThresholdRMS, minSilenceDurationMs);
             }
-            audioStream.close();
 
-            byte[] audioData = baos.toByteArray();
+            ScanResult scan = scanForSilence(source, silenceThresholdRMS, minSilenceDurationMs, null);
 
-            // Calculate duration
-            float sampleRate = format.getSampleRate();
-            int frameSize = format.getFrameSize();
-            long totalFrames = audioData.length / frameSize;
-            float durationSec = totalFrames / sampleRate;
-
-            if (durationSec < 1.0f) {
-                return new SilenceAnalysisResult(durationSec, 0.0f);  // Too short, no silence analysis
-            }
-
-            // Detect silence regions (without logging)
-            List<SilenceRegion> silences = detectSilenceQuiet(audioData, format,
-                silenceThresholdRMS, minSilenceDurationMs);
-
-            // Calculate silence ratio
-            long totalSilenceFrames = silences.stream()
-                .mapToLong(SilenceRegion::getDurationFrames)
-                .sum();
-            float silenceRatio = (float) totalSilenceFrames / totalFrames;
-
-            return new SilenceAnalysisResult(durationSec, silenceRatio);
+            float durationSec = scan.totalFrames / sampleRate;
+            float silenceRatio = durationSec < 1.0f ? 0.0f : (float) scan.getSilenceFrames() / scan.totalFrames;
+            return new SilenceDetection(audioFile, new SilenceAnalysisResult(durationSec, silenceRatio),
+                scan, silenceThresholdRMS, minSilenceDurationMs);
 
         } catch (Exception e) {
             logger.error("Error analyzing audio for silence", e);
@@ -289,259 +329,316 @@ public class SilenceRemover {
     }
 
     /**
-     * Detects silence regions without console logging.
-     * Used by analyzeForSilence() for quiet pre-flight analysis.
+     * Detects silence regions within a frame range of a PCM WAV file, reading only that range.
+     * Uses the same 100ms RMS windows as the full-file scan; regions are aligned to window
+     * boundaries and reported in absolute frames.
+     *
+     * @param source Open source of the WAV file
+     * @param fromFrame First frame to examine
+     * @param toFrame Frame after the last one to examine
+     * @return Silent regions of at least {@code minSilenceDurationMs}, in order; empty
+     *         unless the file is 16-bit PCM
      */
-    private static List<SilenceRegion> detectSilenceQuiet(byte[] audioData, AudioFormat format,
-                                                          float silenceThresholdRMS, int minSilenceDurationMs) {
-        List<SilenceRegion> silences = new ArrayList<>();
-
-        float sampleRate = format.getSampleRate();
-        int frameSize = format.getFrameSize();
-        int sampleSizeInBytes = format.getSampleSizeInBits() / 8;
-        boolean isBigEndian = format.isBigEndian();
+    static List<SilenceRegion> detectSilence(PcmSource source, long fromFrame, long toFrame,
+                                             float silenceThresholdRMS, int minSilenceDurationMs) throws IOException {
+        List<SilenceRegion> regions = new ArrayList<>();
+        if (!source.is16BitPcm()) {
+            return regions;
+        }
 
-        int windowFrames = (int) (sampleRate * 0.1);  // 100ms windows
-        int windowBytes = windowFrames * frameSize;
-        long minSilenceFrames = (long) ((minSilenceDurationMs / 1000.0) * sampleRate);
+        int windowFrames = Math.max(1, source.getSampleRate() / 10);  // 100ms windows
+        long minSilenceFrames = (long) ((minSilenceDurationMs / 1000.0) * source.getSampleRate());
+        long endFrame = Math.min(toFrame, source.getFrameCount());
 
+        long currentFrame = Math.max(0, fromFrame);
         long silenceStartFrame = -1;
-
-        for (int offset = 0; offset < audioData.length; offset += windowBytes) {
-            int length = Math.min(windowBytes, audioData.length - offset);
-            float rms = calculateRMS(audioData, offset, length, sampleSizeInBytes, isBigEndian);
-
-            long currentFrame = offset / frameSize;
-
+        while (currentFrame < endFrame) {
+            int frames = (int) Math.min(windowFrames, endFrame - currentFrame);
+            float rms = (float) PcmLevels.rms(source.samples(currentFrame, frames));
             if (rms < silenceThresholdRMS) {
                 if (silenceStartFrame == -1) {
                     silenceStartFrame = currentFrame;
                 }
-            } else {
-                if (silenceStartFrame != -1) {
-                    long silenceDuration = currentFrame - silenceStartFrame;
-                    if (silenceDuration >= minSilenceFrames) {
-                        silences.add(new SilenceRegion(silenceStartFrame, currentFrame));
-                    }
-                    silenceStartFrame = -1;
+            } else if (silenceStartFrame != -1) {
+                if (currentFrame - silenceStartFrame >= minSilenceFrames) {
+                    regions.add(new SilenceRegion(silenceStartFrame, currentFrame));
                 }
+                silenceStartFrame = -1;
             }
+            currentFrame += frames;
         }
-
-        // Handle silence at end of file
-        if (silenceStartFrame != -1) {
-            long endFrame = audioData.length / frameSize;
-            long silenceDuration = endFrame - silenceStartFrame;
-            if (silenceDuration >= minSilenceFrames) {
-                silences.add(new SilenceRegion(silenceStartFrame, endFrame));
-            }
+        if (silenceStartFrame != -1 && currentFrame - silenceStartFrame >= minSilenceFrames) {
+            regions.add(new SilenceRegion(silenceStartFrame, currentFrame));
         }
-
-        return silences;
+        return regions;
     }
 
     /**
-     * Detects silence regions in audio data using RMS amplitude analysis.
+     * Outcome of a streaming silence scan: detected regions plus RMS statistics.
      */
-    private static List<SilenceRegion> detectSilence(byte[] audioData, AudioFormat format,
-                                                     float silenceThresholdRMS, int minSilenceDurationMs,
-                                                     ConsoleLogger console) {
-        List<SilenceRegion> silences = new ArrayList<>();
+    private static class ScanResult {
+        final List<SilenceRegion> regions = new ArrayList<>();
+        long totalFrames;
+        float minRMS = Float.MAX_VALUE;
+        float maxRMS = 0.0f;
+        float sumRMS = 0.0f;
+        int windowCount;
 
-        float sampleRate = format.getSampleRate();
-        int frameSize = format.getFrameSize();
-        int sampleSizeInBytes = format.getSampleSizeInBits() / 8;
-        boolean isBigEndian = format.isBigEndian();
+        long getSilenceFrames() {
+            long total = 0;
+            for (SilenceRegion region : regions) {
+                total += region.getDurationFrames();
+            }
+            return total;
+        }
+    }
 
-        // Window size: 100ms
-        int windowFrames = (int) (sampleRate * 0.1); // 100ms windows
-        int windowBytes = windowFrames * frameSize;
+    /**
+     * Reads the audio in 100ms windows and detects silence regions using RMS amplitude.
+     * When a splicer is given, non-silent audio is forwarded to it as it is classified;
+     * candidate silence is held back only until it reaches the minimum duration.
+     *
+     * @param splicer Receives non-silent audio, or null for analysis only
+     */
+    private static ScanResult scanForSilence(PcmSource source, float silenceThresholdRMS,
+                                             int minSilenceDurationMs, StreamingSplicer splicer) throws IOException {
+        ScanResult result = new ScanResult();
 
-        // Minimum silence frames
+        int sampleRate = source.getSampleRate();
+        int windowFrames = Math.max(1, sampleRate / 10);  // 100ms windows
         long minSilenceFrames = (long) ((minSilenceDurationMs / 1000.0) * sampleRate);
+        long totalFrames = source.getFrameCount();
 
+        long currentFrame = 0;
         long silenceStartFrame = -1;
+        boolean silenceConfirmed = false;
 
-        // Track RMS values for diagnostics
-        float minRMS = Float.MAX_VALUE;
-        float maxRMS = 0.0f;
-        float sumRMS = 0.0f;
-        int windowCount = 0;
-
-        // Analyze audio in windows
-        for (int offset = 0; offset < audioData.length; offset += windowBytes) {
-            int length = Math.min(windowBytes, audioData.length - offset);
+        while (currentFrame < totalFrames) {
+            int frames = (int) Math.min(windowFrames, totalFrames - currentFrame);
+            float rms = (float) PcmLevels.rms(source.samples(currentFrame, frames));
+            result.windowCount++;
+            result.minRMS = Math.min(result.minRMS, rms);
+            result.maxRMS = Math.max(result.maxRMS, rms);
+            result.sumRMS += rms;
 
-            // Calculate RMS for this window
-            float rms = calculateRMS(audioData, offset, length, sampleSizeInBytes, isBigEndian);
-
-            // Track statistics
-            windowCount++;
-            minRMS = Math.min(minRMS, rms);
-            maxRMS = Math.max(maxRMS, rms);
-            sumRMS += rms;
-
-            long currentFrame = offset / frameSize;
+            long windowEndFrame = currentFrame + frames;
 
             if (rms < silenceThresholdRMS) {
-                // Silence detected
+                // Silence detected - held back (as a frame range) until confirmed
                 if (silenceStartFrame == -1) {
                     silenceStartFrame = currentFrame;
                 }
+                if (!silenceConfirmed && windowEndFrame - silenceStartFrame >= minSilenceFrames) {
+                    // Long enough to be removed - drop the held-back audio
+                    silenceConfirmed = true;
+                    if (splicer != null) {
+                        splicer.cut();
+                    }
+                }
             } else {
                 // Sound detected
                 if (silenceStartFrame != -1) {
-                    // End of silence region
-                    long silenceDuration = currentFrame - silenceStartFrame;
-                    if (silenceDuration >= minSilenceFrames) {
-                        silences.add(new SilenceRegion(silenceStartFrame, currentFrame));
+                    if (silenceConfirmed) {
+                        result.regions.add(new SilenceRegion(silenceStartFrame, currentFrame));
+                    } else if (splicer != null) {
+                        // Pause too short to remove - keep it
+                        copyFrames(source, silenceStartFrame, currentFrame, splicer);
                     }
                     silenceStartFrame = -1;
+                    silenceConfirmed = false;
+                }
+                if (splicer != null) {
+                    splicer.keep(source.bytes(currentFrame, frames));
                 }
             }
+
+            currentFrame = windowEndFrame;
         }
 
         // Handle silence at end of file
         if (silenceStartFrame != -1) {
-            long endFrame = audioData.length / frameSize;
-            long silenceDuration = endFrame - silenceStartFrame;
-            if (silenceDuration >= minSilenceFrames) {
-                silences.add(new SilenceRegion(silenceStartFrame, endFrame));
+            if (silenceConfirmed) {
+                result.regions.add(new SilenceRegion(silenceStartFrame, currentFrame));
+            } else if (splicer != null) {
+                copyFrames(source, silenceStartFrame, currentFrame, splicer);
             }
         }
 
-        // Log RMS diagnostics to help debug silence detection issues
-        float avgRMS = windowCount > 0 ? sumRMS / windowCount : 0.0f;
-        console.log(String.format("Audio RMS analysis: min=%.4f, max=%.4f, avg=%.4f (threshold=%.3f)",
-            minRMS, maxRMS, avgRMS, silenceThresholdRMS));
+        result.totalFrames = currentFrame;
+        return result;
+    }
 
-        if (maxRMS < silenceThresholdRMS) {
-            console.log("⚠ Audio appears to be too quiet - all RMS values below threshold!");
-            console.log("  This could indicate: low microphone gain, quiet voice, or background noise issue");
-            console.log("  Try: increasing microphone volume or reducing silence threshold");
+    /**
+     * Hands the audio to the splicer, cutting out previously detected silence regions.
+     */
+    private static void spliceRegions(PcmSource source, List<SilenceRegion> regions,
+                                      StreamingSplicer splicer) throws IOException {
+        long currentFrame = 0;
+        for (SilenceRegion region : regions) {
+            copyFrames(source, currentFrame, region.startFrame, splicer);
+            splicer.cut();
+            currentFrame = region.endFrame;
         }
-
-        return silences;
+        copyFrames(source, currentFrame, source.getFrameCount(), splicer);
     }
 
     /**
-     * Calculates RMS (Root Mean Square) amplitude for an audio segment.
-     * Returns a value between 0.0 (silent) and 1.0 (maximum amplitude).
+     * Hands the frames in {@code [fromFrame, toFrame)} to the splicer in 100ms windows.
      */
-    private static float calculateRMS(byte[] audioData, int offset, int length,
-                                     int sampleSizeInBytes, boolean isBigEndian) {
-        double sum = 0.0;
-        int sampleCount = 0;
+    private static void copyFrames(PcmSource source, long fromFrame, long toFrame,
+                                   StreamingSplicer splicer) throws IOException {
+        int windowFrames = Math.max(1, source.getSampleRate() / 10);
+        long endFrame = Math.min(toFrame, source.getFrameCount());
+        for (long frame = fromFrame; frame < endFrame; frame += windowFrames) {
+            splicer.keep(source.bytes(frame, (int) Math.min(windowFrames, endFrame - frame)));
+        }
+    }
 
-        for (int i = offset; i < offset + length; i += sampleSizeInBytes) {
-            if (i + sampleSizeInBytes > audioData.length) break;
+    /**
+     * Logs RMS diagnostics to help debug silence detection issues.
+     */
+    private static void logRmsDiagnostics(ConsoleLogger console, ScanResult scan, float silenceThresholdRMS) {
+        float avgRMS = scan.windowCount > 0 ? scan.sumRMS / scan.windowCount : 0.0f;
+        float minRMS = scan.windowCount > 0 ? scan.minRMS : 0.0f;
+        console.log(String.format("Audio RMS analysis: min=%.4f, max=%.4f, avg=%.4f (threshold=%.3f)",
+            minRMS, scan.maxRMS, avgRMS, silenceThresholdRMS));
 
-            // Read sample value
-            int sample = 0;
-            if (sampleSizeInBytes == 2) {
-                // 16-bit audio
-                if (isBigEndian) {
-                    sample = (audioData[i] << 8) | (audioData[i + 1] & 0xFF);
-                } else {
-                    sample = (audioData[i] & 0xFF) | (audioData[i + 1] << 8);
-                }
-                // Normalize to -1.0 to 1.0
-                double normalized = sample / 32768.0;
-                sum += normalized * normalized;
-                sampleCount++;
-            } else if (sampleSizeInBytes == 1) {
-                // 8-bit audio
-                sample = audioData[i];
-                double normalized = (sample - 128) / 128.0;
-                sum += normalized * normalized;
-                sampleCount++;
-            }
+        if (scan.maxRMS < silenceThresholdRMS) {
+            console.log("⚠ Audio appears to be too quiet - all RMS values below threshold!");
+            console.log("  This could indicate: low microphone gain, quiet voice, or background noise issue");
+            console.log("  Try: increasing microphone volume or reducing silence threshold");
         }
+    }
 
-        if (sampleCount == 0) return 0.0f;
-
-        return (float) Math.sqrt(sum / sampleCount);
+    private static void deleteQuietly(File file) {
+        if (file != null && file.exists() && !file.delete()) {
+            logger.warn("Could not delete partial silence-removed file: {}", file.getAbsolutePath());
+        }
     }
 
     /**
-     * Creates new audio data by removing silence regions with smooth fade transitions.
+     * Writes kept audio to the output WAV with smooth fade transitions around each cut.
      * Applies fade-out before cuts and fade-in after cuts to avoid choppy audio.
+     * <p>
+     * Only the last fade length (~100ms) of the current segment is held back, since the
+     * fade-out can only be applied once the following silence is confirmed.
      */
-    private static byte[] spliceAudio(byte[] audioData, AudioFormat format,
-                                     List<SilenceRegion> silences) {
-        int frameSize = format.getFrameSize();
-        int sampleSizeInBytes = format.getSampleSizeInBits() / 8;
-        boolean isBigEndian = format.isBigEndian();
-        float sampleRate = format.getSampleRate();
-        ByteArrayOutputStream output = new ByteArrayOutputStream();
-
-        // Fade duration: ~100ms for natural transition
-        int fadeDurationFrames = (int) (sampleRate * 0.10);
-        int fadeDurationBytes = fadeDurationFrames * frameSize;
-
-        long lastEndFrame = 0;
-        boolean isFirstChunk = true;
-
-        for (SilenceRegion silence : silences) {
-            int startByte = (int) (lastEndFrame * frameSize);
-            int endByte = (int) (silence.startFrame * frameSize);
-
-            if (endByte > startByte && startByte < audioData.length) {
-                int length = Math.min(endByte - startByte, audioData.length - startByte);
-
-                // Extract chunk and apply fades
-                byte[] chunk = new byte[length];
-                System.arraycopy(audioData, startByte, chunk, 0, length);
-
-                // Apply fade-in at start (except for very first chunk)
-                if (!isFirstChunk && length > fadeDurationBytes) {
-                    applyFade(chunk, 0, fadeDurationBytes, sampleSizeInBytes, isBigEndian, true);
-                }
+    private static final class StreamingSplicer {
+        private final IncrementalWavWriter writer;
+        private final int sampleSizeInBytes;
+        private final int fadeDurationBytes;
+        private final byte[] tail;
+        private int tailLength;
+        private byte[] scratch = new byte[0];
+        private long emittedInSegment;
+        private boolean isFirstChunk = true;
+
+        StreamingSplicer(IncrementalWavWriter writer, PcmSource source) {
+            this.writer = writer;
+            this.sampleSizeInBytes = source.getHeader().bitsPerSample / 8;
+            // Fade duration: ~100ms for natural transition
+            int fadeDurationFrames = (int) (source.getSampleRate() * 0.10);
+            this.fadeDurationBytes = fadeDurationFrames * source.getFrameSize();
+            this.tail = new byte[fadeDurationBytes];
+        }
 
-                // Apply fade-out at end (before the silence cut)
-                if (length > fadeDurationBytes) {
-                    applyFade(chunk, length - fadeDurationBytes, fadeDurationBytes,
-                             sampleSizeInBytes, isBigEndian, false);
-                }
+        /**
+         * Appends non-silent audio to the current segment. The window is read in place;
+         * only what is written out (and the held-back tail) is copied.
+         */
+        void keep(ByteBuffer data) throws IOException {
+            int offset = data.position();
+            int length = data.remaining();
+            if (length <= 0) {
+                return;
+            }
+            int total = tailLength + length;
+            if (total <= fadeDurationBytes) {
+                data.get(offset, tail, tailLength, length);
+                tailLength = total;
+                return;
+            }
 
-                output.write(chunk, 0, length);
-                isFirstChunk = false;
+            // Emit everything except the last fade length
+            int emit = total - fadeDurationBytes;
+            if (scratch.length < emit) {
+                scratch = new byte[emit];
+            }
+            int fromTail = Math.min(tailLength, emit);
+            int fromData = emit - fromTail;
+            System.arraycopy(tail, 0, scratch, 0, fromTail);
+            data.get(offset, scratch, fromTail, fromData);
+
+            int tailRemaining = tailLength - fromTail;
+            System.arraycopy(tail, fromTail, tail, 0, tailRemaining);
+            data.get(offset + fromData, tail, tailRemaining, length - fromData);
+            tailLength = fadeDurationBytes;
+
+            // Apply fade-in at start (except for very first chunk)
+            if (!isFirstChunk && emittedInSegment < fadeDurationBytes) {
+                int fadeLength = (int) Math.min(emit, fadeDurationBytes - emittedInSegment);
+                applyFade(scratch, 0, fadeLength, sampleSizeInBytes, false, true,
+                    (int) (emittedInSegment / sampleSizeInBytes), fadeDurationBytes / sampleSizeInBytes);
             }
 
-            lastEndFrame = silence.endFrame;
+            writer.write(scratch, 0, emit);
+            emittedInSegment += emit;
         }
 
-        // Copy remaining audio after last silence
-        int startByte = (int) (lastEndFrame * frameSize);
-        if (startByte < audioData.length) {
-            int length = audioData.length - startByte;
-            byte[] chunk = new byte[length];
-            System.arraycopy(audioData, startByte, chunk, 0, length);
-
-            // Apply fade-in at start (after the last silence)
-            if (!isFirstChunk && length > fadeDurationBytes) {
-                applyFade(chunk, 0, fadeDurationBytes, sampleSizeInBytes, isBigEndian, true);
-            }
+        /**
+         * Ends the current segment at a confirmed silence (fade-out applied).
+         */
+        void cut() throws IOException {
+            endSegment(true);
+        }
 
-            output.write(chunk, 0, length);
+        /**
+         * Ends the final segment (no fade-out).
+         */
+        void finish() throws IOException {
+            endSegment(false);
         }
 
-        return output.toByteArray();
+        private void endSegment(boolean fadeOut) throws IOException {
+            long segmentLength = emittedInSegment + tailLength;
+            if (segmentLength == 0) {
+                return;
+            }
+            // Fades only apply to segments longer than the fade itself
+            if (segmentLength > fadeDurationBytes) {
+                if (!isFirstChunk && emittedInSegment < fadeDurationBytes) {
+                    applyFade(tail, 0, (int) (fadeDurationBytes - emittedInSegment), sampleSizeInBytes, false, true,
+                        (int) (emittedInSegment / sampleSizeInBytes), fadeDurationBytes / sampleSizeInBytes);
+                }
+                if (fadeOut) {
+                    applyFade(tail, 0, tailLength, sampleSizeInBytes, false, false,
+                        0, tailLength / sampleSizeInBytes);
+                }
+            }
+            writer.write(tail, 0, tailLength);
+            tailLength = 0;
+            emittedInSegment = 0;
+            isFirstChunk = false;
+        }
     }
 
     /**
-     * Applies a fade (in or out) to a portion of audio data using a cosine curve.
+     * Applies part of a fade (in or out) to audio data using a cosine curve.
+     *
+     * @param firstSampleIndex Position of the first sample within the whole fade
+     * @param totalSamples Length of the whole fade in samples
      */
     private static void applyFade(byte[] audioData, int offset, int length,
-                                  int sampleSizeInBytes, boolean isBigEndian, boolean fadeIn) {
-        int totalSamples = length / sampleSizeInBytes;
+                                  int sampleSizeInBytes, boolean isBigEndian, boolean fadeIn,
+                                  int firstSampleIndex, int totalSamples) {
+        int samples = length / sampleSizeInBytes;
 
-        for (int i = 0; i < totalSamples; i++) {
+        for (int i = 0; i < samples; i++) {
             int bytePos = offset + (i * sampleSizeInBytes);
             if (bytePos + sampleSizeInBytes > audioData.length) break;
 
             // Cosine curve for smooth transition
-            double progress = (double) i / totalSamples;
+            double progress = (double) (firstSampleIndex + i) / totalSamples;
             double multiplier = fadeIn
                 ? 0.5 * (1.0 - Math.cos(Math.PI * progress))   // 0 → 1
                 : 0.5 * (1.0 + Math.cos(Math.PI * progress));  // 1 → 0
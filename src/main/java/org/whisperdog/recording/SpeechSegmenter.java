@@ -0,0 +1,152 @@
+package org.whisperdog.recording;
+
+/**
+ * Splits a stream of 100ms RMS windows into speech segments while the audio is still
+ * being recorded, so each finished segment can be transcribed before recording stops.
+ * <p>
+ * Segments are cut in the middle of a pause once they have reached a minimum length,
+ * closed at the start of a long silence (the silence itself is dropped), and force-cut
+ * at a maximum length. A forced cut may split a word, so the following segment starts
+ * a little earlier and repeats that audio as overlap for {@link TranscriptStitcher}.
+ * <p>
+ * Also accumulates the same silence statistics as {@link SilenceRemover#analyzeForSilence},
+ * so the recording needs no second pass for the pre-flight checks.
+ */
+final class SpeechSegmenter {
+
+    /** Receives finished segments, in order. Positions are sample frames. */
+    interface Listener {
+        void onSegment(long startFrame, long endFrame, long leadingOverlapMs);
+    }
+
+    /** Speech kept on either side of a cut, so word onsets and endings are not clipped. */
+    static final int PAD_MS = 200;
+
+    /** Audio repeated at the start of a segment after a forced cut. */
+    static final int FORCED_CUT_OVERLAP_SECONDS = 2;
+
+    private final float sampleRate;
+    private final float threshold;
+    private final long padFrames;
+    private final long pauseFrames;
+    private final long longSilenceFrames;
+    private final long minSegmentFrames;
+    private final long maxSegmentFrames;
+    private final long overlapFrames;
+    private final Listener listener;
+
+    private long segmentStart = -1;
+    private long segmentOverlapMs;
+    private boolean segmentHasSpeech;
+    private long silenceStart = -1;
+    private long emittedEnd;
+    private long totalFrames;
+    private long silentFrames;
+
+    /**
+     * @param threshold RMS level below which a window counts as silent
+     * @param pauseMs Shortest pause a segment may be cut at once it is long enough
+     * @param longSilenceMs Silence that closes a segment and counts towards the silence ratio
+     * @param minSegmentMs Length a segment must reach before it is cut at a pause
+     * @param maxSegmentMs Length at which a segment is cut regardless of pauses
+     */
+    SpeechSegmenter(float sampleRate, float threshold, int pauseMs, int longSilenceMs,
+                    int minSegmentMs, int maxSegmentMs, Listener listener) {
+        this.sampleRate = sampleRate;
+        this.threshold = threshold;
+        this.padFrames = toFrames(PAD_MS);
+        this.pauseFrames = toFrames(pauseMs);
+        this.longSilenceFrames = toFrames(longSilenceMs);
+        this.minSegmentFrames = toFrames(minSegmentMs);
+        this.maxSegmentFrames = toFrames(maxSegmentMs);
+        this.overlapFrames = Math.min(toFrames(FORCED_CUT_OVERLAP_SECONDS * 1000L), maxSegmentFrames / 2);
+        this.listener = listener;
+    }
+
+    /**
+     * Feeds the RMS level of the next window, covering frames [startFrame, endFrame).
+     */
+    void accept(float rms, long startFrame, long endFrame) {
+        totalFrames = endFrame;
+
+        if (rms >= threshold) {
+            if (silenceStart >= 0) {
+                long silence = startFrame - silenceStart;
+                if (silence >= longSilenceFrames) {
+                    silentFrames += silence;
+                }
+                if (segmentStart >= 0 && silence >= pauseFrames && silenceStart - segmentStart >= minSegmentFrames) {
+                    long middle = silenceStart + silence / 2;
+                    emit(middle);
+                    segmentStart = middle;
+                    segmentOverlapMs = 0;
+                }
+                silenceStart = -1;
+            }
+            if (segmentStart < 0) {
+                segmentStart = Math.max(emittedEnd, startFrame - padFrames);
+                segmentOverlapMs = 0;
+            }
+            segmentHasSpeech = true;
+        } else {
+            if (silenceStart < 0) {
+                silenceStart = startFrame;
+            }
+            if (segmentStart >= 0 && endFrame - silenceStart >= longSilenceFrames) {
+                // Long silence: close the segment and skip the silence
+                if (segmentHasSpeech) {
+                    emit(Math.min(endFrame, silenceStart + padFrames));
+                }
+                segmentStart = -1;
+                segmentHasSpeech = false;
+            }
+        }
+
+        if (segmentStart >= 0 && endFrame - segmentStart >= maxSegmentFrames) {
+            emit(endFrame);
+            segmentStart = endFrame - overlapFrames;
+            segmentOverlapMs = overlapFrames * 1000 / (long) sampleRate;
+        }
+    }
+
+    /**
+     * Ends the stream and emits the last segment, if it contains speech.
+     */
+    void finish(long endFrame) {
+        totalFrames = Math.max(totalFrames, endFrame);
+        long end = endFrame;
+        if (silenceStart >= 0) {
+            long silence = endFrame - silenceStart;
+            if (silence >= longSilenceFrames) {
+                silentFrames += silence;
+            }
+            end = Math.min(endFrame, silenceStart + padFrames);
+            silenceStart = -1;
+        }
+        if (segmentStart >= 0 && segmentHasSpeech) {
+            emit(end);
+        }
+        segmentStart = -1;
+        segmentHasSpeech = false;
+    }
+
+    /**
+     * @return Duration and silence ratio of the audio seen so far
+     */
+    SilenceRemover.SilenceAnalysisResult getAnalysis() {
+        float durationSeconds = totalFrames / sampleRate;
+        float silenceRatio = totalFrames > 0 ? (float) silentFrames / totalFrames : 0.0f;
+        return new SilenceRemover.SilenceAnalysisResult(durationSeconds, Math.min(1.0f, silenceRatio));
+    }
+
+    private void emit(long endFrame) {
+        if (endFrame > segmentStart) {
+            listener.onSegment(segmentStart, endFrame, segmentOverlapMs);
+            emittedEnd = endFrame;
+        }
+    }
+
+    private long toFrames(long ms) {
+        return (long) (ms * sampleRate / 1000);
+    }
+}
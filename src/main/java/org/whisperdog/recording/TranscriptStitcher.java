@@ -0,0 +1,264 @@
+package org.whisperdog.recording;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.whisperdog.audio.SourceActivityTracker.TimestampedWord;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Joins chunk transcripts into one transcript, removing the words that were transcribed
+ * twice because consecutive chunks share a few seconds of audio where the cut between them
+ * could not be placed in silence (see {@link WavChunker#CHUNK_OVERLAP_SECONDS}).
+ * <p>
+ * When both chunks have word timestamps, the overlap is cut at its midpoint: the previous
+ * chunk keeps the words before it, the next chunk the words after it. Otherwise the tail
+ * of the previous transcript is aligned with the head of the next one by fuzzy token
+ * matching, and the matched words are kept once. If neither finds the seam, the chunks
+ * are joined as-is.
+ */
+public class TranscriptStitcher {
+
+    private static final Logger logger = LogManager.getLogger(TranscriptStitcher.class);
+
+    private static final Pattern TOKEN = Pattern.compile("\\S+");
+
+    /** Tokens at each side of the seam that are searched for a match. */
+    private static final int ALIGNMENT_WINDOW = 24;
+
+    /**
+     * How far (in tokens) a match may sit from the seam. Whisper often drops or garbles
+     * the word cut off at a chunk edge, so the match need not touch the seam exactly.
+     */
+    private static final int MAX_SEAM_DISTANCE = 8;
+
+    /** Single-word matches are too ambiguous ("the", "and") to cut on. */
+    private static final int MIN_MATCH_TOKENS = 2;
+
+    private final StringBuilder transcript = new StringBuilder();
+
+    /** Last appended chunk; kept open until the next chunk decides where it ends. */
+    private Segment pending;
+
+    /**
+     * Appends the transcript of the next chunk.
+     *
+     * @param result The chunk transcript, word timestamps relative to the chunk start if any
+     * @param leadingOverlapMs Audio at the start of this chunk repeated from the previous one,
+     *                         0 if none, -1 if unknown (fuzzy alignment only)
+     * @param durationMs Duration of this chunk's audio, or -1 if unknown
+     */
+    public TranscriptStitcher append(TranscriptionResult result, long leadingOverlapMs, long durationMs) {
+        Segment next = new Segment(result, durationMs);
+        if (next.size() == 0) {
+            // Nothing to align against; the chunks around it are not adjacent
+            flush();
+            return this;
+        }
+
+        if (pending != null && leadingOverlapMs != 0) {
+            if (!stitchByTimestamps(pending, next, leadingOverlapMs) && !stitchByAlignment(pending, next)) {
+                logger.debug("No overlap found between chunk transcripts, joining as-is");
+            }
+        }
+        flush();
+        pending = next;
+        return this;
+    }
+
+    /**
+     * Appends text verbatim (e.g. a failure marker). The chunks around it are not stitched.
+     */
+    public TranscriptStitcher appendRaw(String text) {
+        flush();
+        appendSeparated(text);
+        return this;
+    }
+
+    public String getTranscript() {
+        flush();
+        return transcript.toString();
+    }
+
+    private void flush() {
+        if (pending == null) {
+            return;
+        }
+        appendSeparated(pending.text());
+        pending = null;
+    }
+
+    private void appendSeparated(String text) {
+        if (text.isEmpty()) {
+            return;
+        }
+        if (transcript.length() > 0 && !Character.isWhitespace(transcript.charAt(transcript.length() - 1))) {
+            transcript.append(' ');  // Space between chunks
+        }
+        transcript.append(text);
+    }
+
+    /**
+     * Cuts both chunks at the middle of the overlap. The word lists must line up with the
+     * whitespace tokens of the text, since the text (with punctuation) is what is kept.
+     */
+    private static boolean stitchByTimestamps(Segment previous, Segment next, long overlapMs) {
+        if (overlapMs < 0 || previous.durationMs <= 0 || !previous.hasAlignedWords() || !next.hasAlignedWords()) {
+            return false;
+        }
+
+        long previousCutMs = previous.durationMs - overlapMs / 2;
+        long nextCutMs = overlapMs / 2;
+
+        int keepPrevious = previous.words.size();
+        while (keepPrevious > 0 && midpoint(previous.words.get(keepPrevious - 1)) >= previousCutMs) {
+            keepPrevious--;
+        }
+        int dropNext = 0;
+        while (dropNext < next.words.size() && midpoint(next.words.get(dropNext)) < nextCutMs) {
+            dropNext++;
+        }
+
+        // Word indices are token indices; never cut into what an earlier seam already removed
+        keepPrevious = Math.max(previous.start, Math.min(previous.end, keepPrevious));
+        logger.debug("Stitched chunks by timestamps: dropped {} + {} overlap words",
+            previous.end - keepPrevious, dropNext);
+        previous.end = keepPrevious;
+        next.start = dropNext;
+        return true;
+    }
+
+    /**
+     * Finds the longest run of matching tokens between the tail of the previous chunk and
+     * the head of the next one and keeps the run once.
+     */
+    private static boolean stitchByAlignment(Segment previous, Segment next) {
+        int tailStart = Math.max(previous.start, previous.end - ALIGNMENT_WINDOW);
+        int tailLength = previous.end - tailStart;
+        int headLength = Math.min(next.size(), ALIGNMENT_WINDOW);
+
+        // runs[i][j]: length of the matching run ending at tail token i-1 and head token j-1
+        int[][] runs = new int[tailLength + 1][headLength + 1];
+        int bestLength = 0;
+        int bestTailEnd = -1;
+        int bestHeadEnd = -1;
+        for (int i = 1; i <= tailLength; i++) {
+            String tailToken = previous.normalized(tailStart + i - 1);
+            for (int j = 1; j <= headLength; j++) {
+                if (!tokensMatch(tailToken, next.normalized(j - 1))) {
+                    continue;
+                }
+                int length = runs[i - 1][j - 1] + 1;
+                runs[i][j] = length;
+                boolean nearSeam = tailLength - i <= MAX_SEAM_DISTANCE && j - length <= MAX_SEAM_DISTANCE;
+                if (nearSeam && length >= bestLength) {
+                    bestLength = length;
+                    bestTailEnd = i;
+                    bestHeadEnd = j;
+                }
+            }
+        }
+
+        if (bestLength < MIN_MATCH_TOKENS) {
+            return false;
+        }
+        // Split the run in the middle: the previous chunk supplies the first half of the
+        // matched words, the next chunk the rest (with its punctuation)
+        int fromPrevious = (bestLength + 1) / 2;
+        previous.end = tailStart + bestTailEnd - bestLength + fromPrevious;
+        next.start = bestHeadEnd - bestLength + fromPrevious;
+        logger.debug("Stitched chunks by alignment: {} matching tokens", bestLength);
+        return true;
+    }
+
+    private static long midpoint(TimestampedWord word) {
+        return (word.startMs + word.endMs) / 2;
+    }
+
+    /**
+     * Tokens match if equal after normalization, or one edit apart when long enough that
+     * a single edit is a transcription variant rather than a different word.
+     */
+    static boolean tokensMatch(String a, String b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return false;  // Punctuation-only tokens
+        }
+        if (a.equals(b)) {
+            return true;
+        }
+        if (a.length() < 4 || b.length() < 4 || Math.abs(a.length() - b.length()) > 1) {
+            return false;
+        }
+        int i = 0;
+        while (i < a.length() && i < b.length() && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        int j = a.length() - 1;
+        int k = b.length() - 1;
+        while (j >= i && k >= i && a.charAt(j) == b.charAt(k)) {
+            j--;
+            k--;
+        }
+        // At most one differing character on each side
+        return j - i < 1 && k - i < 1;
+    }
+
+    static String normalize(String token) {
+        StringBuilder normalized = new StringBuilder(token.length());
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toLowerCase(c));
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * A chunk transcript split into whitespace tokens; {@code start}/{@code end} select the
+     * tokens that survive stitching, so the original spacing and punctuation are kept.
+     */
+    private static final class Segment {
+        final String text;
+        final List<TimestampedWord> words;
+        final long durationMs;
+        final List<int[]> spans = new ArrayList<>();
+        final List<String> normalized = new ArrayList<>();
+        int start;
+        int end;
+
+        Segment(TranscriptionResult result, long durationMs) {
+            this.text = result != null && result.getText() != null ? result.getText() : "";
+            this.words = result != null ? result.getWords() : List.of();
+            this.durationMs = durationMs;
+            Matcher matcher = TOKEN.matcher(text);
+            while (matcher.find()) {
+                spans.add(new int[]{matcher.start(), matcher.end()});
+                normalized.add(normalize(matcher.group()));
+            }
+            this.end = spans.size();
+        }
+
+        int size() {
+            return end - start;
+        }
+
+        String normalized(int index) {
+            return normalized.get(index);
+        }
+
+        boolean hasAlignedWords() {
+            return !words.isEmpty() && words.size() == spans.size();
+        }
+
+        String text() {
+            if (start >= end) {
+                return "";
+            }
+            return text.substring(spans.get(start)[0], spans.get(end - 1)[1]);
+        }
+    }
+}
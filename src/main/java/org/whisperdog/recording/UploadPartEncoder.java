@@ -0,0 +1,282 @@
+package org.whisperdog.recording;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.whisperdog.audio.FlacEncoder;
+import org.whisperdog.audio.PcmLevels;
+import org.whisperdog.audio.PolyphaseResampler;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps an upload-ready copy of a recording while it is captured.
+ * <p>
+ * Registered as an {@link AudioFrameListener}, it converts the frames to 16kHz mono and
+ * encodes them with {@link FlacEncoder} into part files that each stay below
+ * {@link AudioFileAnalyzer#API_SIZE_LIMIT}. Once a part has passed {@link #SOFT_LIMIT_PERCENT}
+ * of the limit, the next quiet window starts a new part, so cuts rarely land mid-word; a part
+ * that gets within {@link #MARGIN_BYTES} of the limit is cut regardless.
+ * <p>
+ * When the recording stops, the parts can be uploaded straight away instead of compressing
+ * the WAV first. The WAV file stays the source of truth for retention and recovery; the parts
+ * are temporary and removed by {@link #discard()}.
+ */
+public class UploadPartEncoder implements AudioFrameListener {
+
+    private static final Logger logger = LogManager.getLogger(UploadPartEncoder.class);
+
+    private static final int OUTPUT_SAMPLE_RATE = 16000;
+
+    /** Share of the limit after which a part is cut at the next quiet window. */
+    private static final int SOFT_LIMIT_PERCENT = 90;
+
+    /** Room for the block still buffered in the encoder, plus the frame being written. */
+    private static final long MARGIN_BYTES = 64 * 1024;
+
+    /** How long {@link #getParts()} waits for the capture to deliver its last frames. */
+    private static final int FINISH_TIMEOUT_MS = 10000;
+
+    /**
+     * One encoded part and where it sits in the recording.
+     */
+    public static final class Part {
+        public final File file;
+        public final long startMs;
+        public final long durationMs;
+
+        Part(File file, long startMs, long durationMs) {
+            this.file = file;
+            this.startMs = startMs;
+            this.durationMs = durationMs;
+        }
+    }
+
+    private final File sourceFile;
+    private final int sampleRate;
+    private final int channels;
+    private final float silenceThreshold;
+    private final long softLimit;
+    private final long hardLimit;
+    private final PolyphaseResampler resampler;
+    private final CountDownLatch ended = new CountDownLatch(1);
+
+    // Written on the capture's writer thread; read by getParts() once the capture has ended
+    private final List<Part> parts = new ArrayList<>();
+    private float[] mono = new float[0];
+    private byte[] converted = new byte[0];
+    private CountingOutputStream partStream;
+    private FlacEncoder encoder;
+    private File partFile;
+    private long partStartSamples;
+    private long encodedSamples;
+
+    private volatile boolean failed;
+    private boolean finished;
+    private boolean discarded;
+
+    /**
+     * @param sourceFile The WAV file being captured alongside; parts are written next to it
+     * @param sampleRate Sample rate of the captured frames
+     * @param channels Channel count of the captured frames
+     * @param silenceThreshold RMS level (0.0-1.0) below which a window counts as quiet
+     */
+    public UploadPartEncoder(File sourceFile, int sampleRate, int channels, float silenceThreshold) {
+        this(sourceFile, sampleRate, channels, silenceThreshold, AudioFileAnalyzer.API_SIZE_LIMIT);
+    }
+
+    UploadPartEncoder(File sourceFile, int sampleRate, int channels, float silenceThreshold, long partLimit) {
+        this.sourceFile = sourceFile;
+        this.sampleRate = sampleRate;
+        this.channels = channels;
+        this.silenceThreshold = silenceThreshold;
+        this.hardLimit = partLimit - MARGIN_BYTES;
+        this.softLimit = Math.min(hardLimit, partLimit * SOFT_LIMIT_PERCENT / 100);
+        this.resampler = sampleRate == OUTPUT_SAMPLE_RATE && channels == 1
+            ? null
+            : new PolyphaseResampler(sampleRate, OUTPUT_SAMPLE_RATE);
+    }
+
+    /**
+     * @return The WAV file these parts are a copy of
+     */
+    public File getSourceFile() {
+        return sourceFile;
+    }
+
+    @Override
+    public void onFrames(byte[] pcm, int offset, int length, long frameOffset) {
+        if (failed) {
+            return;
+        }
+        try {
+            byte[] data = pcm;
+            int start = offset;
+            int bytes = length;
+            if (resampler != null) {
+                bytes = convert(pcm, offset, length);
+                data = converted;
+                start = 0;
+            }
+            if (bytes == 0) {
+                return;
+            }
+
+            long partSize = partStream != null ? partStream.count : 0;
+            if (partSize >= hardLimit
+                    || (partSize >= softLimit && PcmLevels.rms(data, start, bytes, false) < silenceThreshold)) {
+                finishPart();
+            }
+            if (encoder == null) {
+                startPart();
+            }
+            encoder.write(data, start, bytes);
+            encodedSamples += bytes / 2;
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    @Override
+    public void onEnd(long totalFrames) {
+        try {
+            if (!failed && encoder != null) {
+                finishPart();
+            }
+        } catch (IOException e) {
+            fail(e);
+        }
+        synchronized (this) {
+            finished = true;
+            if (discarded || failed) {
+                deleteParts();
+            }
+        }
+        ended.countDown();
+    }
+
+    /**
+     * Waits for the capture to end and returns the encoded parts, in order.
+     *
+     * @return The parts, or null if encoding failed, nothing was captured or the capture did not end in time
+     */
+    public List<Part> getParts() {
+        try {
+            if (!ended.await(FINISH_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                logger.warn("Capture did not finish in time, upload parts not used");
+                return null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        if (failed || parts.isEmpty()) {
+            return null;
+        }
+        return Collections.unmodifiableList(parts);
+    }
+
+    /**
+     * Deletes the part files, now or as soon as the capture ends.
+     */
+    public void discard() {
+        synchronized (this) {
+            discarded = true;
+            if (finished) {
+                deleteParts();
+            }
+        }
+    }
+
+    private int convert(byte[] pcm, int offset, int length) {
+        int frames = length / (2 * channels);
+        if (mono.length < frames) {
+            mono = new float[frames];
+        }
+        float scale = 1.0f / (32768.0f * channels);
+        for (int frame = 0, i = offset; frame < frames; frame++) {
+            int sum = 0;
+            for (int ch = 0; ch < channels; ch++, i += 2) {
+                sum += (short) ((pcm[i] & 0xFF) | (pcm[i + 1] << 8));
+            }
+            mono[frame] = sum * scale;
+        }
+        int capacity = resampler.maxOutputSamples(frames) * 2;
+        if (converted.length < capacity) {
+            converted = new byte[capacity];
+        }
+        return resampler.process(mono, frames, converted, 0);
+    }
+
+    private void startPart() throws IOException {
+        String baseName = sourceFile.getName().replaceFirst("(?i)\\.wav$", "");
+        partFile = new File(sourceFile.getParentFile(), baseName + "_part" + (parts.size() + 1) + ".flac");
+        partStream = new CountingOutputStream(new BufferedOutputStream(new FileOutputStream(partFile), 64 * 1024));
+        encoder = new FlacEncoder(partStream, OUTPUT_SAMPLE_RATE, 1);
+        partStartSamples = encodedSamples;
+    }
+
+    private void finishPart() throws IOException {
+        try {
+            encoder.finish();
+        } finally {
+            partStream.close();
+            encoder = null;
+        }
+        long startMs = partStartSamples * 1000 / OUTPUT_SAMPLE_RATE;
+        long durationMs = (encodedSamples - partStartSamples) * 1000 / OUTPUT_SAMPLE_RATE;
+        parts.add(new Part(partFile, startMs, durationMs));
+        logger.info("Upload part {} ready: {} bytes, {}s", partFile.getName(), partStream.count, durationMs / 1000);
+    }
+
+    private void fail(IOException e) {
+        logger.warn("Encoding upload parts failed, the recording will be compressed after stop: {}", e.getMessage());
+        failed = true;
+        if (encoder != null) {
+            try {
+                partStream.close();
+            } catch (IOException closeError) {
+                logger.debug("Failed to close upload part: {}", closeError.getMessage());
+            }
+            encoder = null;
+            parts.add(new Part(partFile, 0, 0));  // Deleted with the others
+        }
+    }
+
+    private void deleteParts() {
+        for (Part part : parts) {
+            if (part.file.exists() && !part.file.delete()) {
+                logger.debug("Could not delete upload part: {}", part.file.getName());
+            }
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package org.whisperdog.recording;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * A chunk of audio to upload, backed either by its own file or by a byte window into a
+ * larger source WAV ("virtual chunk").
+ * <p>
+ * A virtual chunk is a canonical WAV header followed by {@code dataLength} bytes of the
+ * source starting at {@code dataOffset}. It is streamed straight from the source file, so
+ * nothing is written to the temp directory unless {@link #writeTo(File)} is called.
+ */
+public final class WavChunk {
+
+    private final File source;
+    private final byte[] header;
+    private final long dataOffset;
+    private final long dataLength;
+    private final String name;
+    private final boolean fileBacked;
+    private final long leadingOverlapMs;
+    private final long durationMs;
+
+    private WavChunk(File source, byte[] header, long dataOffset, long dataLength, String name, boolean fileBacked,
+                     long leadingOverlapMs, long durationMs) {
+        this.source = Objects.requireNonNull(source, "source");
+        this.header = header;
+        this.dataOffset = dataOffset;
+        this.dataLength = dataLength;
+        this.name = name;
+        this.fileBacked = fileBacked;
+        this.leadingOverlapMs = leadingOverlapMs;
+        this.durationMs = durationMs;
+    }
+
+    /**
+     * Wraps an existing chunk file; the whole file is uploaded as-is.
+     * The overlap with the previous chunk is unknown.
+     */
+    public static WavChunk ofFile(File file) {
+        return ofFile(file, -1);
+    }
+
+    /**
+     * Wraps an existing chunk file that repeats the last {@code leadingOverlapMs} of the previous chunk.
+     */
+    public static WavChunk ofFile(File file, long leadingOverlapMs) {
+        return new WavChunk(file, new byte[0], 0, file.length(), file.getName(), true,
+            leadingOverlapMs, -1);
+    }
+
+    /**
+     * Creates a virtual chunk over a PCM byte range of a WAV file.
+     *
+     * @param header Parsed header of the source file
+     * @param offset Absolute file offset of the first PCM byte
+     * @param length Number of PCM bytes (whole frames)
+     * @param name File name reported to the transcription API
+     * @param leadingOverlapMs Audio shared with the end of the previous chunk
+     */
+    public static WavChunk ofRange(File source, WavHeader header, long offset, long length, String name,
+                                   long leadingOverlapMs) {
+        long bytesPerSecond = (long) header.sampleRate * header.blockAlign;
+        long durationMs = bytesPerSecond > 0 ? length * 1000 / bytesPerSecond : -1;
+        return new WavChunk(source, header.createHeader(length), offset, length, name, false,
+            leadingOverlapMs, durationMs);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return Total size of the chunk as uploaded (header plus data)
+     */
+    public long getLength() {
+        return header.length + dataLength;
+    }
+
+    /**
+     * @return The chunk file for file-backed chunks, or null for virtual chunks
+     */
+    public File getFile() {
+        return fileBacked ? source : null;
+    }
+
+    /**
+     * @return The file the chunk data is read from (the chunk file itself, or the source WAV)
+     */
+    public File getSource() {
+        return source;
+    }
+
+    public boolean isVirtual() {
+        return !fileBacked;
+    }
+
+    /**
+     * @return Offset of the first data byte in {@link #getSource()}; the start of the file for file-backed chunks
+     */
+    public long getDataOffset() {
+        return dataOffset;
+    }
+
+    /**
+     * @return Number of bytes taken from {@link #getSource()}, excluding the synthesized header
+     */
+    public long getDataLength() {
+        return dataLength;
+    }
+
+    /**
+     * @return Milliseconds at the start of this chunk that repeat the end of the previous one,
+     *         0 for the first chunk, or -1 if unknown
+     */
+    public long getLeadingOverlapMs() {
+        return leadingOverlapMs;
+    }
+
+    /**
+     * @return Duration of the chunk audio in milliseconds, or -1 if it cannot be determined
+     */
+    public long getDurationMs() {
+        if (durationMs >= 0 || !fileBacked) {
+            return durationMs;
+        }
+        try {
+            WavHeader wav = WavHeader.read(source);
+            return wav.sampleRate > 0 ? wav.getTotalFrames() * 1000 / wav.sampleRate : -1;
+        } catch (IOException e) {
+            // Not a WAV (e.g. FFmpeg MP3 chunk)
+            return -1;
+        }
+    }
+
+    /**
+     * Streams the chunk (header plus data window) to the output.
+     * The data is moved with {@link FileChannel#transferTo}, never buffered as a whole.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(header);
+        WritableByteChannel target = Channels.newChannel(out);
+        try (FileChannel channel = FileChannel.open(source.toPath(), StandardOpenOption.READ)) {
+            long transferred = 0;
+            while (transferred < dataLength) {
+                long n = channel.transferTo(dataOffset + transferred, dataLength - transferred, target);
+                if (n <= 0) {
+                    throw new IOException("Unexpected end of " + source.getName() + " at byte " + (dataOffset + transferred));
+                }
+                transferred += n;
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Materializes the chunk as a standalone WAV file.
+     */
+    public void writeTo(File target) throws IOException {
+        try (FileChannel out = FileChannel.open(target.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             FileChannel in = FileChannel.open(source.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer headerBuffer = ByteBuffer.wrap(header);
+            while (headerBuffer.hasRemaining()) {
+                out.write(headerBuffer);
+            }
+            long transferred = 0;
+            while (transferred < dataLength) {
+                long n = in.transferTo(dataOffset + transferred, dataLength - transferred, out);
+                if (n <= 0) {
+                    throw new IOException("Unexpected end of " + source.getName() + " at byte " + (dataOffset + transferred));
+                }
+                transferred += n;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return isVirtual()
+            ? String.format("%s [%s @ %d+%d]", name, source.getName(), dataOffset, dataLength)
+            : name;
+    }
+}
@@ -5,15 +5,14 @@ import org.apache.logging.log4j.Logger;
 import org.whisperdog.ConfigManager;
 import org.whisperdog.ConsoleLogger;
 
-import javax.sound.sampled.*;
-import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Splits WAV files into chunks using Java's AudioSystem.
+ * Splits WAV files into chunks by copying byte ranges with NIO channels.
+ * Cuts are placed in silent gaps where possible (see {@link ChunkBoundaryPlanner}).
  * No external dependencies required - works with pure Java.
  */
 public class WavChunker {
@@ -23,7 +22,7 @@ public class WavChunker {
     // Default chunk duration: 20 minutes (leaves room under 25MB for most bitrates)
     public static final int DEFAULT_CHUNK_DURATION_SECONDS = 20 * 60;
 
-    // Overlap between chunks to avoid mid-word splits (2 seconds)
+    // Overlap added when no silent gap was found near a cut, to avoid losing a split word (2 seconds)
     public static final int CHUNK_OVERLAP_SECONDS = 2;
 
     /**
@@ -31,31 +30,37 @@ public class WavChunker {
      */
     public static class ChunkResult {
         public final List<File> chunks;
+        /** Per chunk: milliseconds repeated from the end of the previous chunk (0 after a clean cut). */
+        public final List<Long> leadingOverlapsMs;
         public final int totalChunks;
         public final long totalDurationSeconds;
         public final boolean success;
         public final String errorMessage;
 
-        private ChunkResult(List<File> chunks, long totalDurationSeconds, String errorMessage) {
+        private ChunkResult(List<File> chunks, List<Long> leadingOverlapsMs, long totalDurationSeconds,
+                            String errorMessage) {
             this.chunks = chunks != null ? chunks : new ArrayList<>();
+            this.leadingOverlapsMs = leadingOverlapsMs != null ? leadingOverlapsMs : new ArrayList<>();
             this.totalChunks = this.chunks.size();
             this.totalDurationSeconds = totalDurationSeconds;
             this.success = errorMessage == null;
             this.errorMessage = errorMessage;
         }
 
-        public static ChunkResult success(List<File> chunks, long totalDurationSeconds) {
-            return new ChunkResult(chunks, totalDurationSeconds, null);
+        public static ChunkResult success(List<File> chunks, List<Long> leadingOverlapsMs, long totalDurationSeconds) {
+            return new ChunkResult(chunks, leadingOverlapsMs, totalDurationSeconds, null);
         }
 
         public static ChunkResult failure(String errorMessage) {
-            return new ChunkResult(null, 0, errorMessage);
+            return new ChunkResult(null, null, 0, errorMessage);
         }
     }
 
     /**
      * Splits a WAV file into chunks of specified duration.
-     * Uses Java's AudioSystem - no external dependencies required.
+     * Each chunk is a canonical 44-byte header followed by a {@link java.nio.channels.FileChannel#transferTo}
+     * of its data range, so no audio passes through the Java heap and files with data
+     * larger than 2GB (up to the 4GB WAV limit) are supported.
      *
      * @param wavFile The WAV file to split
      * @param chunkDurationSeconds Duration of each chunk in seconds
@@ -63,114 +68,145 @@ public class WavChunker {
      */
     public static ChunkResult splitWavFile(File wavFile, int chunkDurationSeconds) {
         ConsoleLogger console = ConsoleLogger.getInstance();
+        List<File> chunks = new ArrayList<>();
+        List<Long> overlaps = new ArrayList<>();
 
         try {
             console.log("Opening WAV file for chunking: " + wavFile.getName());
 
-            // Read the WAV file
-            AudioInputStream sourceStream = AudioSystem.getAudioInputStream(wavFile);
-            AudioFormat format = sourceStream.getFormat();
-
-            // Validate format
-            if (format.getEncoding() != AudioFormat.Encoding.PCM_SIGNED &&
-                format.getEncoding() != AudioFormat.Encoding.PCM_UNSIGNED) {
-                sourceStream.close();
-                return ChunkResult.failure("Unsupported WAV encoding: " + format.getEncoding() +
-                    ". Only PCM WAV files are supported for native chunking.");
-            }
-
-            float sampleRate = format.getSampleRate();
-            int frameSize = format.getFrameSize();
-            long totalFrames = sourceStream.getFrameLength();
-
-            if (totalFrames <= 0) {
-                sourceStream.close();
-                return ChunkResult.failure("Could not determine WAV file length");
+            List<WavChunk> plan;
+            float durationSeconds;
+            try (PcmSource source = PcmSource.open(wavFile)) {
+                plan = planChunks(source, chunkDurationSeconds);
+                durationSeconds = source.getDurationSeconds();
             }
+            int numChunks = plan.size();
 
-            long totalDurationSeconds = (long) (totalFrames / sampleRate);
-            console.log(String.format("WAV file: %.1f seconds, %.1f kHz, %d-bit, %d channels",
-                totalDurationSeconds, sampleRate / 1000, format.getSampleSizeInBits(), format.getChannels()));
-
-            // Calculate frames per chunk
-            long framesPerChunk = (long) (sampleRate * chunkDurationSeconds);
-            long overlapFrames = (long) (sampleRate * CHUNK_OVERLAP_SECONDS);
-            int numChunks = (int) Math.ceil((double) totalFrames / framesPerChunk);
-
-            console.log(String.format("Splitting into %d chunks of ~%d seconds each",
-                numChunks, chunkDurationSeconds));
-
-            List<File> chunks = new ArrayList<>();
-            long currentFrame = 0;
-            int chunkIndex = 0;
-
-            // Read the entire file into memory for easier chunking
-            byte[] allAudioData = sourceStream.readAllBytes();
-            sourceStream.close();
-
-            while (currentFrame < totalFrames) {
-                // Calculate frames to read for this chunk (include overlap for all but first chunk)
-                long startFrame = currentFrame;
-                if (chunkIndex > 0 && currentFrame >= overlapFrames) {
-                    startFrame = currentFrame - overlapFrames;
-                }
-
-                long endFrame = Math.min(currentFrame + framesPerChunk, totalFrames);
-                long framesToWrite = endFrame - startFrame;
-
-                // Extract audio data for this chunk
-                int startByte = (int) (startFrame * frameSize);
-                int endByte = (int) (endFrame * frameSize);
-                int byteLength = endByte - startByte;
-
-                if (startByte >= allAudioData.length) {
-                    break;
-                }
-                if (endByte > allAudioData.length) {
-                    endByte = allAudioData.length;
-                    byteLength = endByte - startByte;
-                    framesToWrite = byteLength / frameSize;
-                }
-
-                byte[] chunkData = new byte[byteLength];
-                System.arraycopy(allAudioData, startByte, chunkData, 0, byteLength);
+            for (int i = 0; i < numChunks; i++) {
+                WavChunk virtualChunk = plan.get(i);
 
                 // Create chunk file (cleanup handled by ChunkedTranscriptionWorker.cleanupChunks())
-                String baseName = wavFile.getName().replaceFirst("\\.[^.]+$", "");
                 File chunkFile = ConfigManager.createTempFile(
-                    String.format("chunk_%02d_%s_", chunkIndex + 1, baseName), ".wav"
+                    virtualChunk.getName().replaceFirst("\\.wav$", "_"), ".wav"
                 );
-
-                // Write chunk as WAV file
-                ByteArrayInputStream bais = new ByteArrayInputStream(chunkData);
-                AudioInputStream chunkStream = new AudioInputStream(bais, format, framesToWrite);
-                AudioSystem.write(chunkStream, AudioFileFormat.Type.WAVE, chunkFile);
-                chunkStream.close();
-
                 chunks.add(chunkFile);
+                overlaps.add(virtualChunk.getLeadingOverlapMs());
+                virtualChunk.writeTo(chunkFile);
+
                 console.log(String.format("  Created chunk %d/%d: %s (%.1f MB)",
-                    chunkIndex + 1, numChunks, chunkFile.getName(),
+                    i + 1, numChunks, chunkFile.getName(),
                     chunkFile.length() / (1024.0 * 1024.0)));
-
-                currentFrame = endFrame;
-                chunkIndex++;
             }
 
             console.logSuccess(String.format("Successfully split into %d chunks", chunks.size()));
-            return ChunkResult.success(chunks, totalDurationSeconds);
+            return ChunkResult.success(chunks, overlaps, (long) durationSeconds);
 
-        } catch (UnsupportedAudioFileException e) {
-            logger.error("Unsupported audio format", e);
-            return ChunkResult.failure("Unsupported WAV format: " + e.getMessage());
         } catch (IOException e) {
             logger.error("Error reading/writing WAV file", e);
+            cleanupChunks(chunks);
             return ChunkResult.failure("Error processing WAV file: " + e.getMessage());
         } catch (Exception e) {
             logger.error("Unexpected error during WAV chunking", e);
+            cleanupChunks(chunks);
             return ChunkResult.failure("Unexpected error: " + e.getMessage());
         }
     }
 
+    /**
+     * Plans chunks of about the given duration as byte windows into the source WAV.
+     * Nothing is written to disk; the chunks are streamed from the source on upload.
+     *
+     * @param wavFile The WAV file to split
+     * @param chunkDurationSeconds Duration of each chunk in seconds
+     * @return Virtual chunks in playback order
+     * @throws IOException if the file is not a readable PCM WAV
+     */
+    public static List<WavChunk> createVirtualChunks(File wavFile, int chunkDurationSeconds) throws IOException {
+        ConsoleLogger.getInstance().log("Planning virtual chunks for: " + wavFile.getName());
+        try (PcmSource source = PcmSource.open(wavFile)) {
+            return planChunks(source, chunkDurationSeconds);
+        }
+    }
+
+    /**
+     * Plans virtual chunks of a target size rather than duration.
+     *
+     * @param wavFile The WAV file to split
+     * @param targetChunkSizeBytes Target size for each chunk in bytes
+     * @return Virtual chunks in playback order
+     * @throws IOException if the file is not a readable PCM WAV
+     */
+    public static List<WavChunk> createVirtualChunksBySize(File wavFile, long targetChunkSizeBytes) throws IOException {
+        ConsoleLogger.getInstance().log("Planning virtual chunks for: " + wavFile.getName());
+        try (PcmSource source = PcmSource.open(wavFile)) {
+            return planChunks(source, chunkDurationForSize(source.getHeader(), targetChunkSizeBytes));
+        }
+    }
+
+    private static List<WavChunk> planChunks(PcmSource source, int chunkDurationSeconds) throws IOException {
+        ConsoleLogger console = ConsoleLogger.getInstance();
+        File wavFile = source.getFile();
+        WavHeader header = source.getHeader();
+
+        // Validate format
+        if (!header.isPcm()) {
+            throw new IOException("Unsupported WAV encoding (format tag " + header.formatTag +
+                "). Only PCM WAV files are supported for native chunking.");
+        }
+
+        float sampleRate = header.sampleRate;
+        int frameSize = header.getFrameSize();
+        long totalFrames = header.getTotalFrames();
+
+        if (totalFrames <= 0) {
+            throw new IOException("Could not determine WAV file length");
+        }
+
+        console.log(String.format("WAV file: %.1f seconds, %.1f kHz, %d-bit, %d channels",
+            totalFrames / sampleRate, sampleRate / 1000, header.bitsPerSample, header.channels));
+
+        // Cut in the silent gap nearest each target offset
+        long framesPerChunk = (long) (sampleRate * chunkDurationSeconds);
+        long overlapFrames = (long) (sampleRate * CHUNK_OVERLAP_SECONDS);
+        List<ChunkBoundaryPlanner.Span> spans = ChunkBoundaryPlanner.plan(totalFrames, framesPerChunk,
+            ChunkBoundaryPlanner.toleranceFrames(framesPerChunk, sampleRate),
+            (from, to) -> SilenceRemover.detectSilence(source, from, to,
+                ChunkBoundaryPlanner.DEFAULT_SILENCE_THRESHOLD, ChunkBoundaryPlanner.MIN_GAP_MS));
+
+        console.log(String.format("Splitting into %d chunks of ~%d seconds each (%d of %d cuts in silence)",
+            spans.size(), chunkDurationSeconds, ChunkBoundaryPlanner.countCleanCuts(spans), spans.size() - 1));
+
+        List<WavChunk> chunks = new ArrayList<>();
+        String baseName = wavFile.getName().replaceFirst("\\.[^.]+$", "");
+
+        for (int i = 0; i < spans.size(); i++) {
+            ChunkBoundaryPlanner.Span span = spans.get(i);
+            // Cuts outside silence may split a word - repeat the end of the previous chunk
+            long startFrame = span.cleanStart ? span.startFrame : Math.max(0, span.startFrame - overlapFrames);
+
+            chunks.add(WavChunk.ofRange(wavFile, header,
+                header.dataOffset + startFrame * frameSize,
+                (span.endFrame - startFrame) * frameSize,
+                String.format("chunk_%02d_%s.wav", i + 1, baseName),
+                (long) ((span.startFrame - startFrame) * 1000 / sampleRate)));
+        }
+        return chunks;
+    }
+
+    /**
+     * Calculates the chunk duration that yields roughly the target size, at least 60 seconds.
+     */
+    private static int chunkDurationForSize(WavHeader header, long targetChunkSizeBytes) {
+        // Calculate bytes per second
+        float bytesPerSecond = (float) header.sampleRate * header.getFrameSize();
+
+        // Calculate duration to achieve target size
+        int chunkDurationSeconds = (int) (targetChunkSizeBytes / bytesPerSecond);
+
+        // Ensure minimum chunk duration of 60 seconds
+        return Math.max(60, chunkDurationSeconds);
+    }
+
     /**
      * Splits a WAV file using default chunk duration.
      */
@@ -188,20 +224,10 @@ public class WavChunker {
      */
     public static ChunkResult splitWavFileBySize(File wavFile, long targetChunkSizeBytes) {
         try {
-            AudioInputStream stream = AudioSystem.getAudioInputStream(wavFile);
-            AudioFormat format = stream.getFormat();
-
-            // Calculate bytes per second
-            float bytesPerSecond = format.getFrameRate() * format.getFrameSize();
-
-            // Calculate duration to achieve target size
-            int chunkDurationSeconds = (int) (targetChunkSizeBytes / bytesPerSecond);
-
-            // Ensure minimum chunk duration of 60 seconds
-            chunkDurationSeconds = Math.max(60, chunkDurationSeconds);
-
-            stream.close();
-
+            int chunkDurationSeconds;
+            try (PcmSource source = PcmSource.open(wavFile)) {
+                chunkDurationSeconds = chunkDurationForSize(source.getHeader(), targetChunkSizeBytes);
+            }
             return splitWavFile(wavFile, chunkDurationSeconds);
         } catch (Exception e) {
             logger.error("Error calculating chunk duration from size", e);
@@ -0,0 +1,172 @@
+package org.whisperdog.recording;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the RIFF/WAVE chunk layout of PCM files and builds canonical 44-byte headers.
+ * Sizes are handled as unsigned 32-bit values, so data chunks up to 4GB are supported.
+ */
+public final class WavHeader {
+
+    public static final int CANONICAL_HEADER_SIZE = 44;
+    public static final long MAX_DATA_SIZE = 0xFFFFFFFFL;
+
+    private static final int WAVE_FORMAT_PCM = 1;
+    private static final int WAVE_FORMAT_EXTENSIBLE = 0xFFFE;
+
+    public final int formatTag;
+    public final int channels;
+    public final int sampleRate;
+    public final int bitsPerSample;
+    public final int blockAlign;
+    /** Absolute file offset of the first PCM byte. */
+    public final long dataOffset;
+    /** Length of the PCM data in bytes, rounded down to whole frames. */
+    public final long dataLength;
+
+    private WavHeader(int formatTag, int channels, int sampleRate, int bitsPerSample,
+                      int blockAlign, long dataOffset, long dataLength) {
+        this.formatTag = formatTag;
+        this.channels = channels;
+        this.sampleRate = sampleRate;
+        this.bitsPerSample = bitsPerSample;
+        this.blockAlign = blockAlign;
+        this.dataOffset = dataOffset;
+        this.dataLength = dataLength;
+    }
+
+    public static WavHeader read(File wavFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(wavFile.toPath(), StandardOpenOption.READ)) {
+            return read(channel);
+        }
+    }
+
+    /**
+     * Walks the RIFF chunks until the data chunk is found.
+     * If the declared data size is zero or runs past the end of the file (e.g. a recording
+     * interrupted before its header was finalized), the remaining file length is used instead.
+     */
+    public static WavHeader read(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(40).order(ByteOrder.LITTLE_ENDIAN);
+
+        readFully(channel, buffer, 0, 12);
+        if (buffer.getInt(0) != fourCC("RIFF") || buffer.getInt(8) != fourCC("WAVE")) {
+            throw new IOException("Not a RIFF/WAVE file");
+        }
+
+        int formatTag = -1;
+        int channels = 0;
+        int sampleRate = 0;
+        int bitsPerSample = 0;
+        int blockAlign = 0;
+
+        long position = 12;
+        long fileSize = channel.size();
+        while (position + 8 <= fileSize) {
+            readFully(channel, buffer, position, 8);
+            int chunkId = buffer.getInt(0);
+            long chunkSize = Integer.toUnsignedLong(buffer.getInt(4));
+            long chunkStart = position + 8;
+
+            if (chunkId == fourCC("fmt ")) {
+                if (chunkSize < 16) {
+                    throw new IOException("Invalid fmt chunk size: " + chunkSize);
+                }
+                int fmtLength = (int) Math.min(chunkSize, 40);
+                readFully(channel, buffer, chunkStart, fmtLength);
+                formatTag = buffer.getShort(0) & 0xFFFF;
+                channels = buffer.getShort(2) & 0xFFFF;
+                sampleRate = buffer.getInt(4);
+                blockAlign = buffer.getShort(12) & 0xFFFF;
+                bitsPerSample = buffer.getShort(14) & 0xFFFF;
+                if (formatTag == WAVE_FORMAT_EXTENSIBLE && fmtLength >= 26) {
+                    // Sub-format GUID starts with the actual format tag
+                    formatTag = buffer.getShort(24) & 0xFFFF;
+                }
+            } else if (chunkId == fourCC("data")) {
+                if (formatTag < 0) {
+                    throw new IOException("WAV data chunk precedes fmt chunk");
+                }
+                if (blockAlign <= 0) {
+                    throw new IOException("Invalid WAV block alignment: " + blockAlign);
+                }
+                long available = fileSize - chunkStart;
+                long dataLength = (chunkSize == 0 || chunkSize > available) ? available : chunkSize;
+                dataLength -= dataLength % blockAlign;
+                return new WavHeader(formatTag, channels, sampleRate, bitsPerSample,
+                    blockAlign, chunkStart, dataLength);
+            }
+
+            // Chunks are word-aligned
+            position = chunkStart + chunkSize + (chunkSize & 1);
+        }
+        throw new IOException("WAV file has no data chunk");
+    }
+
+    /**
+     * Builds a canonical 44-byte PCM header for the given data size.
+     */
+    public static byte[] createHeader(int sampleRate, int bitsPerSample, int channels, long dataSize) {
+        if (dataSize < 0 || dataSize > MAX_DATA_SIZE) {
+            throw new IllegalArgumentException("WAV data size out of range: " + dataSize);
+        }
+        int blockAlign = channels * (bitsPerSample / 8);
+        ByteBuffer header = ByteBuffer.allocate(CANONICAL_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(fourCC("RIFF"));
+        header.putInt((int) Math.min(MAX_DATA_SIZE, 36 + dataSize));
+        header.putInt(fourCC("WAVE"));
+        header.putInt(fourCC("fmt "));
+        header.putInt(16);
+        header.putShort((short) WAVE_FORMAT_PCM);
+        header.putShort((short) channels);
+        header.putInt(sampleRate);
+        header.putInt(sampleRate * blockAlign);
+        header.putShort((short) blockAlign);
+        header.putShort((short) bitsPerSample);
+        header.putInt(fourCC("data"));
+        header.putInt((int) dataSize);
+        return header.array();
+    }
+
+    /**
+     * Builds a canonical header with this file's format for the given data size.
+     */
+    public byte[] createHeader(long dataSize) {
+        return createHeader(sampleRate, bitsPerSample, channels, dataSize);
+    }
+
+    public boolean isPcm() {
+        return formatTag == WAVE_FORMAT_PCM;
+    }
+
+    public int getFrameSize() {
+        return blockAlign;
+    }
+
+    public long getTotalFrames() {
+        return dataLength / blockAlign;
+    }
+
+    public float getDurationSeconds() {
+        return sampleRate > 0 ? (float) getTotalFrames() / sampleRate : 0.0f;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position, int length)
+            throws IOException {
+        buffer.clear().limit(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of WAV file");
+            }
+        }
+    }
+
+    private static int fourCC(String id) {
+        return (id.charAt(0)) | (id.charAt(1) << 8) | (id.charAt(2) << 16) | (id.charAt(3) << 24);
+    }
+}
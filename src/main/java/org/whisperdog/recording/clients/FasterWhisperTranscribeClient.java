@@ -1,32 +1,42 @@
 package org.whisperdog.recording.clients;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.http.HttpEntity;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
+import org.apache.http.entity.mime.content.ContentBody;
+import org.apache.http.entity.mime.content.FileBody;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.whisperdog.ConfigManager;
+import org.whisperdog.http.HttpTransport;
+import org.whisperdog.recording.TranscriptionResult;
+import org.whisperdog.recording.WavChunk;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * FasterWhisperClient communicates with the Faster-Whisper transcription API endpoint.
  * It sends all Faster-Whisper parameters along with the audio file.
+ * Safe for concurrent calls.
  */
-public class FasterWhisperTranscribeClient {
+public class FasterWhisperTranscribeClient implements TranscriptionClient {
     private static final Logger logger = LogManager.getLogger(FasterWhisperTranscribeClient.class);
     private final ConfigManager configManager;
+    private final HttpTransport transport;
 
     public FasterWhisperTranscribeClient(ConfigManager configManager) {
+        this(configManager, HttpTransport.getInstance());
+    }
+
+    public FasterWhisperTranscribeClient(ConfigManager configManager, HttpTransport transport) {
         this.configManager = configManager;
+        this.transport = transport;
     }
 
     /**
@@ -37,49 +47,79 @@ public class FasterWhisperTranscribeClient {
      * @throws IOException if an error occurs during the API request.
      */
     public String transcribe(File audioFile) throws IOException {
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-            // Build URL from ConfigManager
-            String baseUrl = configManager.getFasterWhisperServerUrl().trim();
+        return transcribeCached(WavChunk.ofFile(audioFile),
+            new FileBody(audioFile, ContentType.create("audio/wav"), audioFile.getName()), null);
+    }
 
-            if (!baseUrl.toLowerCase().startsWith("http://") && !baseUrl.toLowerCase().startsWith("https://")) {
-                baseUrl = "http://" + baseUrl;
-            }
+    /**
+     * Transcribes a chunk, streaming virtual chunks directly from their source WAV.
+     *
+     * @param chunk the chunk to be transcribed.
+     * @return the transcription as returned by the API.
+     * @throws IOException if an error occurs during the API request.
+     */
+    public String transcribe(WavChunk chunk) throws IOException {
+        return transcribeCached(chunk, new WavChunkBody(chunk), null);
+    }
 
-            if (baseUrl.endsWith("/")) {
-                baseUrl = baseUrl.substring(0, baseUrl.length() - 1);
-            }
+    @Override
+    public boolean supportsWordTimestamps() {
+        return false;
+    }
 
-            String url = baseUrl + "/v1/audio/transcriptions";
-            HttpPost httpPost = new HttpPost(url);
-            httpPost.setHeader("Accept", "application/json");
+    @Override
+    public CompletableFuture<TranscriptionResult> transcribeAsync(WavChunk chunk) {
+        return TranscriptionCall.start(call -> new TranscriptionResult(transcribeCached(chunk, new WavChunkBody(chunk), call)));
+    }
 
-            // Build multipart/form-data entity with the file and parameters.
-            MultipartEntityBuilder builder = MultipartEntityBuilder.create();
-            builder.addBinaryBody("file", audioFile, ContentType.create("audio/wav"), audioFile.getName());
-            builder.addTextBody("model", configManager.getFasterWhisperModel());
-            if (!configManager.getFasterWhisperLanguage().isEmpty()) {
-                builder.addTextBody("language", configManager.getFasterWhisperLanguage());
-            }
-            HttpEntity multipart = builder.build();
-            httpPost.setEntity(multipart);
-            logger.info("Transcribing audio file {} with model {} and language {}", audioFile.getName(), configManager.getFasterWhisperModel(), configManager.getFasterWhisperLanguage());
+    /**
+     * Returns the transcript from the {@link TranscriptionCache}, or uploads the audio and caches it.
+     */
+    private String transcribeCached(WavChunk audio, ContentBody body, TranscriptionCall call) throws IOException {
+        return TranscriptionCache.lookup(configManager, audio, () -> new TranscriptionResult(transcribe(body, call)),
+            "Faster-Whisper", configManager.getFasterWhisperServerUrl().trim(),
+            configManager.getFasterWhisperModel(), configManager.getFasterWhisperLanguage(), "json").getText();
+    }
+
+    private String transcribe(ContentBody audio, TranscriptionCall call) throws IOException {
+        CloseableHttpClient httpClient = transport.client();
+        // Build URL from ConfigManager
+        String baseUrl = configManager.getFasterWhisperServerUrl().trim();
+
+        if (!baseUrl.toLowerCase().startsWith("http://") && !baseUrl.toLowerCase().startsWith("https://")) {
+            baseUrl = "http://" + baseUrl;
+        }
+
+        if (baseUrl.endsWith("/")) {
+            baseUrl = baseUrl.substring(0, baseUrl.length() - 1);
+        }
+
+        String url = baseUrl + "/v1/audio/transcriptions";
+        HttpPost httpPost = new HttpPost(url);
+        httpPost.setHeader("Accept", "application/json");
+        httpPost.setConfig(HttpTransport.Timeouts.SELF_HOSTED.toRequestConfig());
+
+        // Build multipart/form-data entity with the file and parameters.
+        MultipartEntityBuilder builder = MultipartEntityBuilder.create();
+        builder.addPart("file", audio);
+        builder.addTextBody("model", configManager.getFasterWhisperModel());
+        if (!configManager.getFasterWhisperLanguage().isEmpty()) {
+            builder.addTextBody("language", configManager.getFasterWhisperLanguage());
+        }
+        HttpEntity multipart = builder.build();
+        httpPost.setEntity(multipart);
+        logger.info("Transcribing audio file {} with model {} and language {}", audio.getFilename(), configManager.getFasterWhisperModel(), configManager.getFasterWhisperLanguage());
 
-            try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
-                int statusCode = response.getStatusLine().getStatusCode();
+        TranscriptionCall.attach(call, httpPost);
+        try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
+            int statusCode = response.getStatusLine().getStatusCode();
+            if (statusCode != 200) {
                 String responseString = new String(response.getEntity().getContent().readAllBytes(), StandardCharsets.UTF_8);
-                if (statusCode != 200) {
-                    logger.error("Error from transcription API. Status: {} Response: {}", statusCode, responseString);
-                    throw new IOException("Error from transcription API: " + responseString);
-                }
-                ObjectMapper objectMapper = new ObjectMapper();
-                JsonNode jsonNode = objectMapper.readTree(responseString);
-                // The API may return a plain string or an object with a "text" field.
-                if (jsonNode.isTextual()) {
-                    return jsonNode.asText();
-                } else {
-                    return jsonNode.path("text").asText();
-                }
+                logger.error("Error from transcription API. Status: {} Response: {}", statusCode, responseString);
+                throw new IOException("Error from transcription API: " + responseString);
             }
+            // The API may return a plain string or an object with a "text" field.
+            return TranscriptionResponseParser.parse(response.getEntity().getContent()).getText();
         }
     }
 
@@ -0,0 +1,105 @@
+package org.whisperdog.recording.clients;
+
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.mime.MIME;
+import org.apache.http.entity.mime.content.AbstractContentBody;
+import org.whisperdog.audio.FlacEncoder;
+import org.whisperdog.audio.WavResampler;
+import org.whisperdog.recording.WavChunk;
+import org.whisperdog.recording.WavHeader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Multipart body that encodes a WAV chunk to 16kHz mono FLAC while it is uploaded.
+ * <p>
+ * Nothing is written to disk: the PCM is resampled and encoded straight into the request
+ * stream. The encoder is deterministic, so a counting pass in {@link #of(WavChunk)} gives the
+ * exact content length, and every later {@link #writeTo} (including retries) produces the same bytes.
+ */
+public class FlacWavBody extends AbstractContentBody {
+
+    private final File source;
+    private final WavHeader header;
+    private final long dataOffset;
+    private final long dataLength;
+    private final String filename;
+    private long contentLength;
+
+    private FlacWavBody(File source, WavHeader header, long dataOffset, long dataLength, String filename) {
+        super(ContentType.create("audio/flac"));
+        this.source = source;
+        this.header = header;
+        this.dataOffset = dataOffset;
+        this.dataLength = dataLength;
+        this.filename = filename;
+    }
+
+    /**
+     * Prepares a FLAC body for the chunk's PCM and measures its encoded size.
+     *
+     * @return The body, or null if the chunk is not 16-bit PCM WAV
+     */
+    public static FlacWavBody of(WavChunk chunk) throws IOException {
+        File source = chunk.getSource();
+        WavHeader header;
+        try {
+            header = WavHeader.read(source);
+        } catch (IOException e) {
+            return null;  // Not a WAV (e.g. FFmpeg MP3 chunk)
+        }
+        if (!header.isPcm() || header.bitsPerSample != 16) {
+            return null;
+        }
+        long offset = chunk.isVirtual() ? chunk.getDataOffset() : header.dataOffset;
+        long length = chunk.isVirtual() ? chunk.getDataLength() : header.dataLength;
+        FlacWavBody body = new FlacWavBody(source, header, offset, length,
+            chunk.getName().replaceFirst("(?i)\\.wav$", "") + ".flac");
+        CountingOutputStream counter = new CountingOutputStream();
+        body.writeTo(counter);
+        body.contentLength = counter.count;
+        return body;
+    }
+
+    @Override
+    public String getFilename() {
+        return filename;
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        try (FileChannel channel = FileChannel.open(source.toPath(), StandardOpenOption.READ)) {
+            FlacEncoder encoder = new FlacEncoder(out, WavResampler.TARGET_SAMPLE_RATE, 1);
+            WavResampler.convert(channel, header, dataOffset, dataLength, encoder::write);
+            encoder.finish();
+        }
+    }
+
+    @Override
+    public String getTransferEncoding() {
+        return MIME.ENC_BINARY;
+    }
+
+    @Override
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -1,61 +1,72 @@
 package org.whisperdog.recording.clients;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.http.HttpEntity;
-import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
+import org.apache.http.entity.mime.content.ContentBody;
+import org.apache.http.entity.mime.content.FileBody;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.whisperdog.ConfigManager;
-import org.whisperdog.audio.SourceActivityTracker.TimestampedWord;
 import org.whisperdog.error.ErrorClassifier;
 import org.whisperdog.error.TranscriptionException;
+import org.whisperdog.http.HttpTransport;
+import org.whisperdog.http.Json;
 import org.whisperdog.recording.TranscriptionResult;
+import org.whisperdog.recording.WavChunk;
 import org.whisperdog.validation.TranscriptionValidator;
 
-import java.util.ArrayList;
-import java.util.List;
 
 import javax.sound.sampled.*;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Client for OpenAI Whisper transcription API.
  * <p>
- * File lifecycle: This client does NOT own file cleanup. When compression is needed,
+ * File lifecycle: The blocking calls do NOT own file cleanup. When compression is needed,
  * the compressed file is tracked via {@link #getLastCompressedFile()} so the caller
- * can manage its lifecycle based on transcription outcome.
+ * can manage its lifecycle based on transcription outcome. Async calls delete their
+ * compressed files themselves.
  * <p>
- * Single-flight constraint: This client is designed for sequential use — do not invoke
- * {@code transcribe()} or {@code transcribeWithTimestamps()} concurrently on the same instance.
+ * Safe for concurrent calls. {@link #getLastCompressedFile()} is only meaningful for a
+ * caller that makes blocking calls one at a time.
  */
-public class OpenAITranscribeClient {
+public class OpenAITranscribeClient implements TranscriptionClient {
     private static final Logger logger = LogManager.getLogger(OpenAITranscribeClient.class);
     private static final String API_URL = "https://api.openai.com/v1/audio/transcriptions";
+    private static final String MODEL = "whisper-1";
     private static final long MAX_FILE_SIZE = 24 * 1024 * 1024; // 24 MB (leaving buffer under 25MB limit)
     private static final long MAX_COMPRESSED_FILE_SIZE = 26 * 1024 * 1024; // 26 MB hard limit for validation
     private static final int CONNECTION_TIMEOUT = 30000; // 30 seconds
     private static final int SOCKET_TIMEOUT = 600000; // 10 minutes for large file processing
+    private static final HttpTransport.Timeouts TIMEOUTS =
+        new HttpTransport.Timeouts(CONNECTION_TIMEOUT, CONNECTION_TIMEOUT, SOCKET_TIMEOUT);
     private final ConfigManager configManager;
+    private final HttpTransport transport;
 
-    /** Tracks the compressed file created during the most recent transcribe() call, if any. */
-    private File lastCompressedFile;
+    /** Tracks the compressed file created during the most recent blocking call, if any. */
+    private volatile File lastCompressedFile;
 
     public OpenAITranscribeClient(ConfigManager configManager) {
+        this(configManager, HttpTransport.getInstance());
+    }
+
+    public OpenAITranscribeClient(ConfigManager configManager, HttpTransport transport) {
         this.configManager = configManager;
+        this.transport = transport;
     }
 
     /**
-     * Returns the compressed MP3 file created during the most recent transcription call,
+     * Returns the compressed MP3 file created during the most recent blocking transcription call,
      * or null if no compression was needed. The caller is responsible for deleting this file.
      */
     public File getLastCompressedFile() {
@@ -209,9 +220,131 @@ public class OpenAITranscribeClient {
         return compressAudioFileByDownsampling(originalFile);
     }
 
+    /**
+     * Encodes 16-bit PCM WAV audio as 16kHz mono FLAC in process, as long as the result fits
+     * the upload limit. This avoids the ffmpeg round-trip through a temp file, and is lossless
+     * for what Whisper actually hears.
+     *
+     * @return The FLAC body, or null to fall back to {@link #compressAudioFile(File)}
+     */
+    private FlacWavBody encodeFlacIfFits(WavChunk chunk) {
+        try {
+            long start = System.currentTimeMillis();
+            FlacWavBody flac = FlacWavBody.of(chunk);
+            if (flac == null) {
+                return null;
+            }
+            double originalMb = chunk.getLength() / (1024.0 * 1024.0);
+            double flacMb = flac.getContentLength() / (1024.0 * 1024.0);
+            if (flac.getContentLength() > MAX_FILE_SIZE) {
+                logger.info("FLAC encoding of {} is still {} MB, falling back to MP3", chunk.getName(), flacMb);
+                return null;
+            }
+            logger.info("Encoding {} as FLAC for upload: {} MB -> {} MB (sized in {}ms)",
+                chunk.getName(), originalMb, flacMb, System.currentTimeMillis() - start);
+            org.whisperdog.ConsoleLogger.getInstance().log(
+                String.format("Encoding as FLAC for upload: %.1f MB -> %.1f MB", originalMb, flacMb));
+            return flac;
+        } catch (IOException e) {
+            logger.warn("FLAC encoding of {} failed, falling back to MP3: {}", chunk.getName(), e.getMessage());
+            return null;
+        }
+    }
+
     public String transcribe(File audioFile) throws TranscriptionException {
         this.lastCompressedFile = null;  // Reset before each call
+        return transcribeCached(WavChunk.ofFile(audioFile), false, null, this::trackCompressedFile).getText();
+    }
+
+    /**
+     * Transcribes a chunk. Virtual chunks are streamed from their source WAV without
+     * writing a temp file; chunks too large to upload directly are streamed as FLAC, or go
+     * through {@link #transcribe(File)} when even that does not fit.
+     *
+     * @param chunk The chunk to transcribe
+     * @return The transcription text
+     * @throws TranscriptionException if transcription fails
+     */
+    public String transcribe(WavChunk chunk) throws TranscriptionException {
+        this.lastCompressedFile = null;
+        return transcribeCached(chunk, false, null, this::trackCompressedFile).getText();
+    }
+
+    /**
+     * Transcribe audio file with word-level timestamps for accurate source attribution.
+     * Uses OpenAI's verbose_json response format with timestamp_granularities=["word"].
+     *
+     * @param audioFile The audio file to transcribe
+     * @return TranscriptionResult containing text and timestamped words
+     * @throws TranscriptionException if transcription fails
+     */
+    public TranscriptionResult transcribeWithTimestamps(File audioFile) throws TranscriptionException {
+        this.lastCompressedFile = null;  // Reset before each call
+        return transcribeCached(WavChunk.ofFile(audioFile), true, null, this::trackCompressedFile);
+    }
+
+    /**
+     * Transcribes a chunk with word-level timestamps relative to the chunk start.
+     * Virtual chunks are streamed like in {@link #transcribe(WavChunk)}.
+     *
+     * @param chunk The chunk to transcribe
+     * @return TranscriptionResult containing text and timestamped words
+     * @throws TranscriptionException if transcription fails
+     */
+    public TranscriptionResult transcribeWithTimestamps(WavChunk chunk) throws TranscriptionException {
+        this.lastCompressedFile = null;
+        return transcribeCached(chunk, true, null, this::trackCompressedFile);
+    }
+
+    @Override
+    public boolean supportsWordTimestamps() {
+        return true;
+    }
+
+    /**
+     * Transcribes a chunk with word-level timestamps, like {@link #transcribeWithTimestamps(WavChunk)}.
+     * A compressed copy made for the upload is deleted when the call completes, and is not
+     * reported by {@link #getLastCompressedFile()}.
+     */
+    @Override
+    public CompletableFuture<TranscriptionResult> transcribeAsync(WavChunk chunk) {
+        return TranscriptionCall.start(call -> {
+            List<File> compressedFiles = new ArrayList<>(1);
+            try {
+                return transcribeCached(chunk, true, call, compressedFiles::add);
+            } finally {
+                for (File compressedFile : compressedFiles) {
+                    if (compressedFile.exists() && !compressedFile.delete()) {
+                        logger.warn("Could not delete compressed file: {}", compressedFile.getName());
+                    }
+                }
+            }
+        });
+    }
 
+    private void trackCompressedFile(File compressedFile) {
+        this.lastCompressedFile = compressedFile;
+    }
+
+    /**
+     * Returns the transcript from the {@link TranscriptionCache}, or transcribes the audio
+     * and caches it. A cache hit skips compression as well as the upload.
+     */
+    private TranscriptionResult transcribeCached(WavChunk audio, boolean wordTimestamps, TranscriptionCall call,
+                                                 Consumer<File> compressedFiles) throws TranscriptionException {
+        return TranscriptionCache.lookup(configManager, audio,
+            () -> transcribeChunk(audio, wordTimestamps, call, compressedFiles),
+            "OpenAI", MODEL, "", wordTimestamps ? "verbose_json" : "json");
+    }
+
+    /**
+     * Validates, compresses if necessary, and uploads a file.
+     *
+     * @param compressedFiles Receives the compressed copy, if one is made, for caller-managed
+     *                        cleanup (ISS_00012)
+     */
+    private TranscriptionResult transcribeFile(File audioFile, boolean wordTimestamps, TranscriptionCall call,
+                                               Consumer<File> compressedFiles) throws TranscriptionException {
         // Pre-submission validation: file type (ISS_00008)
         try {
             TranscriptionValidator.validateFileType(audioFile);
@@ -223,12 +356,17 @@ public class OpenAITranscribeClient {
 
         // Check if file size exceeds limit and compress if necessary
         File fileToTranscribe = audioFile;
-        File compressedFile = null;
         if (audioFile.length() > MAX_FILE_SIZE) {
+            FlacWavBody flac = encodeFlacIfFits(WavChunk.ofFile(audioFile));
+            if (flac != null) {
+                return execute(flac, wordTimestamps, call);
+            }
             logger.warn("Audio file size ({} MB) exceeds OpenAI limit (25 MB). Compressing...",
                 audioFile.length() / (1024.0 * 1024.0));
-            compressedFile = compressAudioFile(audioFile);
-            fileToTranscribe = compressedFile;
+            fileToTranscribe = compressAudioFile(audioFile);
+            if (fileToTranscribe != audioFile) {
+                compressedFiles.accept(fileToTranscribe);
+            }
         }
 
         // Pre-submission validation (ISS_00001, Task 0002)
@@ -241,89 +379,106 @@ public class OpenAITranscribeClient {
             throw e;
         }
 
-        // Configure timeouts to prevent indefinite hanging
-        RequestConfig requestConfig = RequestConfig.custom()
-            .setConnectTimeout(CONNECTION_TIMEOUT)
-            .setSocketTimeout(SOCKET_TIMEOUT)
-            .setConnectionRequestTimeout(CONNECTION_TIMEOUT)
-            .build();
+        // Determine content type based on file extension
+        String fileName = fileToTranscribe.getName().toLowerCase();
+        String contentType = "audio/wav"; // default
+        if (fileName.endsWith(".mp3")) {
+            contentType = "audio/mpeg";
+        } else if (fileName.endsWith(".m4a")) {
+            contentType = "audio/mp4";
+        } else if (fileName.endsWith(".ogg")) {
+            contentType = "audio/ogg";
+        } else if (fileName.endsWith(".flac")) {
+            contentType = "audio/flac";
+        }
+
+        return execute(new FileBody(fileToTranscribe, ContentType.create(contentType), fileToTranscribe.getName()),
+            wordTimestamps, call);
+    }
 
+    private TranscriptionResult transcribeChunk(WavChunk chunk, boolean wordTimestamps, TranscriptionCall call,
+                                                Consumer<File> compressedFiles) throws TranscriptionException {
+        if (!chunk.isVirtual()) {
+            return transcribeFile(chunk.getFile(), wordTimestamps, call, compressedFiles);
+        }
+        if (chunk.getLength() > MAX_FILE_SIZE) {
+            FlacWavBody flac = encodeFlacIfFits(chunk);
+            if (flac != null) {
+                return execute(flac, wordTimestamps, call);
+            }
+            // Needs ffmpeg compression, which works on files
+            File chunkFile = null;
+            try {
+                chunkFile = ConfigManager.createTempFile(chunk.getName().replaceFirst("\\.wav$", "_"), ".wav");
+                chunk.writeTo(chunkFile);
+                return transcribeFile(chunkFile, wordTimestamps, call, compressedFiles);
+            } catch (IOException e) {
+                throw new TranscriptionException("Could not prepare chunk " + chunk.getName() + ": " + e.getMessage(),
+                    e, false, false);
+            } finally {
+                if (chunkFile != null && !chunkFile.delete()) {
+                    logger.warn("Could not delete temp chunk: {}", chunkFile.getName());
+                }
+            }
+        }
+        return execute(new WavChunkBody(chunk), wordTimestamps, call);
+    }
+
+    /**
+     * Posts the audio to the transcription endpoint and maps failures to {@link TranscriptionException}.
+     *
+     * @param wordTimestamps Requests verbose JSON with word-level timestamps
+     * @param call The async call to attach the request to, or null
+     */
+    private TranscriptionResult execute(ContentBody audio, boolean wordTimestamps, TranscriptionCall call)
+            throws TranscriptionException {
         try {
-            try (CloseableHttpClient httpClient = HttpClients.custom()
-                    .setDefaultRequestConfig(requestConfig)
-                    .build()) {
             HttpPost httpPost = new HttpPost(API_URL);
             httpPost.setHeader("Authorization", "Bearer " + configManager.getApiKey());
-
-            // Determine content type based on file extension
-            String fileName = fileToTranscribe.getName().toLowerCase();
-            String contentType = "audio/wav"; // default
-            if (fileName.endsWith(".mp3")) {
-                contentType = "audio/mpeg";
-            } else if (fileName.endsWith(".m4a")) {
-                contentType = "audio/mp4";
-            } else if (fileName.endsWith(".ogg")) {
-                contentType = "audio/ogg";
-            } else if (fileName.endsWith(".flac")) {
-                contentType = "audio/flac";
-            }
+            // Configure timeouts to prevent indefinite hanging
+            httpPost.setConfig(TIMEOUTS.toRequestConfig());
 
             MultipartEntityBuilder builder = MultipartEntityBuilder.create();
-            builder.addBinaryBody("file", fileToTranscribe, ContentType.create(contentType), fileToTranscribe.getName());
-            builder.addTextBody("model", "whisper-1");
+            builder.addPart("file", audio);
+            builder.addTextBody("model", MODEL);
+            if (wordTimestamps) {
+                builder.addTextBody("response_format", "verbose_json");
+                builder.addTextBody("timestamp_granularities[]", "word");
+            }
 
             HttpEntity multipart = builder.build();
             httpPost.setEntity(multipart);
 
-            try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
+            TranscriptionCall.attach(call, httpPost);
+            try (CloseableHttpResponse response = transport.client().execute(httpPost)) {
                 int statusCode = response.getStatusLine().getStatusCode();
                 HttpEntity responseEntity = response.getEntity();
-                String responseString = new String(responseEntity.getContent().readAllBytes(), StandardCharsets.UTF_8);
 
                 if (statusCode != 200) {
-                    logger.error("OpenAI API returned status code: {}. Response: {}", statusCode, responseString);
-
-                    // Try to parse as JSON to get error message
-                    String errorMessage;
-                    try {
-                        ObjectMapper objectMapper = new ObjectMapper();
-                        JsonNode jsonNode = objectMapper.readTree(responseString);
-                        errorMessage = jsonNode.path("error").path("message").asText("Unknown error");
-                    } catch (Exception jsonException) {
-                        // Response is not valid JSON, use raw response
-                        logger.error("Failed to parse error response as JSON", jsonException);
-                        // Truncate very long responses
-                        errorMessage = responseString.length() > 500
-                            ? responseString.substring(0, 500) + "..."
-                            : responseString;
-                    }
                     // Throw TranscriptionException with HTTP status for categorization
-                    throw new TranscriptionException(
-                        "Error from OpenAI API (HTTP " + statusCode + "): " + errorMessage,
-                        statusCode,
-                        responseString
-                    );
+                    throw errorResponse(statusCode, responseEntity);
                 }
 
                 // Parse successful response
                 try {
-                    ObjectMapper objectMapper = new ObjectMapper();
-                    JsonNode jsonNode = objectMapper.readTree(responseString);
-                    String transcription = jsonNode.path("text").asText();
-                    if (transcription == null || transcription.isEmpty()) {
-                        logger.warn("OpenAI returned empty transcription");
+                    TranscriptionResult result = TranscriptionResponseParser.parse(responseEntity.getContent());
+                    if (result.getText().isEmpty()) {
                         // Empty response requires user action - they may want to retry
-                        throw new TranscriptionException(
-                            "No speech detected in recording",
-                            200,
-                            responseString
-                        );
+                        throw emptyTranscription();
+                    }
+                    if (!wordTimestamps) {
+                        return result;
+                    }
+                    if (result.hasWordTimestamps()) {
+                        logger.info("Parsed {} word timestamps from transcription", result.getWords().size());
+                    } else {
+                        logger.warn("No word timestamps in response, falling back to text-only");
                     }
-                    return transcription;
+                    return result;
                 } catch (TranscriptionException te) {
                     throw te; // Re-throw our own exceptions
                 } catch (Exception jsonException) {
-                    logger.error("Failed to parse successful response as JSON. Response: {}", responseString, jsonException);
+                    logger.error("Failed to parse successful response as JSON", jsonException);
                     // JSON parse error is transient (may succeed on retry)
                     throw new TranscriptionException(
                         "Failed to parse OpenAI response: " + jsonException.getMessage(),
@@ -333,193 +488,49 @@ public class OpenAITranscribeClient {
                     );
                 }
             }
-            } catch (TranscriptionException te) {
-                throw te; // Re-throw our own exceptions
-            } catch (java.net.SocketTimeoutException e) {
-                logger.error("Socket timeout during transcription", e);
-                throw new TranscriptionException("Connection timed out", e, false, true);
-            } catch (java.net.UnknownHostException e) {
-                logger.error("Cannot reach OpenAI server", e);
-                throw new TranscriptionException("Cannot reach server: " + e.getMessage(), e, false, true);
-            } catch (java.net.ConnectException e) {
-                logger.error("Connection to OpenAI failed", e);
-                throw new TranscriptionException("Connection failed: " + e.getMessage(), e, false, true);
-            } catch (IOException e) {
-                logger.error("IO error during transcription", e);
-                throw new TranscriptionException("Network error: " + e.getMessage(), e, false, true);
-            }
-        } finally {
-            // Track compressed file for caller-managed cleanup (ISS_00012)
-            this.lastCompressedFile = compressedFile;
+        } catch (TranscriptionException te) {
+            throw te; // Re-throw our own exceptions
+        } catch (java.net.SocketTimeoutException e) {
+            logger.error("Socket timeout during transcription", e);
+            throw new TranscriptionException("Connection timed out", e, false, true);
+        } catch (java.net.UnknownHostException e) {
+            logger.error("Cannot reach OpenAI server", e);
+            throw new TranscriptionException("Cannot reach server: " + e.getMessage(), e, false, true);
+        } catch (java.net.ConnectException e) {
+            logger.error("Connection to OpenAI failed", e);
+            throw new TranscriptionException("Connection failed: " + e.getMessage(), e, false, true);
+        } catch (IOException e) {
+            logger.error("IO error during transcription", e);
+            throw new TranscriptionException("Network error: " + e.getMessage(), e, false, true);
         }
     }
 
     /**
-     * Transcribe audio file with word-level timestamps for accurate source attribution.
-     * Uses OpenAI's verbose_json response format with timestamp_granularities=["word"].
-     *
-     * @param audioFile The audio file to transcribe
-     * @return TranscriptionResult containing text and timestamped words
-     * @throws TranscriptionException if transcription fails
+     * Reads an error response, which is small, and maps it to an exception carrying the status.
      */
-    public TranscriptionResult transcribeWithTimestamps(File audioFile) throws TranscriptionException {
-        this.lastCompressedFile = null;  // Reset before each call
-
-        // Pre-submission validation: file type (ISS_00008)
-        try {
-            TranscriptionValidator.validateFileType(audioFile);
-        } catch (TranscriptionException e) {
-            logger.error("File type validation failed: {}", audioFile.getName());
-            org.whisperdog.ConsoleLogger.getInstance().logError(e.getMessage());
-            throw e;
-        }
-
-        // Check if file size exceeds limit and compress if necessary
-        File fileToTranscribe = audioFile;
-        File compressedFile = null;
-        if (audioFile.length() > MAX_FILE_SIZE) {
-            logger.warn("Audio file size ({} MB) exceeds OpenAI limit (25 MB). Compressing...",
-                audioFile.length() / (1024.0 * 1024.0));
-            compressedFile = compressAudioFile(audioFile);
-            fileToTranscribe = compressedFile;
-        }
-
-        // Pre-submission validation
-        try {
-            TranscriptionValidator.validateFileSize(fileToTranscribe);
-        } catch (TranscriptionException e) {
-            logger.error("File size validation failed: {} (size: {})",
-                fileToTranscribe.getName(), TranscriptionValidator.getFileSizeDisplay(fileToTranscribe));
-            org.whisperdog.ConsoleLogger.getInstance().logError(e.getMessage());
-            throw e;
+    private TranscriptionException errorResponse(int statusCode, HttpEntity entity) throws IOException {
+        String responseString = new String(entity.getContent().readAllBytes(), StandardCharsets.UTF_8);
+        logger.error("OpenAI API returned status code: {}. Response: {}", statusCode, responseString);
+        String errorMessage = Json.errorMessage(responseString);
+        if (errorMessage == null) {
+            // Response is not valid JSON, use raw response; truncate very long responses
+            errorMessage = responseString.length() > 500
+                ? responseString.substring(0, 500) + "..."
+                : responseString;
         }
+        return new TranscriptionException(
+            "Error from OpenAI API (HTTP " + statusCode + "): " + errorMessage,
+            statusCode,
+            responseString
+        );
+    }
 
-        RequestConfig requestConfig = RequestConfig.custom()
-            .setConnectTimeout(CONNECTION_TIMEOUT)
-            .setSocketTimeout(SOCKET_TIMEOUT)
-            .setConnectionRequestTimeout(CONNECTION_TIMEOUT)
-            .build();
-
-        try {
-            try (CloseableHttpClient httpClient = HttpClients.custom()
-                    .setDefaultRequestConfig(requestConfig)
-                    .build()) {
-                HttpPost httpPost = new HttpPost(API_URL);
-                httpPost.setHeader("Authorization", "Bearer " + configManager.getApiKey());
-
-                // Determine content type based on file extension
-                String fileName = fileToTranscribe.getName().toLowerCase();
-                String contentType = "audio/wav";
-                if (fileName.endsWith(".mp3")) {
-                    contentType = "audio/mpeg";
-                } else if (fileName.endsWith(".m4a")) {
-                    contentType = "audio/mp4";
-                } else if (fileName.endsWith(".ogg")) {
-                    contentType = "audio/ogg";
-                } else if (fileName.endsWith(".flac")) {
-                    contentType = "audio/flac";
-                }
-
-                MultipartEntityBuilder builder = MultipartEntityBuilder.create();
-                builder.addBinaryBody("file", fileToTranscribe, ContentType.create(contentType), fileToTranscribe.getName());
-                builder.addTextBody("model", "whisper-1");
-                // Request verbose JSON with word-level timestamps
-                builder.addTextBody("response_format", "verbose_json");
-                builder.addTextBody("timestamp_granularities[]", "word");
-
-                HttpEntity multipart = builder.build();
-                httpPost.setEntity(multipart);
-
-                try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
-                    int statusCode = response.getStatusLine().getStatusCode();
-                    HttpEntity responseEntity = response.getEntity();
-                    String responseString = new String(responseEntity.getContent().readAllBytes(), StandardCharsets.UTF_8);
-
-                    if (statusCode != 200) {
-                        logger.error("OpenAI API returned status code: {}. Response: {}", statusCode, responseString);
-                        String errorMessage;
-                        try {
-                            ObjectMapper objectMapper = new ObjectMapper();
-                            JsonNode jsonNode = objectMapper.readTree(responseString);
-                            errorMessage = jsonNode.path("error").path("message").asText("Unknown error");
-                        } catch (Exception jsonException) {
-                            logger.error("Failed to parse error response as JSON", jsonException);
-                            errorMessage = responseString.length() > 500
-                                ? responseString.substring(0, 500) + "..."
-                                : responseString;
-                        }
-                        throw new TranscriptionException(
-                            "Error from OpenAI API (HTTP " + statusCode + "): " + errorMessage,
-                            statusCode,
-                            responseString
-                        );
-                    }
-
-                    // Parse verbose_json response with word timestamps
-                    try {
-                        ObjectMapper objectMapper = new ObjectMapper();
-                        JsonNode jsonNode = objectMapper.readTree(responseString);
-                        String text = jsonNode.path("text").asText();
-
-                        if (text == null || text.isEmpty()) {
-                            logger.warn("OpenAI returned empty transcription");
-                            throw new TranscriptionException(
-                                "No speech detected in recording",
-                                200,
-                                responseString
-                            );
-                        }
-
-                        // Parse word-level timestamps
-                        List<TimestampedWord> words = new ArrayList<>();
-                        JsonNode wordsNode = jsonNode.path("words");
-                        if (wordsNode.isArray()) {
-                            for (JsonNode wordNode : wordsNode) {
-                                String wordText = wordNode.path("word").asText();
-                                // OpenAI returns timestamps in seconds, convert to milliseconds
-                                double startSec = wordNode.path("start").asDouble(0);
-                                double endSec = wordNode.path("end").asDouble(0);
-                                long startMs = (long) (startSec * 1000);
-                                long endMs = (long) (endSec * 1000);
-                                words.add(new TimestampedWord(wordText, startMs, endMs));
-                            }
-                            logger.info("Parsed {} word timestamps from transcription", words.size());
-                        } else {
-                            logger.warn("No word timestamps in response, falling back to text-only");
-                        }
-
-                        return new TranscriptionResult(text, words);
-
-                    } catch (TranscriptionException te) {
-                        throw te;
-                    } catch (Exception jsonException) {
-                        logger.error("Failed to parse response as JSON. Response: {}", responseString, jsonException);
-                        throw new TranscriptionException(
-                            "Failed to parse OpenAI response: " + jsonException.getMessage(),
-                            jsonException,
-                            true,
-                            false
-                        );
-                    }
-                }
-            } catch (TranscriptionException te) {
-                throw te;
-            } catch (java.net.SocketTimeoutException e) {
-                logger.error("Socket timeout during transcription", e);
-                throw new TranscriptionException("Connection timed out", e, false, true);
-            } catch (java.net.UnknownHostException e) {
-                logger.error("Cannot reach OpenAI server", e);
-                throw new TranscriptionException("Cannot reach server: " + e.getMessage(), e, false, true);
-            } catch (java.net.ConnectException e) {
-                logger.error("Connection to OpenAI failed", e);
-                throw new TranscriptionException("Connection failed: " + e.getMessage(), e, false, true);
-            } catch (IOException e) {
-                logger.error("IO error during transcription", e);
-                throw new TranscriptionException("Network error: " + e.getMessage(), e, false, true);
-            }
-        } finally {
-            // Track compressed file for caller-managed cleanup (ISS_00012)
-            this.lastCompressedFile = compressedFile;
-        }
+    /**
+     * The body is not kept once parsed, so the exception gets the canonical empty response
+     * for {@link TranscriptionException#isEmptyResponse()} to recognize.
+     */
+    private TranscriptionException emptyTranscription() {
+        logger.warn("OpenAI returned empty transcription");
+        return new TranscriptionException("No speech detected in recording", 200, "{\"text\":\"\"}");
     }
 }
@@ -1,7 +1,5 @@
 package org.whisperdog.recording.clients;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.apache.http.HttpEntity;
@@ -11,49 +9,39 @@ import org.apache.http.client.methods.HttpGet;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.entity.ContentType;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
 import org.apache.http.entity.mime.HttpMultipartMode;
-import org.apache.http.conn.ssl.NoopHostnameVerifier;
-import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
-import org.apache.http.ssl.SSLContextBuilder;
+import org.apache.http.entity.mime.content.ContentBody;
+import org.apache.http.entity.mime.content.FileBody;
 import org.whisperdog.ConfigManager;
+import org.whisperdog.http.HttpTransport;
+import org.whisperdog.recording.TranscriptionResult;
+import org.whisperdog.recording.WavChunk;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import javax.net.ssl.SSLContext;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * OpenWebUIClient processes text requests, fetches available models and transcribes audio files
  * using the OpenWebUI API. The API base URL is obtained from the ConfigManager.
  *
- * This class now ignores certificate validation.
+ * This class ignores certificate validation (see {@link HttpTransport#trustAllClient()}).
+ * Safe for concurrent calls.
  */
-public class OpenWebUITranscribeClient {
+public class OpenWebUITranscribeClient implements TranscriptionClient {
 
     private final ConfigManager configManager;
+    private final HttpTransport transport;
 
     public OpenWebUITranscribeClient(ConfigManager configManager) {
-        this.configManager = configManager;
+        this(configManager, HttpTransport.getInstance());
     }
 
-    /**
-     * Creates an HttpClient which ignores SSL certificate validation.
-     *
-     * @return a CloseableHttpClient instance with an all-trusting SSLContext.
-     * @throws IOException if an error occurs while creating the SSL context.
-     */
-    private CloseableHttpClient createHttpClient() throws IOException {
-        try {
-            SSLContext sslContext = SSLContextBuilder.create()
-                    .loadTrustMaterial(null, (chain, authType) -> true)
-                    .build();
-            SSLConnectionSocketFactory csf = new SSLConnectionSocketFactory(sslContext, NoopHostnameVerifier.INSTANCE);
-            return HttpClients.custom().setSSLSocketFactory(csf).build();
-        } catch (Exception e) {
-            throw new IOException(e);
-        }
+    public OpenWebUITranscribeClient(ConfigManager configManager, HttpTransport transport) {
+        this.configManager = configManager;
+        this.transport = transport;
     }
 
     /**
@@ -68,42 +56,71 @@ public class OpenWebUITranscribeClient {
      * @throws IOException if an error occurs during the API call.
      */
     public String transcribeAudio(File audioFile) throws IOException {
-        try (CloseableHttpClient httpClient = createHttpClient()) {
-            // Build URL from ConfigManager.
-            String baseUrl = configManager.getOpenWebUIServerUrl().trim();
-            if (!baseUrl.toLowerCase().startsWith("http://") && !baseUrl.toLowerCase().startsWith("https://")) {
-                baseUrl = "https://" + baseUrl;
-            }
-            if (baseUrl.endsWith("/")) {
-                baseUrl = baseUrl.substring(0, baseUrl.length() - 1);
-            }
-            String url = baseUrl + "/api/v1/audio/transcriptions";
+        return transcribeCached(WavChunk.ofFile(audioFile),
+            new FileBody(audioFile, ContentType.create("audio/wav"), audioFile.getName()), null);
+    }
+
+    /**
+     * Transcribes a chunk, streaming virtual chunks directly from their source WAV.
+     *
+     * @param chunk the chunk to be transcribed.
+     * @return the transcribed text.
+     * @throws IOException if an error occurs during the API call.
+     */
+    public String transcribeAudio(WavChunk chunk) throws IOException {
+        return transcribeCached(chunk, new WavChunkBody(chunk), null);
+    }
+
+    @Override
+    public boolean supportsWordTimestamps() {
+        return false;
+    }
+
+    @Override
+    public CompletableFuture<TranscriptionResult> transcribeAsync(WavChunk chunk) {
+        return TranscriptionCall.start(call -> new TranscriptionResult(transcribeCached(chunk, new WavChunkBody(chunk), call)));
+    }
+
+    /**
+     * Returns the transcript from the {@link TranscriptionCache}, or uploads the audio and caches it.
+     * The model is chosen by the server, so only its URL is part of the key.
+     */
+    private String transcribeCached(WavChunk audio, ContentBody body, TranscriptionCall call) throws IOException {
+        return TranscriptionCache.lookup(configManager, audio, () -> new TranscriptionResult(transcribeAudio(body, call)),
+            "Open WebUI", configManager.getOpenWebUIServerUrl().trim(), "", "", "json").getText();
+    }
+
+    private String transcribeAudio(ContentBody audio, TranscriptionCall call) throws IOException {
+        CloseableHttpClient httpClient = transport.trustAllClient();
+        // Build URL from ConfigManager.
+        String baseUrl = configManager.getOpenWebUIServerUrl().trim();
+        if (!baseUrl.toLowerCase().startsWith("http://") && !baseUrl.toLowerCase().startsWith("https://")) {
+            baseUrl = "https://" + baseUrl;
+        }
+        if (baseUrl.endsWith("/")) {
+            baseUrl = baseUrl.substring(0, baseUrl.length() - 1);
+        }
+        String url = baseUrl + "/api/v1/audio/transcriptions";
 
-            HttpPost httpPost = new HttpPost(url);
-            httpPost.setHeader("Accept", "application/json");
-            httpPost.setHeader("Authorization", "Bearer " + configManager.getOpenWebUIApiKey());
+        HttpPost httpPost = new HttpPost(url);
+        httpPost.setHeader("Accept", "application/json");
+        httpPost.setHeader("Authorization", "Bearer " + configManager.getOpenWebUIApiKey());
+        httpPost.setConfig(HttpTransport.Timeouts.SELF_HOSTED.toRequestConfig());
 
-            MultipartEntityBuilder builder = MultipartEntityBuilder.create();
-            builder.setMode(HttpMultipartMode.BROWSER_COMPATIBLE);
-            builder.addBinaryBody("file", audioFile, ContentType.create("audio/wav"), audioFile.getName());
-            HttpEntity multipart = builder.build();
-            httpPost.setEntity(multipart);
+        MultipartEntityBuilder builder = MultipartEntityBuilder.create();
+        builder.setMode(HttpMultipartMode.BROWSER_COMPATIBLE);
+        builder.addPart("file", audio);
+        HttpEntity multipart = builder.build();
+        httpPost.setEntity(multipart);
 
-            try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
-                int statusCode = response.getStatusLine().getStatusCode();
+        TranscriptionCall.attach(call, httpPost);
+        try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
+            int statusCode = response.getStatusLine().getStatusCode();
+            if (statusCode != 200) {
                 String responseString = new String(response.getEntity().getContent().readAllBytes(), StandardCharsets.UTF_8);
-                ObjectMapper mapper = new ObjectMapper();
-                if (statusCode != 200) {
-                    throw new IOException("Error from transcription API: " + responseString);
-                }
-                JsonNode jsonResponse = mapper.readTree(responseString);
-                if (jsonResponse.has("text")) {
-                    return jsonResponse.path("text").asText();
-                } else if (jsonResponse.isTextual()) {
-                    return jsonResponse.asText();
-                }
+                throw new IOException("Error from transcription API: " + responseString);
             }
+            return TranscriptionResponseParser.parse(response.getEntity().getContent()).getText();
         }
-        return "";
     }
 }
\ No newline at end of file
@@ -0,0 +1,348 @@
+package org.whisperdog.recording.clients;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.whisperdog.ConfigManager;
+import org.whisperdog.ConsoleLogger;
+import org.whisperdog.audio.SourceActivityTracker.TimestampedWord;
+import org.whisperdog.http.Json;
+import org.whisperdog.recording.TranscriptionResult;
+import org.whisperdog.recording.WavChunk;
+import org.whisperdog.recording.WavHeader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Disk cache of transcripts, keyed by the audio content and the request that produced them.
+ * <p>
+ * Re-running a recording, recovering a preserved file or dropping in a file that was already
+ * imported uploads the same audio again. The clients look the audio up here before any
+ * compression or upload, and store every transcript that is not blank.
+ * <p>
+ * The key is a SHA-256 over the request parameters (server, model, language, response
+ * format) and the audio. For PCM WAV only the sample format and the samples are hashed,
+ * so a recording, its repaired copy and a byte-range chunk covering all of it share one
+ * entry; other files are hashed as they are. Entries are JSON files in the shape of a
+ * verbose transcription response. Least recently used entries are evicted once the cache
+ * outgrows its size limit; the last use is kept as the file's modification time, so the
+ * order survives restarts.
+ */
+public final class TranscriptionCache {
+
+    private static final Logger logger = LogManager.getLogger(TranscriptionCache.class);
+
+    private static final String ENTRY_SUFFIX = ".json";
+    private static final int HASH_BUFFER_SIZE = 1024 * 1024;
+
+    private static volatile TranscriptionCache instance;
+
+    /**
+     * An upload whose result is cached.
+     */
+    interface Upload<E extends Exception> {
+        TranscriptionResult run() throws E;
+    }
+
+    private final File directory;
+    private final long maxBytes;
+
+    /** Entry sizes by key, least recently used first; null until the directory is scanned. */
+    private LinkedHashMap<String, Long> entries;
+    private long totalBytes;
+
+    /**
+     * @param directory Where the entries are stored; created on first write
+     * @param maxBytes Size above which least recently used entries are evicted
+     */
+    public TranscriptionCache(File directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @return The cache shared by all clients, in the config directory. The size limit is
+     *         read when it is first used.
+     */
+    public static TranscriptionCache getInstance(ConfigManager configManager) {
+        TranscriptionCache shared = instance;
+        if (shared == null) {
+            synchronized (TranscriptionCache.class) {
+                shared = instance;
+                if (shared == null) {
+                    shared = new TranscriptionCache(
+                        new File(configManager.getConfigDirectory(), "transcription-cache"),
+                        configManager.getTranscriptionCacheMaxMb() * 1024L * 1024L);
+                    instance = shared;
+                }
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Returns the cached transcript of the audio, or runs the upload and caches its result.
+     * Without the cache enabled, or if the audio cannot be read for hashing, the upload
+     * simply runs.
+     *
+     * @param request Parameters that change the transcript, such as server, model and language
+     */
+    static <E extends Exception> TranscriptionResult lookup(ConfigManager configManager, WavChunk audio,
+                                                            Upload<E> upload, String... request) throws E {
+        if (!configManager.isTranscriptionCacheEnabled()) {
+            return upload.run();
+        }
+        TranscriptionCache cache = getInstance(configManager);
+        String key;
+        try {
+            key = cache.keyFor(audio, request);
+        } catch (IOException e) {
+            logger.warn("Could not hash {} for the transcription cache: {}", audio.getName(), e.getMessage());
+            return upload.run();
+        }
+        TranscriptionResult cached = cache.get(key);
+        if (cached != null) {
+            logger.info("Transcript of {} found in cache, skipping upload", audio.getName());
+            ConsoleLogger.getInstance().log("Using cached transcript for " + audio.getName());
+            return cached;
+        }
+        TranscriptionResult result = upload.run();
+        cache.put(key, result);
+        return result;
+    }
+
+    /**
+     * Computes the cache key of audio sent with the given request parameters.
+     * This reads the audio once in full, sequentially, which also brings it into the page
+     * cache for the upload that follows on a miss.
+     *
+     * @return A hex string, usable as a file name
+     * @throws IOException if the audio cannot be read
+     */
+    public String keyFor(WavChunk audio, String... request) throws IOException {
+        MessageDigest digest = sha256();
+        for (String parameter : request) {
+            digest.update((parameter != null ? parameter : "").getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+
+        File source = audio.getSource();
+        long offset = audio.getDataOffset();
+        long length = audio.getDataLength();
+        WavHeader wav = readPcmHeader(source);
+        if (wav != null && !audio.isVirtual()) {
+            offset = wav.dataOffset;
+            length = Math.min(wav.dataLength, source.length() - wav.dataOffset);
+        }
+        String format = wav != null
+            ? "pcm/" + wav.sampleRate + "/" + wav.channels + "/" + wav.bitsPerSample
+            : "file";
+        digest.update(format.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+
+        // Plain reads, not a mapping: on Windows a mapping that is not yet released keeps the
+        // file from being deleted, and chunks and temp recordings are deleted right after upload
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) Math.min(HASH_BUFFER_SIZE, Math.max(1, length)));
+        try (FileChannel channel = FileChannel.open(source.toPath(), StandardOpenOption.READ)) {
+            long hashed = 0;
+            while (hashed < length) {
+                buffer.clear().limit((int) Math.min(buffer.capacity(), length - hashed));
+                int n = channel.read(buffer, offset + hashed);
+                if (n < 0) {
+                    throw new IOException("Unexpected end of " + source.getName() + " at byte " + (offset + hashed));
+                }
+                buffer.flip();
+                digest.update(buffer);
+                hashed += n;
+            }
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * @return The cached transcript, or null if there is none
+     */
+    public TranscriptionResult get(String key) {
+        synchronized (this) {
+            if (index().get(key) == null) {  // Also marks the entry as most recently used
+                return null;
+            }
+        }
+        File file = entryFile(key);
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            TranscriptionResult result = TranscriptionResponseParser.parse(in);
+            if (!file.setLastModified(System.currentTimeMillis())) {
+                logger.debug("Could not update last use of cache entry {}", key);
+            }
+            return result;
+        } catch (IOException e) {
+            // Evicted meanwhile, or damaged
+            logger.warn("Could not read cache entry {}: {}", key, e.getMessage());
+            remove(key);
+            return null;
+        }
+    }
+
+    /**
+     * Stores a transcript, evicting least recently used entries if the cache gets too large.
+     * Blank transcripts are not stored: they may come from a server hiccup or a wrongly
+     * detected language, and would otherwise be served for that audio from then on.
+     * Failures are logged; the cache is an optimization only.
+     */
+    public void put(String key, TranscriptionResult result) {
+        if (result == null || result.getText() == null || result.getText().isBlank()) {
+            return;
+        }
+        Path target = entryFile(key).toPath();
+        Path temp = null;
+        try {
+            Files.createDirectories(directory.toPath());
+            temp = Files.createTempFile(directory.toPath(), key, ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                write(result, out);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            long size = Files.size(target);
+            synchronized (this) {
+                Long previous = index().put(key, size);
+                totalBytes += size - (previous != null ? previous : 0);
+                evict();
+            }
+        } catch (IOException e) {
+            logger.warn("Could not store transcript in cache: {}", e.getMessage());
+            if (temp != null) {
+                temp.toFile().delete();
+            }
+        }
+    }
+
+    /**
+     * @return Bytes used by the entries
+     */
+    public synchronized long getSize() {
+        index();
+        return totalBytes;
+    }
+
+    private synchronized void remove(String key) {
+        Long size = index().remove(key);
+        if (size != null) {
+            totalBytes -= size;
+        }
+        entryFile(key).delete();
+    }
+
+    /** Must hold the lock. */
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            eldest.remove();
+            totalBytes -= entry.getValue();
+            if (!entryFile(entry.getKey()).delete()) {
+                logger.warn("Could not delete cache entry {}", entry.getKey());
+            } else {
+                logger.debug("Evicted cache entry {}", entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Scans the directory on first use, ordering entries by last use. Must hold the lock.
+     */
+    private Map<String, Long> index() {
+        if (entries != null) {
+            return entries;
+        }
+        entries = new LinkedHashMap<>(16, 0.75f, true);
+        totalBytes = 0;
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return entries;
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (File file : files) {
+            String name = file.getName();
+            if (name.endsWith(ENTRY_SUFFIX)) {
+                entries.put(name.substring(0, name.length() - ENTRY_SUFFIX.length()), file.length());
+                totalBytes += file.length();
+            } else if (name.endsWith(".tmp")) {
+                file.delete();  // Left over from an interrupted write
+            }
+        }
+        evict();
+        return entries;
+    }
+
+    private File entryFile(String key) {
+        return new File(directory, key + ENTRY_SUFFIX);
+    }
+
+    /**
+     * Writes the transcript as a verbose transcription response, so that
+     * {@link TranscriptionResponseParser} reads it back.
+     */
+    private static void write(TranscriptionResult result, OutputStream out) throws IOException {
+        try (JsonGenerator generator = Json.MAPPER.getFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeStringField("text", result.getText());
+            if (result.hasWordTimestamps()) {
+                generator.writeArrayFieldStart("words");
+                for (TimestampedWord word : result.getWords()) {
+                    generator.writeStartObject();
+                    generator.writeStringField("word", word.text);
+                    generator.writeNumberField("start", word.startMs / 1000.0);
+                    generator.writeNumberField("end", word.endMs / 1000.0);
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * @return The header if the file is a PCM WAV, otherwise null
+     */
+    private static WavHeader readPcmHeader(File file) {
+        try {
+            WavHeader wav = WavHeader.read(file);
+            return wav.isPcm() ? wav : null;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+}
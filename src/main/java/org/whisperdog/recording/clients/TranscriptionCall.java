@@ -0,0 +1,93 @@
+package org.whisperdog.recording.clients;
+
+import org.apache.http.client.methods.HttpUriRequest;
+import org.whisperdog.recording.TranscriptionResult;
+import org.whisperdog.tasks.TaskScheduler;
+import org.whisperdog.tasks.TaskType;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * The future of one {@link TranscriptionClient} call. Cancelling it aborts the HTTP request
+ * the call has {@linkplain #attach attached}, which makes the blocked upload or response
+ * read fail at once instead of running to the end.
+ */
+final class TranscriptionCall extends CompletableFuture<TranscriptionResult> {
+
+    /**
+     * The blocking part of a call.
+     */
+    interface Body {
+        TranscriptionResult run(TranscriptionCall call) throws Exception;
+    }
+
+    private HttpUriRequest request;
+
+    private TranscriptionCall() {
+    }
+
+    /**
+     * Runs the call as a {@link TaskType#NETWORK} task of the shared scheduler.
+     */
+    static TranscriptionCall start(Body body) {
+        return start(body, TaskScheduler.getInstance().executor(TaskType.NETWORK));
+    }
+
+    static TranscriptionCall start(Body body, Executor executor) {
+        TranscriptionCall call = new TranscriptionCall();
+        try {
+            executor.execute(() -> call.run(body));
+        } catch (RejectedExecutionException e) {
+            call.completeExceptionally(e);
+        }
+        return call;
+    }
+
+    /**
+     * Registers the request about to be executed, so that {@link #cancel} can abort it.
+     * A request attached after cancellation is aborted right away.
+     *
+     * @param call The call to attach to, or null for a blocking call
+     */
+    static void attach(TranscriptionCall call, HttpUriRequest request) {
+        if (call == null) {
+            return;
+        }
+        synchronized (call) {
+            call.request = request;
+        }
+        if (call.isCancelled()) {
+            request.abort();
+        }
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+        HttpUriRequest inFlight;
+        synchronized (this) {
+            inFlight = request;
+        }
+        if (cancelled && inFlight != null) {
+            inFlight.abort();
+        }
+        return cancelled;
+    }
+
+    private void run(Body body) {
+        if (isDone()) {
+            return;
+        }
+        try {
+            complete(body.run(this));
+        } catch (Throwable e) {
+            completeExceptionally(e);
+        } finally {
+            synchronized (this) {
+                request = null;
+            }
+        }
+    }
+}
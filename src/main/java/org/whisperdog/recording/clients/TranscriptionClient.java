@@ -0,0 +1,60 @@
+package org.whisperdog.recording.clients;
+
+import org.whisperdog.ConfigManager;
+import org.whisperdog.recording.TranscriptionResult;
+import org.whisperdog.recording.WavChunk;
+
+import java.io.File;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous transcription against one of the supported servers.
+ * <p>
+ * Calls return at once; the upload runs in the background and the future completes with
+ * the transcript, or exceptionally with the client's usual {@link java.io.IOException} or
+ * {@link org.whisperdog.error.TranscriptionException}. Cancelling the returned future
+ * aborts the request in flight and frees its connection. Cancelling a dependent stage
+ * (from {@code thenApply()} and the like) does not reach the request.
+ * <p>
+ * Implementations are safe for concurrent calls, so one instance can serve parallel
+ * chunks, live segments and single recordings at the same time. Temporary files a call
+ * creates (such as compressed copies) are deleted when it completes.
+ */
+public interface TranscriptionClient {
+
+    /**
+     * @return true if results carry word timestamps, which chunk stitching and source
+     *         attribution rely on
+     */
+    boolean supportsWordTimestamps();
+
+    /**
+     * Transcribes a chunk; virtual chunks are streamed from their source WAV.
+     */
+    CompletableFuture<TranscriptionResult> transcribeAsync(WavChunk chunk);
+
+    /**
+     * Transcribes an audio file.
+     */
+    default CompletableFuture<TranscriptionResult> transcribeAsync(File audioFile) {
+        return transcribeAsync(WavChunk.ofFile(audioFile));
+    }
+
+    /**
+     * Creates the client for a server name as returned by {@link ConfigManager#getWhisperServer()}.
+     *
+     * @throws IllegalStateException if the server is unknown
+     */
+    static TranscriptionClient forServer(String server, ConfigManager configManager) {
+        switch (server) {
+            case "OpenAI":
+                return new OpenAITranscribeClient(configManager);
+            case "Faster-Whisper":
+                return new FasterWhisperTranscribeClient(configManager);
+            case "Open WebUI":
+                return new OpenWebUITranscribeClient(configManager);
+            default:
+                throw new IllegalStateException("Unknown Whisper server: " + server);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package org.whisperdog.recording.clients;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.whisperdog.audio.SourceActivityTracker.TimestampedWord;
+import org.whisperdog.http.Json;
+import org.whisperdog.recording.TranscriptionResult;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads transcription responses with a streaming parser.
+ * <p>
+ * Verbose responses for long recordings carry thousands of word entries plus segments the
+ * application does not use. Instead of reading the body into a String and building a tree
+ * of it, the parser pulls {@code text} and {@code words} straight into a
+ * {@link TranscriptionResult} and skips everything else. Both response shapes servers
+ * return are accepted: an object with a {@code text} field, or a bare JSON string.
+ */
+final class TranscriptionResponseParser {
+
+    private TranscriptionResponseParser() {
+    }
+
+    /**
+     * Parses a response body and closes it, which releases a pooled connection for reuse.
+     *
+     * @return The transcript, with word timestamps if the response has any; the text is
+     *         empty if the response has none
+     * @throws IOException if the body is empty or not valid JSON
+     */
+    static TranscriptionResult parse(InputStream body) throws IOException {
+        try (JsonParser parser = Json.parser(body)) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                throw new EOFException("Empty transcription response");
+            }
+            if (token == JsonToken.VALUE_STRING) {
+                return new TranscriptionResult(parser.getText());
+            }
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                return new TranscriptionResult("");
+            }
+
+            String text = "";
+            List<TimestampedWord> words = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("text".equals(field)) {
+                    text = parser.getValueAsString("");
+                    parser.skipChildren();
+                } else if ("words".equals(field) && value == JsonToken.START_ARRAY) {
+                    words = readWords(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return new TranscriptionResult(text, words);
+        }
+    }
+
+    /**
+     * Reads the {@code words} array; timestamps are converted from seconds to milliseconds.
+     */
+    private static List<TimestampedWord> readWords(JsonParser parser) throws IOException {
+        List<TimestampedWord> words = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            String word = "";
+            double start = 0;
+            double end = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "word":
+                        word = parser.getValueAsString("");
+                        break;
+                    case "start":
+                        start = parser.getValueAsDouble(0);
+                        break;
+                    case "end":
+                        end = parser.getValueAsDouble(0);
+                        break;
+                    default:
+                        break;
+                }
+                parser.skipChildren();
+            }
+            words.add(new TimestampedWord(word, Math.round(start * 1000), Math.round(end * 1000)));
+        }
+        return words;
+    }
+}
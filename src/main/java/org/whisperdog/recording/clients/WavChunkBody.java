@@ -0,0 +1,43 @@
+package org.whisperdog.recording.clients;
+
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.mime.MIME;
+import org.apache.http.entity.mime.content.AbstractContentBody;
+import org.whisperdog.recording.WavChunk;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Multipart body that streams a {@link WavChunk} straight from its source file.
+ * The content length is known up front, so the request entity stays repeatable for retries.
+ */
+public class WavChunkBody extends AbstractContentBody {
+
+    private final WavChunk chunk;
+
+    public WavChunkBody(WavChunk chunk) {
+        super(ContentType.create("audio/wav"));
+        this.chunk = chunk;
+    }
+
+    @Override
+    public String getFilename() {
+        return chunk.getName();
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        chunk.writeTo(out);
+    }
+
+    @Override
+    public String getTransferEncoding() {
+        return MIME.ENC_BINARY;
+    }
+
+    @Override
+    public long getContentLength() {
+        return chunk.getLength();
+    }
+}
@@ -1,13 +1,14 @@
 package org.whisperdog.settings;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.kwhat.jnativehook.keyboard.NativeKeyEvent;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.whisperdog.ConfigManager;
 import org.whisperdog.Notificationmanager;
 import org.whisperdog.ToastNotification;
+import org.whisperdog.audio.PcmLevels;
 import org.whisperdog.audio.SystemAudioCapture;
+import org.whisperdog.http.Json;
 import org.whisperdog.ui.MicTestPanel;
 import org.whisperdog.recording.clients.FasterWhisperModel;
 import org.whisperdog.recording.clients.FasterWhisperModelsResponse;
@@ -43,6 +44,8 @@ public class SettingsForm extends JPanel {
 
     // Silence removal settings
     private JCheckBox silenceRemovalSwitch;
+    private JCheckBox liveTranscriptionSwitch;
+    private JCheckBox encodeWhileRecordingSwitch;
     private JSlider silenceThresholdSlider;
     private JSlider minSilenceDurationSlider;
     private JSlider minRecordingDurationSlider;
@@ -96,9 +99,8 @@ public class SettingsForm extends JPanel {
         stopTestButton.setVisible(false);
         stopTestButton.addActionListener(e -> stopAudioTest());
 
-        ObjectMapper mapper = new ObjectMapper();
         try (InputStream is = getClass().getResourceAsStream("/fasterwhispermodels.json")) {
-            FasterWhisperModelsResponse response = mapper.readValue(is, FasterWhisperModelsResponse.class);
+            FasterWhisperModelsResponse response = Json.read(is, FasterWhisperModelsResponse.class);
             fastModelLanguages = response.getData()
                     .stream()
                     .collect(Collectors.toMap(
@@ -291,6 +293,46 @@ public class SettingsForm extends JPanel {
 
         row++;
 
+        // Live transcription (mic-only recordings)
+        gbc.gridx = 0;
+        gbc.gridy = row;
+        gbc.gridwidth = 1;
+        gbc.weightx = 0;
+        gbc.anchor = GridBagConstraints.EAST;
+        contentPanel.add(new JLabel("Transcribe while recording:"), gbc);
+        liveTranscriptionSwitch = new JCheckBox();
+        liveTranscriptionSwitch.setSelected(configManager.isLiveTranscriptionEnabled());
+        liveTranscriptionSwitch.setToolTipText("Send finished speech segments to the server during recording (microphone only)");
+        liveTranscriptionSwitch.addActionListener(e -> settingsDirty = true);
+        gbc.gridx = 1;
+        gbc.gridy = row;
+        gbc.gridwidth = 2;
+        gbc.weightx = 1.0;
+        gbc.anchor = GridBagConstraints.WEST;
+        contentPanel.add(liveTranscriptionSwitch, gbc);
+
+        row++;
+
+        // Upload-ready encoding while recording (OpenAI)
+        gbc.gridx = 0;
+        gbc.gridy = row;
+        gbc.gridwidth = 1;
+        gbc.weightx = 0;
+        gbc.anchor = GridBagConstraints.EAST;
+        contentPanel.add(new JLabel("Encode while recording:"), gbc);
+        encodeWhileRecordingSwitch = new JCheckBox();
+        encodeWhileRecordingSwitch.setSelected(configManager.isEncodeWhileRecordingEnabled());
+        encodeWhileRecordingSwitch.setToolTipText("Keep FLAC upload parts under 24 MB during OpenAI recordings, so the upload starts right after stop (mic-only recordings: only without silence removal)");
+        encodeWhileRecordingSwitch.addActionListener(e -> settingsDirty = true);
+        gbc.gridx = 1;
+        gbc.gridy = row;
+        gbc.gridwidth = 2;
+        gbc.weightx = 1.0;
+        gbc.anchor = GridBagConstraints.WEST;
+        contentPanel.add(encodeWhileRecordingSwitch, gbc);
+
+        row++;
+
         // Silence threshold slider
         gbc.gridx = 0;
         gbc.gridy = row;
@@ -797,6 +839,22 @@ public class SettingsForm extends JPanel {
         retGbc.anchor = GridBagConstraints.WEST;
         retentionPanel.add(retainChannelFilesSwitch, retGbc);
 
+        retRow++;
+
+        JCheckBox keepChunkFilesSwitch = new JCheckBox("Keep chunk files for recovery");
+        keepChunkFilesSwitch.setSelected(configManager.isKeepChunkFilesEnabled());
+        keepChunkFilesSwitch.setToolTipText("When enabled, large WAV files are split into temp chunk files that are kept if transcription fails. When disabled, chunks are uploaded directly from the source file");
+        keepChunkFilesSwitch.addActionListener(e -> {
+            configManager.setKeepChunkFilesEnabled(keepChunkFilesSwitch.isSelected());
+            settingsDirty = true;
+        });
+        retGbc.gridx = 1;
+        retGbc.gridy = retRow;
+        retGbc.gridwidth = 2;
+        retGbc.weightx = 1.0;
+        retGbc.anchor = GridBagConstraints.WEST;
+        retentionPanel.add(keepChunkFilesSwitch, retGbc);
+
         // Add retention panel to content panel
         gbc.gridx = 0;
         gbc.gridy = row;
@@ -1031,6 +1089,30 @@ public class SettingsForm extends JPanel {
         fwGbc.weightx = 1.0;
         fwGbc.anchor = GridBagConstraints.WEST;
         fasterWhispererPanel.add(fasterWhisperLanguageComboBox, fwGbc);
+        fwRow++;
+        // Parallel chunk transcription for large files
+        fwGbc.gridx = 0;
+        fwGbc.gridy = fwRow;
+        fwGbc.gridwidth = 1;
+        fwGbc.weightx = 0;
+        fwGbc.anchor = GridBagConstraints.EAST;
+        fasterWhispererPanel.add(new JLabel("Parallel chunks:"), fwGbc);
+        SpinnerNumberModel chunkConcurrencyModel = new SpinnerNumberModel(
+            configManager.getChunkConcurrency("Faster-Whisper"), 1, 8, 1);
+        JSpinner chunkConcurrencySpinner = new JSpinner(chunkConcurrencyModel);
+        chunkConcurrencySpinner.setToolTipText("Chunks of a large file transcribed at the same time (1-8). Raise only if the server has spare capacity");
+        chunkConcurrencySpinner.addChangeListener(e -> {
+            configManager.setChunkConcurrency("Faster-Whisper", (Integer) chunkConcurrencySpinner.getValue());
+            settingsDirty = true;
+        });
+        JPanel chunkConcurrencyPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
+        chunkConcurrencyPanel.add(chunkConcurrencySpinner);
+        fwGbc.gridx = 1;
+        fwGbc.gridy = fwRow;
+        fwGbc.gridwidth = 2;
+        fwGbc.weightx = 1.0;
+        fwGbc.anchor = GridBagConstraints.WEST;
+        fasterWhispererPanel.add(chunkConcurrencyPanel, fwGbc);
 
         // Action listener to update available languages whenever the model selection changes.
         fasterWhisperModelComboBox.addActionListener(e -> updateFasterWhisperLanguages());
@@ -1300,7 +1382,7 @@ public class SettingsForm extends JPanel {
 
                     // When window is full, calculate RMS and reset
                     if (windowPosition >= WINDOW_BYTES) {
-                        double rms = calculateRMS(windowBuffer, WINDOW_BYTES);
+                        double rms = Math.min(PcmLevels.rms(windowBuffer, 0, WINDOW_BYTES, format.isBigEndian()), 1.0);
                         int volume = (int) (rms * 100);
                         publish(volume);
                         windowPosition = 0;
@@ -1319,17 +1401,6 @@ public class SettingsForm extends JPanel {
         protected void done() {
             volumeBar.setValue(0);
         }
-        private double calculateRMS(byte[] audioData, int bytesRead) {
-            long sum = 0;
-            for (int i = 0; i < bytesRead; i += 2) {
-                if (i + 1 < bytesRead) {
-                    int sample = (audioData[i + 1] << 8) | (audioData[i] & 0xFF);
-                    sum += (long) sample * sample;
-                }
-            }
-            double rms = Math.sqrt(sum / (bytesRead / 2));
-            return Math.min(rms / 32768.0, 1.0);
-        }
     }
 
     public static String formatKeyCombination(String keyCombination) {
@@ -1509,6 +1580,8 @@ public class SettingsForm extends JPanel {
 
         // Save silence removal settings
         configManager.setSilenceRemovalEnabled(silenceRemovalSwitch.isSelected());
+        configManager.setLiveTranscriptionEnabled(liveTranscriptionSwitch.isSelected());
+        configManager.setEncodeWhileRecordingEnabled(encodeWhileRecordingSwitch.isSelected());
         configManager.setSilenceThreshold((float) dbToRms(silenceThresholdSlider.getValue()));
         configManager.setMinSilenceDuration(minSilenceDurationSlider.getValue());
         configManager.setMinRecordingDurationForSilenceRemoval(minRecordingDurationSlider.getValue());
@@ -1,13 +1,13 @@
 package org.whisperdog.settings.clients;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.whisperdog.ConfigManager;
+import org.whisperdog.http.HttpTransport;
+import org.whisperdog.http.Json;
 import org.whisperdog.recording.clients.FasterWhisperModel;
 import org.whisperdog.recording.clients.FasterWhisperModelsResponse;
 
@@ -22,9 +22,15 @@ import java.util.List;
 public class FasterWhisperModelsClient {
     private static final Logger logger = LogManager.getLogger(FasterWhisperModelsClient.class);
     private final ConfigManager configManager;
+    private final HttpTransport transport;
 
     public FasterWhisperModelsClient(ConfigManager configManager) {
+        this(configManager, HttpTransport.getInstance());
+    }
+
+    public FasterWhisperModelsClient(ConfigManager configManager, HttpTransport transport) {
         this.configManager = configManager;
+        this.transport = transport;
     }
 
     /**
@@ -34,33 +40,31 @@ public class FasterWhisperModelsClient {
      * @throws IOException if an error occurs during the API request.
      */
     public List<FasterWhisperModel> getModels() throws IOException {
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-
-            String baseUrl = configManager.getFasterWhisperServerUrl().trim();
-            if (!baseUrl.toLowerCase().startsWith("http://") && !baseUrl.toLowerCase().startsWith("https://")) {
-                baseUrl = "http://" + baseUrl;
-            }
+        CloseableHttpClient httpClient = transport.client();
+        String baseUrl = configManager.getFasterWhisperServerUrl().trim();
+        if (!baseUrl.toLowerCase().startsWith("http://") && !baseUrl.toLowerCase().startsWith("https://")) {
+            baseUrl = "http://" + baseUrl;
+        }
 
-            if (baseUrl.endsWith("/")) {
-                baseUrl = baseUrl.substring(0, baseUrl.length() - 1);
-            }
+        if (baseUrl.endsWith("/")) {
+            baseUrl = baseUrl.substring(0, baseUrl.length() - 1);
+        }
 
-            // Build URL from ConfigManager
-            String url = baseUrl + "/v1/models";
-            HttpGet httpGet = new HttpGet(url);
-            httpGet.setHeader("Accept", "application/json");
+        // Build URL from ConfigManager
+        String url = baseUrl + "/v1/models";
+        HttpGet httpGet = new HttpGet(url);
+        httpGet.setHeader("Accept", "application/json");
+        httpGet.setConfig(HttpTransport.Timeouts.QUICK.toRequestConfig());
 
-            try (CloseableHttpResponse response = httpClient.execute(httpGet)) {
-                int statusCode = response.getStatusLine().getStatusCode();
+        try (CloseableHttpResponse response = httpClient.execute(httpGet)) {
+            int statusCode = response.getStatusLine().getStatusCode();
+            if (statusCode != 200) {
                 String responseString = new String(response.getEntity().getContent().readAllBytes(), StandardCharsets.UTF_8);
-                if (statusCode != 200) {
-                    logger.error("Error from models API. Status: {} Response: {}", statusCode, responseString);
-                    throw new IOException("Error from models API: " + responseString);
-                }
-                ObjectMapper objectMapper = new ObjectMapper();
-                FasterWhisperModelsResponse modelsResponse = objectMapper.readValue(responseString, FasterWhisperModelsResponse.class);
-                return modelsResponse.getData();
+                logger.error("Error from models API. Status: {} Response: {}", statusCode, responseString);
+                throw new IOException("Error from models API: " + responseString);
             }
+            FasterWhisperModelsResponse modelsResponse = Json.read(response.getEntity().getContent(), FasterWhisperModelsResponse.class);
+            return modelsResponse.getData();
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,187 @@
+package org.whisperdog.tasks;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the application's background work.
+ * <p>
+ * Every {@link TaskType} has its own limit on concurrent tasks and a bounded queue, so many
+ * recordings and imports can be handled at once without one kind of work starving another,
+ * as happened when all {@code SwingWorker}s shared the default pool of 10 threads.
+ * A {@code SwingWorker} is run by passing it to {@link #execute} instead of calling its
+ * {@code execute()}; {@code done()} and {@code process()} still run on the event thread.
+ * <p>
+ * Tasks run on virtual threads where the JDK has them (Java 21 and later), so tasks
+ * blocked in HTTP, ffmpeg or disk I/O do not hold a platform thread; otherwise, and for
+ * types that {@linkplain TaskType#requiresPlatformThreads() require them}, on daemon
+ * platform threads, created on demand and released when idle. Threads are renamed to
+ * the running task, which shows up in thread dumps and log patterns.
+ */
+public final class TaskScheduler {
+
+    private static final Logger logger = LogManager.getLogger(TaskScheduler.class);
+
+    private static final long IDLE_THREAD_SECONDS = 30;
+
+    private static volatile TaskScheduler instance;
+
+    private final Map<TaskType, ThreadPoolExecutor> executors = new EnumMap<>(TaskType.class);
+    private final boolean virtualThreads;
+
+    public TaskScheduler() {
+        this(true);
+    }
+
+    /**
+     * @param preferVirtualThreads false to always use platform threads
+     */
+    public TaskScheduler(boolean preferVirtualThreads) {
+        ThreadFactory virtual = preferVirtualThreads ? virtualThreadFactory() : null;
+        this.virtualThreads = virtual != null;
+        for (TaskType type : TaskType.values()) {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                type.getMaxConcurrent(), type.getMaxConcurrent(),
+                IDLE_THREAD_SECONDS, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(type.getQueueCapacity()),
+                virtual != null && !type.requiresPlatformThreads() ? virtual : platformThreadFactory(type));
+            executor.allowCoreThreadTimeOut(true);
+            executors.put(type, executor);
+        }
+        logger.debug("Task scheduler uses {} threads", virtualThreads ? "virtual" : "platform");
+    }
+
+    /**
+     * @return The scheduler shared by the whole application
+     */
+    public static TaskScheduler getInstance() {
+        TaskScheduler shared = instance;
+        if (shared == null) {
+            synchronized (TaskScheduler.class) {
+                shared = instance;
+                if (shared == null) {
+                    shared = new TaskScheduler();
+                    instance = shared;
+                }
+            }
+        }
+        return shared;
+    }
+
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * @return Whether tasks of the given type run on virtual threads
+     */
+    public boolean usesVirtualThreads(TaskType type) {
+        return virtualThreads && !type.requiresPlatformThreads();
+    }
+
+    /**
+     * Runs a task, such as a {@code SwingWorker}.
+     *
+     * @param name Describes the task in thread names and logs
+     * @throws RejectedExecutionException if the queue of the type is full or the scheduler is shut down
+     */
+    public void execute(TaskType type, String name, Runnable task) {
+        executors.get(type).execute(() -> run(type, name, task));
+    }
+
+    /**
+     * Runs a task whose result can be awaited.
+     *
+     * @return A future; {@code cancel(true)} removes a queued task, or interrupts a running one
+     * @throws RejectedExecutionException if the queue of the type is full or the scheduler is shut down
+     */
+    public <T> Future<T> submit(TaskType type, String name, Callable<T> task) {
+        FutureTask<T> future = new FutureTask<>(task);
+        execute(type, name, future);
+        return future;
+    }
+
+    public Future<?> submit(TaskType type, String name, Runnable task) {
+        return submit(type, name, Executors.callable(task));
+    }
+
+    /**
+     * @return An executor for tasks of the given type, for {@code CompletableFuture} stages
+     */
+    public Executor executor(TaskType type) {
+        return task -> execute(type, type.getLabel(), task);
+    }
+
+    public int getActiveCount(TaskType type) {
+        return executors.get(type).getActiveCount();
+    }
+
+    public int getQueuedCount(TaskType type) {
+        return executors.get(type).getQueue().size();
+    }
+
+    /**
+     * Discards queued tasks and interrupts running ones. Only for schedulers that are not
+     * the shared instance.
+     */
+    public void shutdownNow() {
+        for (ThreadPoolExecutor executor : executors.values()) {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void run(TaskType type, String name, Runnable task) {
+        Thread thread = Thread.currentThread();
+        String threadName = thread.getName();
+        thread.setName(type.getLabel() + ": " + name);
+        try {
+            task.run();
+        } catch (RuntimeException | Error e) {
+            logger.error("{} task '{}' failed", type.getLabel(), name, e);
+        } finally {
+            thread.setName(threadName);
+            Thread.interrupted();  // An interrupt meant for this task must not hit the next one
+        }
+    }
+
+    private static ThreadFactory platformThreadFactory(TaskType type) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "WhisperDog-" + type.name().toLowerCase() + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Looks up {@code Thread.ofVirtual().name(...).factory()} by reflection, since the code is
+     * compiled for Java 17.
+     *
+     * @return The factory, or null if the JDK has no virtual threads
+     */
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class)
+                .invoke(builder, "WhisperDog-virtual-", 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.whisperdog.tasks;
+
+import org.whisperdog.http.HttpTransport;
+
+/**
+ * Kinds of background work, each with its own concurrency limit and queue in
+ * {@link TaskScheduler}, so that a burst of one kind cannot starve the others.
+ * <p>
+ * A task may wait for tasks of another type, but never for tasks of its own type:
+ * with every slot of a type taken by waiting tasks, the tasks they wait for would
+ * never get to run.
+ */
+public enum TaskType {
+
+    /**
+     * Capture loops; each runs for the length of a recording. They block in native reads
+     * and must keep up with the audio line, so they get platform threads of their own
+     * rather than sharing carrier threads with CPU-heavy virtual-thread work.
+     */
+    RECORDING("Recording", 4, 4, true),
+
+    /** Transcription jobs for recordings and imported files, including the calls they wait for. */
+    TRANSCRIPTION("Transcription", 4, 64, false),
+
+    /** Post-processing pipelines. */
+    POST_PROCESSING("Post-processing", 4, 64, false),
+
+    /**
+     * Single HTTP exchanges, such as one chunk upload. Limited to the connections the
+     * transport keeps per host, so that waiting happens in the queue, which has no timeout,
+     * rather than for a pooled connection, which has.
+     */
+    NETWORK("Network", HttpTransport.MAX_CONNECTIONS_PER_ROUTE, 256, false),
+
+    /** ffmpeg runs, compression, chunking and other disk-heavy audio work. */
+    AUDIO_PROCESSING("Audio processing", 2, 64, false),
+
+    /** Short side work for the UI, such as sounds and delayed updates. */
+    UI("UI", 2, 64, false);
+
+    private final String label;
+    private final int maxConcurrent;
+    private final int queueCapacity;
+    private final boolean platformThreads;
+
+    TaskType(String label, int maxConcurrent, int queueCapacity, boolean platformThreads) {
+        this.label = label;
+        this.maxConcurrent = maxConcurrent;
+        this.queueCapacity = queueCapacity;
+        this.platformThreads = platformThreads;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /** Tasks of this type that run at the same time. */
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    /** Tasks of this type that can wait for a free slot before new ones are rejected. */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /** Whether tasks of this type always run on platform threads, even where virtual threads exist. */
+    public boolean requiresPlatformThreads() {
+        return platformThreads;
+    }
+}
@@ -1,6 +1,8 @@
 package org.whisperdog.ui;
 
 import org.whisperdog.audio.AudioAnalyzer;
+import org.whisperdog.audio.PcmLevels;
+import org.whisperdog.audio.PolyphaseResampler;
 import org.whisperdog.ConfigManager;
 
 import javax.sound.sampled.*;
@@ -37,6 +39,7 @@ public class MicTestPanel extends JPanel {
     private byte[] recordedAudio;
     private byte[] filteredAudio;
     private TargetDataLine microphone;
+    private PolyphaseResampler resampler;
     private Clip playbackClip;
     private volatile boolean recording = false;
     private static final float SAMPLE_RATE = 16000f;
@@ -245,7 +248,10 @@ public class MicTestPanel extends JPanel {
 
     private void startRecording() {
         try {
-            AudioFormat format = new AudioFormat(SAMPLE_RATE, 16, 1, true, false);
+            // Capture at the recorder's rate so the test uses the same device path, then
+            // resample to the 16kHz used for analysis and playback
+            int captureRate = configManager.getAudioBitrate();
+            AudioFormat format = new AudioFormat(captureRate, 16, 1, true, false);
             DataLine.Info info = new DataLine.Info(TargetDataLine.class, format);
 
             if (!AudioSystem.isLineSupported(info)) {
@@ -279,6 +285,7 @@ public class MicTestPanel extends JPanel {
             microphone = line;
             microphone.open(format);
             microphone.start();
+            resampler = new PolyphaseResampler(captureRate, (int) SAMPLE_RATE);
 
             recording = true;
             recordButton.setEnabled(false);
@@ -306,18 +313,23 @@ public class MicTestPanel extends JPanel {
     private void recordLoop() {
         ByteArrayOutputStream buffer = new ByteArrayOutputStream();
         byte[] chunk = new byte[4096];
+        float[] samples = new float[chunk.length / 2];
+        byte[] resampled = new byte[resampler.maxOutputSamples(samples.length) * 2];
         long startTime = System.currentTimeMillis();
         long maxDurationMs = MAX_RECORDING_SECONDS * 1000L;
 
         while (recording && (System.currentTimeMillis() - startTime) < maxDurationMs) {
             int read = microphone.read(chunk, 0, chunk.length);
             if (read > 0) {
-                buffer.write(chunk, 0, read);
+                int frames = read / 2;
+                for (int i = 0; i < frames; i++) {
+                    samples[i] = (short) ((chunk[2 * i] & 0xFF) | (chunk[2 * i + 1] << 8)) / 32768.0f;
+                }
+                int length = resampler.process(samples, frames, resampled, 0);
+                buffer.write(resampled, 0, length);
 
                 // Calculate real-time RMS for display
-                byte[] chunkCopy = new byte[read];
-                System.arraycopy(chunk, 0, chunkCopy, 0, read);
-                double rms = analyzer.calculateRMS(chunkCopy);
+                double rms = PcmLevels.rms(resampled, 0, length, false);
                 final long elapsed = System.currentTimeMillis() - startTime;
 
                 SwingUtilities.invokeLater(() -> {
@@ -0,0 +1,106 @@
+package org.whisperdog.audio;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AlignedPcmRingTest {
+
+    @Test
+    void silenceReplacesDroppedAudioWhereItWasLost() throws Exception {
+        AlignedPcmRing ring = new AlignedPcmRing(1024);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] batch = new byte[256];
+
+        assertTrue(ring.offer(filled(600, 1), 0, 600));
+        assertFalse(ring.offer(filled(600, 2), 0, 600));  // Does not fit
+        assertEquals(600, ring.drain(batch, out::write));
+        assertTrue(ring.offer(filled(300, 3), 0, 300));
+        assertEquals(900, ring.finish(batch, out::write));
+
+        byte[] expected = new byte[1500];
+        Arrays.fill(expected, 0, 600, (byte) 1);
+        Arrays.fill(expected, 1200, 1500, (byte) 3);
+        assertArrayEquals(expected, out.toByteArray());
+        assertEquals(600, ring.getDroppedBytes());
+    }
+
+    @Test
+    void audioDroppedAtTheEndIsAppendedOnFinish() throws Exception {
+        AlignedPcmRing ring = new AlignedPcmRing(1024);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertTrue(ring.offer(filled(1000, 1), 0, 1000));
+        assertFalse(ring.offer(filled(100, 2), 0, 100));
+        assertEquals(1000, ring.drain(new byte[256], out::write));
+        assertEquals(100, ring.finish(new byte[256], out::write));
+
+        byte[] written = out.toByteArray();
+        assertEquals(1100, written.length);
+        assertEquals(1, written[999]);
+        assertEquals(0, written[1000]);
+    }
+
+    @Test
+    void keepsEveryByteAtItsPositionUnderOverruns() throws Exception {
+        AlignedPcmRing ring = new AlignedPcmRing(4096);
+        int total = 2_000_000;
+        AtomicReference<String> failure = new AtomicReference<>();
+        long[] position = new long[1];
+        long[] silent = new long[1];
+        AlignedPcmRing.Sink check = (pcm, offset, length) -> {
+            for (int i = 0; i < length; i++, position[0]++) {
+                byte b = pcm[offset + i];
+                if (b == 0) {
+                    silent[0]++;
+                } else if (b != expectedByte(position[0])) {
+                    failure.compareAndSet(null, "Byte " + position[0] + " moved");
+                }
+            }
+        };
+        Thread producer = new Thread(() -> {
+            byte[] source = new byte[320];
+            for (int produced = 0; produced < total; produced += source.length) {
+                for (int i = 0; i < source.length; i++) {
+                    source[i] = expectedByte(produced + i);
+                }
+                ring.offer(source, 0, source.length);
+                if (produced % 32_000 == 0) {
+                    Thread.yield();
+                }
+            }
+        });
+        producer.start();
+
+        byte[] batch = new byte[1000];
+        while (producer.isAlive()) {
+            ring.drain(batch, check);
+            Thread.sleep(1);  // Slow consumer, so the producer overruns
+        }
+        producer.join();
+        ring.finish(batch, check);
+
+        assertNull(failure.get());
+        assertTrue(ring.getDroppedBytes() > 0, "Test did not overrun the ring");
+        assertEquals(total, position[0]);
+        assertEquals(ring.getDroppedBytes(), silent[0]);
+    }
+
+    private static byte expectedByte(long position) {
+        return (byte) (position % 251 + 1);  // Never 0, so silence can be told apart
+    }
+
+    private static byte[] filled(int length, int value) {
+        byte[] bytes = new byte[length];
+        Arrays.fill(bytes, (byte) value);
+        return bytes;
+    }
+}
@@ -0,0 +1,222 @@
+package org.whisperdog.audio;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlacEncoderTest {
+
+    @Test
+    void roundTripsSpeechLikeMono() throws IOException {
+        Random random = new Random(7);
+        short[] samples = new short[16000 * 3 + 123];  // Short final block
+        for (int i = 0; i < samples.length; i++) {
+            boolean talking = (i / 8000) % 2 == 0;
+            double voice = talking ? 6000 * Math.sin(2 * Math.PI * 180 * i / 16000.0) : 0;
+            samples[i] = (short) (voice + random.nextGaussian() * (talking ? 400 : 3));
+        }
+
+        byte[] flac = encode(samples, 16000, 1, 997);
+        assertArrayEquals(samples, new Decoder(flac).decode());
+        assertTrue(flac.length < samples.length * 2 * 0.7, "Expected compression, got " + flac.length + " bytes");
+    }
+
+    @Test
+    void roundTripsStereoNoiseSilenceAndFullScale() throws IOException {
+        Random random = new Random(3);
+        short[] samples = new short[2 * (FlacEncoder.BLOCK_SIZE * 3 + 17)];
+        for (int i = 0; i < samples.length; i += 2) {
+            int frame = i / 2;
+            if (frame < FlacEncoder.BLOCK_SIZE) {
+                samples[i] = (short) random.nextInt(65536);             // Verbatim
+                samples[i + 1] = 0;                                      // Constant
+            } else {
+                samples[i] = frame % 2 == 0 ? Short.MAX_VALUE : Short.MIN_VALUE;
+                samples[i + 1] = (short) (frame * 7);
+            }
+        }
+
+        assertArrayEquals(samples, new Decoder(encode(samples, 44100, 2, 4093)).decode());
+    }
+
+    @Test
+    void writesUnknownRateThroughStreamInfo() throws IOException {
+        short[] samples = new short[20000];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = (short) (3000 * Math.sin(i / 10.0));
+        }
+        Decoder decoder = new Decoder(encode(samples, 20000, 1, 1000));
+        assertArrayEquals(samples, decoder.decode());
+        assertEquals(20000, decoder.sampleRate);
+    }
+
+    /** Encodes through buffers of an odd byte size, so samples are split across writes */
+    private static byte[] encode(short[] samples, int sampleRate, int channels, int bufferBytes) throws IOException {
+        byte[] pcm = new byte[samples.length * 2];
+        for (int i = 0; i < samples.length; i++) {
+            pcm[2 * i] = (byte) samples[i];
+            pcm[2 * i + 1] = (byte) (samples[i] >> 8);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        FlacEncoder encoder = new FlacEncoder(out, sampleRate, channels);
+        for (int offset = 0; offset < pcm.length; offset += bufferBytes) {
+            encoder.write(pcm, offset, Math.min(bufferBytes, pcm.length - offset));
+        }
+        encoder.finish();
+        return out.toByteArray();
+    }
+
+    /**
+     * Minimal FLAC decoder for the subset the encoder produces (independent channels;
+     * constant, verbatim and fixed subframes), checking both frame CRCs.
+     */
+    private static final class Decoder {
+        private final byte[] data;
+        private int bitPosition;
+        int sampleRate;
+        private int channels;
+
+        Decoder(byte[] data) {
+            this.data = data;
+        }
+
+        short[] decode() {
+            assertEquals(0x664C6143, bits(32), "fLaC marker");
+            assertEquals(1, bits(1), "single metadata block");
+            assertEquals(0, bits(7), "STREAMINFO");
+            assertEquals(34, bits(24));
+            bits(16);
+            bits(16);
+            bits(24);
+            bits(24);
+            sampleRate = bits(20);
+            channels = bits(3) + 1;
+            assertEquals(15, bits(5), "16 bits per sample");
+            bitPosition += 36 + 128;
+
+            ByteArrayOutputStream samples = new ByteArrayOutputStream();
+            long expectedFrame = 0;
+            while (bitPosition / 8 < data.length) {
+                int frameStart = bitPosition / 8;
+                assertEquals(0x3FFE, bits(14), "sync");
+                bits(2);
+                int blockSizeCode = bits(4);
+                bits(4);
+                assertEquals(channels - 1, bits(4));
+                assertEquals(0b100, bits(3));
+                bits(1);
+                assertEquals(expectedFrame++, utf8());
+                int blockSize = blockSizeCode == 0b1100 ? FlacEncoder.BLOCK_SIZE : bits(16) + 1;
+                int headerCrc = FlacEncoder.Crc.crc8(slice(frameStart), bitPosition / 8 - frameStart);
+                assertEquals(headerCrc, bits(8), "header CRC-8");
+
+                int[][] decoded = new int[channels][];
+                for (int ch = 0; ch < channels; ch++) {
+                    decoded[ch] = subframe(blockSize);
+                }
+                bitPosition = (bitPosition + 7) & ~7;
+                int frameCrc = FlacEncoder.Crc.crc16(slice(frameStart), bitPosition / 8 - frameStart);
+                assertEquals(frameCrc, bits(16), "frame CRC-16");
+
+                for (int i = 0; i < blockSize; i++) {
+                    for (int ch = 0; ch < channels; ch++) {
+                        samples.write(decoded[ch][i] & 0xFF);
+                        samples.write((decoded[ch][i] >> 8) & 0xFF);
+                    }
+                }
+            }
+
+            byte[] pcm = samples.toByteArray();
+            short[] result = new short[pcm.length / 2];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = (short) ((pcm[2 * i] & 0xFF) | (pcm[2 * i + 1] << 8));
+            }
+            return result;
+        }
+
+        private int[] subframe(int blockSize) {
+            assertEquals(0, bits(1), "subframe padding");
+            int type = bits(6);
+            assertEquals(0, bits(1), "wasted bits");
+            int[] x = new int[blockSize];
+            if (type == 0) {
+                java.util.Arrays.fill(x, signedBits(16));
+            } else if (type == 1) {
+                for (int i = 0; i < blockSize; i++) {
+                    x[i] = signedBits(16);
+                }
+            } else {
+                assertEquals(0b001000, type & 0b111000, "fixed subframe");
+                int order = type & 0b111;
+                for (int i = 0; i < order; i++) {
+                    x[i] = signedBits(16);
+                }
+                int method = bits(2);
+                int parameterBits = method == 0 ? 4 : 5;
+                int partitionOrder = bits(4);
+                int partitions = 1 << partitionOrder;
+                int i = order;
+                for (int p = 0; p < partitions; p++) {
+                    int count = (blockSize >> partitionOrder) - (p == 0 ? order : 0);
+                    int k = bits(parameterBits);
+                    for (int n = 0; n < count; n++, i++) {
+                        long q = 0;
+                        while (bits(1) == 0) {
+                            q++;
+                        }
+                        long u = (q << k) | (k > 0 ? bits(k) : 0);
+                        int residual = (int) ((u >>> 1) ^ -(u & 1));
+                        x[i] = residual + predict(x, i, order);
+                    }
+                }
+            }
+            return x;
+        }
+
+        private static int predict(int[] x, int i, int order) {
+            switch (order) {
+                case 0: return 0;
+                case 1: return x[i - 1];
+                case 2: return 2 * x[i - 1] - x[i - 2];
+                case 3: return 3 * x[i - 1] - 3 * x[i - 2] + x[i - 3];
+                default: return 4 * x[i - 1] - 6 * x[i - 2] + 4 * x[i - 3] - x[i - 4];
+            }
+        }
+
+        private long utf8() {
+            int first = bits(8);
+            if ((first & 0x80) == 0) {
+                return first;
+            }
+            int continuation = Integer.numberOfLeadingZeros(~first << 24) - 1;
+            long value = first & (0x3F >> continuation);
+            for (int i = 0; i < continuation; i++) {
+                value = (value << 6) | (bits(8) & 0x3F);
+            }
+            return value;
+        }
+
+        private byte[] slice(int from) {
+            return java.util.Arrays.copyOfRange(data, from, data.length);
+        }
+
+        private int signedBits(int count) {
+            return (bits(count) << (32 - count)) >> (32 - count);
+        }
+
+        private int bits(int count) {
+            int value = 0;
+            for (int i = 0; i < count; i++, bitPosition++) {
+                int bit = (data[bitPosition >> 3] >> (7 - (bitPosition & 7))) & 1;
+                value = (value << 1) | bit;
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.whisperdog.audio;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ShortBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PcmLevelsTest {
+
+    @Test
+    void matchesReferenceForAnyOffsetAndLength() {
+        Random random = new Random(42);
+        short[] samples = new short[1001];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = (short) random.nextInt(65536);
+        }
+        byte[] little = toBytes(samples, false);
+        byte[] big = toBytes(samples, true);
+
+        // Odd counts exercise the tails after the unrolled loops
+        int[][] windows = {{0, 1001}, {3, 998}, {7, 5}, {0, 1}, {500, 0}};
+        for (int[] window : windows) {
+            int from = window[0];
+            int count = window[1];
+            long expectedSquares = 0;
+            int expectedPeak = 0;
+            for (int i = from; i < from + count; i++) {
+                expectedSquares += (long) samples[i] * samples[i];
+                expectedPeak = Math.max(expectedPeak, Math.abs(samples[i]));
+            }
+
+            assertEquals(expectedSquares, PcmLevels.sumOfSquares(samples, from, count));
+            assertEquals(expectedSquares, PcmLevels.sumOfSquares(little, 2 * from, 2 * count, false));
+            assertEquals(expectedSquares, PcmLevels.sumOfSquares(big, 2 * from, 2 * count, true));
+            assertEquals(expectedSquares, PcmLevels.sumOfSquares(ShortBuffer.wrap(samples, from, count)));
+            assertEquals(expectedPeak, PcmLevels.maxAbs(samples, from, count));
+            assertEquals(expectedPeak, PcmLevels.maxAbs(little, 2 * from, 2 * count, false));
+            assertEquals(expectedPeak, PcmLevels.maxAbs(big, 2 * from, 2 * count, true));
+        }
+    }
+
+    @Test
+    void normalizesToFullScale() {
+        short[] full = {Short.MIN_VALUE, Short.MIN_VALUE, Short.MIN_VALUE, Short.MIN_VALUE};
+        assertEquals(1.0, PcmLevels.rms(full, 0, full.length), 1e-9);
+        assertEquals(1.0, PcmLevels.peak(full, 0, full.length), 1e-9);
+
+        short[] half = {16384, -16384, 16384};
+        assertEquals(0.5, PcmLevels.rms(toBytes(half, false), 0, 6, false), 1e-9);
+        assertEquals(0.0, PcmLevels.rms(new byte[0], 0, 0, false));
+    }
+
+    @Test
+    void ignoresTrailingOddByte() {
+        byte[] pcm = {0x00, 0x40, 0x7F};  // One sample (16384) plus a stray byte
+        assertEquals(16384L * 16384, PcmLevels.sumOfSquares(pcm, 0, 3, false));
+        assertEquals(0.5, PcmLevels.rms(pcm, 0, 3, false), 1e-9);
+    }
+
+    private static byte[] toBytes(short[] samples, boolean bigEndian) {
+        byte[] data = new byte[samples.length * 2];
+        for (int i = 0; i < samples.length; i++) {
+            byte low = (byte) samples[i];
+            byte high = (byte) (samples[i] >> 8);
+            data[2 * i] = bigEndian ? high : low;
+            data[2 * i + 1] = bigEndian ? low : high;
+        }
+        return data;
+    }
+}
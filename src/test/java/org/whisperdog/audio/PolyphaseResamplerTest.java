@@ -0,0 +1,116 @@
+package org.whisperdog.audio;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PolyphaseResamplerTest {
+
+    @Test
+    void splitBuffersMatchSingleBuffer() {
+        float[] input = sine(48000, 440, 4800);
+
+        PolyphaseResampler whole = new PolyphaseResampler(48000, 16000);
+        byte[] expected = new byte[whole.maxOutputSamples(input.length) * 2];
+        int expectedLength = whole.process(input, input.length, expected, 0);
+
+        // Uneven buffer sizes, as delivered by WASAPI
+        PolyphaseResampler split = new PolyphaseResampler(48000, 16000);
+        byte[] actual = new byte[expected.length];
+        int actualLength = 0;
+        int[] sizes = {441, 480, 7, 1000, 1, 480, 2391};
+        int offset = 0;
+        for (int size : sizes) {
+            float[] buffer = Arrays.copyOfRange(input, offset, offset + size);
+            actualLength += split.process(buffer, size, actual, actualLength);
+            offset += size;
+        }
+
+        assertEquals(input.length, offset);
+        assertEquals(expectedLength, actualLength);
+        assertArrayEquals(Arrays.copyOf(expected, expectedLength), Arrays.copyOf(actual, actualLength));
+    }
+
+    @Test
+    void keepsExactRateOverManyBuffers() {
+        // 44.1kHz has no integer ratio to 16kHz; the phase must not drift
+        PolyphaseResampler resampler = new PolyphaseResampler(44100, 16000);
+        float[] buffer = new float[441];
+        byte[] out = new byte[resampler.maxOutputSamples(buffer.length) * 2];
+        long samples = 0;
+        for (int i = 0; i < 1000; i++) {  // 10 seconds
+            samples += resampler.process(buffer, buffer.length, out, 0) / 2;
+        }
+        // Only the filter delay (half a window) is still pending
+        assertEquals(160000, samples, 20);
+    }
+
+    @Test
+    void passesThroughAtEqualRates() {
+        PolyphaseResampler resampler = new PolyphaseResampler(16000, 16000);
+        float[] input = {0.5f, -0.25f, 1.5f, -1.5f};
+        byte[] out = new byte[resampler.maxOutputSamples(input.length) * 2];
+        int length = resampler.process(input, input.length, out, 0);
+
+        assertEquals(8, length);
+        assertEquals(16384, pcm(out, 0));
+        assertEquals(-8192, pcm(out, 1));
+        assertEquals(Short.MAX_VALUE, pcm(out, 2));
+        assertEquals(Short.MIN_VALUE, pcm(out, 3));
+    }
+
+    @Test
+    void keepsSpeechBandAndRemovesAliases() {
+        // 1kHz passes unchanged; 10kHz is above the 8kHz output Nyquist and must not fold back to 6kHz
+        assertEquals(1.0, gain(48000, 1000), 0.01);
+        assertTrue(gain(48000, 10000) < 0.001, "Alias leaked through");
+        assertEquals(1.0, gain(44100, 3000), 0.01);
+        assertTrue(gain(44100, 12000) < 0.001, "Alias leaked through");
+    }
+
+    @Test
+    void quantizesPhasesForUnusualRates() {
+        // 44101/16000 reduces to 16000 phases; the table is capped but the rate stays exact
+        PolyphaseResampler resampler = new PolyphaseResampler(44101, 16000);
+        float[] input = sine(44101, 500, 44101);
+        float[] out = new float[resampler.maxOutputSamples(input.length)];
+        int samples = resampler.process(input, input.length, out, 0);
+        assertEquals(16000, samples, 20);
+        assertEquals(rms(sine(16000, 500, 16000), 0, 16000), rms(out, 100, samples), 0.01);
+    }
+
+    /**
+     * @return Output RMS over input RMS for a sine at {@code frequency}, past the filter delay
+     */
+    private static double gain(int inputRate, double frequency) {
+        float[] input = sine(inputRate, frequency, inputRate);
+        PolyphaseResampler resampler = new PolyphaseResampler(inputRate, 16000);
+        float[] out = new float[resampler.maxOutputSamples(input.length)];
+        int samples = resampler.process(input, input.length, out, 0);
+        return rms(out, 100, samples) / rms(input, 0, input.length);
+    }
+
+    private static double rms(float[] samples, int from, int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += samples[i] * samples[i];
+        }
+        return Math.sqrt(sum / (to - from));
+    }
+
+    private static float[] sine(int sampleRate, double frequency, int frames) {
+        float[] samples = new float[frames];
+        for (int i = 0; i < frames; i++) {
+            samples[i] = (float) (0.5 * Math.sin(2.0 * Math.PI * frequency * i / sampleRate));
+        }
+        return samples;
+    }
+
+    private static int pcm(byte[] data, int index) {
+        return (short) ((data[2 * index] & 0xFF) | (data[2 * index + 1] << 8));
+    }
+}
@@ -0,0 +1,100 @@
+package org.whisperdog.audio;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.whisperdog.recording.IncrementalWavWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SourceActivityTrackerLiveTimelineTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final SourceActivityTracker tracker = new SourceActivityTracker();
+
+    @Test
+    void matchesFileAnalysisWhenFedInUnalignedBuffers() throws IOException {
+        // Mic at 20kHz, system at 16kHz; activity alternates between the two and overlaps
+        byte[] mic = turns(20000, 7300, 0);
+        byte[] system = turns(16000, 7300, 1);
+        File micFile = writeWav("mic.wav", mic, 20000);
+        File systemFile = writeWav("sys.wav", system, 16000);
+
+        SourceActivityTracker.LiveTimeline live = tracker.startLiveTimeline(20000, 1, 16000, 1);
+        feed(mic, 1234, live::addMicAudio);
+        feed(system, 998, live::addSystemAudio);
+
+        assertEquals(tracker.trackActivity(micFile, systemFile).toString(), live.finish().toString());
+    }
+
+    @Test
+    void reportsLatestSource() {
+        SourceActivityTracker.LiveTimeline live = tracker.startLiveTimeline(16000, 1, 16000, 1);
+        assertEquals(SourceActivityTracker.Source.SILENCE, live.getCurrentSource());
+
+        live.addMicAudio(tone(16000, 100, 0.2, 1), 0, 3200);
+        live.addSystemAudio(new byte[3200], 0, 3200);
+        assertEquals(SourceActivityTracker.Source.USER, live.getCurrentSource());
+
+        live.addMicAudio(new byte[3200], 0, 3200);
+        live.addSystemAudio(tone(16000, 100, 0.2, 2), 0, 3200);
+        assertEquals(SourceActivityTracker.Source.SYSTEM, live.getCurrentSource());
+
+        List<SourceActivityTracker.ActivitySegment> timeline = live.finish();
+        assertEquals(200, timeline.get(timeline.size() - 1).endMs);
+    }
+
+    private interface Sink {
+        void accept(byte[] pcm, int offset, int length);
+    }
+
+    private static void feed(byte[] pcm, int bufferBytes, Sink sink) {
+        for (int offset = 0; offset < pcm.length; offset += bufferBytes) {
+            sink.accept(pcm, offset, Math.min(bufferBytes, pcm.length - offset));
+        }
+    }
+
+    /**
+     * Half-second turns of speech-level noise, alternating with the other track and
+     * overlapping it every third turn.
+     */
+    private static byte[] turns(int sampleRate, int durationMs, int phase) {
+        Random random = new Random(phase);
+        int samples = sampleRate * durationMs / 1000;
+        byte[] pcm = new byte[samples * 2];
+        for (int i = 0; i < samples; i++) {
+            int turn = (int) ((long) i * 1000 / sampleRate / 500);
+            boolean active = turn % 2 == phase || turn % 3 == 0;
+            short sample = active ? (short) (random.nextGaussian() * 3000) : 0;
+            pcm[2 * i] = (byte) sample;
+            pcm[2 * i + 1] = (byte) (sample >> 8);
+        }
+        return pcm;
+    }
+
+    private static byte[] tone(int sampleRate, int durationMs, double amplitude, int seed) {
+        int samples = sampleRate * durationMs / 1000;
+        byte[] pcm = new byte[samples * 2];
+        for (int i = 0; i < samples; i++) {
+            short sample = (short) (amplitude * 32767 * Math.sin(2 * Math.PI * 220 * seed * i / sampleRate));
+            pcm[2 * i] = (byte) sample;
+            pcm[2 * i + 1] = (byte) (sample >> 8);
+        }
+        return pcm;
+    }
+
+    private File writeWav(String name, byte[] pcm, int sampleRate) throws IOException {
+        File file = tempDir.resolve(name).toFile();
+        try (IncrementalWavWriter writer = new IncrementalWavWriter(file, sampleRate, 16, 1)) {
+            writer.write(pcm, 0, pcm.length);
+        }
+        return file;
+    }
+}
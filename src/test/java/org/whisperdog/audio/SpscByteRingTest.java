@@ -0,0 +1,71 @@
+package org.whisperdog.audio;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpscByteRingTest {
+
+    @Test
+    void transfersStreamAcrossThreadsInOrder() throws Exception {
+        SpscByteRing ring = new SpscByteRing(1000);  // Rounded to 1024; odd chunk sizes force wrap-around
+        int total = 1_000_000;
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        Thread consumer = new Thread(() -> {
+            byte[] target = new byte[333];
+            int expected = 0;
+            while (expected < total) {
+                int length = ring.poll(target, 0, target.length);
+                for (int i = 0; i < length; i++, expected++) {
+                    if (target[i] != (byte) expected) {
+                        failure.compareAndSet(null, "Mismatch at byte " + expected);
+                        return;
+                    }
+                }
+                if (length == 0) {
+                    Thread.onSpinWait();
+                }
+            }
+        });
+        consumer.start();
+
+        byte[] source = new byte[257];
+        int produced = 0;
+        while (produced < total) {
+            int length = Math.min(source.length, total - produced);
+            for (int i = 0; i < length; i++) {
+                source[i] = (byte) (produced + i);
+            }
+            while (!ring.offer(source, 0, length)) {
+                Thread.onSpinWait();
+            }
+            produced += length;
+        }
+        consumer.join(10000);
+
+        assertFalse(consumer.isAlive());
+        assertNull(failure.get());
+        assertEquals(0, ring.size());
+    }
+
+    @Test
+    void rejectsWritesThatDoNotFit() {
+        SpscByteRing ring = new SpscByteRing(16);
+        byte[] data = new byte[10];
+
+        assertTrue(ring.offer(data, 0, 10));
+        assertFalse(ring.offer(data, 0, 10));  // Overrun: nothing is written
+        assertEquals(10, ring.size());
+        assertTrue(ring.offer(data, 0, 6));
+        assertEquals(16, ring.getHighWaterMark());
+
+        assertEquals(10, ring.poll(new byte[10], 0, 10));
+        assertTrue(ring.offer(data, 0, 10));
+    }
+}
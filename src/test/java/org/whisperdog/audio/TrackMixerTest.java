@@ -0,0 +1,133 @@
+package org.whisperdog.audio;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.whisperdog.recording.IncrementalWavWriter;
+import org.whisperdog.recording.WavHeader;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrackMixerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void sumsBothSourcesSampleBySample() throws IOException {
+        File output = tempDir.resolve("mixed.wav").toFile();
+        try (TrackMixer mixer = new TrackMixer(output, 1.0f, 0.5f, false)) {
+            byte[] mic = pcm(constant(1000, 4000));
+            byte[] system = pcm(constant(1000, 2000));
+            mixer.write(TrackMixer.Source.MIC, mic, 0, mic.length, 16000, 1);
+            mixer.write(TrackMixer.Source.SYSTEM, system, 0, system.length, 16000, 1);
+        }
+
+        short[] mixed = samples(output);
+        assertEquals(1000, mixed.length);
+        for (short sample : mixed) {
+            assertEquals(5000, sample, 1);  // 4000 + 0.5 * 2000
+        }
+    }
+
+    @Test
+    void limitsLoudSumsWithoutWrapping() throws IOException {
+        File output = tempDir.resolve("mixed.wav").toFile();
+        try (TrackMixer mixer = new TrackMixer(output, 1.0f, 1.0f, false)) {
+            byte[] loud = pcm(constant(100, 30000));
+            mixer.write(TrackMixer.Source.MIC, loud, 0, loud.length, 16000, 1);
+            mixer.write(TrackMixer.Source.SYSTEM, loud, 0, loud.length, 16000, 1);
+        }
+
+        for (short sample : samples(output)) {
+            assertTrue(sample > 26214, "Limited sum should stay above the knee: " + sample);
+        }
+    }
+
+    @Test
+    void keepsTheLongerTrack() throws IOException {
+        File mic = wav("mic.wav", 16000, constant(16000, 1000));  // 1s
+        File system = wav("system.wav", 16000, constant(8000, 1000));  // 0.5s
+
+        File merged = TrackMixer.mergeTracks(mic, system, 1.0f, 1.0f);
+        try {
+            short[] mixed = samples(merged);
+            assertEquals(16000, mixed.length);
+            assertEquals(2000, mixed[100], 1);
+            assertEquals(1000, mixed[12000], 1);
+        } finally {
+            assertTrue(merged.delete());
+        }
+    }
+
+    @Test
+    void resamplesMicToTrackRate() throws IOException {
+        File mic = wav("mic.wav", 22050, constant(22050, 1000));  // 1s at a configurable mic rate
+        File system = wav("system.wav", 16000, constant(16000, 0));
+
+        File merged = TrackMixer.mergeTracks(mic, system, 1.0f, 1.0f);
+        try {
+            WavHeader header = WavHeader.read(merged);
+            assertEquals(16000, header.sampleRate);
+            assertEquals(1, header.channels);
+            assertEquals(16000, header.getTotalFrames(), 20);  // Less the filter delay
+        } finally {
+            assertTrue(merged.delete());
+        }
+    }
+
+    @Test
+    void liveMixKeepsPaceWhenOneSourceStalls() throws IOException {
+        File output = tempDir.resolve("mixed.wav").toFile();
+        try (TrackMixer mixer = new TrackMixer(output, 1.0f, 1.0f, true)) {
+            byte[] second = pcm(constant(16000, 1000));
+            for (int i = 0; i < 8; i++) {
+                mixer.write(TrackMixer.Source.MIC, second, 0, second.length, 16000, 1);
+            }
+            // Everything beyond the allowed lag is already on disk
+            assertTrue(mixer.getOutputFile().length() >= 44 + 2L * 3 * 16000);
+        }
+        assertEquals(8 * 16000, samples(output).length);
+    }
+
+    private File wav(String name, int sampleRate, short[] samples) throws IOException {
+        File file = tempDir.resolve(name).toFile();
+        try (IncrementalWavWriter writer = new IncrementalWavWriter(file, sampleRate, 16, 1)) {
+            byte[] data = pcm(samples);
+            writer.write(data, 0, data.length);
+        }
+        return file;
+    }
+
+    private static short[] constant(int length, int value) {
+        short[] samples = new short[length];
+        Arrays.fill(samples, (short) value);
+        return samples;
+    }
+
+    private static byte[] pcm(short[] samples) {
+        byte[] data = new byte[samples.length * 2];
+        for (int i = 0; i < samples.length; i++) {
+            data[2 * i] = (byte) samples[i];
+            data[2 * i + 1] = (byte) (samples[i] >> 8);
+        }
+        return data;
+    }
+
+    private static short[] samples(File wav) throws IOException {
+        WavHeader header = WavHeader.read(wav);
+        byte[] data = Files.readAllBytes(wav.toPath());
+        short[] samples = new short[(int) (header.dataLength / 2)];
+        for (int i = 0; i < samples.length; i++) {
+            int index = (int) header.dataOffset + 2 * i;
+            samples[i] = (short) ((data[index] & 0xFF) | (data[index + 1] << 8));
+        }
+        return samples;
+    }
+}
@@ -0,0 +1,50 @@
+package org.whisperdog.audio;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.whisperdog.recording.IncrementalWavWriter;
+import org.whisperdog.recording.WavHeader;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WavResamplerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void convertsStereo48kToMono16k() throws IOException {
+        File input = tempDir.resolve("stereo.wav").toFile();
+        int frames = 48000 * 2;
+        try (IncrementalWavWriter writer = new IncrementalWavWriter(input, 48000, 16, 2)) {
+            byte[] data = new byte[frames * 4];
+            for (int i = 0; i < frames; i++) {
+                short left = (short) (8000 * Math.sin(2 * Math.PI * 440 * i / 48000.0));
+                putSample(data, 2 * i, left);
+                putSample(data, 2 * i + 1, (short) 0);
+            }
+            writer.write(data, 0, data.length);
+        }
+        assertTrue(WavResampler.needsConversion(input));
+
+        File output = tempDir.resolve("mono.wav").toFile();
+        WavResampler.convert(input, output);
+
+        WavHeader header = WavHeader.read(output);
+        assertEquals(16000, header.sampleRate);
+        assertEquals(1, header.channels);
+        assertEquals(32000, header.getTotalFrames(), 20);
+        assertFalse(WavResampler.needsConversion(output));
+    }
+
+    private static void putSample(byte[] data, int index, short sample) {
+        data[2 * index] = (byte) sample;
+        data[2 * index + 1] = (byte) (sample >> 8);
+    }
+}
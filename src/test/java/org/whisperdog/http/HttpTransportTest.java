@@ -0,0 +1,52 @@
+package org.whisperdog.http;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class HttpTransportTest {
+
+    @Test
+    void reusesConnectionsAcrossRequests() throws Exception {
+        Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            byte[] body = "{\"text\":\"ok\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        try (HttpTransport transport = new HttpTransport(HttpTransport.Timeouts.QUICK)) {
+            String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/v1/models";
+            for (int i = 0; i < 5; i++) {
+                try (CloseableHttpResponse response = transport.client().execute(new HttpGet(url))) {
+                    assertEquals("{\"text\":\"ok\"}", EntityUtils.toString(response.getEntity()));
+                }
+            }
+            assertEquals(1, clientPorts.size(), "Expected one pooled connection, saw ports " + clientPorts);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void buildsTheTrustAllClientOnce() throws Exception {
+        try (HttpTransport transport = new HttpTransport(HttpTransport.Timeouts.DEFAULT)) {
+            assertSame(transport.trustAllClient(), transport.trustAllClient());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.whisperdog.recording;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChunkBoundaryPlannerTest {
+
+    @Test
+    void cutsInNearestGapWithinTolerance() throws Exception {
+        List<SilenceRemover.SilenceRegion> gaps = List.of(
+            new SilenceRemover.SilenceRegion(850, 900),    // 125 from target 1000
+            new SilenceRemover.SilenceRegion(1040, 1060),  // 50 from target 1000
+            new SilenceRemover.SilenceRegion(1700, 1800)); // outside tolerance of 2050
+
+        List<ChunkBoundaryPlanner.Span> spans = ChunkBoundaryPlanner.plan(3000, 1000, 200, (from, to) -> gaps);
+
+        assertEquals(3, spans.size());
+        assertSpan(spans.get(0), 0, 1050, true);
+        assertSpan(spans.get(1), 1050, 2050, true);
+        assertSpan(spans.get(2), 2050, 3000, false);
+        assertEquals(1, ChunkBoundaryPlanner.countCleanCuts(spans));
+    }
+
+    @Test
+    void fallsBackToFixedCutsWithoutGaps() throws Exception {
+        List<ChunkBoundaryPlanner.Span> spans = ChunkBoundaryPlanner.plan(2500, 1000, 100, null);
+
+        assertEquals(3, spans.size());
+        assertSpan(spans.get(0), 0, 1000, true);
+        assertSpan(spans.get(1), 1000, 2000, false);
+        assertSpan(spans.get(2), 2000, 2500, false);
+    }
+
+    @Test
+    void lastChunkAbsorbsRemainderWithinTolerance() throws Exception {
+        List<ChunkBoundaryPlanner.Span> spans = ChunkBoundaryPlanner.plan(2080, 1000, 100, null);
+
+        assertEquals(2, spans.size());
+        assertSpan(spans.get(1), 1000, 2080, false);
+    }
+
+    @Test
+    void toleranceIsTenPercentCappedAtThirtySeconds() {
+        assertEquals(100, ChunkBoundaryPlanner.toleranceFrames(1000, 1000));
+        assertEquals(30_000, ChunkBoundaryPlanner.toleranceFrames(20 * 60 * 1000, 1000));
+    }
+
+    private static void assertSpan(ChunkBoundaryPlanner.Span span, long start, long end, boolean clean) {
+        assertEquals(start, span.startFrame);
+        assertEquals(end, span.endFrame);
+        if (clean) {
+            assertTrue(span.cleanStart);
+        } else {
+            assertFalse(span.cleanStart);
+        }
+    }
+}
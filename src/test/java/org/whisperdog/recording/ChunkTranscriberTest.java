@@ -0,0 +1,72 @@
+package org.whisperdog.recording;
+
+import org.junit.jupiter.api.Test;
+import org.whisperdog.recording.clients.TranscriptionClient;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChunkTranscriberTest {
+
+    private static final WavChunk CHUNK = WavChunk.ofFile(new File("chunk_001.wav"));
+
+    @Test
+    void retriesAFailedAttemptWithoutBlockingTheCaller() throws Exception {
+        FakeClient client = new FakeClient();
+        ChunkTranscriber transcriber = new ChunkTranscriber(client, () -> false);
+
+        CompletableFuture<TranscriptionResult> result = transcriber.transcribeWithRetries(CHUNK, 1);
+        assertEquals(1, client.calls.size());
+        client.calls.get(0).completeExceptionally(new IOException("Connection reset"));
+
+        // The second attempt starts after the retry delay
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (client.calls.size() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(2, client.calls.size());
+        client.calls.get(1).complete(new TranscriptionResult("hello"));
+        assertEquals("hello", result.get(1, TimeUnit.SECONDS).getText());
+    }
+
+    @Test
+    void abortCancelsTheCallInFlight() throws Exception {
+        FakeClient client = new FakeClient();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        ChunkTranscriber transcriber = new ChunkTranscriber(client, cancelled::get);
+
+        CompletableFuture<TranscriptionResult> result = transcriber.transcribeWithRetries(CHUNK, 1);
+        cancelled.set(true);
+        transcriber.abort();
+
+        assertTrue(client.calls.get(0).isCancelled());
+        assertNull(result.get(1, TimeUnit.SECONDS));
+        assertEquals(1, client.calls.size());
+    }
+
+    /** Hands out calls that the test completes. */
+    private static class FakeClient implements TranscriptionClient {
+        final List<CompletableFuture<TranscriptionResult>> calls = new CopyOnWriteArrayList<>();
+
+        @Override
+        public boolean supportsWordTimestamps() {
+            return false;
+        }
+
+        @Override
+        public CompletableFuture<TranscriptionResult> transcribeAsync(WavChunk chunk) {
+            CompletableFuture<TranscriptionResult> call = new CompletableFuture<>();
+            calls.add(call);
+            return call;
+        }
+    }
+}
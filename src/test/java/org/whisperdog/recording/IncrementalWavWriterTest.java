@@ -10,6 +10,7 @@ import java.nio.ByteOrder;
 import java.nio.file.Files;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class IncrementalWavWriterTest {
@@ -22,7 +23,7 @@ class IncrementalWavWriterTest {
         byte[] chunk1 = buildSinePcm(4096);
         byte[] chunk2 = buildSinePcm(2048);
 
-        try (IncrementalWavWriter writer = new IncrementalWavWriter(wavFile, 16000, 16, 1)) {
+        try (IncrementalWavWriter writer = new IncrementalWavWriter(wavFile, 16000, 16, 1, 0)) {
             writer.write(chunk1, 0, chunk1.length);
             assertHeaderSizes(wavFile, chunk1.length);
             assertEquals(chunk1.length, writer.getBytesWritten());
@@ -37,6 +38,74 @@ class IncrementalWavWriterTest {
         assertTrue(wavFile.length() >= 44 + totalBytes);
     }
 
+    @Test
+    void updatesHeaderOncePerIntervalAndOnClose() throws Exception {
+        File wavFile = Files.createTempFile("incremental-wav-writer-", ".wav").toFile();
+        wavFile.deleteOnExit();
+
+        byte[] block = buildSinePcm(3200);  // 100ms at 16kHz mono
+
+        try (IncrementalWavWriter writer = new IncrementalWavWriter(wavFile, 16000, 16, 1, 1000)) {
+            for (int i = 0; i < 9; i++) {
+                writer.write(block, 0, block.length);
+            }
+            assertHeaderSizes(wavFile, 0);
+            assertEquals(44, wavFile.length(), "Data stays in the write buffer");
+
+            writer.flush();
+            assertEquals(44 + 9 * block.length, wavFile.length());
+            assertHeaderSizes(wavFile, 0);
+
+            writer.write(block, 0, block.length);  // One second of audio
+            assertHeaderSizes(wavFile, 10 * block.length);
+
+            writer.write(block, 0, block.length);
+            assertHeaderSizes(wavFile, 10 * block.length);
+        }
+        assertHeaderSizes(wavFile, 11 * block.length);
+        assertEquals(44 + 11 * block.length, wavFile.length());
+    }
+
+    @Test
+    void writesLargeBuffersThrough() throws Exception {
+        File wavFile = Files.createTempFile("incremental-wav-writer-", ".wav").toFile();
+        wavFile.deleteOnExit();
+
+        byte[] small = buildSinePcm(100);
+        byte[] large = buildSinePcm(200_000);
+        try (IncrementalWavWriter writer = new IncrementalWavWriter(wavFile, 16000, 16, 1, 60_000)) {
+            writer.write(small, 0, small.length);
+            writer.write(large, 0, large.length);
+            writer.write(small, 0, small.length);
+        }
+
+        byte[] written = Files.readAllBytes(wavFile.toPath());
+        assertEquals(44 + 2 * small.length + large.length, written.length);
+        assertEquals(large[0], written[44 + small.length]);
+        assertEquals(small[small.length - 1], written[written.length - 1]);
+    }
+
+    @Test
+    void repairsHeaderOfInterruptedRecording() throws Exception {
+        File wavFile = Files.createTempFile("incremental-wav-writer-", ".wav").toFile();
+        wavFile.deleteOnExit();
+
+        byte[] block = buildSinePcm(3200);
+        IncrementalWavWriter writer = new IncrementalWavWriter(wavFile, 16000, 16, 1, 1000);
+        for (int i = 0; i < 15; i++) {
+            writer.write(block, 0, block.length);
+        }
+        writer.flush();
+        // Simulate a crash: the header still declares the first second only
+        assertHeaderSizes(wavFile, 10 * block.length);
+
+        assertTrue(IncrementalWavWriter.repairHeader(wavFile));
+        assertHeaderSizes(wavFile, 15 * block.length);
+        assertEquals(15 * block.length, WavHeader.read(wavFile).dataLength);
+        assertFalse(IncrementalWavWriter.repairHeader(wavFile), "Header is already correct");
+        writer.close();
+    }
+
     private static byte[] buildSinePcm(int byteCount) {
         int sampleCount = byteCount / 2;
         ByteBuffer buffer = ByteBuffer.allocate(sampleCount * 2).order(ByteOrder.LITTLE_ENDIAN);
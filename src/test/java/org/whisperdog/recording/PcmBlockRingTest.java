@@ -0,0 +1,66 @@
+package org.whisperdog.recording;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PcmBlockRingTest {
+
+    @Test
+    void deliversBlocksInOrderAndEnds() throws Exception {
+        PcmBlockRing ring = new PcmBlockRing(4, 8);
+        List<Long> consumed = new ArrayList<>();
+
+        Thread consumer = new Thread(() -> {
+            try {
+                PcmBlockRing.Block block;
+                while ((block = ring.take()) != null) {
+                    consumed.add(block.frameOffset);
+                    ring.release(block);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        consumer.start();
+
+        // More blocks than the ring holds: the producer reuses released blocks
+        for (long i = 0; i < 100; i++) {
+            PcmBlockRing.Block block = ring.acquire();
+            block.length = 8;
+            block.frameOffset = i;
+            ring.publish(block);
+        }
+        ring.publishEnd();
+        consumer.join(5000);
+
+        assertEquals(100, consumed.size());
+        for (int i = 0; i < consumed.size(); i++) {
+            assertEquals(i, (long) consumed.get(i));
+        }
+    }
+
+    @Test
+    void reusesPooledBlocks() throws Exception {
+        PcmBlockRing ring = new PcmBlockRing(1, 8);
+
+        PcmBlockRing.Block first = ring.acquire();
+        first.length = 8;
+        ring.publish(first);
+        ring.release(ring.take());
+
+        PcmBlockRing.Block reused = ring.acquire();
+        assertSame(first, reused);
+        assertEquals(0, reused.length);
+        assertEquals(0, ring.getStalls());
+        ring.release(reused);
+
+        ring.publishEnd();
+        assertNull(ring.take());
+    }
+}
@@ -0,0 +1,82 @@
+package org.whisperdog.recording;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ShortBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PcmSourceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void windowsViewTheSamplesAfterExtraChunks() throws Exception {
+        byte[] canonical = WavHeader.createHeader(8000, 16, 2, 0);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(canonical, 0, 36);
+        out.write(new byte[]{'L', 'I', 'S', 'T', 2, 0, 0, 0, 'a', 'b'});
+        out.write(canonical, 36, 8);  // Unfinalized size, taken from the file length
+        for (int i = 0; i < 2000; i++) {
+            int sample = (short) (i * 31 - 20000);
+            out.write(sample);
+            out.write(sample >> 8);
+        }
+        File file = new File(tempDir.toFile(), "extra.wav");
+        Files.write(file.toPath(), out.toByteArray());
+
+        try (PcmSource source = PcmSource.open(file)) {
+            assertTrue(source.is16BitPcm());
+            assertEquals(1000, source.getFrameCount());
+            assertEquals(0.125f, source.getDurationSeconds());
+
+            ShortBuffer window = source.samples(333, 7);
+            assertEquals(14, window.remaining());
+            for (int i = 0; i < 14; i++) {
+                assertEquals((short) ((666 + i) * 31 - 20000), window.get(i));
+            }
+            assertEquals(0, source.bytes(1000, 0).remaining());
+            assertThrows(IndexOutOfBoundsException.class, () -> source.samples(995, 6));
+        }
+    }
+
+    @Test
+    void closeReleasesTheFile() throws Exception {
+        File file = new File(tempDir.toFile(), "mapped.wav");
+        try (IncrementalWavWriter writer = new IncrementalWavWriter(file, 16000, 16, 1)) {
+            writer.write(new byte[32000], 0, 32000);
+        }
+
+        PcmSource source = PcmSource.open(file);
+        assertEquals(0, source.samples(0, 16000).get(15999));
+        source.close();
+
+        assertThrows(IOException.class, () -> source.bytes(0, 1));
+        assertTrue(file.delete());
+        assertFalse(file.exists());
+    }
+
+    @Test
+    void rejectsOtherFormatsForSampleViews() throws Exception {
+        File file = new File(tempDir.toFile(), "eight.wav");
+        try (IncrementalWavWriter writer = new IncrementalWavWriter(file, 8000, 8, 1)) {
+            writer.write(new byte[800], 0, 800);
+        }
+
+        try (PcmSource source = PcmSource.open(file)) {
+            assertFalse(source.is16BitPcm());
+            assertEquals(800, source.bytes(0, 800).remaining());
+            assertThrows(IllegalStateException.class, () -> source.samples(0, 1));
+        }
+    }
+}
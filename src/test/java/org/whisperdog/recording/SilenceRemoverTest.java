@@ -0,0 +1,119 @@
+package org.whisperdog.recording;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class SilenceRemoverTest {
+
+    private static final int SAMPLE_RATE = 16000;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void removesLongSilenceAndKeepsShortPauses() throws Exception {
+        // 2s tone, 3s silence, 2s tone, 0.5s pause, 1s tone
+        File input = writeWav("speech.wav", tone(2000), silence(3000), tone(2000), silence(500), tone(1000));
+
+        File output = SilenceRemover.removeSilence(input, 0.01f, 1500, false, 0);
+
+        assertNotEquals(input, output);
+        assertEquals(new File(tempDir.toFile(), "speech_nosilence.wav"), output);
+        try (AudioInputStream stream = AudioSystem.getAudioInputStream(output)) {
+            assertEquals(SAMPLE_RATE * 55L / 10, stream.getFrameLength());
+        }
+    }
+
+    @Test
+    void returnsOriginalWhenNoSilenceFound() throws Exception {
+        File input = writeWav("tone.wav", tone(3000));
+
+        File output = SilenceRemover.removeSilence(input, 0.01f, 1500, false, 0);
+
+        assertEquals(input, output);
+        assertEquals(false, new File(tempDir.toFile(), "tone_nosilence.wav").exists());
+    }
+
+    @Test
+    void analysisReportsSilenceRatio() throws Exception {
+        File input = writeWav("ratio.wav", tone(2000), silence(2000));
+
+        SilenceRemover.SilenceAnalysisResult result = SilenceRemover.analyzeForSilence(input, 0.01f, 1500);
+
+        assertNotNull(result);
+        assertEquals(4.0f, result.durationSeconds, 0.001f);
+        assertEquals(0.5f, result.silenceRatio, 0.001f);
+    }
+
+    @Test
+    void splicingFromDetectionMatchesSinglePass() throws Exception {
+        byte[][] parts = {silence(2000), tone(1500), silence(2500), tone(700), silence(300), tone(1200), silence(1800)};
+        File singlePassInput = writeWav("single.wav", parts);
+        File detectedInput = writeWav("detected.wav", parts);
+
+        File singlePass = SilenceRemover.removeSilence(singlePassInput, 0.01f, 1500, false, 0);
+        SilenceRemover.SilenceDetection detection = SilenceRemover.detectSilence(detectedInput, 0.01f, 1500);
+        File spliced = SilenceRemover.removeSilence(detection, false, 0);
+
+        assertEquals(3, detection.regions.size());
+        assertEquals(0.63f, detection.analysis.silenceRatio, 0.001f);
+        assertArrayEquals(readPcm(singlePass), readPcm(spliced));
+    }
+
+    @Test
+    void detectionWithoutSilenceWritesNothing() throws Exception {
+        File input = writeWav("tone.wav", tone(3000));
+        SilenceRemover.SilenceDetection detection = SilenceRemover.detectSilence(input, 0.01f, 1500);
+
+        File output = SilenceRemover.removeSilence(detection, false, 0);
+
+        assertEquals(0, detection.regions.size());
+        assertEquals(input, output);
+        assertEquals(false, new File(tempDir.toFile(), "tone_nosilence.wav").exists());
+    }
+
+    private static byte[] readPcm(File file) throws Exception {
+        try (AudioInputStream stream = AudioSystem.getAudioInputStream(file)) {
+            return stream.readAllBytes();
+        }
+    }
+
+    private File writeWav(String name, byte[]... parts) throws Exception {
+        ByteArrayOutputStream pcm = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            pcm.write(part);
+        }
+        byte[] data = pcm.toByteArray();
+        File file = new File(tempDir.toFile(), name);
+        try (IncrementalWavWriter writer = new IncrementalWavWriter(file, SAMPLE_RATE, 16, 1)) {
+            writer.write(data, 0, data.length);
+        }
+        return file;
+    }
+
+    private static byte[] tone(int durationMs) {
+        int samples = SAMPLE_RATE * durationMs / 1000;
+        ByteBuffer buffer = ByteBuffer.allocate(samples * 2).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < samples; i++) {
+            buffer.putShort((short) (Math.sin(2.0 * Math.PI * 440.0 * i / SAMPLE_RATE) * 8000));
+        }
+        return buffer.array();
+    }
+
+    private static byte[] silence(int durationMs) {
+        return new byte[SAMPLE_RATE * durationMs / 1000 * 2];
+    }
+}
@@ -0,0 +1,92 @@
+package org.whisperdog.recording;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SpeechSegmenterTest {
+
+    // 1000 frames per second, so frame positions read as milliseconds
+    private static final float SAMPLE_RATE = 1000;
+    private static final float LOUD = 0.2f;
+    private static final float QUIET = 0.001f;
+
+    private final List<long[]> segments = new ArrayList<>();
+    private long position;
+
+    private SpeechSegmenter segmenter(int maxSegmentMs) {
+        return new SpeechSegmenter(SAMPLE_RATE, 0.01f, 700, 1500, 5000, maxSegmentMs,
+            (start, end, overlap) -> segments.add(new long[]{start, end, overlap}));
+    }
+
+    private void feed(SpeechSegmenter segmenter, float rms, long durationMs) {
+        for (long end = position + durationMs; position < end; position += 100) {
+            segmenter.accept(rms, position, position + 100);
+        }
+    }
+
+    @Test
+    void cutsAtPauseOnlyAfterMinimumLength() {
+        SpeechSegmenter segmenter = segmenter(60000);
+        feed(segmenter, LOUD, 3000);
+        feed(segmenter, QUIET, 800);   // Too early to cut
+        feed(segmenter, LOUD, 3000);
+        feed(segmenter, QUIET, 800);   // Cut in the middle: 6800 + 400
+        feed(segmenter, LOUD, 2000);
+        segmenter.finish(position);
+
+        assertEquals(2, segments.size());
+        assertSegment(0, 0, 7200, 0);
+        assertSegment(1, 7200, 9600, 0);
+    }
+
+    @Test
+    void dropsLongSilenceAndCountsIt() {
+        SpeechSegmenter segmenter = segmenter(60000);
+        feed(segmenter, QUIET, 2000);  // Leading silence is never sent
+        feed(segmenter, LOUD, 2000);
+        feed(segmenter, QUIET, 3000);
+        feed(segmenter, LOUD, 1000);
+        feed(segmenter, QUIET, 1000);
+        segmenter.finish(position);
+
+        assertEquals(2, segments.size());
+        assertSegment(0, 1800, 4200, 0);
+        assertSegment(1, 6800, 8200, 0);
+
+        SilenceRemover.SilenceAnalysisResult analysis = segmenter.getAnalysis();
+        assertEquals(9.0f, analysis.durationSeconds, 0.001f);
+        assertEquals(5.0f / 9.0f, analysis.silenceRatio, 0.001f);
+    }
+
+    @Test
+    void forcedCutRepeatsOverlap() {
+        SpeechSegmenter segmenter = segmenter(10000);
+        feed(segmenter, LOUD, 15000);
+        segmenter.finish(position);
+
+        assertEquals(2, segments.size());
+        assertSegment(0, 0, 10000, 0);
+        assertSegment(1, 8000, 15000, 2000);
+    }
+
+    @Test
+    void emitsNothingWithoutSpeech() {
+        SpeechSegmenter segmenter = segmenter(60000);
+        feed(segmenter, QUIET, 5000);
+        segmenter.finish(position);
+
+        assertEquals(0, segments.size());
+        assertEquals(1.0f, segmenter.getAnalysis().silenceRatio, 0.001f);
+    }
+
+    private void assertSegment(int index, long start, long end, long overlapMs) {
+        long[] segment = segments.get(index);
+        assertEquals(start, segment[0], "start of segment " + index);
+        assertEquals(end, segment[1], "end of segment " + index);
+        assertEquals(overlapMs, segment[2], "overlap of segment " + index);
+    }
+}
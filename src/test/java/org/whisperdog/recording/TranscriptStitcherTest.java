@@ -0,0 +1,79 @@
+package org.whisperdog.recording;
+
+import org.junit.jupiter.api.Test;
+import org.whisperdog.audio.SourceActivityTracker.TimestampedWord;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TranscriptStitcherTest {
+
+    @Test
+    void removesOverlapByTokenAlignment() {
+        String transcript = new TranscriptStitcher()
+            .append(new TranscriptionResult("We went to the store and bought some fresh apples."), 0, -1)
+            .append(new TranscriptionResult("bought some fresh apples. Then we drove home."), 2000, -1)
+            .getTranscript();
+
+        assertEquals("We went to the store and bought some fresh apples. Then we drove home.", transcript);
+    }
+
+    @Test
+    void alignmentToleratesGarbledBoundaryWords() {
+        String transcript = new TranscriptStitcher()
+            .append(new TranscriptionResult("we were discussing the quarterly results"), 0, -1)
+            .append(new TranscriptionResult("ly quartely results, which were strong"), -1, -1)
+            .getTranscript();
+
+        assertEquals("we were discussing the quarterly results, which were strong", transcript);
+    }
+
+    @Test
+    void cutsAtOverlapMidpointWithTimestamps() {
+        // Second chunk starts at 8000ms of the first; overlap 2000ms, cut at 9000ms / 1000ms
+        TranscriptionResult first = new TranscriptionResult("one two three four five", List.of(
+            new TimestampedWord("one", 0, 1000),
+            new TimestampedWord("two", 2000, 3000),
+            new TimestampedWord("three", 4000, 5000),
+            new TimestampedWord("four", 8000, 8600),
+            new TimestampedWord("five", 8700, 9500)));
+        TranscriptionResult second = new TranscriptionResult("for five, six", List.of(
+            new TimestampedWord("for", 0, 600),
+            new TimestampedWord("five", 700, 1500),
+            new TimestampedWord("six", 1600, 2000)));
+
+        String transcript = new TranscriptStitcher()
+            .append(first, 0, 10000)
+            .append(second, 2000, 4000)
+            .getTranscript();
+
+        assertEquals("one two three four five, six", transcript);
+    }
+
+    @Test
+    void joinsAsIsWithoutOverlapOrAcrossFailures() {
+        String noOverlap = new TranscriptStitcher()
+            .append(new TranscriptionResult("go go"), 0, -1)
+            .append(new TranscriptionResult("go go now"), 0, -1)
+            .getTranscript();
+        assertEquals("go go go go now", noOverlap);
+
+        String withFailure = new TranscriptStitcher()
+            .append(new TranscriptionResult("hello there general"), 0, -1)
+            .appendRaw("[TRANSCRIPTION FAILED FOR CHUNK 2] ")
+            .append(new TranscriptionResult("hello there general"), 2000, -1)
+            .getTranscript();
+        assertEquals("hello there general [TRANSCRIPTION FAILED FOR CHUNK 2] hello there general", withFailure);
+    }
+
+    @Test
+    void tokenMatchingAllowsOneEditOnLongerWords() {
+        assertTrue(TranscriptStitcher.tokensMatch("quarterly", "quartely"));
+        assertTrue(TranscriptStitcher.tokensMatch("colour", "color"));
+        assertFalse(TranscriptStitcher.tokensMatch("the", "tho"));
+        assertFalse(TranscriptStitcher.tokensMatch("house", "mouse1"));
+    }
+}
@@ -0,0 +1,120 @@
+package org.whisperdog.recording;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UploadPartEncoderTest {
+
+    private static final int SAMPLE_RATE = 16000;
+    private static final int BLOCK_MS = 100;
+    private static final long PART_LIMIT = 2 * 1024 * 1024;
+    private static final long SMALL_PART_LIMIT = 200 * 1024;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void splitsIntoPartsUnderTheLimitAtQuietWindows() {
+        File wav = tempDir.resolve("whisperdog_mic_test.wav").toFile();
+        UploadPartEncoder encoder = new UploadPartEncoder(wav, SAMPLE_RATE, 1, 0.01f, PART_LIMIT);
+        int blocks = feed(encoder, 2400, 1, 0);  // Four minutes: 4s speech, 1s pause
+
+        List<UploadPartEncoder.Part> parts = encoder.getParts();
+        assertNotNull(parts);
+        assertTrue(parts.size() > 1, "Expected several parts, got " + parts.size());
+        long expectedStart = 0;
+        for (UploadPartEncoder.Part part : parts) {
+            assertTrue(part.file.length() < PART_LIMIT, part.file.getName() + " is " + part.file.length() + " bytes");
+            assertEquals(expectedStart, part.startMs);
+            expectedStart += part.durationMs;
+        }
+        assertEquals(blocks * BLOCK_MS, expectedStart);
+        for (int i = 0; i < parts.size() - 1; i++) {
+            // Cuts fall in the pauses, which start 4s into every 5s
+            long cutMs = parts.get(i + 1).startMs;
+            assertTrue(cutMs % 5000 >= 4000, "Cut at " + cutMs + "ms is not in a pause");
+        }
+        assertEquals("whisperdog_mic_test_part1.flac", parts.get(0).file.getName());
+
+        encoder.discard();
+        for (UploadPartEncoder.Part part : parts) {
+            assertFalse(part.file.exists());
+        }
+    }
+
+    @Test
+    void cutsContinuousSpeechAtTheHardLimit() {
+        File wav = tempDir.resolve("whisperdog_merged_test.wav").toFile();
+        UploadPartEncoder encoder = new UploadPartEncoder(wav, 48000, 2, 0.01f, SMALL_PART_LIMIT);
+        feed(encoder, 300, 2, 48000);  // No pauses at all
+
+        List<UploadPartEncoder.Part> parts = encoder.getParts();
+        assertNotNull(parts);
+        assertTrue(parts.size() > 1);
+        for (UploadPartEncoder.Part part : parts) {
+            assertTrue(part.file.length() < SMALL_PART_LIMIT);
+        }
+        encoder.discard();
+    }
+
+    @Test
+    void discardBeforeEndDeletesThePartsOnceCaptureEnds() {
+        File wav = tempDir.resolve("whisperdog_mic_cancel.wav").toFile();
+        UploadPartEncoder encoder = new UploadPartEncoder(wav, SAMPLE_RATE, 1, 0.01f, PART_LIMIT);
+        byte[] block = speech(new Random(1), SAMPLE_RATE * BLOCK_MS / 1000, 1);
+        encoder.onFrames(block, 0, block.length, 0);
+        encoder.discard();
+        encoder.onEnd(block.length / 2);
+
+        assertEquals(0, tempDir.toFile().listFiles((dir, name) -> name.endsWith(".flac")).length);
+    }
+
+    @Test
+    void noPartsWithoutAudio() {
+        UploadPartEncoder encoder = new UploadPartEncoder(tempDir.resolve("empty.wav").toFile(),
+            SAMPLE_RATE, 1, 0.01f, PART_LIMIT);
+        encoder.onEnd(0);
+        assertNull(encoder.getParts());
+    }
+
+    /**
+     * Feeds {@code blocks} of 100ms: noisy speech, with a one-second pause every five seconds
+     * unless {@code continuousRate} is set, in which case that rate is used without pauses.
+     */
+    private static int feed(UploadPartEncoder encoder, int blocks, int channels, int continuousRate) {
+        Random random = new Random(42);
+        int rate = continuousRate > 0 ? continuousRate : SAMPLE_RATE;
+        int frames = rate * BLOCK_MS / 1000;
+        long frameOffset = 0;
+        for (int i = 0; i < blocks; i++) {
+            boolean pause = continuousRate == 0 && (i % 50) >= 40;
+            byte[] block = pause ? new byte[frames * 2 * channels] : speech(random, frames, channels);
+            encoder.onFrames(block, 0, block.length, frameOffset);
+            frameOffset += frames;
+        }
+        encoder.onEnd(frameOffset);
+        return blocks;
+    }
+
+    /** White noise compresses poorly, so parts fill up after a few seconds */
+    private static byte[] speech(Random random, int frames, int channels) {
+        byte[] pcm = new byte[frames * 2 * channels];
+        for (int i = 0; i < pcm.length; i += 2) {
+            int sample = (int) (random.nextGaussian() * 4000);
+            pcm[i] = (byte) sample;
+            pcm[i + 1] = (byte) (sample >> 8);
+        }
+        return pcm;
+    }
+}
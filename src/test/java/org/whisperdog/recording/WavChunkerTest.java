@@ -0,0 +1,146 @@
+package org.whisperdog.recording;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WavChunkerTest {
+
+    private static final int SAMPLE_RATE = 16000;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void splitsIntoOverlappingChunksWithIdenticalPcm() throws Exception {
+        byte[] pcm = rampPcm(25 * SAMPLE_RATE);
+        File source = new File(tempDir.toFile(), "source.wav");
+        try (IncrementalWavWriter writer = new IncrementalWavWriter(source, SAMPLE_RATE, 16, 1)) {
+            writer.write(pcm, 0, pcm.length);
+        }
+
+        WavChunker.ChunkResult result = WavChunker.splitWavFile(source, 10);
+        try {
+            assertTrue(result.success, result.errorMessage);
+            assertEquals(3, result.totalChunks);
+            assertEquals(25, result.totalDurationSeconds);
+
+            int overlapBytes = WavChunker.CHUNK_OVERLAP_SECONDS * SAMPLE_RATE * 2;
+            int chunkBytes = 10 * SAMPLE_RATE * 2;
+            assertArrayEquals(Arrays.copyOfRange(pcm, 0, chunkBytes), readPcm(result.chunks.get(0)));
+            assertArrayEquals(Arrays.copyOfRange(pcm, chunkBytes - overlapBytes, 2 * chunkBytes),
+                readPcm(result.chunks.get(1)));
+            assertArrayEquals(Arrays.copyOfRange(pcm, 2 * chunkBytes - overlapBytes, pcm.length),
+                readPcm(result.chunks.get(2)));
+        } finally {
+            WavChunker.cleanupChunks(result.chunks);
+        }
+    }
+
+    @Test
+    void virtualChunksStreamSameBytesAsChunkFiles() throws Exception {
+        byte[] pcm = rampPcm(25 * SAMPLE_RATE);
+        File source = new File(tempDir.toFile(), "virtual.wav");
+        try (IncrementalWavWriter writer = new IncrementalWavWriter(source, SAMPLE_RATE, 16, 1)) {
+            writer.write(pcm, 0, pcm.length);
+        }
+
+        List<WavChunk> virtualChunks = WavChunker.createVirtualChunks(source, 10);
+        WavChunker.ChunkResult files = WavChunker.splitWavFile(source, 10);
+        try {
+            assertEquals(files.totalChunks, virtualChunks.size());
+            for (int i = 0; i < virtualChunks.size(); i++) {
+                WavChunk chunk = virtualChunks.get(i);
+                ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+                chunk.writeTo(streamed);
+
+                assertTrue(chunk.isVirtual());
+                assertNull(chunk.getFile());
+                assertEquals(String.format("chunk_%02d_virtual.wav", i + 1), chunk.getName());
+                assertEquals(chunk.getLength(), streamed.size());
+                assertArrayEquals(Files.readAllBytes(files.chunks.get(i).toPath()), streamed.toByteArray());
+            }
+        } finally {
+            WavChunker.cleanupChunks(files.chunks);
+        }
+    }
+
+    @Test
+    void cutsInSilenceWithoutOverlap() throws Exception {
+        // 9s tone, 1s silence, 15s tone: the first cut lands in the gap, the second has none
+        byte[] pcm = new byte[25 * SAMPLE_RATE * 2];
+        byte[] tone = tonePcm(25 * SAMPLE_RATE);
+        System.arraycopy(tone, 0, pcm, 0, 9 * SAMPLE_RATE * 2);
+        System.arraycopy(tone, 10 * SAMPLE_RATE * 2, pcm, 10 * SAMPLE_RATE * 2, 15 * SAMPLE_RATE * 2);
+        File source = new File(tempDir.toFile(), "gap.wav");
+        try (IncrementalWavWriter writer = new IncrementalWavWriter(source, SAMPLE_RATE, 16, 1)) {
+            writer.write(pcm, 0, pcm.length);
+        }
+
+        List<WavChunk> chunks = WavChunker.createVirtualChunks(source, 10);
+
+        assertEquals(3, chunks.size());
+        assertEquals(0, chunks.get(0).getLeadingOverlapMs());
+        assertEquals(9500, chunks.get(0).getDurationMs());
+        assertEquals(0, chunks.get(1).getLeadingOverlapMs());
+        assertEquals(10000, chunks.get(1).getDurationMs());
+        assertEquals(WavChunker.CHUNK_OVERLAP_SECONDS * 1000L, chunks.get(2).getLeadingOverlapMs());
+
+        ByteArrayOutputStream second = new ByteArrayOutputStream();
+        chunks.get(1).writeTo(second);
+        byte[] secondPcm = Arrays.copyOfRange(second.toByteArray(), WavHeader.CANONICAL_HEADER_SIZE, second.size());
+        // Second chunk runs from the middle of the gap (9.5s) to the fixed cut at 19.5s
+        int secondStart = 19 * SAMPLE_RATE;
+        assertArrayEquals(Arrays.copyOfRange(pcm, secondStart, secondStart + 10 * SAMPLE_RATE * 2), secondPcm);
+    }
+
+    @Test
+    void failsForNonWavInput() throws Exception {
+        File bogus = new File(tempDir.toFile(), "bogus.wav");
+        Files.write(bogus.toPath(), new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12});
+
+        WavChunker.ChunkResult result = WavChunker.splitWavFile(bogus, 10);
+
+        assertEquals(false, result.success);
+        assertEquals(0, result.totalChunks);
+    }
+
+    private static byte[] readPcm(File file) throws Exception {
+        try (AudioInputStream stream = AudioSystem.getAudioInputStream(file)) {
+            return stream.readAllBytes();
+        }
+    }
+
+    private static byte[] tonePcm(int samples) {
+        byte[] data = new byte[samples * 2];
+        for (int i = 0; i < samples; i++) {
+            short sample = (short) (Math.sin(2.0 * Math.PI * 440.0 * i / SAMPLE_RATE) * 8000);
+            data[2 * i] = (byte) sample;
+            data[2 * i + 1] = (byte) (sample >> 8);
+        }
+        return data;
+    }
+
+    private static byte[] rampPcm(int samples) {
+        byte[] data = new byte[samples * 2];
+        for (int i = 0; i < samples; i++) {
+            short sample = (short) i;
+            data[2 * i] = (byte) sample;
+            data[2 * i + 1] = (byte) (sample >> 8);
+        }
+        return data;
+    }
+}
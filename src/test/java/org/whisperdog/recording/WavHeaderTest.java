@@ -0,0 +1,75 @@
+package org.whisperdog.recording;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WavHeaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void readsCanonicalHeader() throws Exception {
+        File file = new File(tempDir.toFile(), "canonical.wav");
+        try (IncrementalWavWriter writer = new IncrementalWavWriter(file, 16000, 16, 1)) {
+            writer.write(new byte[3200], 0, 3200);
+        }
+
+        WavHeader header = WavHeader.read(file);
+
+        assertTrue(header.isPcm());
+        assertEquals(16000, header.sampleRate);
+        assertEquals(1, header.channels);
+        assertEquals(16, header.bitsPerSample);
+        assertEquals(44, header.dataOffset);
+        assertEquals(3200, header.dataLength);
+        assertEquals(1600, header.getTotalFrames());
+    }
+
+    @Test
+    void skipsExtraChunksAndRecoversUnfinalizedDataSize() throws Exception {
+        byte[] canonical = WavHeader.createHeader(22050, 16, 2, 0);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(canonical, 0, 36);                      // RIFF + fmt
+        out.write(new byte[]{'L', 'I', 'S', 'T', 3, 0, 0, 0, 'a', 'b', 'c', 0});  // odd size + pad byte
+        out.write(canonical, 36, 8);                      // data chunk with size 0
+        out.write(new byte[4 * 100 + 2]);                 // 100 frames plus a partial frame
+        File file = new File(tempDir.toFile(), "crashed.wav");
+        Files.write(file.toPath(), out.toByteArray());
+
+        WavHeader header = WavHeader.read(file);
+
+        assertEquals(22050, header.sampleRate);
+        assertEquals(2, header.channels);
+        assertEquals(56, header.dataOffset);
+        assertEquals(400, header.dataLength);
+    }
+
+    @Test
+    void writesUnsignedSizesUpToFourGigabytes() {
+        ByteBuffer header = ByteBuffer.wrap(WavHeader.createHeader(16000, 16, 1, WavHeader.MAX_DATA_SIZE - 36))
+            .order(ByteOrder.LITTLE_ENDIAN);
+
+        assertEquals(WavHeader.MAX_DATA_SIZE, Integer.toUnsignedLong(header.getInt(4)));
+        assertEquals(WavHeader.MAX_DATA_SIZE - 36, Integer.toUnsignedLong(header.getInt(40)));
+    }
+
+    @Test
+    void rejectsNonRiffFiles() throws Exception {
+        File file = new File(tempDir.toFile(), "bogus.wav");
+        Files.write(file.toPath(), new byte[64]);
+
+        assertThrows(java.io.IOException.class, () -> WavHeader.read(file));
+    }
+}
@@ -0,0 +1,102 @@
+package org.whisperdog.recording.clients;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.whisperdog.audio.SourceActivityTracker.TimestampedWord;
+import org.whisperdog.recording.TranscriptionResult;
+import org.whisperdog.recording.WavChunk;
+import org.whisperdog.recording.WavHeader;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TranscriptionCacheTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void storedTranscriptIsReadBackWithWordTimestamps() {
+        TranscriptionCache cache = new TranscriptionCache(dir.resolve("cache").toFile(), 1024 * 1024);
+        cache.put("a", new TranscriptionResult("hello world", List.of(
+            new TimestampedWord("hello", 0, 1229),
+            new TimestampedWord("world", 1229, 2007))));
+
+        TranscriptionResult cached = cache.get("a");
+        assertNotNull(cached);
+        assertEquals("hello world", cached.getText());
+        assertEquals(2, cached.getWords().size());
+        assertEquals(1229, cached.getWords().get(0).endMs);
+        assertEquals(2007, cached.getWords().get(1).endMs);
+        assertNull(cache.get("b"));
+    }
+
+    @Test
+    void blankTranscriptsAreNotStored() {
+        TranscriptionCache cache = new TranscriptionCache(dir.resolve("cache").toFile(), 1024 * 1024);
+        cache.put("empty", new TranscriptionResult(""));
+        cache.put("blank", new TranscriptionResult("  \n"));
+
+        assertNull(cache.get("empty"));
+        assertNull(cache.get("blank"));
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    void keyDependsOnSamplesAndRequestOnly() throws IOException {
+        TranscriptionCache cache = new TranscriptionCache(dir.resolve("cache").toFile(), 1024 * 1024);
+        byte[] pcm = new byte[3200];
+        for (int i = 0; i < pcm.length; i++) {
+            pcm[i] = (byte) (i * 31);
+        }
+        File recording = writeWav(dir.resolve("recording.wav"), pcm);
+        File copy = writeWav(dir.resolve("copy.wav"), pcm);
+        WavHeader header = WavHeader.read(recording);
+        WavChunk wholeRange = WavChunk.ofRange(recording, header, header.dataOffset, header.dataLength, "chunk_1.wav", 0);
+
+        String key = cache.keyFor(WavChunk.ofFile(recording), "OpenAI", "whisper-1", "", "json");
+        assertEquals(key, cache.keyFor(WavChunk.ofFile(copy), "OpenAI", "whisper-1", "", "json"));
+        assertEquals(key, cache.keyFor(wholeRange, "OpenAI", "whisper-1", "", "json"));
+        assertNotEquals(key, cache.keyFor(WavChunk.ofFile(recording), "OpenAI", "whisper-1", "", "verbose_json"));
+
+        pcm[100]++;
+        File changed = writeWav(dir.resolve("changed.wav"), pcm);
+        assertNotEquals(key, cache.keyFor(WavChunk.ofFile(changed), "OpenAI", "whisper-1", "", "json"));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntries() {
+        File cacheDir = dir.resolve("cache").toFile();
+        TranscriptionCache probe = new TranscriptionCache(cacheDir, Long.MAX_VALUE);
+        probe.put("probe", new TranscriptionResult("first"));
+        long entrySize = probe.getSize();
+        new File(cacheDir, "probe.json").delete();
+
+        TranscriptionCache cache = new TranscriptionCache(cacheDir, 2 * entrySize);
+        cache.put("first", new TranscriptionResult("first"));
+        cache.put("other", new TranscriptionResult("other"));
+        assertNotNull(cache.get("first"));
+        cache.put("third", new TranscriptionResult("third"));
+
+        assertNotNull(cache.get("first"));
+        assertNull(cache.get("other"));
+        assertNotNull(cache.get("third"));
+        assertEquals(2 * entrySize, cache.getSize());
+    }
+
+    private static File writeWav(Path path, byte[] pcm) throws IOException {
+        byte[] header = WavHeader.createHeader(16000, 16, 1, pcm.length);
+        byte[] wav = new byte[header.length + pcm.length];
+        System.arraycopy(header, 0, wav, 0, header.length);
+        System.arraycopy(pcm, 0, wav, header.length, pcm.length);
+        return Files.write(path, wav).toFile();
+    }
+}
@@ -0,0 +1,63 @@
+package org.whisperdog.recording.clients;
+
+import org.apache.http.client.methods.HttpPost;
+import org.junit.jupiter.api.Test;
+import org.whisperdog.recording.TranscriptionResult;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TranscriptionCallTest {
+
+    @Test
+    void completesWithTheResultOfTheBody() throws Exception {
+        TranscriptionCall call = TranscriptionCall.start(c -> new TranscriptionResult("done"));
+        assertEquals("done", call.get(5, TimeUnit.SECONDS).getText());
+    }
+
+    @Test
+    void cancelAbortsTheAttachedRequest() throws Exception {
+        HttpPost request = new HttpPost("http://localhost/v1/audio/transcriptions");
+        CountDownLatch attached = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TranscriptionCall call = TranscriptionCall.start(c -> {
+            TranscriptionCall.attach(c, request);
+            attached.countDown();
+            release.await();
+            return new TranscriptionResult("too late");
+        });
+
+        assertTrue(attached.await(5, TimeUnit.SECONDS));
+        assertTrue(call.cancel(true));
+        assertTrue(request.isAborted());
+        release.countDown();
+        assertThrows(CancellationException.class, call::join);
+    }
+
+    @Test
+    void requestAttachedAfterCancelIsAbortedRightAway() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        HttpPost request = new HttpPost("http://localhost/v1/audio/transcriptions");
+        TranscriptionCall call = TranscriptionCall.start(c -> {
+            running.countDown();
+            cancelled.await();
+            TranscriptionCall.attach(c, request);
+            return null;
+        });
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        call.cancel(true);
+        cancelled.countDown();
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!request.isAborted() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(request.isAborted());
+    }
+}
@@ -0,0 +1,61 @@
+package org.whisperdog.recording.clients;
+
+import org.junit.jupiter.api.Test;
+import org.whisperdog.audio.SourceActivityTracker.TimestampedWord;
+import org.whisperdog.recording.TranscriptionResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TranscriptionResponseParserTest {
+
+    @Test
+    void readsTextAndWordsAndSkipsTheRest() throws Exception {
+        TranscriptionResult result = parse("{\"task\":\"transcribe\",\"duration\":2.5,"
+            + "\"segments\":[{\"id\":0,\"text\":\"ignored\",\"tokens\":[1,2,3]}],"
+            + "\"words\":[{\"word\":\"Hello\",\"start\":0.0,\"end\":0.42},"
+            + "{\"word\":\"world\",\"start\":0.5,\"end\":1.25,\"probability\":{\"p\":0.9}}],"
+            + "\"text\":\"Hello world\"}");
+
+        assertEquals("Hello world", result.getText());
+        assertTrue(result.hasWordTimestamps());
+        List<TimestampedWord> words = result.getWords();
+        assertEquals(2, words.size());
+        assertEquals("Hello", words.get(0).text);
+        assertEquals(420, words.get(0).endMs);
+        assertEquals("world", words.get(1).text);
+        assertEquals(500, words.get(1).startMs);
+        assertEquals(1250, words.get(1).endMs);
+    }
+
+    @Test
+    void acceptsBareStringsAndMissingFields() throws Exception {
+        assertEquals("plain", parse("\"plain\"").getText());
+
+        TranscriptionResult noWords = parse("{\"text\":\"only text\",\"words\":null}");
+        assertEquals("only text", noWords.getText());
+        assertFalse(noWords.hasWordTimestamps());
+
+        assertEquals("", parse("{\"language\":\"en\"}").getText());
+        assertEquals("", parse("{\"text\":null}").getText());
+    }
+
+    @Test
+    void rejectsEmptyAndTruncatedBodies() {
+        assertThrows(IOException.class, () -> parse(""));
+        assertThrows(IOException.class, () -> parse("{\"text\":\"cut off\",\"words\":[{\"word\":"));
+    }
+
+    private static TranscriptionResult parse(String json) throws IOException {
+        InputStream body = new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+        return TranscriptionResponseParser.parse(body);
+    }
+}
@@ -0,0 +1,88 @@
+package org.whisperdog.tasks;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaskSchedulerTest {
+
+    private final TaskScheduler scheduler = new TaskScheduler(false);
+
+    @AfterEach
+    void shutDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void runsTaskOnThreadNamedAfterIt() throws Exception {
+        Future<String> name = scheduler.submit(TaskType.UI, "Finish sound", () -> Thread.currentThread().getName());
+        assertEquals("UI: Finish sound", name.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void rejectsTasksOnceTheQueueIsFull() throws Exception {
+        TaskType type = TaskType.RECORDING;
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(type.getMaxConcurrent());
+        for (int i = 0; i < type.getMaxConcurrent(); i++) {
+            scheduler.execute(type, "busy " + i, () -> {
+                running.countDown();
+                awaitQuietly(release);
+            });
+        }
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < type.getQueueCapacity(); i++) {
+            scheduler.execute(type, "queued " + i, () -> { });
+        }
+        assertEquals(type.getQueueCapacity(), scheduler.getQueuedCount(type));
+
+        assertThrows(RejectedExecutionException.class, () -> scheduler.execute(type, "one too many", () -> { }));
+        release.countDown();
+    }
+
+    @Test
+    void cancelInterruptsRunningTask() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Future<?> future = scheduler.submit(TaskType.NETWORK, "upload", () -> {
+            started.countDown();
+            try {
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        });
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        future.cancel(true);
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void recordingTasksNeverRunOnVirtualThreads() {
+        TaskScheduler preferringVirtual = new TaskScheduler(true);
+        try {
+            assertFalse(preferringVirtual.usesVirtualThreads(TaskType.RECORDING));
+            assertEquals(preferringVirtual.usesVirtualThreads(), preferringVirtual.usesVirtualThreads(TaskType.NETWORK));
+        } finally {
+            preferringVirtual.shutdownNow();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}